@@ -0,0 +1,169 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.model.LineRange;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic inputs for the benchmarks: synthetic parse results, patches and line ranges
+ * generated from a fixed seed, and recorded files from src/jmh/resources/recorded.
+ */
+public final class BenchmarkInputs {
+
+    public static final long SEED = 42;
+
+    private static final String PACKAGE = "com.example.app";
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Parse results of {@code classes} classes with {@code methodsPerClass} methods each. Every
+     * method calls {@code fanOut} methods whose targets are skewed towards low class numbers,
+     * so a few classes act as widely used helpers (power-law fan-in).
+     */
+    public static List<ParsedDependencyNode> parsedNodes(int classes, int methodsPerClass, int fanOut) {
+        Random random = new Random(SEED);
+        List<ParsedDependencyNode> nodes = new ArrayList<>(classes);
+        for (int c = 0; c < classes; c++) {
+            ParsedDependencyNode node = new ParsedDependencyNode();
+            node.setName(className(c));
+            node.setType("class");
+            node.setAnnotations(c % 10 == 0 ? List.of("Service") : List.of());
+            node.setInjectedDependencies(c > 0 ? List.of(className(skewed(random, c))) : List.of());
+            List<ParsedMethodNode> methods = new ArrayList<>(methodsPerClass);
+            for (int m = 0; m < methodsPerClass; m++) {
+                List<String> calls = new ArrayList<>(fanOut);
+                for (int f = 0; f < fanOut; f++) {
+                    calls.add(className(skewed(random, classes)) + ".method" + random.nextInt(methodsPerClass));
+                }
+                ParsedMethodNode method = new ParsedMethodNode();
+                method.setMethodName("method" + m);
+                method.setClassName(className(c));
+                method.setCalledMethods(calls);
+                method.setAnnotations(m % 7 == 0 ? List.of("Transactional") : List.of());
+                method.setStartLine(10 + m * 12);
+                method.setEndLine(10 + m * 12 + 10);
+                methods.add(method);
+            }
+            node.setMethods(methods);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    public static String className(int index) {
+        return PACKAGE + ".pkg" + (index % 50) + ".Class" + index;
+    }
+
+    /** Ids of {@code count} methods of a graph built from {@link #parsedNodes}, spread over the classes. */
+    public static List<String> changedMethodIds(int classes, int methodsPerClass, int count) {
+        Random random = new Random(SEED + 1);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(className(random.nextInt(classes)) + ".method" + random.nextInt(methodsPerClass));
+        }
+        return ids;
+    }
+
+    /**
+     * Unified diff hunks of a Java file totalling about {@code lines} lines, mixing context,
+     * modified, added, removed and comment lines.
+     */
+    public static String patch(int lines) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder(lines * 40);
+        int oldLine = 1;
+        int newLine = 1;
+        int written = 0;
+        while (written < lines) {
+            int context = 3;
+            int removed = random.nextInt(4);
+            int added = random.nextInt(6);
+            int gap = random.nextInt(20);
+            oldLine += gap;
+            newLine += gap;
+            sb.append("@@ -").append(oldLine).append(',').append(2 * context + removed)
+                    .append(" +").append(newLine).append(',').append(2 * context + added).append(" @@\n");
+            for (int i = 0; i < context; i++) {
+                sb.append("         int value").append(written + i).append(" = compute(").append(i).append(");\n");
+            }
+            for (int i = 0; i < removed; i++) {
+                sb.append("-        service.update(order, ").append(random.nextInt(100)).append(");\n");
+            }
+            for (int i = 0; i < added; i++) {
+                if (random.nextInt(4) == 0) {
+                    sb.append("+        // recompute the totals before saving\n");
+                } else {
+                    sb.append("+        service.update(order, ").append(random.nextInt(100)).append(");\n");
+                }
+            }
+            for (int i = 0; i < context; i++) {
+                sb.append("         return result").append(i).append(";\n");
+            }
+            written += 2 * context + removed + added;
+            oldLine += 2 * context + removed;
+            newLine += 2 * context + added;
+        }
+        return sb.toString();
+    }
+
+    /** {@code count} methods of a file laid out one after another, a nested method every tenth one. */
+    public static List<ParsedMethodNode> fileMethods(int count) {
+        List<ParsedMethodNode> methods = new ArrayList<>(count);
+        int line = 5;
+        for (int i = 0; i < count; i++) {
+            ParsedMethodNode method = new ParsedMethodNode();
+            method.setMethodName("method" + i);
+            method.setStartLine(line);
+            method.setEndLine(line + 14);
+            methods.add(method);
+            if (i % 10 == 0) {
+                ParsedMethodNode nested = new ParsedMethodNode();
+                nested.setMethodName("method" + i + "$run");
+                nested.setStartLine(line + 3);
+                nested.setEndLine(line + 6);
+                methods.add(nested);
+            }
+            line += 16;
+        }
+        return methods;
+    }
+
+    /** {@code count} short changed ranges spread over {@code lines} lines. */
+    public static List<LineRange> changedRanges(int count, int lines) {
+        Random random = new Random(SEED);
+        List<LineRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = 1 + random.nextInt(Math.max(1, lines));
+            ranges.add(new LineRange(start, start + random.nextInt(4)));
+        }
+        return ranges;
+    }
+
+    /** A recorded input from src/jmh/resources/recorded. */
+    public static String recorded(String name) {
+        try (InputStream in = BenchmarkInputs.class.getResourceAsStream("/recorded/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No recorded input " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Index below {@code bound}, heavily skewed towards 0. */
+    private static int skewed(Random random, int bound) {
+        double u = random.nextDouble();
+        return (int) (bound * u * u * u);
+    }
+}
@@ -0,0 +1,48 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphBuildSession;
+import com.impactai.impactai.graph.GraphMetrics;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code GraphBuilderService.build} does for a full scan: insert synthetic parse results
+ * into a fresh graph, resolve deferred edges, then compute the graph metrics and condensation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphBuildBenchmark {
+
+    @Param({"1000", "10000"})
+    public int classes;
+
+    @Param({"10"})
+    public int methodsPerClass;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    private List<ParsedDependencyNode> parsedNodes;
+
+    @Setup
+    public void setUp() {
+        parsedNodes = BenchmarkInputs.parsedNodes(classes, methodsPerClass, fanOut);
+    }
+
+    @Benchmark
+    public DependencyGraph build() {
+        GraphBuildSession session = GraphBuildSession.build(new DependencyGraph());
+        session.accept(parsedNodes);
+        return session.finish();
+    }
+
+    @Benchmark
+    public GraphMetrics buildWithMetrics() {
+        return build().getMetrics();
+    }
+}
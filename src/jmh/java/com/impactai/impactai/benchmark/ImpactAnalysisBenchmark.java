@@ -0,0 +1,61 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphBuildSession;
+import com.impactai.impactai.service.ImpactAnalysisService;
+import com.impactai.impactai.service.ImpactAnalysisService.ImpactReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Impact traversal of {@code analyzeImpact} over a synthetic graph, with a cold reach cache
+ * (cleared before every call) and a warm one. The service is used outside Spring, so its
+ * traversal budgets are unlimited and traversal is sequential.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImpactAnalysisBenchmark {
+
+    @Param({"1000", "10000"})
+    public int classes;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    @Param({"1", "100"})
+    public int changedNodes;
+
+    @Param({"cold", "warm"})
+    public String cache;
+
+    private static final int METHODS_PER_CLASS = 10;
+
+    private DependencyGraph graph;
+    private List<String> changedIds;
+    private final ImpactAnalysisService service = new ImpactAnalysisService();
+
+    @Setup
+    public void setUp() {
+        graph = new DependencyGraph();
+        GraphBuildSession session = GraphBuildSession.build(graph);
+        session.accept(BenchmarkInputs.parsedNodes(classes, METHODS_PER_CLASS, fanOut));
+        session.finish();
+        graph.getMetrics();
+        changedIds = BenchmarkInputs.changedMethodIds(classes, METHODS_PER_CLASS, changedNodes);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCache() {
+        if (cache.equals("cold")) {
+            graph.getReachCache().clear();
+        }
+    }
+
+    @Benchmark
+    public ImpactReport analyzeImpact() {
+        return service.analyzeImpact(graph, changedIds);
+    }
+}
@@ -0,0 +1,61 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.model.LineRange;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import com.impactai.impactai.parser.java.FastJavaParserImpl;
+import com.impactai.impactai.util.DiffScanner;
+import com.impactai.impactai.util.MethodModificationDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping changed line ranges to the methods of a file, for synthetic files of growing size
+ * and the recorded file with its recorded patch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MethodModificationBenchmark {
+
+    /**
+     * "synthetic-M-R" for a generated file of M methods with R changed ranges, "recorded" for a
+     * file from this repo's history with its recorded patch.
+     */
+    @Param({"synthetic-50-10", "synthetic-50-200", "synthetic-500-10", "synthetic-500-200",
+            "synthetic-5000-10", "synthetic-5000-200", "recorded"})
+    public String fileInput;
+
+    private List<ParsedMethodNode> fileMethods;
+    private List<LineRange> changed;
+    private List<LineRange> removed;
+
+    @Setup
+    public void setUp() {
+        if (fileInput.equals("recorded")) {
+            byte[] source = BenchmarkInputs.recorded("WebhookProcessingService.java").getBytes(StandardCharsets.UTF_8);
+            fileMethods = new ArrayList<>();
+            new FastJavaParserImpl().parseSource(source).getNodes()
+                    .forEach(node -> fileMethods.addAll(node.getMethods()));
+            // old-file ranges, as GraphUtils passes them for the base version of the file
+            DiffScanner.Result diff = DiffScanner.scan(BenchmarkInputs.recorded("WebhookProcessingService.patch"));
+            changed = diff.getInsertedRanges();
+            removed = diff.getRemovedRanges();
+        } else {
+            String[] shape = fileInput.substring("synthetic-".length()).split("-");
+            int methods = Integer.parseInt(shape[0]);
+            int changedRanges = Integer.parseInt(shape[1]);
+            fileMethods = BenchmarkInputs.fileMethods(methods);
+            changed = BenchmarkInputs.changedRanges(changedRanges, methods * 16);
+            removed = BenchmarkInputs.changedRanges(changedRanges / 4, methods * 16);
+        }
+    }
+
+    @Benchmark
+    public List<ParsedMethodNode> findModifiedMethods() {
+        return MethodModificationDetector.findModifiedMethods(fileMethods, changed, removed);
+    }
+}
@@ -0,0 +1,49 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.model.LineRange;
+import com.impactai.impactai.model.PRChangeInfo.ChangeKind;
+import com.impactai.impactai.util.ChangeClassifier;
+import com.impactai.impactai.util.DiffScanner;
+import com.impactai.impactai.util.PatchParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patch handling of the webhook's first step: scanning, changed line ranges and change
+ * classification, over synthetic patches of growing size and a recorded one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PatchBenchmark {
+
+    /** "synthetic-N" for a generated patch of about N lines, "recorded" for a patch from this repo's history. */
+    @Param({"synthetic-200", "synthetic-5000", "synthetic-50000", "recorded"})
+    public String patchInput;
+
+    private String patch;
+
+    @Setup
+    public void setUp() {
+        patch = patchInput.equals("recorded")
+                ? BenchmarkInputs.recorded("WebhookProcessingService.patch")
+                : BenchmarkInputs.patch(Integer.parseInt(patchInput.substring("synthetic-".length())));
+    }
+
+    @Benchmark
+    public DiffScanner.Result scan() {
+        return DiffScanner.scan(patch);
+    }
+
+    @Benchmark
+    public List<LineRange> extractChangedLineRanges() {
+        return PatchParser.extractChangedLineRanges(patch);
+    }
+
+    @Benchmark
+    public ChangeKind classify() {
+        return ChangeClassifier.classify("src/main/java/App.java", patch);
+    }
+}
@@ -0,0 +1,58 @@
+package com.impactai.impactai.benchmark;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphBuildSession;
+import com.impactai.impactai.parser.java.FastJavaParserImpl;
+import com.impactai.impactai.synthetic.SyntheticRepoGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What {@code RepoParserService.parseFullRepo} feeding {@code GraphBuilderService.build} does
+ * for a full scan with the fast parser: read and parse every file of a generated repository
+ * and insert the results into a fresh graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RepoScanBenchmark {
+
+    @Param({"1000", "10000"})
+    public int classes;
+
+    private final FastJavaParserImpl parser = new FastJavaParserImpl();
+    private Path root;
+    private List<String> files;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("synthetic-repo");
+        new SyntheticRepoGenerator(new SyntheticRepoGenerator.Config().classes(classes)).writeRepo(root);
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(p -> p.toString().endsWith(".java")).map(Path::toString).sorted().toList();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public DependencyGraph scan() {
+        GraphBuildSession session = GraphBuildSession.build(new DependencyGraph());
+        for (String file : files) {
+            session.accept(parser.parseFile(file));
+        }
+        return session.finish();
+    }
+}
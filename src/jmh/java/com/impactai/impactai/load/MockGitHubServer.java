@@ -0,0 +1,190 @@
+package com.impactai.impactai.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the parts of GitHub the webhook pipeline talks to, serving one repository
+ * from a generated or recorded tree:
+ * <ul>
+ *   <li>{@code GET /repos/{o}/{r}/pulls/{n}/files} from {@code prs/{n}/files.json}</li>
+ *   <li>{@code GET /repos/{o}/{r}/contents/{path}?ref={sha}} from {@code prs/{n}/head/{path}} for
+ *       a registered head sha, else from the base tree</li>
+ *   <li>{@code POST /repos/{o}/{r}/statuses/{sha}} and {@code /issues/{n}/comments}, recorded</li>
+ *   <li>a bare git remote with the base tree on {@code main}, under {@link #getCloneUrl()}</li>
+ * </ul>
+ * Point {@code github.api-url} at {@link #getApiUrl()} and {@code github.clone-url} at
+ * {@link #getCloneUrl()}. An optional delay per API call approximates GitHub's latency.
+ */
+public class MockGitHubServer implements AutoCloseable {
+
+    public static final String DEFAULT_BRANCH = "main";
+
+    private static final Pattern FILES = Pattern.compile("/repos/[^/]+/[^/]+/pulls/(\\d+)/files");
+    private static final Pattern CONTENTS = Pattern.compile("/repos/[^/]+/[^/]+/contents/(.+)");
+    private static final Pattern STATUSES = Pattern.compile("/repos/[^/]+/[^/]+/statuses/([^/]+)");
+    private static final Pattern COMMENTS = Pattern.compile("/repos/[^/]+/[^/]+/issues/(\\d+)/comments");
+
+    private final Path repoDir;
+    private final Path prsDir;
+    private final long apiDelayMillis;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path remoteRoot;
+    private final Map<String, Integer> headShas = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger comments = new AtomicInteger();
+    private volatile BiConsumer<String, String> statusListener = (sha, state) -> { };
+
+    /**
+     * @param repoDir base tree of the repository
+     * @param prsDir directory with one {@code {n}/files.json} plus {@code {n}/head/} per PR
+     */
+    public MockGitHubServer(Path repoDir, Path prsDir, long apiDelayMillis, int threads) throws IOException {
+        this.repoDir = repoDir;
+        this.prsDir = prsDir;
+        this.apiDelayMillis = apiDelayMillis;
+        this.remoteRoot = Files.createTempDirectory("mock-github-remote");
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/repos/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Publish the base tree as {@code {cloneUrl}/{owner}/{repo}.git} on branch {@link #DEFAULT_BRANCH}. */
+    public void createRemote(String owner, String repo) throws IOException, GitAPIException {
+        Path work = Files.createTempDirectory("mock-github-work");
+        copyTree(repoDir, work);
+        try (Git git = Git.init().setDirectory(work.toFile()).setInitialBranch(DEFAULT_BRANCH).call()) {
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Base").setAuthor("load", "load@localhost")
+                    .setCommitter("load", "load@localhost").setSign(false).call();
+        }
+        Path bare = remoteRoot.resolve(owner).resolve(repo + ".git");
+        Git.cloneRepository().setURI(work.toUri().toString()).setDirectory(bare.toFile()).setBare(true).call().close();
+    }
+
+    /** Serve PR {@code pr}'s head files for {@code sha}. */
+    public void registerHead(String sha, int pr) {
+        headShas.put(sha, pr);
+    }
+
+    /** Called with (sha, state) for every status posted. */
+    public void setStatusListener(BiConsumer<String, String> statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    public String getApiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getCloneUrl() {
+        return remoteRoot.toUri().toString().replaceAll("/$", "");
+    }
+
+    public int getRequestCount() { return requests.get(); }
+
+    public int getCommentCount() { return comments.get(); }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (apiDelayMillis > 0) {
+                Thread.sleep(apiDelayMillis);
+            }
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Matcher m;
+            if (method.equals("GET") && (m = FILES.matcher(path)).matches()) {
+                Path files = prsDir.resolve(m.group(1)).resolve("files.json");
+                if (Files.exists(files)) {
+                    respond(exchange, 200, Files.readString(files));
+                } else {
+                    respond(exchange, 404, "{\"message\":\"Not Found\"}");
+                }
+            } else if (method.equals("GET") && (m = CONTENTS.matcher(path)).matches()) {
+                serveContent(exchange, m.group(1));
+            } else if (method.equals("POST") && (m = STATUSES.matcher(path)).matches()) {
+                JSONObject status = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                statusListener.accept(m.group(1), status.optString("state"));
+                respond(exchange, 201, status.toString());
+            } else if (method.equals("POST") && COMMENTS.matcher(path).matches()) {
+                exchange.getRequestBody().readAllBytes();
+                comments.incrementAndGet();
+                respond(exchange, 201, "{}");
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serveContent(HttpExchange exchange, String filePath) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String sha = query != null && query.startsWith("ref=") ? query.substring(4) : "";
+        Integer pr = headShas.get(sha);
+        Path file = pr != null ? prsDir.resolve(String.valueOf(pr)).resolve("head").resolve(filePath) : null;
+        if (file == null || !Files.exists(file)) {
+            file = repoDir.resolve(filePath);
+        }
+        if (filePath.contains("..") || !Files.exists(file)) {
+            respond(exchange, 404, "{\"message\":\"Not Found\"}");
+            return;
+        }
+        String content = Base64.getMimeEncoder().encodeToString(Files.readAllBytes(file));
+        respond(exchange, 200, new JSONObject().put("path", filePath).put("encoding", "base64")
+                .put("content", content).toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        try (var paths = Files.walk(from)) {
+            for (Path source : (Iterable<Path>) paths::iterator) {
+                Path target = to.resolve(from.relativize(source).toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(source, target);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
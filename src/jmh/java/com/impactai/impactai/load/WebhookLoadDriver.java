@@ -0,0 +1,368 @@
+package com.impactai.impactai.load;
+
+import com.impactai.impactai.ImpactAiApplication;
+import com.impactai.impactai.service.RepoMetadataService;
+import com.impactai.impactai.synthetic.SyntheticRepoGenerator;
+import org.json.JSONObject;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end webhook load run without GitHub: starts a {@link MockGitHubServer} for a synthetic
+ * (or recorded) repository, boots the application in-process against it, builds the baseline
+ * through a ping, then posts pull_request webhooks to {@code /api/webhook/pr} at a fixed rate.
+ *
+ * Each delivery gets its own head sha; its end-to-end latency runs from sending the webhook to
+ * the mock receiving the final (non-pending) commit status. While the run lasts the
+ * {@code webhookExecutor} pool is sampled for queue depth and active threads, and tasks its
+ * caller-runs policy pushed back onto the request threads are counted.
+ *
+ * Usage: {@code WebhookLoadDriver [--rate PER_S] [--count N] [--scale 1k|10k|100k | --classes N]
+ * [--prs N] [--repo DIR --pr-dir DIR] [--api-delay-ms MS] [--timeout-s S] [--jfr] [--spring.prop=value ...]}.
+ * {@code --repo}/{@code --pr-dir} replay a recorded tree in the generator's layout
+ * ({@code {n}/files.json}, {@code {n}/head/}, optional {@code {n}/payload.json} delivery).
+ * {@code --jfr} records the load phase through {@code /actuator/jfr}.
+ */
+public class WebhookLoadDriver {
+
+    private static final String OWNER = "load";
+    private static final String REPO = "synthetic";
+    private static final long SAMPLE_MILLIS = 50;
+    private static final Path REPORT_DIR = Path.of("build", "reports", "webhook-load");
+
+    private double rate = 5;
+    private int count = 100;
+    private long apiDelayMillis;
+    private long timeoutSeconds = 120;
+    private boolean jfr;
+    private Path repoDir;
+    private Path prDir;
+    private SyntheticRepoGenerator.Config synthetic = new SyntheticRepoGenerator.Config().prs(20);
+    private final List<String> springArgs = new ArrayList<>();
+
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> completedAt = new ConcurrentHashMap<>();
+    private final List<Long> responseNanos = new ArrayList<>();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private int peakQueue;
+    private int peakActive;
+    private long queueSum;
+    private long samples;
+
+    public static void main(String[] args) throws Exception {
+        // devtools would relaunch the application in a fresh class loader without our properties
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        WebhookLoadDriver driver = new WebhookLoadDriver();
+        driver.parseArgs(args);
+        driver.run();
+    }
+
+    private void parseArgs(String[] args) {
+        // the preset first, so --classes and --prs refine it wherever they appear
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--scale")) {
+                synthetic.scale(args[i + 1]);
+            }
+        }
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && arg.contains("=")) {
+                springArgs.add(arg);
+                continue;
+            }
+            if (arg.equals("--jfr")) {
+                jfr = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg + " in " + Arrays.toString(args));
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--count" -> count = Integer.parseInt(value);
+                case "--api-delay-ms" -> apiDelayMillis = Long.parseLong(value);
+                case "--timeout-s" -> timeoutSeconds = Long.parseLong(value);
+                case "--repo" -> repoDir = Path.of(value);
+                case "--pr-dir" -> prDir = Path.of(value);
+                case "--scale" -> { }
+                case "--classes" -> synthetic.classes(Integer.parseInt(value));
+                case "--prs" -> synthetic.prs(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown option " + arg + " in " + Arrays.toString(args));
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        if (repoDir == null || prDir == null) {
+            Path out = Files.createTempDirectory("webhook-load");
+            SyntheticRepoGenerator generator = new SyntheticRepoGenerator(synthetic);
+            generator.writeRepo(out.resolve("repo"));
+            for (int pr = 1; pr <= synthetic.getPrs(); pr++) {
+                generator.writePr(out.resolve("prs").resolve(String.valueOf(pr)), generator.pr(pr));
+            }
+            repoDir = out.resolve("repo");
+            prDir = out.resolve("prs");
+        }
+        List<Integer> prs = prNumbers(prDir);
+        if (prs.isEmpty()) {
+            throw new IllegalArgumentException("No {n}/files.json under " + prDir);
+        }
+
+        // same local path as WebhookController.cloneOrFetchRepo, so the run starts from a fresh clone
+        FileSystemUtils.deleteRecursively(new File(System.getProperty("java.io.tmpdir") + OWNER + "_" + REPO));
+
+        try (MockGitHubServer github = new MockGitHubServer(repoDir, prDir, apiDelayMillis, 16)) {
+            github.createRemote(OWNER, REPO);
+            github.setStatusListener((sha, state) -> {
+                if (!state.equals("pending")) {
+                    completedAt.putIfAbsent(sha, System.nanoTime());
+                }
+            });
+            github.start();
+
+            // as command line arguments, so they win over application.yml; later --x=y arguments win over these
+            List<String> args = new ArrayList<>(List.of("--server.port=0", "--github.token=load",
+                    "--github.api-url=" + github.getApiUrl(), "--github.clone-url=" + github.getCloneUrl(),
+                    "--logging.level.root=WARN", "--logging.level.com.impactai.impactai=WARN",
+                    "--logging.level.org.springframework.web=WARN",
+                    "--impactai.graph.export.dir=" + REPORT_DIR.resolve("graphs")));
+            args.addAll(springArgs);
+            ConfigurableApplicationContext context = SpringApplication.run(ImpactAiApplication.class,
+                    args.toArray(new String[0]));
+            try {
+                drive(context, github, prs);
+            } finally {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    private void drive(ConfigurableApplicationContext context, MockGitHubServer github, List<Integer> prs) throws Exception {
+        String url = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/webhook/pr";
+        ThreadPoolTaskExecutor webhookExecutor = context.getBean("webhookExecutor", ThreadPoolTaskExecutor.class);
+        ThreadPoolExecutor pool = webhookExecutor.getThreadPoolExecutor();
+        RejectedExecutionHandler rejected = pool.getRejectedExecutionHandler();
+        pool.setRejectedExecutionHandler((task, executor) -> {
+            callerRuns.incrementAndGet();
+            rejected.rejectedExecution(task, executor);
+        });
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+
+        // baseline
+        long baselineStart = System.nanoTime();
+        post(client, url, repository(new JSONObject().put("zen", "Keep it logically awesome.")
+                .put("hook", new JSONObject().put("type", "Repository"))).toString());
+        RepoMetadataService metadata = context.getBean(RepoMetadataService.class);
+        while (!metadata.isRepoFullyParsed(OWNER + "/" + REPO)) {
+            if (System.nanoTime() - baselineStart > TimeUnit.SECONDS.toNanos(timeoutSeconds)) {
+                throw new IllegalStateException("Baseline not built within " + timeoutSeconds + " s");
+            }
+            Thread.sleep(100);
+        }
+        System.out.printf("Baseline built in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - baselineStart));
+
+        String actuator = url.replace("/api/webhook/pr", "/actuator");
+        if (jfr) {
+            client.send(HttpRequest.newBuilder(URI.create(actuator + "/jfr")).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"settings\": \"profile\"}")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> sample(pool), 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        List<CompletableFuture<?>> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long due = start + i * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            int pr = prs.get(i % prs.size());
+            String sha = String.format("%040x", i + 1);
+            github.registerHead(sha, pr);
+            String payload = prPayload(pr, sha);
+            long sent = System.nanoTime();
+            sentAt.put(sha, sent);
+            responses.add(client.sendAsync(request(url, payload), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        synchronized (responseNanos) {
+                            responseNanos.add(System.nanoTime() - sent);
+                        }
+                        if (error == null && response.statusCode() == 200) {
+                            accepted.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }));
+        }
+        long sendEnd = System.nanoTime();
+        long deadline = sendEnd + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (completedAt.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        sampler.shutdownNow();
+        sampler.awaitTermination(1, TimeUnit.SECONDS);
+        for (var response : responses) {
+            response.exceptionally(e -> null).join();
+        }
+
+        report(start, sendEnd, webhookExecutor, pool, github);
+        saveScrape(client, actuator + "/prometheus");
+        if (jfr) {
+            Path file = REPORT_DIR.resolve("recording.jfr");
+            Files.createDirectories(REPORT_DIR);
+            client.send(HttpRequest.newBuilder(URI.create(actuator + "/jfr/dump")).build(),
+                    HttpResponse.BodyHandlers.ofFile(file));
+            System.out.printf("JFR recording: %s%n", file.toAbsolutePath());
+        }
+    }
+
+    /** Keep the run's Prometheus scrape, which has the per-stage timers of the pipeline. */
+    private static void saveScrape(HttpClient client, String url) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            System.out.printf("No Prometheus scrape (%d from %s)%n", response.statusCode(), url);
+            return;
+        }
+        Path file = REPORT_DIR.resolve("prometheus.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, response.body());
+        System.out.printf("Prometheus scrape: %s%n", file.toAbsolutePath());
+    }
+
+    private void sample(ThreadPoolExecutor pool) {
+        int queued = pool.getQueue().size();
+        peakQueue = Math.max(peakQueue, queued);
+        peakActive = Math.max(peakActive, pool.getActiveCount());
+        queueSum += queued;
+        samples++;
+    }
+
+    private void report(long start, long sendEnd, ThreadPoolTaskExecutor webhookExecutor, ThreadPoolExecutor pool,
+                        MockGitHubServer github) {
+        long[] latencies = sentAt.entrySet().stream()
+                .filter(e -> completedAt.containsKey(e.getKey()))
+                .mapToLong(e -> completedAt.get(e.getKey()) - e.getValue())
+                .sorted().toArray();
+        long lastCompletion = completedAt.values().stream().mapToLong(Long::longValue).max().orElse(sendEnd);
+        long[] response;
+        synchronized (responseNanos) {
+            response = responseNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        double sendSeconds = (sendEnd - start) / 1e9;
+        double runSeconds = (lastCompletion - start) / 1e9;
+
+        System.out.printf("Webhooks: %d sent in %.1f s (%.1f/s), %d accepted, %d failed; response p50 %d ms, p99 %d ms%n",
+                count, sendSeconds, count / Math.max(sendSeconds, 1e-9), accepted.get(), failed.get(),
+                millis(percentile(response, 0.50)), millis(percentile(response, 0.99)));
+        System.out.printf("Completed: %d with a final status, %d without one within %d s%n",
+                latencies.length, count - latencies.length, timeoutSeconds);
+        System.out.printf("Throughput: %.2f PRs/s over %.1f s%n", latencies.length / Math.max(runSeconds, 1e-9), runSeconds);
+        System.out.printf("End-to-end latency (webhook -> status): p50 %d ms, p99 %d ms, max %d ms%n",
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+        System.out.printf("webhookExecutor: core %d, max %d, queue capacity %d; peak queue %d, mean queue %.1f, "
+                        + "peak active %d, largest pool %d, caller-runs %d, completed tasks %d%n",
+                webhookExecutor.getCorePoolSize(), webhookExecutor.getMaxPoolSize(), webhookExecutor.getQueueCapacity(),
+                peakQueue, samples == 0 ? 0.0 : (double) queueSum / samples, peakActive, pool.getLargestPoolSize(),
+                callerRuns.get(), pool.getCompletedTaskCount());
+        System.out.printf("Mock GitHub: %d API requests, %d comments%n", github.getRequestCount(), github.getCommentCount());
+    }
+
+    /** Nearest-rank percentile of sorted values, 0 when empty. */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private String prPayload(int pr, String sha) throws Exception {
+        Path recorded = prDir.resolve(String.valueOf(pr)).resolve("payload.json");
+        JSONObject payload = Files.exists(recorded)
+                ? new JSONObject(Files.readString(recorded))
+                : new JSONObject().put("action", "synchronize").put("number", pr);
+        JSONObject pullRequest = payload.optJSONObject("pull_request");
+        if (pullRequest == null) {
+            pullRequest = new JSONObject().put("base", new JSONObject().put("ref", MockGitHubServer.DEFAULT_BRANCH));
+            payload.put("pull_request", pullRequest);
+        }
+        pullRequest.put("number", pr);
+        JSONObject head = pullRequest.optJSONObject("head");
+        if (head == null) {
+            head = new JSONObject().put("ref", "pr-" + pr);
+            pullRequest.put("head", head);
+        }
+        head.put("sha", sha);
+        return repository(payload).toString();
+    }
+
+    private static JSONObject repository(JSONObject payload) {
+        return payload.put("repository", new JSONObject()
+                .put("name", REPO)
+                .put("full_name", OWNER + "/" + REPO)
+                .put("default_branch", MockGitHubServer.DEFAULT_BRANCH)
+                .put("owner", new JSONObject().put("login", OWNER)));
+    }
+
+    private static void post(HttpClient client, String url, String payload) throws Exception {
+        HttpResponse<String> response = client.send(request(url, payload), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Webhook returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static HttpRequest request(String url, String payload) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+    }
+
+    private static List<Integer> prNumbers(Path prDir) throws Exception {
+        try (Stream<Path> dirs = Files.list(prDir)) {
+            return dirs.filter(dir -> Files.exists(dir.resolve("files.json")))
+                    .map(dir -> dir.getFileName().toString())
+                    .filter(name -> name.matches("\\d+"))
+                    .map(Integer::valueOf)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.impactai.impactai.synthetic;
+
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * A generated pull request: the files it modifies, each with its unified diff patch and head
+ * contents.
+ */
+public class SyntheticPr {
+
+    private final int number;
+    private final List<FileChange> files;
+
+    public SyntheticPr(int number, List<FileChange> files) {
+        this.number = number;
+        this.files = files;
+    }
+
+    public int getNumber() { return number; }
+
+    public List<FileChange> getFiles() { return files; }
+
+    public static class FileChange {
+        private final String path;
+        private final String className;
+        private final int additions;
+        private final int deletions;
+        private final String patch;
+        private final String headContent;
+
+        public FileChange(String path, String className, int additions, int deletions, String patch, String headContent) {
+            this.path = path;
+            this.className = className;
+            this.additions = additions;
+            this.deletions = deletions;
+            this.patch = patch;
+            this.headContent = headContent;
+        }
+
+        public String getPath() { return path; }
+        public String getClassName() { return className; }
+        public int getAdditions() { return additions; }
+        public int getDeletions() { return deletions; }
+        public String getPatch() { return patch; }
+        public String getHeadContent() { return headContent; }
+
+        /** Entry as returned by GitHub's {@code GET /repos/{owner}/{repo}/pulls/{n}/files}. */
+        public JSONObject toGitHubJson() {
+            return new JSONObject()
+                    .put("filename", path)
+                    .put("status", "modified")
+                    .put("additions", additions)
+                    .put("deletions", deletions)
+                    .put("changes", additions + deletions)
+                    .put("patch", patch);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.impactai.impactai.synthetic;
+
+import org.json.JSONArray;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic generator of synthetic Spring/Java source trees and matching PR patches.
+ *
+ * Every class gets injected fields of other classes, chosen with a power-law skew so a few
+ * classes are used almost everywhere, and its methods call methods through those fields and
+ * on the class itself. Class sources are a pure function of the config and the class index,
+ * so the base version of any file can be regenerated instead of stored. A PR edits a few
+ * methods of a few files (logic, comment-only or whitespace edits) and comes with GitHub-style
+ * file entries (filename, status, counts, patch) plus the head contents.
+ *
+ * Usage: {@code SyntheticRepoGenerator --out DIR [--scale 1k|10k|100k] [--classes N] [--packages N]
+ * [--methods N] [--fan-out N] [--fields N] [--skew X] [--prs N] [--seed N]}
+ */
+public class SyntheticRepoGenerator {
+
+    public static final String BASE_PACKAGE = "com.synthetic";
+    public static final String SOURCE_ROOT = "src/main/java";
+
+    private final Config config;
+    private final String[] classNames;
+    private final String[] packageNames;
+
+    public SyntheticRepoGenerator(Config config) {
+        this.config = config;
+        this.classNames = new String[config.classes];
+        this.packageNames = new String[config.classes];
+        for (int c = 0; c < config.classes; c++) {
+            packageNames[c] = BASE_PACKAGE + ".pkg" + (c % config.packages);
+            classNames[c] = (c % 10 == 0 ? "Controller" : c % 10 == 1 ? "Repository" : "Service") + c;
+        }
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public int getClassCount() {
+        return config.classes;
+    }
+
+    public String qualifiedName(int c) {
+        return packageNames[c] + "." + classNames[c];
+    }
+
+    /** Repository-relative path of the class's source file. */
+    public String path(int c) {
+        return SOURCE_ROOT + "/" + packageNames[c].replace('.', '/') + "/" + classNames[c] + ".java";
+    }
+
+    /** Write the base tree (sources plus a build.gradle) under {@code root}. */
+    public void writeRepo(Path root) {
+        write(root.resolve("build.gradle"), "plugins { id 'java' }\n\njava { toolchain { languageVersion = JavaLanguageVersion.of(17) } }\n");
+        for (int c = 0; c < config.classes; c++) {
+            write(root.resolve(path(c)), source(c));
+        }
+    }
+
+    /** Base source of class {@code c}. */
+    public String source(int c) {
+        return String.join("\n", lines(c)) + "\n";
+    }
+
+    // ---- class sources ----
+
+    private List<String> lines(int c) {
+        Random random = new Random(config.seed * 1_000_003L + c);
+        int[] fields = injectedClasses(c, random);
+        String kind = classNames[c].startsWith("Controller") ? "RestController"
+                : classNames[c].startsWith("Repository") ? "Repository" : "Service";
+
+        List<String> lines = new ArrayList<>();
+        lines.add("package " + packageNames[c] + ";");
+        lines.add("");
+        Set<String> imports = new LinkedHashSet<>();
+        imports.add("org.springframework.beans.factory.annotation.Autowired");
+        imports.add(kind.equals("RestController") ? "org.springframework.web.bind.annotation.RestController"
+                : "org.springframework.stereotype." + kind);
+        imports.add("org.springframework.transaction.annotation.Transactional");
+        if (kind.equals("RestController")) {
+            imports.add("org.springframework.web.bind.annotation.PostMapping");
+        }
+        for (int field : fields) {
+            if (!packageNames[field].equals(packageNames[c])) {
+                imports.add(qualifiedName(field));
+            }
+        }
+        for (String imported : imports) {
+            lines.add("import " + imported + ";");
+        }
+        lines.add("");
+        lines.add("/**");
+        lines.add(" * Synthetic " + kind.toLowerCase() + " number " + c + ".");
+        lines.add(" */");
+        lines.add("@" + kind);
+        lines.add("public class " + classNames[c] + " {");
+        for (int field : fields) {
+            lines.add("");
+            lines.add("    @Autowired");
+            lines.add("    private " + classNames[field] + " " + fieldName(field) + ";");
+        }
+        for (int m = 0; m < config.methodsPerClass; m++) {
+            lines.add("");
+            lines.add("    /** Step " + m + " of " + classNames[c] + ". */");
+            if (kind.equals("RestController") && m == 0) {
+                lines.add("    @PostMapping(\"/" + classNames[c].toLowerCase() + "\")");
+            } else if (random.nextInt(8) == 0) {
+                lines.add("    @Transactional");
+            }
+            lines.add("    public int method" + m + "(int input) {");
+            lines.add("        int value = input + " + m + ";");
+            for (int call = 0; call < config.fanOut; call++) {
+                lines.add("        " + callLine(c, fields, random));
+            }
+            lines.add("        return value;");
+            lines.add("    }");
+        }
+        lines.add("}");
+        return lines;
+    }
+
+    private int[] injectedClasses(int c, Random random) {
+        Set<Integer> fields = new LinkedHashSet<>();
+        for (int attempt = 0; attempt < config.injectedFields * 3 && fields.size() < config.injectedFields; attempt++) {
+            int target = skewed(random, config.classes);
+            if (target != c) {
+                fields.add(target);
+            }
+        }
+        return fields.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private String callLine(int c, int[] fields, Random random) {
+        int method = random.nextInt(config.methodsPerClass);
+        if (fields.length == 0 || random.nextInt(5) == 0) {
+            return "value += this.method" + method + "(value - 1);";
+        }
+        int field = fields[random.nextInt(fields.length)];
+        return "value += " + fieldName(field) + ".method" + method + "(value);";
+    }
+
+    private String fieldName(int c) {
+        return Character.toLowerCase(classNames[c].charAt(0)) + classNames[c].substring(1);
+    }
+
+    /** Index below {@code bound} drawn from a power law: low indices are picked far more often. */
+    private int skewed(Random random, int bound) {
+        return (int) (bound * Math.pow(random.nextDouble(), config.skew));
+    }
+
+    // ---- PRs ----
+
+    /**
+     * PR number {@code pr}: {@code filesPerPr} distinct files with {@code methodsPerFile} edited
+     * methods each. Most edits change logic; some only touch a comment or indentation.
+     */
+    public SyntheticPr pr(int pr) {
+        Random random = new Random(config.seed * 7919L + pr);
+        Set<Integer> files = new LinkedHashSet<>();
+        while (files.size() < Math.min(config.filesPerPr, config.classes)) {
+            files.add(random.nextInt(config.classes));
+        }
+        List<SyntheticPr.FileChange> changes = new ArrayList<>();
+        for (int c : files) {
+            List<String> base = lines(c);
+            List<String> head = new ArrayList<>(base);
+            int[] methods = random.ints(0, config.methodsPerClass).distinct()
+                    .limit(Math.min(config.methodsPerFile, config.methodsPerClass)).sorted().toArray();
+            // edit from the bottom so earlier line numbers stay valid
+            for (int i = methods.length - 1; i >= 0; i--) {
+                edit(head, methods[i], random);
+            }
+            String patch = UnifiedDiff.diff(base, head, 3);
+            int additions = 0;
+            int deletions = 0;
+            for (String line : patch.split("\n")) {
+                if (line.startsWith("+")) additions++;
+                else if (line.startsWith("-")) deletions++;
+            }
+            changes.add(new SyntheticPr.FileChange(path(c), qualifiedName(c), additions, deletions, patch,
+                    String.join("\n", head) + "\n"));
+        }
+        return new SyntheticPr(pr, changes);
+    }
+
+    private void edit(List<String> lines, int method, Random random) {
+        int start = lines.indexOf("    public int method" + method + "(int input) {");
+        if (start < 0) {
+            return;
+        }
+        int kind = random.nextInt(10);
+        if (kind < 7) {
+            // logic: change the initial value and add a call
+            lines.set(start + 1, "        int value = input * " + (2 + random.nextInt(9)) + ";");
+            lines.add(start + 2, "        value += this.method" + random.nextInt(config.methodsPerClass) + "(value / 2);");
+        } else if (kind < 9) {
+            lines.set(start - 1, "    /** Step " + method + ", revised (" + random.nextInt(1000) + "). */");
+        } else {
+            lines.set(start + 1, "            " + lines.get(start + 1).trim());
+        }
+    }
+
+    /** Write PR {@code pr} under {@code dir}: files.json (GitHub pulls/files format) and head/PATH. */
+    public void writePr(Path dir, SyntheticPr pr) {
+        JSONArray files = new JSONArray();
+        for (SyntheticPr.FileChange change : pr.getFiles()) {
+            files.put(change.toGitHubJson());
+            write(dir.resolve("head").resolve(change.getPath()), change.getHeadContent());
+        }
+        write(dir.resolve("files.json"), files.toString(2));
+    }
+
+    private static void write(Path path, String content) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---- config ----
+
+    public static class Config {
+        int packages = 50;
+        int classes = 1000;
+        int methodsPerClass = 8;
+        int fanOut = 3;
+        int injectedFields = 3;
+        double skew = 3.0;
+        int prs = 10;
+        int filesPerPr = 5;
+        int methodsPerFile = 2;
+        long seed = 42;
+
+        /**
+         * Preset for about 1k, 10k or 100k source files. It sets the class and package counts, so
+         * apply it before any option that should override them.
+         */
+        public Config scale(String scale) {
+            switch (scale) {
+                case "1k" -> { classes = 1_000; packages = 50; }
+                case "10k" -> { classes = 10_000; packages = 200; }
+                case "100k" -> { classes = 100_000; packages = 1_000; }
+                default -> throw new IllegalArgumentException("Unknown scale " + scale + ", expected 1k, 10k or 100k");
+            }
+            return this;
+        }
+
+        public Config classes(int classes) { this.classes = classes; return this; }
+        public Config packages(int packages) { this.packages = packages; return this; }
+        public Config methodsPerClass(int methodsPerClass) { this.methodsPerClass = methodsPerClass; return this; }
+        public Config fanOut(int fanOut) { this.fanOut = fanOut; return this; }
+        public Config injectedFields(int injectedFields) { this.injectedFields = injectedFields; return this; }
+        public Config skew(double skew) { this.skew = skew; return this; }
+        public Config prs(int prs) { this.prs = prs; return this; }
+        public Config filesPerPr(int filesPerPr) { this.filesPerPr = filesPerPr; return this; }
+        public Config methodsPerFile(int methodsPerFile) { this.methodsPerFile = methodsPerFile; return this; }
+        public Config seed(long seed) { this.seed = seed; return this; }
+
+        public int getPrs() { return prs; }
+    }
+
+    public static void main(String[] args) {
+        Path out = Path.of("build/synthetic");
+        Config config = new Config();
+        // the preset first, so the individual options refine it wherever they appear
+        for (int i = 0; i < args.length; i += 2) {
+            if (args[i].equals("--scale")) {
+                config.scale(optionValue(args, i));
+            }
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            String value = optionValue(args, i);
+            switch (args[i]) {
+                case "--out" -> out = Path.of(value);
+                case "--scale" -> { }
+                case "--classes" -> config.classes(Integer.parseInt(value));
+                case "--packages" -> config.packages(Integer.parseInt(value));
+                case "--methods" -> config.methodsPerClass(Integer.parseInt(value));
+                case "--fan-out" -> config.fanOut(Integer.parseInt(value));
+                case "--fields" -> config.injectedFields(Integer.parseInt(value));
+                case "--skew" -> config.skew(Double.parseDouble(value));
+                case "--prs" -> config.prs(Integer.parseInt(value));
+                case "--files-per-pr" -> config.filesPerPr(Integer.parseInt(value));
+                case "--seed" -> config.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i] + " in " + Arrays.toString(args));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        SyntheticRepoGenerator generator = new SyntheticRepoGenerator(config);
+        generator.writeRepo(out.resolve("repo"));
+        for (int pr = 1; pr <= config.prs; pr++) {
+            generator.writePr(out.resolve("prs").resolve(String.valueOf(pr)), generator.pr(pr));
+        }
+        System.out.printf("Generated %d classes and %d PRs under %s in %d ms%n",
+                config.classes, config.prs, out.toAbsolutePath(), System.currentTimeMillis() - start);
+    }
+
+    private static String optionValue(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i] + " in " + Arrays.toString(args));
+        }
+        return args[i + 1];
+    }
+}
@@ -0,0 +1,103 @@
+package com.impactai.impactai.synthetic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal unified diff of two line lists, in the form GitHub puts in a file's {@code patch}
+ * field: hunks only, no file headers. The common prefix and suffix are trimmed and the middle
+ * is aligned with an LCS table, which is fine for the small edits the generator makes.
+ */
+public final class UnifiedDiff {
+
+    private UnifiedDiff() {
+    }
+
+    public static String diff(List<String> oldLines, List<String> newLines, int context) {
+        int prefix = 0;
+        while (prefix < oldLines.size() && prefix < newLines.size()
+                && oldLines.get(prefix).equals(newLines.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldLines.size() - prefix && suffix < newLines.size() - prefix
+                && oldLines.get(oldLines.size() - 1 - suffix).equals(newLines.get(newLines.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        // edit script over the whole files: ' ' keep, '-' delete, '+' insert
+        List<Character> ops = new ArrayList<>();
+        for (int i = 0; i < prefix; i++) ops.add(' ');
+        int n = oldLines.size() - prefix - suffix;
+        int m = newLines.size() - prefix - suffix;
+        int[][] lcs = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lcs[i][j] = oldLines.get(prefix + i).equals(newLines.get(prefix + j))
+                        ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && oldLines.get(prefix + i).equals(newLines.get(prefix + j))) {
+                ops.add(' '); i++; j++;
+            } else if (i < n && (j == m || lcs[i + 1][j] >= lcs[i][j + 1])) {
+                ops.add('-'); i++;
+            } else {
+                ops.add('+'); j++;
+            }
+        }
+        for (int k = 0; k < suffix; k++) ops.add(' ');
+
+        StringBuilder sb = new StringBuilder();
+        int op = 0;
+        int oldLine = 0;
+        int newLine = 0;
+        while (op < ops.size()) {
+            if (ops.get(op) == ' ') {
+                op++; oldLine++; newLine++;
+                continue;
+            }
+            // hunk: back up by the context, extend until 2 * context unchanged lines follow
+            int back = 0;
+            while (back < context && op - back > 0) back++;
+            int start = op - back;
+            int end = op;
+            int unchanged = 0;
+            while (end < ops.size() && unchanged <= 2 * context) {
+                unchanged = ops.get(end) == ' ' ? unchanged + 1 : 0;
+                end++;
+            }
+            end -= Math.max(0, unchanged - context);
+
+            int hunkOld = oldLine - back;
+            int hunkNew = newLine - back;
+            StringBuilder body = new StringBuilder();
+            int oldCount = 0;
+            int newCount = 0;
+            int o = hunkOld;
+            int nw = hunkNew;
+            for (int k = start; k < end; k++) {
+                char c = ops.get(k);
+                if (c == ' ') {
+                    body.append(' ').append(oldLines.get(o++)).append('\n'); nw++;
+                    oldCount++; newCount++;
+                } else if (c == '-') {
+                    body.append('-').append(oldLines.get(o++)).append('\n');
+                    oldCount++;
+                } else {
+                    body.append('+').append(newLines.get(nw++)).append('\n');
+                    newCount++;
+                }
+            }
+            sb.append("@@ -").append(oldCount == 0 ? hunkOld : hunkOld + 1).append(',').append(oldCount)
+                    .append(" +").append(newCount == 0 ? hunkNew : hunkNew + 1).append(',').append(newCount)
+                    .append(" @@\n").append(body);
+            oldLine = o;
+            newLine = nw;
+            op = end;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,361 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphBuildSession;
+import com.impactai.impactai.model.PRChangeInfo;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParserRegistry;
+import com.impactai.impactai.util.ChangeClassifier;
+import com.impactai.impactai.util.DiffScanner;
+import com.impactai.impactai.util.GraphUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.impactai.impactai.util.GraphUtils.extractChangedNodeIdsFromPR;
+
+@Service
+public class WebhookProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookProcessingService.class);
+
+    @Autowired
+    private GitHubPRFileFetcherService prFileFetcher;
+
+    @Autowired
+    private DependencyParserService dependencyParserService;
+
+    @Autowired
+    private GraphBuilderService graphBuilderService;
+
+    @Autowired
+    private RepoMetadataService repoMetadataService;
+
+    @Autowired
+    private RepoParserService repoParserService;
+
+    @Autowired
+    private ImpactAnalysisService impactAnalysisService;
+
+    @Autowired
+    private ImpactReportFormatter impactReportFormatter;
+
+    @Autowired
+    private GitHubCommentService gitHubCommentService;
+
+    @Autowired
+    private GitHubStatusService gitHubStatusService;
+
+    @Autowired
+    private ParserRegistry parserRegistry;
+
+
+    /**
+     * Process ping event asynchronously - builds baseline
+     */
+    @Async("webhookExecutor")
+    public void processPingAsync(String owner, String repoName, String repoFullName,
+                                 String defaultBranch, String repoLocalPath) {
+        try {
+            logger.info("[ASYNC] Starting baseline setup for: {}", repoFullName);
+
+            // Check if already parsed
+            if (repoMetadataService.isRepoFullyParsed(repoFullName)) {
+                logger.info("[ASYNC] Repo already has baseline, skipping.");
+                return;
+            }
+
+            // Parse entire repo, streaming each file into the baseline graph
+            logger.debug("[ASYNC] Parsing full repository from: {}", repoLocalPath);
+            GraphBuildSession session = graphBuilderService.startBuild(repoFullName);
+            repoParserService.parseFullRepo(repoLocalPath, session);
+            DependencyGraph graph = graphBuilderService.publish(repoFullName, session);
+
+            // Mark as ready
+            repoMetadataService.markRepoAsFullyParsed(repoFullName, "ping-" + System.currentTimeMillis());
+
+            logger.info("[ASYNC] ✓ Baseline complete! Parsed {} nodes for {}", session.getParsedNodeCount(), repoFullName);
+
+            // Print an easy-to-read summary to the console
+            graph.printGraphSummary();
+            // Export the graph as JSON for analysis/visualization
+            graph.exportJson("impact-graph.json");
+
+
+        } catch (Exception e) {
+            logger.error("[ASYNC] Error during ping baseline setup for {}: {}", repoFullName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Process PR webhook asynchronously - incremental parsing with line-level detection
+     * and sophisticated risk calculation
+     */
+    @Async("webhookExecutor")
+    public void processPRAsync(String owner, String repoName, String repoFullName,
+                               String defaultBranch, int prNumber, String headSha,
+                               String action, String repoLocalPath) {
+        try {
+            logger.info("[ASYNC] Starting PR processing for: {} PR#{}", repoFullName, prNumber);
+
+            // --------- SET STATUS TO PENDING IMMEDIATELY ----------
+            gitHubStatusService.setStatus(
+                    owner,
+                    repoName,
+                    headSha,
+                    "pending",
+                    "Impact analysis in progress...",
+                    "Impact-AI Risk"
+            );
+
+            List<ParsedDependencyNode> allParsedNodes;
+
+            // Check if baseline exists
+            if (!repoMetadataService.isRepoFullyParsed(repoFullName)) {
+                logger.info("[ASYNC] === NO BASELINE FOUND: PERFORMING FULL SCAN ===");
+
+                // Parse entire repo, streaming each file into the baseline graph
+                GraphBuildSession session = graphBuilderService.startBuild(repoFullName);
+                repoParserService.parseFullRepo(repoLocalPath, session);
+                graphBuilderService.publish(repoFullName, session);
+                logger.info("[ASYNC] Full scan complete. Parsed {} nodes.", session.getParsedNodeCount());
+
+                // Mark repo as scanned
+                repoMetadataService.markRepoAsFullyParsed(repoFullName, headSha);
+
+                logger.info("[ASYNC] ✓ Baseline initialized for {}", repoFullName);
+                return;  // Skip impact analysis for baseline creation
+
+            } else {
+                logger.info("[ASYNC] === INCREMENTAL PARSING (PR DIFF ONLY) ===");
+
+                // Fetch changed files for this PR (includes patch data)
+                logger.debug("[ASYNC] Fetching changed files for PR#{}", prNumber);
+                List<PRChangeInfo> changedFiles = prFileFetcher.fetchChangedFiles(owner, repoName, prNumber);
+
+                if (changedFiles == null || changedFiles.isEmpty()) {
+                    logger.warn("[ASYNC] No changed files found for PR#{}", prNumber);
+                    return;
+                }
+
+                logger.info("[ASYNC] Found {} changed files", changedFiles.size());
+
+                // ===== STEP 1: Parse patches and extract line ranges =====
+                logger.debug("[ASYNC] Parsing patches to extract changed line ranges...");
+                for (PRChangeInfo changeInfo : changedFiles) {
+                    try {
+                        String patch = changeInfo.getPatch();
+                        if (patch != null && !patch.isEmpty()) {
+                            // One pass over the unified diff: ranges on both sides, then classify its hunks
+                            DiffScanner.Result diff = DiffScanner.scan(patch);
+                            changeInfo.setChangedLines(diff.getAddedRanges());
+                            changeInfo.setRemovedLines(diff.getRemovedRanges());
+                            changeInfo.setDeletionGaps(diff.getDeletionGaps());
+                            changeInfo.setChangeKind(ChangeClassifier.classify(changeInfo.getFilePath(), patch, diff));
+
+                            logger.debug("[ASYNC] File {}: extracted {} line ranges ({} removed), change kind {}",
+                                    changeInfo.getFilePath(), diff.getAddedRanges().size(),
+                                    diff.getRemovedRanges().size(), changeInfo.getChangeKind());
+                        } else {
+                            logger.warn("[ASYNC] No patch data for file: {} (changeType: {})",
+                                    changeInfo.getFilePath(), changeInfo.getChangeType());
+                        }
+                    } catch (Exception e) {
+                        logger.error("[ASYNC] Error parsing patch for {}: {}",
+                                changeInfo.getFilePath(), e.getMessage());
+                    }
+                }
+
+                // ===== STEP 1A: Short-circuit trivial PRs =====
+                // Only whitespace, comments or imports changed: no method changed, so skip
+                // parsing, the graph update and the impact analysis altogether.
+                boolean allTrivial = true;
+                for (PRChangeInfo changeInfo : changedFiles) {
+                    if (!changeInfo.getChangeKind().isTrivial()) {
+                        allTrivial = false;
+                        logger.debug("[ASYNC] File has logic changes: {}", changeInfo.getFilePath());
+                        break;
+                    }
+                }
+                if (allTrivial) {
+                    logger.info("[ASYNC] ✓ All changes are comment, formatting or import only, skipping analysis");
+                    ImpactAnalysisService.ImpactReport trivialReport = new ImpactAnalysisService.ImpactReport(
+                            new ArrayList<>(), new ArrayList<>(), 0, new HashMap<>(), new HashMap<>(),
+                            new HashMap<>(), true, false);
+                    reportResult(owner, repoName, repoFullName, prNumber, headSha, action, trivialReport);
+                    return;
+                }
+
+                // ===== STEP 2: Parse changed files =====
+                logger.debug("[ASYNC] Parsing changed files...");
+                List<String> absolutePaths = new ArrayList<>();
+                for (PRChangeInfo info : changedFiles) {
+                    if (parserRegistry.isSupported(info.getFilePath())) {
+                        String absolutePath = repoLocalPath + File.separator + info.getFilePath();
+                        absolutePaths.add(absolutePath);
+                        logger.debug("[ASYNC] Mapped: {} -> {}", info.getFilePath(), absolutePath);
+                    }
+                }
+
+                allParsedNodes = dependencyParserService.parseChangedFiles(absolutePaths,
+                        graphBuilderService.getSymbols(repoFullName));
+                logger.info("[ASYNC] Incremental parse complete. Parsed {} nodes.", allParsedNodes.size());
+
+                // ===== STEP 3: Update in-memory dependency graph =====
+                logger.debug("[ASYNC] Updating dependency graph...");
+                DependencyGraph graph = graphBuilderService.update(repoFullName, allParsedNodes);
+
+                // ===== STEP 4: Extract changed node IDs (with LINE-LEVEL PRECISION) =====
+                logger.debug("[ASYNC] Extracting changed node IDs with line-level detection...");
+                List<String> changedNodeIds = extractChangedNodeIdsFromPR(changedFiles, allParsedNodes);
+
+                if (changedNodeIds.isEmpty()) {
+                    logger.warn("[ASYNC] No changed nodes detected for PR#{}", prNumber);
+                    return;
+                }
+
+                logger.info("[ASYNC] Identified {} changed nodes", changedNodeIds.size());
+                for (String nodeId : changedNodeIds) {
+                    logger.debug("[ASYNC]   - {}", nodeId);
+                }
+
+                // ===== STEP 5: Run impact analysis =====
+                logger.debug("[ASYNC] Running impact analysis...");
+                ImpactAnalysisService.ImpactReport impactReport = impactAnalysisService.analyzeImpact(
+                        graph, changedNodeIds);
+
+                // ===== STEP 5B: Check for critical methods in changed nodes =====
+                logger.debug("[ASYNC] Checking for critical methods in changed nodes...");
+                boolean hasCriticalMethods = false;
+                for (String changedNodeId : changedNodeIds) {
+                    try {
+                        List<String> annotations = impactReport.getNodeAnnotations()
+                                .getOrDefault(changedNodeId, new ArrayList<>());
+                        for (String annotation : annotations) {
+                            if (isCriticalAnnotation(annotation)) {
+                                hasCriticalMethods = true;
+                                logger.info("[ASYNC] ✓ Critical annotation found in {}: {}",
+                                        changedNodeId, annotation);
+                                break;
+                            }
+                        }
+                        if (hasCriticalMethods) break;
+                    } catch (Exception e) {
+                        logger.debug("[ASYNC] Error checking annotations: {}", e.getMessage());
+                    }
+                }
+
+                if (hasCriticalMethods) {
+                    impactReport.setHasCriticalMethodChanges(true);
+                }
+
+                reportResult(owner, repoName, repoFullName, prNumber, headSha, action, impactReport);
+            }
+
+        } catch (Exception e) {
+            logger.error("[ASYNC] Error processing PR webhook for {}: {}", repoFullName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Score the report, set the commit status, log the summary and post the PR comment.
+     */
+    private void reportResult(String owner, String repoName, String repoFullName, int prNumber,
+                              String headSha, String action, ImpactAnalysisService.ImpactReport impactReport) {
+        // ===== STEP 5C: Calculate risk with enhanced logic =====
+        logger.debug("[ASYNC] Calculating risk score...");
+        String risk = impactAnalysisService.calculateRisk(impactReport);
+
+        // ===== STEP 6: Format comment =====
+        logger.debug("[ASYNC] Formatting impact report comment...");
+        String comment = impactReportFormatter.formatComment(impactReport, risk);
+
+        // --------- SET STATUS TO SUCCESS/FAILURE ----------
+        String state = (risk.equalsIgnoreCase("HIGH") || risk.equalsIgnoreCase("CRITICAL"))
+                ? "failure"
+                : "success";
+        String statusDescription = "Impact-AI Risk: " + risk.toUpperCase() +
+                (state.equals("failure") ? " – Do NOT merge!" : " – Safe to merge.");
+        gitHubStatusService.setStatus(
+                owner,
+                repoName,
+                headSha,
+                state,
+                statusDescription,
+                "Impact-AI Risk"
+        );
+
+        // ===== STEP 7: Print summary to console/logs =====
+        logger.info("\n[ASYNC] ========= IMPACT ANALYSIS RESULT =========");
+        logger.info("[ASYNC] PR #{} for {}", prNumber, repoFullName);
+        logger.info("[ASYNC] Changed Nodes:");
+        for (String changed : impactReport.getChangedNodes()) {
+            logger.info("[ASYNC]   [Changed] {}", changed);
+        }
+        logger.info("[ASYNC] Impacted Nodes (transitive):");
+        int impactedCount = 0;
+        for (String impacted : impactReport.getAllImpactedNodes()) {
+            if (!impactReport.getChangedNodes().contains(impacted)) {
+                logger.info("[ASYNC]   [Impacted] {}", impacted);
+                impactedCount++;
+            }
+        }
+        if (impactedCount == 0) {
+            logger.info("[ASYNC]   (none)");
+        }
+        logger.info("[ASYNC] Impact Depth: {}", impactReport.getImpactDepth());
+        logger.info("[ASYNC] Comment-only Changes: {}", impactReport.hasCommentOnlyChanges());
+        logger.info("[ASYNC] Critical Methods: {}", impactReport.hasCriticalMethodChanges());
+        logger.info("[ASYNC] Risk Score: {}", risk);
+        logger.info("[ASYNC] ==========================================\n");
+
+        // ===== STEP 8: Post comment to GitHub PR =====
+        if (action != null && List.of("opened", "reopened", "synchronize").contains(action)) {
+            try {
+                logger.debug("[ASYNC] Posting impact analysis comment to PR#{}", prNumber);
+                gitHubCommentService.postComment(owner, repoName, prNumber, comment);
+                logger.info("[ASYNC] ✓ Posted impact analysis comment to PR#{}", prNumber);
+            } catch (Exception e) {
+                logger.error("[ASYNC] Failed to post comment to PR#{}: {}", prNumber, e.getMessage());
+            }
+        } else {
+            logger.debug("[ASYNC] Skipping comment post (action: {}, PR action not in post list)", action);
+        }
+    }
+
+    /**
+     * Check if annotation indicates a critical method
+     */
+    private boolean isCriticalAnnotation(String annotation) {
+        String[] criticalAnnotations = {
+                "Transactional",
+                "CacheEvict",
+                "Cacheable",
+                "CachePut",
+                "Scheduled",
+                "Async",
+                "EventListener",
+                "PreAuthorize",
+                "Secured",
+                "RolesAllowed",
+                "PostMapping",
+                "PutMapping",
+                "DeleteMapping",
+                "PatchMapping"
+        };
+
+        for (String critical : criticalAnnotations) {
+            if (annotation.contains(critical)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
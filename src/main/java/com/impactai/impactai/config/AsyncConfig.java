@@ -1,5 +1,6 @@
 package com.impactai.impactai.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -12,12 +13,15 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean(name = "webhookExecutor")
-    public Executor webhookExecutor() {
+    public Executor webhookExecutor(@Value("${impactai.webhook.executor.core-size:5}") int coreSize,
+                                    @Value("${impactai.webhook.executor.max-size:10}") int maxSize,
+                                    @Value("${impactai.webhook.executor.queue-capacity:100}") int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);  // Min threads
-        executor.setMaxPoolSize(10);  // Max threads
-        executor.setQueueCapacity(100);  // Queue size for pending tasks
+        executor.setCorePoolSize(coreSize);  // Min threads
+        executor.setMaxPoolSize(maxSize);  // Max threads, only used once the queue is full
+        executor.setQueueCapacity(queueCapacity);  // Queue size for pending tasks
         executor.setThreadNamePrefix("webhook-async-");
+        // Full queue and pool: the webhook request thread runs the task itself
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
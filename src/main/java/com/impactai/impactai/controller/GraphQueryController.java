@@ -0,0 +1,114 @@
+package com.impactai.impactai.controller;
+
+import com.impactai.impactai.service.GraphQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Read-only graph queries for IDE plugins and dashboards, one page of node ids per request:
+ * <ul>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/callers?node=}</li>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/callees?node=}</li>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/impact?nodes=a,b}</li>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/path?from=&to=}</li>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/search?prefix=}</li>
+ *   <li>{@code GET /api/graph/{owner}/{repo}/package?name=}: top-level types of a package</li>
+ * </ul>
+ * Every endpoint takes {@code page} (0-based) and {@code size}; the response carries the graph
+ * version the result was computed on and the total number of nodes.
+ */
+@RestController
+@RequestMapping("/api/graph/{owner}/{repo}")
+public class GraphQueryController {
+
+    @Autowired
+    private GraphQueryService graphQueryService;
+
+    @Value("${impactai.query.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${impactai.query.max-page-size:1000}")
+    private int maxPageSize;
+
+    @GetMapping("/callers")
+    public ResponseEntity<?> callers(@PathVariable String owner, @PathVariable String repo,
+                                     @RequestParam String node,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(required = false) Integer size) {
+        return respond("callers", page, size, () -> graphQueryService.callers(owner + "/" + repo, node));
+    }
+
+    @GetMapping("/callees")
+    public ResponseEntity<?> callees(@PathVariable String owner, @PathVariable String repo,
+                                     @RequestParam String node,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(required = false) Integer size) {
+        return respond("callees", page, size, () -> graphQueryService.callees(owner + "/" + repo, node));
+    }
+
+    @GetMapping("/impact")
+    public ResponseEntity<?> impact(@PathVariable String owner, @PathVariable String repo,
+                                    @RequestParam List<String> nodes,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(required = false) Integer size) {
+        return respond("impact", page, size, () -> graphQueryService.impact(owner + "/" + repo, nodes));
+    }
+
+    @GetMapping("/path")
+    public ResponseEntity<?> path(@PathVariable String owner, @PathVariable String repo,
+                                  @RequestParam String from, @RequestParam String to,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(required = false) Integer size) {
+        return respond("path", page, size, () -> graphQueryService.path(owner + "/" + repo, from, to));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@PathVariable String owner, @PathVariable String repo,
+                                    @RequestParam String prefix,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(required = false) Integer size) {
+        return respond("search", page, size, () -> graphQueryService.search(owner + "/" + repo, prefix));
+    }
+
+    @GetMapping("/package")
+    public ResponseEntity<?> packageTypes(@PathVariable String owner, @PathVariable String repo,
+                                          @RequestParam String name,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(required = false) Integer size) {
+        return respond("package", page, size, () -> graphQueryService.packageTypes(owner + "/" + repo, name));
+    }
+
+    private ResponseEntity<?> respond(String query, int page, Integer size, Supplier<GraphQueryService.Result> run) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (page < 0 || pageSize < 1 || pageSize > maxPageSize) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "page must be >= 0 and size between 1 and " + maxPageSize));
+        }
+        GraphQueryService.Result result;
+        try {
+            result = run.get();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("version", result.getVersion());
+        body.put("total", result.getNodes().size());
+        body.put("page", page);
+        body.put("size", pageSize);
+        body.put("nodes", result.page(page, pageSize));
+        if (result.getTruncationReason() != null) {
+            body.put("truncated", result.getTruncationReason());
+        }
+        return ResponseEntity.ok(body);
+    }
+}
@@ -1,6 +1,8 @@
 package com.impactai.impactai.controller;
 
+import com.impactai.impactai.observability.PipelineMetrics;
 import com.impactai.impactai.service.*;
+import io.micrometer.core.instrument.Timer;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.slf4j.Logger;
@@ -25,9 +27,15 @@ public class WebhookController {
     @Autowired
     private RepoMetadataService repoMetadataService;
 
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     @Value("${github.token}")
     private String githubToken;
 
+    @Value("${github.clone-url:https://github.com}")
+    private String githubCloneUrl;
+
     /**
      * Main webhook endpoint - returns immediately, processes async
      */
@@ -52,8 +60,6 @@ public class WebhookController {
      * Handle ping - immediate response, async processing
      */
     private ResponseEntity<?> handlePingEvent(Map<String, Object> payload) {
-        System.out.println("=== WEBHOOK PING RECEIVED ===");
-
         Map<String, Object> repo = (Map<String, Object>) payload.get("repository");
         if (repo == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "No repository info"));
@@ -65,11 +71,13 @@ public class WebhookController {
             String repoFullName = owner + "/" + repoName;
             String defaultBranch = repo.get("default_branch").toString();
 
-            System.out.println("Ping for repo: " + repoFullName);
+            logger.info("Ping received for {}", repoFullName);
 
             // Clone/pull repo synchronously (fast operation)
+            Timer.Sample sync = pipelineMetrics.start();
             String repoLocalPath = cloneOrFetchRepo(owner, repoName);
             checkoutBranch(repoLocalPath, defaultBranch);
+            pipelineMetrics.stage(sync, PipelineMetrics.PING, "sync");
 
             // Process async (parsing takes time)
             webhookProcessingService.processPingAsync(owner, repoName, repoFullName,
@@ -83,7 +91,7 @@ public class WebhookController {
             ));
 
         } catch (Exception e) {
-            System.err.println("Error during ping: " + e.getMessage());
+            logger.error("Error during ping: {}", e.getMessage(), e);
             return ResponseEntity.ok(Map.of(
                     "status", "accepted",
                     "message", "Webhook configured, baseline will be built on first PR"
@@ -112,11 +120,13 @@ public class WebhookController {
             String headSha = ((Map<String, Object>) pr.get("head")).get("sha").toString();
             String action = (String) payload.get("action");
 
-            System.out.println("=== PR #" + prNumber + " for " + repoFullName + " ===");
+            logger.info("PR #{} for {} ({})", prNumber, repoFullName, action);
 
             // Clone/pull repo synchronously (fast)
+            Timer.Sample sync = pipelineMetrics.start();
             String repoLocalPath = cloneOrFetchRepo(owner, repoName);
             checkoutBranch(repoLocalPath, defaultBranch);
+            pipelineMetrics.stage(sync, PipelineMetrics.PR, "sync");
 
             // Process async (parsing and analysis take time)
             webhookProcessingService.processPRAsync(owner, repoName, repoFullName,
@@ -132,8 +142,7 @@ public class WebhookController {
             ));
 
         } catch (Exception e) {
-            System.err.println("Error handling PR webhook: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error handling PR webhook: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", e.getMessage()));
         }
@@ -143,7 +152,7 @@ public class WebhookController {
      * Clone repo or pull latest
      */
     private String cloneOrFetchRepo(String owner, String repoName) {
-        String repoUrl = "https://github.com/" + owner + "/" + repoName + ".git";
+        String repoUrl = githubCloneUrl + "/" + owner + "/" + repoName + ".git";
         String localPath = System.getProperty("java.io.tmpdir") + owner + "_" + repoName;
         File localDir = new File(localPath);
 
@@ -152,21 +161,20 @@ public class WebhookController {
                     new UsernamePasswordCredentialsProvider(githubToken, "");
 
             if (localDir.exists()) {
-                System.out.println("Pulling latest for: " + localPath);
+                logger.debug("Pulling latest for: {}", localPath);
                 Git git = Git.open(localDir);
                 git.pull().setCredentialsProvider(credentialsProvider).call();
             } else {
-                System.out.println("Cloning: " + repoUrl);
+                logger.info("Cloning: {}", repoUrl);
                 Git.cloneRepository()
                         .setURI(repoUrl)
                         .setDirectory(localDir)
                         .setCredentialsProvider(credentialsProvider)
                         .call();
             }
-            System.out.println("✓ Repo ready: " + localPath);
+            logger.debug("✓ Repo ready: {}", localPath);
         } catch (Exception e) {
-            System.err.println("Clone/pull error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Clone/pull error for {}: {}", localPath, e.getMessage(), e);
         }
         return localPath;
     }
@@ -178,9 +186,9 @@ public class WebhookController {
         try {
             Git git = Git.open(new File(repoLocalPath));
             git.checkout().setName(branchName).call();
-            System.out.println("✓ Checked out: " + branchName);
+            logger.debug("✓ Checked out: {}", branchName);
         } catch (Exception e) {
-            System.err.println("Checkout error: " + e.getMessage());
+            logger.error("Checkout error: {}", e.getMessage());
         }
     }
 
@@ -193,9 +201,9 @@ public class WebhookController {
             com.fasterxml.jackson.databind.ObjectMapper mapper =
                     new com.fasterxml.jackson.databind.ObjectMapper();
             String prettyJson = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(payload);
-            System.out.println(prettyJson);
+            logger.info("Test webhook payload:\n{}", prettyJson);
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Could not print test payload: {}", e.getMessage(), e);
         }
         return ResponseEntity.ok("Webhook received");
     }
@@ -0,0 +1,114 @@
+package com.impactai.impactai.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps annotation names to bit flags, one bit per configured critical annotation.
+ *
+ * Graph nodes get their flags once when their annotations are set, so risk scoring and
+ * critical-method detection are a mask test instead of string matching. Configured entries
+ * may be simple names (matching any package) or fully qualified names.
+ */
+@Component
+public class AnnotationClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationClassifier.class);
+
+    public static final List<String> DEFAULT_CRITICAL = List.of(
+            "Transactional", "CacheEvict", "Cacheable", "CachePut", "Scheduled",
+            "Async", "EventListener", "PreAuthorize", "Secured", "RolesAllowed",
+            "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping");
+
+    private static final AnnotationClassifier DEFAULTS = new AnnotationClassifier(DEFAULT_CRITICAL);
+
+    private final Map<String, Long> bitsByName = new HashMap<>();
+    private final List<String> namesByBit = new ArrayList<>();
+    private final Map<String, Long> flagsCache = new ConcurrentHashMap<>();
+    private long criticalMask;
+
+    @Autowired
+    public AnnotationClassifier(@Value("${impactai.annotations.critical:}") List<String> critical,
+                                @Value("${impactai.annotations.additional-critical:}") List<String> additional) {
+        this(critical.isEmpty() ? DEFAULT_CRITICAL : critical);
+        for (String name : additional) {
+            register(name);
+        }
+    }
+
+    public AnnotationClassifier(List<String> critical) {
+        for (String name : critical) {
+            register(name);
+        }
+    }
+
+    /** Classifier with the built-in critical annotations, for graphs built outside Spring. */
+    public static AnnotationClassifier defaults() {
+        return DEFAULTS;
+    }
+
+    private void register(String name) {
+        name = name.trim();
+        if (name.isEmpty() || bitsByName.containsKey(name)) {
+            return;
+        }
+        if (namesByBit.size() == Long.SIZE) {
+            logger.warn("Only {} critical annotations are supported, ignoring {}", Long.SIZE, name);
+            return;
+        }
+        long bit = 1L << namesByBit.size();
+        bitsByName.put(name, bit);
+        namesByBit.add(name);
+        criticalMask |= bit;
+    }
+
+    /** Flags of one annotation, by its fully qualified or simple name. */
+    public long classify(String annotation) {
+        if (annotation == null || annotation.isEmpty()) {
+            return 0L;
+        }
+        return flagsCache.computeIfAbsent(annotation, a -> {
+            long flags = bitsByName.getOrDefault(a, 0L);
+            int dot = a.lastIndexOf('.');
+            if (dot >= 0) {
+                flags |= bitsByName.getOrDefault(a.substring(dot + 1), 0L);
+            }
+            return flags;
+        });
+    }
+
+    public long classify(Collection<String> annotations) {
+        long flags = 0L;
+        if (annotations != null) {
+            for (String annotation : annotations) {
+                flags |= classify(annotation);
+            }
+        }
+        return flags;
+    }
+
+    public boolean isCritical(long flags) {
+        return (flags & criticalMask) != 0;
+    }
+
+    public boolean isCritical(String annotation) {
+        return isCritical(classify(annotation));
+    }
+
+    /** Configured names behind the set bits, for logging and reports. */
+    public List<String> describe(long flags) {
+        List<String> names = new ArrayList<>();
+        for (int bit = 0; bit < namesByBit.size(); bit++) {
+            if ((flags & (1L << bit)) != 0) {
+                names.add(namesByBit.get(bit));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,180 @@
+package com.impactai.impactai.graph;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of a graph version and the DAG between them.
+ *
+ * Components are numbered in reverse topological order (every successor of a component has
+ * a lower number), which is the order Tarjan's algorithm completes them in. Traversals run
+ * over the components and only expand them into member nodes for output, so a cluster of
+ * mutually recursive methods is visited once and counts as one level of impact depth.
+ */
+public final class Condensation {
+
+    private final GraphNode[] nodes;
+    private final int[] componentOf;
+    private final int[] memberStarts;
+    private final int[] members;
+    private final int[] successorStarts;
+    private final int[] successors;
+    private final int[] heights;
+
+    private Condensation(GraphNode[] nodes, int[] componentOf, int[] memberStarts, int[] members,
+                         int[] successorStarts, int[] successors, int[] heights) {
+        this.nodes = nodes;
+        this.componentOf = componentOf;
+        this.memberStarts = memberStarts;
+        this.members = members;
+        this.successorStarts = successorStarts;
+        this.successors = successors;
+        this.heights = heights;
+    }
+
+    public int getComponentCount() { return heights.length; }
+
+    /** Component of the node, or -1 if it is not a node of the condensed graph version. */
+    public int getComponent(GraphNode node) {
+        int index = node.getIndex();
+        return index >= 0 && index < nodes.length && nodes[index] == node ? componentOf[index] : -1;
+    }
+
+    public int getSize(int component) { return memberStarts[component + 1] - memberStarts[component]; }
+
+    /** Symbol of a member node. */
+    public int getMember(int component, int index) { return nodes[members[memberStarts[component] + index]].getSymbol(); }
+
+    /** Dense index of a member node, see {@link DependencyGraph#denseNodes()}. */
+    int getMemberIndex(int component, int index) { return members[memberStarts[component] + index]; }
+
+    public int getSuccessorCount(int component) {
+        return successorStarts[component + 1] - successorStarts[component];
+    }
+
+    public int getSuccessor(int component, int index) { return successors[successorStarts[component] + index]; }
+
+    /**
+     * Topological level of the component: the number of components on the longest path
+     * from it to a sink, itself included. This is the impact depth of a change inside it.
+     */
+    public int getHeight(int component) { return heights[component]; }
+
+    /**
+     * Condense the nodes of a graph version, each at its dense index (see
+     * {@link DependencyGraph#denseNodes()}). Edges to nodes outside the array are ignored.
+     */
+    public static Condensation of(GraphNode[] nodes) {
+        int n = nodes.length;
+        int[] componentOf = new int[n];
+        int[] members = new int[n];
+        int[] memberStarts = new int[n + 1];
+        int count = tarjan(nodes, componentOf, members, memberStarts);
+        memberStarts = Arrays.copyOf(memberStarts, count + 1);
+
+        // deduplicated successor lists; successors are always completed, so heights follow in one pass
+        int[] successorStarts = new int[count + 1];
+        int[] successors = new int[16];
+        int[] heights = new int[count];
+        int[] lastSeen = new int[count];
+        Arrays.fill(lastSeen, -1);
+        int edgeCount = 0;
+        for (int c = 0; c < count; c++) {
+            successorStarts[c] = edgeCount;
+            int height = 0;
+            for (int m = memberStarts[c]; m < memberStarts[c + 1]; m++) {
+                GraphNode node = nodes[members[m]];
+                for (int e = 0; e < node.getNeighborCount(); e++) {
+                    int target = indexIn(nodes, node.getNeighbor(e));
+                    int to = target >= 0 ? componentOf[target] : -1;
+                    if (to < 0 || to == c || lastSeen[to] == c) continue;
+                    lastSeen[to] = c;
+                    if (edgeCount == successors.length) {
+                        successors = Arrays.copyOf(successors, successors.length * 2);
+                    }
+                    successors[edgeCount++] = to;
+                    height = Math.max(height, heights[to]);
+                }
+            }
+            heights[c] = height + 1;
+        }
+        successorStarts[count] = edgeCount;
+        return new Condensation(nodes, componentOf, memberStarts, members, successorStarts,
+                Arrays.copyOf(successors, edgeCount), heights);
+    }
+
+    /**
+     * Iterative Tarjan over dense node indexes. Fills componentOf, lists the members of
+     * component c in {@code members[memberStarts[c] .. memberStarts[c + 1])} and returns the
+     * component count.
+     */
+    private static int tarjan(GraphNode[] nodes, int[] componentOf, int[] members, int[] memberStarts) {
+        int n = nodes.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(componentOf, -1);
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] callStack = new int[n];
+        int[] edgePos = new int[n];
+        int stackSize = 0;
+        int nextIndex = 0;
+        int count = 0;
+        int memberCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) continue;
+            int depth = 0;
+            callStack[depth] = root;
+            edgePos[depth++] = 0;
+            index[root] = low[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                GraphNode node = nodes[v];
+                if (edgePos[depth - 1] < node.getNeighborCount()) {
+                    int w = indexIn(nodes, node.getNeighbor(edgePos[depth - 1]++));
+                    if (w < 0) {
+                        continue; // edge to a node no longer in the graph
+                    }
+                    if (index[w] < 0) {
+                        index[w] = low[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[depth] = w;
+                        edgePos[depth++] = 0;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[v] == index[v]) {
+                    memberStarts[count] = memberCount;
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        componentOf[w] = count;
+                        members[memberCount++] = w;
+                    } while (w != v);
+                    count++;
+                }
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        memberStarts[count] = memberCount;
+        return count;
+    }
+
+    /** Dense index of {@code node} in {@code nodes}, or -1 if it is not one of them. */
+    static int indexIn(GraphNode[] nodes, GraphNode node) {
+        int index = node.getIndex();
+        return index >= 0 && index < nodes.length && nodes[index] == node ? index : -1;
+    }
+}
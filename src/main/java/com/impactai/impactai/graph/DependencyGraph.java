@@ -1,35 +1,119 @@
 package com.impactai.impactai.graph;
 
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.impactai.impactai.util.LoggerUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
 import java.io.*;
 
+/**
+ * Dependency graph of one repository version.
+ *
+ * Once published by {@code GraphBuilderService} a graph is never modified: an incremental
+ * update is applied to a {@link #copy()}, which then replaces it as the repository's graph.
+ * Readers (PR processing, impact analysis, graph queries) use the instance they were handed
+ * without locking and see one consistent version for as long as they hold it.
+ */
 public class DependencyGraph {
 
     private static final Logger logger = LoggerFactory.getLogger(DependencyGraph.class);
+    private static final int SUMMARY_SAMPLE = 20;
 
     private final Map<String, GraphNode> nodeMap = new HashMap<>();
+    private final SymbolTable symbols;
+    private AnnotationClassifier annotationClassifier = AnnotationClassifier.defaults();
+    private GraphNode[] nodesByIndex = new GraphNode[64]; // dense, [0, nodeMap.size())
+    private long version;
+    private volatile GraphMetrics metrics;
+    private ReachCache reachCache = new ReachCache(ReachCache.DEFAULT_MAX_BYTES);
+    private final SourceIndex sourceIndex;
 
-    // Existing methods (unchanged):
+    public DependencyGraph() {
+        this(new SymbolTable(), new SourceIndex());
+    }
+
+    private DependencyGraph(SymbolTable symbols, SourceIndex sourceIndex) {
+        this.symbols = symbols;
+        this.sourceIndex = sourceIndex;
+    }
+
+    /**
+     * Copy to apply an update to while readers keep using this graph: new node instances with
+     * the same edges and version, sharing the symbol table, annotation classifier and reach
+     * cache (whose entries are keyed by version). O(nodes + edges), like the metrics pass that
+     * follows every update.
+     */
+    public DependencyGraph copy() {
+        DependencyGraph copy = new DependencyGraph(symbols, sourceIndex.copy());
+        copy.annotationClassifier = annotationClassifier;
+        copy.reachCache = reachCache;
+        copy.version = version;
+        copy.nodesByIndex = new GraphNode[nodesByIndex.length];
+        for (GraphNode node : nodeMap.values()) {
+            GraphNode copied = new GraphNode(node);
+            copy.nodeMap.put(copied.getId(), copied);
+            copy.nodesByIndex[copied.getIndex()] = copied;
+        }
+        for (GraphNode node : nodeMap.values()) {
+            copy.nodesByIndex[node.getIndex()].copyEdges(node, copy);
+        }
+        return copy;
+    }
 
     public void addNode(GraphNode node) {
         if (node == null) {
             logger.warn("Attempted to add null node");
             return;
         }
-        nodeMap.put(node.getId(), node);
-        logger.debug("Added node to graph: {}", node.getId());
+        GraphNode previous = nodeMap.put(node.getId(), node);
+        if (previous != null) {
+            node.setIndex(previous.getIndex());
+        } else {
+            int index = nodeMap.size() - 1;
+            if (index == nodesByIndex.length) {
+                nodesByIndex = Arrays.copyOf(nodesByIndex, index * 2);
+            }
+            node.setIndex(index);
+        }
+        nodesByIndex[node.getIndex()] = node;
+        sourceIndex.addName(node.getId(), node.getSymbol());
+        logger.trace("Added node to graph: {}", node.getId());
     }
 
     public GraphNode getNode(String nodeId) {
         return nodeMap.get(nodeId);
     }
 
+    /** Node whose id has the given symbol, or null. */
+    public GraphNode getNode(int symbol) {
+        String id = symbols.nameOrNull(symbol);
+        return id != null ? nodeMap.get(id) : null;
+    }
+
+    /**
+     * The nodes, each at its dense index: positions run from 0 to the node count, and removing
+     * a node moves the last one into its place. Arrays of per-node values are sized by node
+     * count rather than by the symbol table, which also holds every call target and annotation.
+     */
+    GraphNode[] denseNodes() {
+        return Arrays.copyOf(nodesByIndex, nodeMap.size());
+    }
+
+    /** Names used by this graph's nodes; shared with the parser and the impact analysis. */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /** Classifier used to flag the annotations of this graph's nodes. */
+    public AnnotationClassifier getAnnotationClassifier() {
+        return annotationClassifier;
+    }
+
+    public void setAnnotationClassifier(AnnotationClassifier annotationClassifier) {
+        this.annotationClassifier = annotationClassifier;
+    }
+
     public Map<String, GraphNode> getNodeMap() {
         return nodeMap;
     }
@@ -40,11 +124,9 @@ public class DependencyGraph {
             logger.debug("Node not found: {}", nodeId);
             return Collections.emptyList();
         }
-        List<String> neighborIds = new ArrayList<>();
-        if (node.getNeighbors() != null) {
-            for (GraphNode neighbor : node.getNeighbors()) {
-                neighborIds.add(neighbor.getId());
-            }
+        List<String> neighborIds = new ArrayList<>(node.getNeighborCount());
+        for (int i = 0; i < node.getNeighborCount(); i++) {
+            neighborIds.add(node.getNeighbor(i).getId());
         }
         return neighborIds;
     }
@@ -63,7 +145,67 @@ public class DependencyGraph {
         }
 
         fromNode.addNeighbor(toNode);
-        logger.debug("Added edge: {} → {}", fromNodeId, toNodeId);
+        logger.trace("Added edge: {} → {}", fromNodeId, toNodeId);
+    }
+
+    /** Memoized transitive reach of this graph's nodes, kept across compatible versions. */
+    public ReachCache getReachCache() {
+        return reachCache;
+    }
+
+    public void setReachCache(ReachCache reachCache) {
+        this.reachCache = reachCache;
+    }
+
+    /** Source file to types and node id trie of this graph, maintained as nodes come and go. */
+    public SourceIndex getSourceIndex() {
+        return sourceIndex;
+    }
+
+    /**
+     * Remove a node together with every edge pointing at it, found through its callers.
+     */
+    public void removeNode(String nodeId) {
+        GraphNode removed = nodeMap.remove(nodeId);
+        if (removed == null) {
+            return;
+        }
+        int last = nodeMap.size();
+        GraphNode moved = nodesByIndex[last];
+        nodesByIndex[removed.getIndex()] = moved;
+        moved.setIndex(removed.getIndex());
+        nodesByIndex[last] = null;
+        removed.setIndex(-1);
+        sourceIndex.removeName(nodeId);
+        removed.detach();
+        logger.trace("Removed node from graph: {}", nodeId);
+    }
+
+    /** Incremented every time a build or incremental update is published. */
+    public long getVersion() {
+        return version;
+    }
+
+    public void incrementVersion() {
+        version++;
+    }
+
+    /**
+     * Graph-wide metrics of this version, computed once on first use (normally before the
+     * graph is published).
+     */
+    public GraphMetrics getMetrics() {
+        GraphMetrics current = metrics;
+        if (current == null || current.getVersion() != version) {
+            synchronized (this) {
+                current = metrics;
+                if (current == null || current.getVersion() != version) {
+                    current = GraphMetrics.compute(this);
+                    metrics = current;
+                }
+            }
+        }
+        return current;
     }
 
     public int getNodeCount() {
@@ -72,78 +214,58 @@ public class DependencyGraph {
 
     public void clear() {
         nodeMap.clear();
+        Arrays.fill(nodesByIndex, null);
+        reachCache.clear();
+        sourceIndex.clear();
         logger.info("Graph cleared");
     }
 
     /**
-     * Console-friendly, readable printout for large graphs.
+     * One-line summary of the graph at INFO; the first nodes at DEBUG, as a sample.
      */
     public void printGraphSummary() {
-        System.out.println("========== GRAPH STRUCTURE SUMMARY ==========");
-        System.out.println("Total nodes: " + nodeMap.size());
+        Map<String, Integer> nodesByType = new TreeMap<>();
+        long edges = 0;
         for (GraphNode node : nodeMap.values()) {
-            System.out.printf(
-                    "[%s] %s | calls: %-3d | ann: %-2d | neighbors: %s\n",
-                    node.getType(),
-                    node.getId(),
-                    node.getCalledMethods() != null ? node.getCalledMethods().size() : 0,
-                    node.getAnnotations() != null ? node.getAnnotations().size() : 0,
-                    node.getNeighbors() != null ?
-                            node.getNeighbors().stream().map(GraphNode::getId).toList()
-                            : "[]"
-            );
+            nodesByType.merge(node.getType(), 1, Integer::sum);
+            edges += node.getNeighborCount();
+        }
+        logger.info("Graph summary: {} nodes {}, {} edges", nodeMap.size(), nodesByType, edges);
+        if (logger.isDebugEnabled()) {
+            LoggerUtil.Sampled sample = LoggerUtil.sampled(logger, SUMMARY_SAMPLE);
+            for (GraphNode node : nodeMap.values()) {
+                sample.debug("[{}] {} | calls: {} | ann: {} | neighbors: {}",
+                        node.getType(), node.getId(),
+                        node.getCalledMethods() != null ? node.getCalledMethods().size() : 0,
+                        node.getAnnotations() != null ? node.getAnnotations().size() : 0,
+                        node.getNeighborCount());
+            }
+            sample.summary("nodes");
         }
-        System.out.println("=============================================");
     }
 
     /**
-     * Export graph as Cytoscape.js-friendly JSON: {"nodes":[...],"edges":[...]}
+     * Export graph as Cytoscape.js-friendly JSON: {"nodes":[...],"edges":[...]}, streamed
+     * by {@link GraphExporter}.
      */
-    public void exportJson(String filename) throws IOException, JSONException {
-        JSONArray nodesArr = new JSONArray();
-        JSONArray edgesArr = new JSONArray();
-
-        // Nodes
-        for (GraphNode node : nodeMap.values()) {
-            JSONObject n = new JSONObject();
-            n.put("id", node.getId());
-            n.put("type", node.getType());
-            n.put("label", node.getName());
-            n.put("calls", node.getCalledMethods() != null ? node.getCalledMethods().size() : 0);
-            n.put("annotations", node.getAnnotations());
-            nodesArr.put(n);
-        }
-        // Edges
-        for (GraphNode node : nodeMap.values()) {
-            if (node.getNeighbors() != null) {
-                for (GraphNode neighbor : node.getNeighbors()) {
-                    JSONObject e = new JSONObject();
-                    e.put("source", node.getId());
-                    e.put("target", neighbor.getId());
-                    edgesArr.put(e);
-                }
-            }
-        }
-        JSONObject root = new JSONObject();
-        root.put("nodes", nodesArr);
-        root.put("edges", edgesArr);
-
-        try (PrintWriter out = new PrintWriter(filename)) {
-            out.println(root.toString(2)); // Pretty print with 2-space indent
-        }
+    public void exportJson(String filename) throws IOException {
+        GraphExporter.export(this, GraphExporter.Format.JSON, java.nio.file.Path.of(filename));
         logger.info("Exported graph to JSON: {}", filename);
     }
 
     /**
-     * Full debug print - for legacy/testing
+     * Full print of every node at TRACE - for legacy/testing
      */
     public void printGraph() {
-        logger.info("========== GRAPH STRUCTURE ==========");
-        logger.info("Total nodes: {}", nodeMap.size());
+        if (!logger.isTraceEnabled()) {
+            return;
+        }
+        logger.trace("========== GRAPH STRUCTURE ==========");
+        logger.trace("Total nodes: {}", nodeMap.size());
         for (GraphNode node : nodeMap.values()) {
-            logger.info(node.toString());
+            logger.trace(node.toString());
         }
-        logger.info("=====================================");
+        logger.trace("=====================================");
     }
 
     @Override
@@ -0,0 +1,167 @@
+package com.impactai.impactai.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Set of nodes at one end of a node's edges, kept as an unordered array.
+ *
+ * Small lists are scanned; once a list grows past {@link #HASH_THRESHOLD} entries an
+ * open-addressing index from node to position is added, so adding, finding and removing an
+ * edge of a hub stays O(1) instead of O(degree). Removal moves the last entry into the gap.
+ */
+final class EdgeList {
+
+    static final int HASH_THRESHOLD = 16;
+    private static final GraphNode[] NO_NODES = new GraphNode[0];
+
+    private GraphNode[] nodes = NO_NODES;
+    private int count;
+    private int[] slots; // position + 1, 0 = empty; null while the list is small
+
+    int size() { return count; }
+
+    GraphNode get(int index) { return nodes[index]; }
+
+    /** @return false if the node is already in the list */
+    boolean add(GraphNode node) {
+        if (indexOf(node) >= 0) {
+            return false;
+        }
+        if (count == nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(4, count * 2));
+        }
+        nodes[count++] = node;
+        if (slots != null) {
+            if (count * 2 > slots.length) {
+                rehash(slots.length * 2);
+            } else {
+                insertSlot(count - 1);
+            }
+        } else if (count > HASH_THRESHOLD) {
+            rehash(Integer.highestOneBit(count) * 4);
+        }
+        return true;
+    }
+
+    /** @return false if the node was not in the list */
+    boolean remove(GraphNode node) {
+        int position = indexOf(node);
+        if (position < 0) {
+            return false;
+        }
+        int last = --count;
+        if (slots != null) {
+            deleteSlot(position);
+            if (position != last) {
+                deleteSlot(last);
+            }
+        }
+        nodes[position] = nodes[last];
+        nodes[last] = null;
+        if (slots != null && position != last) {
+            insertSlot(position);
+        }
+        return true;
+    }
+
+    void clear() {
+        nodes = NO_NODES;
+        count = 0;
+        slots = null;
+    }
+
+    /** Read-only view of the entries. */
+    List<GraphNode> asList() {
+        return new View(this);
+    }
+
+    /** This list with every entry replaced by the node of the same id in {@code graph}. */
+    EdgeList mappedTo(DependencyGraph graph) {
+        EdgeList copy = new EdgeList();
+        if (count == 0) {
+            return copy;
+        }
+        copy.nodes = new GraphNode[count];
+        for (int i = 0; i < count; i++) {
+            copy.nodes[i] = graph.getNode(nodes[i].getSymbol());
+        }
+        copy.count = count;
+        if (slots != null) {
+            copy.rehash(slots.length);
+        }
+        return copy;
+    }
+
+    private int indexOf(GraphNode node) {
+        if (slots == null) {
+            for (int i = 0; i < count; i++) {
+                if (nodes[i] == node) return i;
+            }
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for (int i = hash(node) & mask, slot; (slot = slots[i]) != 0; i = (i + 1) & mask) {
+            if (nodes[slot - 1] == node) return slot - 1;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int position = 0; position < count; position++) {
+            insertSlot(position);
+        }
+    }
+
+    private void insertSlot(int position) {
+        int mask = slots.length - 1;
+        int i = hash(nodes[position]) & mask;
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = position + 1;
+    }
+
+    /** Remove the slot of the entry at {@code position}, shifting back the probe run after it. */
+    private void deleteSlot(int position) {
+        int mask = slots.length - 1;
+        int i = hash(nodes[position]) & mask;
+        while (slots[i] != position + 1) i = (i + 1) & mask;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int home = hash(nodes[slots[j] - 1]) & mask;
+            // move slot j into the gap at i unless its home lies cyclically in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        slots[i] = 0;
+    }
+
+    private static int hash(GraphNode node) {
+        int h = node.getSymbol() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class View extends AbstractList<GraphNode> implements RandomAccess {
+        private final EdgeList list;
+
+        View(EdgeList list) {
+            this.list = list;
+        }
+
+        @Override
+        public GraphNode get(int index) {
+            if (index < 0 || index >= list.count) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return list.nodes[index];
+        }
+
+        @Override
+        public int size() {
+            return list.count;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.impactai.impactai.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed (radix) trie over fully qualified names, for prefix and package queries in time
+ * proportional to the prefix plus the result instead of the number of names.
+ *
+ * Edge labels are not copied: a node's label is the range {@code [start, end)} of some name
+ * stored below it, and {@code start}/{@code end} are absolute offsets into that name. Children
+ * are kept sorted by their first character, so a pre-order walk yields names in lexicographic
+ * order. Not thread-safe; {@link SourceIndex} guards it.
+ */
+public class FqnTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node(null, 0, 0);
+    private int size;
+
+    private static final class Node {
+        private final String source; // a name passing through this node
+        private int start;
+        private final int end;
+        private Node[] children = NO_CHILDREN;
+        private String name; // set when a name ends here
+        private int symbol = SymbolTable.NONE;
+
+        Node(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        char first() { return source.charAt(start); }
+    }
+
+    /** Add {@code name} or update its symbol. */
+    public void put(String name, int symbol) {
+        Node node = root;
+        int i = 0;
+        while (i < name.length()) {
+            int c = find(node, name.charAt(i));
+            if (c < 0) {
+                Node leaf = new Node(name, i, name.length());
+                leaf.name = name;
+                leaf.symbol = symbol;
+                insertChild(node, -c - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[c];
+            int common = 0;
+            int length = child.end - child.start;
+            while (common < length && i + common < name.length()
+                    && child.source.charAt(child.start + common) == name.charAt(i + common)) {
+                common++;
+            }
+            if (common < length) {
+                // split the edge where the names diverge
+                Node middle = new Node(child.source, child.start, child.start + common);
+                child.start += common;
+                middle.children = new Node[] {child};
+                node.children[c] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.name == null) {
+            size++;
+        }
+        node.name = name;
+        node.symbol = symbol;
+    }
+
+    /** Symbol of {@code name}, or {@link SymbolTable#NONE}. */
+    public int get(String name) {
+        Node node = descend(name);
+        return node != null && node.end == name.length() && node.name != null ? node.symbol : SymbolTable.NONE;
+    }
+
+    /** Remove {@code name}; merges edges left with a single child. */
+    public boolean remove(String name) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < name.length()) {
+            int c = find(node, name.charAt(i));
+            if (c < 0) return false;
+            node = node.children[c];
+            if (!name.regionMatches(i, node.source, node.start, node.end - node.start)) return false;
+            i = node.end;
+            path.add(node);
+        }
+        if (node.name == null) return false;
+        node.name = null;
+        node.symbol = SymbolTable.NONE;
+        size--;
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node current = path.get(p);
+            Node parent = path.get(p - 1);
+            if (current.name != null) break;
+            if (current.children.length == 0) {
+                removeChild(parent, current);
+            } else if (current.children.length == 1) {
+                // fold the only child into this edge; its source spells this edge too
+                Node only = current.children[0];
+                only.start = current.start;
+                parent.children[find(parent, current.first())] = only;
+                break;
+            } else {
+                break;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Structural copy; edge labels still point into the same name strings. */
+    public FqnTrie copy() {
+        FqnTrie copy = new FqnTrie();
+        copyChildren(root, copy.root);
+        copy.size = size;
+        return copy;
+    }
+
+    private static void copyChildren(Node from, Node to) {
+        if (from.children.length == 0) {
+            return;
+        }
+        to.children = new Node[from.children.length];
+        for (int i = 0; i < from.children.length; i++) {
+            Node child = from.children[i];
+            Node copied = new Node(child.source, child.start, child.end);
+            copied.name = child.name;
+            copied.symbol = child.symbol;
+            copyChildren(child, copied);
+            to.children[i] = copied;
+        }
+    }
+
+    /** Every name starting with {@code prefix}, in lexicographic order. */
+    public List<String> withPrefix(String prefix) {
+        List<String> names = new ArrayList<>();
+        Node node = descend(prefix);
+        if (node != null) {
+            collect(node, names, -1);
+        }
+        return names;
+    }
+
+    /**
+     * Names directly in {@code packageName}: {@code packageName + "." + X} where X has no further
+     * '.', i.e. the package's top-level types. Subtrees whose edge contains a '.' are skipped.
+     */
+    public List<String> inPackage(String packageName) {
+        String prefix = packageName.isEmpty() ? "" : packageName + ".";
+        List<String> names = new ArrayList<>();
+        Node node = descend(prefix);
+        if (node == null || (node != root && indexOfDot(node, prefix.length()) >= 0)) {
+            return names;
+        }
+        collect(node, names, prefix.length());
+        return names;
+    }
+
+    /** Node whose path starts with {@code prefix} and is closest to the root, or null. */
+    private Node descend(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int c = find(node, prefix.charAt(i));
+            if (c < 0) return null;
+            node = node.children[c];
+            int length = Math.min(node.end, prefix.length()) - i;
+            if (!prefix.regionMatches(i, node.source, node.start, length)) return null;
+            i += length;
+        }
+        return node;
+    }
+
+    /** Pre-order walk; with {@code dotFrom} >= 0, skip edges with a '.' at or after that offset. */
+    private static void collect(Node node, List<String> names, int dotFrom) {
+        if (node.name != null) {
+            names.add(node.name);
+        }
+        for (Node child : node.children) {
+            if (dotFrom >= 0 && indexOfDot(child, dotFrom) >= 0) {
+                continue;
+            }
+            collect(child, names, dotFrom);
+        }
+    }
+
+    private static int indexOfDot(Node node, int from) {
+        int index = node.source.indexOf('.', Math.max(node.start, from));
+        return index >= 0 && index < node.end ? index : -1;
+    }
+
+    /** Index of the child starting with {@code ch}, or {@code -(insertion point) - 1}. */
+    private static int find(Node node, char ch) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = node.children[mid].first();
+            if (first < ch) low = mid + 1;
+            else if (first > ch) high = mid - 1;
+            else return mid;
+        }
+        return -low - 1;
+    }
+
+    private static void insertChild(Node node, int index, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, index, children, index + 1, node.children.length - index);
+        children[index] = child;
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int index = find(node, child.first());
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children;
+    }
+}
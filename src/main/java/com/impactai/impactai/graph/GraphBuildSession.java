@@ -0,0 +1,285 @@
+package com.impactai.impactai.graph;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import com.impactai.impactai.parser.ParsedNodeSink;
+import com.impactai.impactai.util.LoggerUtil;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Builds a {@link DependencyGraph} from parse results pushed one file at a time.
+ *
+ * Nodes are inserted as soon as they arrive; a call or injection edge whose target has not
+ * been seen yet is deferred and resolved in {@link #finish()}. Names are interned into the
+ * graph's {@link SymbolTable}, and nothing of the parser output is kept afterwards.
+ *
+ * In update mode the session works on an existing graph that is not published yet (a
+ * {@link DependencyGraph#copy()} of the current version): nodes are updated in place so edges
+ * from the rest of the graph stay valid, methods that disappeared from a re-parsed class are
+ * removed together with the edges into them, and calls elsewhere in the graph to newly added
+ * methods are linked.
+ */
+public class GraphBuildSession implements ParsedNodeSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphBuildSession.class);
+    private static final int EDGE_LOG_SAMPLE = 20;
+
+    private final DependencyGraph graph;
+    private final boolean update;
+    private final SymbolTable symbols;
+    private final AnnotationClassifier annotationClassifier;
+    private final List<PendingEdge> pendingEdges = new ArrayList<>();
+    private final BitSet addedSymbols = new BitSet();
+    private final BitSet touchedSymbols = new BitSet();
+    private final RoaringBitmap changedSymbols = new RoaringBitmap(); // nodes whose edges changed, for the reach cache
+    private Map<Integer, BitSet> methodsByClass;
+    private final LoggerUtil.Sampled edgeLog = LoggerUtil.sampled(logger, EDGE_LOG_SAMPLE);
+
+    private int parsedNodeCount;
+    private int directEdges;
+    private boolean finished;
+
+    private GraphBuildSession(DependencyGraph graph, boolean update) {
+        this.graph = graph;
+        this.symbols = graph.getSymbols();
+        this.annotationClassifier = graph.getAnnotationClassifier();
+        this.update = update;
+    }
+
+    /** Session filling an empty graph. */
+    public static GraphBuildSession build(DependencyGraph graph) {
+        return new GraphBuildSession(graph, false);
+    }
+
+    /** Session applying re-parsed files to an existing graph no reader has been handed yet. */
+    public static GraphBuildSession update(DependencyGraph graph) {
+        return new GraphBuildSession(graph, true);
+    }
+
+    @Override
+    public void accept(List<ParsedDependencyNode> parsedNodes) {
+        if (finished) {
+            throw new IllegalStateException("Graph build session already finished");
+        }
+        Map<String, BitSet> typesByFile = new HashMap<>();
+        for (ParsedDependencyNode parsedNode : parsedNodes) {
+            try {
+                addParsedNode(parsedNode);
+                parsedNodeCount++;
+                if (parsedNode.getSourceFile() != null) {
+                    typesByFile.computeIfAbsent(parsedNode.getSourceFile(), k -> new BitSet())
+                            .set(symbols.intern(parsedNode.getName()));
+                }
+            } catch (Exception e) {
+                logger.error("Error creating node for {}: {}", parsedNode.getName(), e.getMessage());
+            }
+        }
+        // a re-parsed file replaces its entry, so types moved out of it are dropped
+        SourceIndex sourceIndex = graph.getSourceIndex();
+        for (Map.Entry<String, BitSet> file : typesByFile.entrySet()) {
+            sourceIndex.putFile(file.getKey(), file.getValue().stream().toArray());
+        }
+    }
+
+    private void addParsedNode(ParsedDependencyNode parsedNode) {
+        String nodeId = parsedNode.getName();
+        GraphNode classNode = upsert(nodeId, "class");
+        classNode.setAnnotations(parsedNode.getAnnotations());
+        classNode.setAnnotationFlags(annotationClassifier.classify(parsedNode.getAnnotations()));
+
+        BitSet methodSymbols = new BitSet();
+        if (parsedNode.getMethods() != null) {
+            for (ParsedMethodNode method : parsedNode.getMethods()) {
+                try {
+                    GraphNode methodNode = upsert(nodeId + "." + method.getMethodName(), "method");
+                    methodNode.setCalledMethods(method.getCalledMethods());
+                    methodNode.setAnnotations(method.getAnnotations());
+                    methodNode.setAnnotationFlags(annotationClassifier.classify(method.getAnnotations()));
+                    methodSymbols.set(methodNode.getSymbol());
+
+                    for (int calledMethod : methodNode.getCalledMethodSymbols()) {
+                        GraphNode calledNode = graph.getNode(calledMethod);
+                        if (calledNode != null) {
+                            methodNode.addNeighbor(calledNode);
+                            directEdges++;
+                            edgeLog.debug("Edge: {} → {}", methodNode.getId(), calledNode.getId());
+                        } else {
+                            pendingEdges.add(new PendingEdge(methodNode, calledMethod, false));
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.error("Error creating method node for {}.{}: {}",
+                            nodeId, method.getMethodName(), e.getMessage());
+                }
+            }
+        }
+
+        if (parsedNode.getInjectedDependencies() != null) {
+            for (String injected : parsedNode.getInjectedDependencies()) {
+                int injectedSymbol = symbols.intern(injected);
+                GraphNode injectedNode = graph.getNode(injectedSymbol);
+                if (injectedNode != null) {
+                    classNode.addNeighbor(injectedNode);
+                    directEdges++;
+                    edgeLog.debug("Injection edge: {} → {}", nodeId, injected);
+                } else {
+                    pendingEdges.add(new PendingEdge(classNode, injectedSymbol, true));
+                }
+            }
+        }
+
+        if (update) {
+            removeVanishedMethods(classNode.getSymbol(), methodSymbols);
+        }
+    }
+
+    /**
+     * Resolve deferred edges and publish the result.
+     * @return the built or updated graph
+     */
+    public DependencyGraph finish() {
+        if (finished) {
+            return graph;
+        }
+        finished = true;
+
+        Map<String, GraphNode> classesBySimpleName = null;
+        int resolved = 0;
+        for (PendingEdge edge : pendingEdges) {
+            GraphNode target = graph.getNode(edge.target);
+            if (target == null && edge.injection) {
+                // injected types that aren't FQNs (e.g. unresolved in noclasspath mode)
+                if (classesBySimpleName == null) {
+                    classesBySimpleName = indexClassesBySimpleName();
+                }
+                String targetId = symbols.name(edge.target);
+                target = classesBySimpleName.get(targetId.substring(targetId.lastIndexOf('.') + 1));
+            }
+            if (target != null) {
+                edge.from.addNeighbor(target);
+                resolved++;
+            }
+        }
+        edgeLog.summary("edges");
+        logger.debug("Linked {} edges directly, resolved {} of {} deferred edges",
+                directEdges, resolved, pendingEdges.size());
+        pendingEdges.clear();
+
+        if (update && !addedSymbols.isEmpty()) {
+            linkCallersOfAddedNodes();
+        }
+        touchedSymbols.clear();
+
+        long previousVersion = graph.getVersion();
+        graph.incrementVersion();
+        if (update) {
+            graph.getReachCache().carryOver(previousVersion, graph.getVersion(), changedSymbols);
+        }
+        logger.info("✓ Graph {} with {} parsed nodes: {} graph nodes, {} symbols (version {})",
+                update ? "updated" : "built", parsedNodeCount, graph.getNodeCount(), symbols.size(),
+                graph.getVersion());
+        return graph;
+    }
+
+    public int getParsedNodeCount() {
+        return parsedNodeCount;
+    }
+
+    public DependencyGraph getGraph() {
+        return graph;
+    }
+
+    // ---------------------------------------------------------------------
+
+    private GraphNode upsert(String id, String type) {
+        GraphNode node = graph.getNode(id);
+        if (node != null && node.getType().equals(type)) {
+            // keep the instance: other nodes hold edges to it. Overloads share an id,
+            // so only edges from before this session are dropped.
+            if (!touchedSymbols.get(node.getSymbol())) {
+                touchedSymbols.set(node.getSymbol());
+                changedSymbols.add(node.getSymbol());
+                node.clearNeighbors();
+            }
+            return node;
+        }
+        node = new GraphNode(symbols, id, type);
+        graph.addNode(node);
+        touchedSymbols.set(node.getSymbol());
+        if (update) {
+            addedSymbols.set(node.getSymbol());
+            changedSymbols.add(node.getSymbol());
+        }
+        return node;
+    }
+
+    private void removeVanishedMethods(int classSymbol, BitSet methodSymbols) {
+        if (methodsByClass == null) {
+            methodsByClass = new HashMap<>();
+            for (GraphNode node : graph.getNodeMap().values()) {
+                String id = node.getId();
+                int dot = id.lastIndexOf('.');
+                if ("method".equals(node.getType()) && dot > 0) {
+                    int owner = symbols.lookup(id.substring(0, dot));
+                    if (owner != SymbolTable.NONE) {
+                        methodsByClass.computeIfAbsent(owner, k -> new BitSet()).set(node.getSymbol());
+                    }
+                }
+            }
+        }
+        BitSet previous = methodsByClass.put(classSymbol, methodSymbols);
+        if (previous == null) {
+            return;
+        }
+        previous.andNot(methodSymbols);
+        for (int symbol = previous.nextSetBit(0); symbol >= 0; symbol = previous.nextSetBit(symbol + 1)) {
+            GraphNode vanished = graph.getNode(symbol);
+            if (vanished != null) {
+                changedSymbols.add(symbol);
+                graph.removeNode(vanished.getId());
+                edgeLog.debug("Removed vanished method node: {}", vanished.getId());
+            }
+        }
+    }
+
+    /** Calls recorded before a target existed: link every method that names a newly added node. */
+    private void linkCallersOfAddedNodes() {
+        for (GraphNode node : graph.getNodeMap().values()) {
+            for (int calledMethod : node.getCalledMethodSymbols()) {
+                if (addedSymbols.get(calledMethod)) {
+                    GraphNode target = graph.getNode(calledMethod);
+                    if (target != null) {
+                        node.addNeighbor(target);
+                        changedSymbols.add(node.getSymbol());
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, GraphNode> indexClassesBySimpleName() {
+        Map<String, GraphNode> index = new HashMap<>();
+        for (GraphNode node : graph.getNodeMap().values()) {
+            if ("class".equals(node.getType())) {
+                index.putIfAbsent(node.getName(), node);
+            }
+        }
+        return index;
+    }
+
+    private static final class PendingEdge {
+        final GraphNode from;
+        final int target;
+        final boolean injection;
+
+        PendingEdge(GraphNode from, int target, boolean injection) {
+            this.from = from;
+            this.target = target;
+            this.injection = injection;
+        }
+    }
+}
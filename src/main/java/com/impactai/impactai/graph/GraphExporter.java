@@ -0,0 +1,178 @@
+package com.impactai.impactai.graph;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Streams a {@link DependencyGraph} to a file node by node, so nothing but the graph itself
+ * is held in memory:
+ * <ul>
+ *   <li>{@link Format#JSON}: Cytoscape.js document {@code {"nodes":[...],"edges":[...]}}</li>
+ *   <li>{@link Format#NDJSON}: one {@code {"kind":"node",...}} line per node, then one
+ *       {@code {"kind":"edge",...}} line per edge</li>
+ *   <li>{@link Format#BINARY}: edge list keyed by symbol id, see {@link #writeBinary}</li>
+ * </ul>
+ * Export published graph versions only; they are never modified (see {@link DependencyGraph}).
+ */
+public final class GraphExporter {
+
+    /** First bytes of a {@link Format#BINARY} export. */
+    public static final int BINARY_MAGIC = 0x49414745; // "IAGE"
+    public static final int BINARY_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public enum Format {
+        JSON("json"), NDJSON("ndjson"), BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private GraphExporter() {
+    }
+
+    /**
+     * Write the graph to {@code file} through a buffered file channel. The export goes to a
+     * temporary file next to it first, so readers never see a half-written file.
+     */
+    public static void export(DependencyGraph graph, Format format, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+                write(graph, format, out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Write the graph to {@code out}; the stream is flushed but not closed. */
+    public static void write(DependencyGraph graph, Format format, OutputStream out) throws IOException {
+        switch (format) {
+            case JSON -> writeJson(graph, out);
+            case NDJSON -> writeNdjson(graph, out);
+            case BINARY -> writeBinary(graph, out);
+        }
+    }
+
+    private static void writeJson(DependencyGraph graph, OutputStream out) throws IOException {
+        Collection<GraphNode> nodes = graph.getNodeMap().values();
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeArrayFieldStart("nodes");
+            for (GraphNode node : nodes) {
+                json.writeStartObject();
+                writeNodeFields(json, node, graph.getSymbols());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("edges");
+            for (GraphNode node : nodes) {
+                String source = node.getId();
+                for (int i = 0; i < node.getNeighborCount(); i++) {
+                    json.writeStartObject();
+                    json.writeStringField("source", source);
+                    json.writeStringField("target", node.getNeighbor(i).getId());
+                    json.writeEndObject();
+                }
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeNdjson(DependencyGraph graph, OutputStream out) throws IOException {
+        Collection<GraphNode> nodes = graph.getNodeMap().values();
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            for (GraphNode node : nodes) {
+                json.writeStartObject();
+                json.writeStringField("kind", "node");
+                writeNodeFields(json, node, graph.getSymbols());
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            for (GraphNode node : nodes) {
+                String source = node.getId();
+                for (int i = 0; i < node.getNeighborCount(); i++) {
+                    json.writeStartObject();
+                    json.writeStringField("kind", "edge");
+                    json.writeStringField("source", source);
+                    json.writeStringField("target", node.getNeighbor(i).getId());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private static void writeNodeFields(JsonGenerator json, GraphNode node, SymbolTable symbols) throws IOException {
+        json.writeStringField("id", node.getId());
+        json.writeStringField("type", node.getType());
+        json.writeStringField("label", node.getName());
+        json.writeNumberField("calls", node.getCalledMethodSymbols().length);
+        json.writeArrayFieldStart("annotations");
+        for (int annotation : node.getAnnotationSymbols()) {
+            json.writeString(symbols.name(annotation));
+        }
+        json.writeEndArray();
+    }
+
+    /**
+     * Big-endian layout: {@code int magic, int version, int nodeCount}, then per node
+     * {@code int symbol, UTF type, UTF id}, then {@code long edgeCount} and per edge
+     * {@code int sourceSymbol, int targetSymbol}. Strings use {@link DataOutputStream#writeUTF}.
+     */
+    private static void writeBinary(DependencyGraph graph, OutputStream out) throws IOException {
+        Collection<GraphNode> nodes = graph.getNodeMap().values();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BINARY_MAGIC);
+        data.writeInt(BINARY_VERSION);
+        data.writeInt(nodes.size());
+        long edgeCount = 0;
+        for (GraphNode node : nodes) {
+            data.writeInt(node.getSymbol());
+            data.writeUTF(node.getType());
+            data.writeUTF(node.getId());
+            edgeCount += node.getNeighborCount();
+        }
+        data.writeLong(edgeCount);
+        for (GraphNode node : nodes) {
+            int source = node.getSymbol();
+            for (int i = 0; i < node.getNeighborCount(); i++) {
+                data.writeInt(source);
+                data.writeInt(node.getNeighbor(i).getSymbol());
+            }
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,207 @@
+package com.impactai.impactai.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Graph-wide metrics of one graph version, in primitive arrays indexed by the nodes' dense
+ * index (see {@link DependencyGraph#denseNodes()}), so they are sized by node count:
+ * fan-in, fan-out, strongly connected components ({@link Condensation}), PageRank centrality
+ * and the estimated number of nodes reachable along the impact edges.
+ *
+ * Reach is estimated with HyperLogLog sketches merged over the SCC condensation in reverse
+ * topological order, so it costs O(edges * sketch size) instead of one traversal per node.
+ * A sketch is dropped as soon as every component pointing at it has merged it. Nodes of
+ * another graph version report 0 everywhere.
+ */
+public final class GraphMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphMetrics.class);
+
+    private static final int HLL_PRECISION = 8;
+    private static final int HLL_REGISTERS = 1 << HLL_PRECISION; // ~6.5% standard error
+    private static final double DAMPING = 0.85;
+    private static final int MAX_RANK_ITERATIONS = 30;
+    private static final double RANK_TOLERANCE = 1e-6;
+
+    private final long version;
+    private final int[] fanIn;
+    private final int[] fanOut;
+    private final Condensation condensation;
+    private final int[] reach;
+    private final float[] centrality;
+
+    private GraphMetrics(long version, int[] fanIn, int[] fanOut, Condensation condensation,
+                         int[] reach, float[] centrality) {
+        this.version = version;
+        this.fanIn = fanIn;
+        this.fanOut = fanOut;
+        this.condensation = condensation;
+        this.reach = reach;
+        this.centrality = centrality;
+    }
+
+    /** Graph version the metrics were computed for. */
+    public long getVersion() { return version; }
+
+    public int getFanIn(GraphNode node) { return valid(node) ? fanIn[node.getIndex()] : 0; }
+
+    public int getFanOut(GraphNode node) { return valid(node) ? fanOut[node.getIndex()] : 0; }
+
+    /** Estimated number of nodes impacted by a change of the node, the node included. */
+    public int getReach(GraphNode node) { return valid(node) ? reach[node.getIndex()] : 0; }
+
+    /** PageRank of the node scaled so that the average node scores 1.0. */
+    public float getCentrality(GraphNode node) { return valid(node) ? centrality[node.getIndex()] : 0f; }
+
+    /** Strongly connected components of this version and the DAG between them. */
+    public Condensation getCondensation() { return condensation; }
+
+    /** Whether the node is part of a dependency cycle with other nodes. */
+    public boolean isInCycle(GraphNode node) {
+        int component = condensation.getComponent(node);
+        return component >= 0 && condensation.getSize(component) > 1;
+    }
+
+    private boolean valid(GraphNode node) {
+        return condensation.getComponent(node) >= 0;
+    }
+
+    /**
+     * Compute the metrics of the graph's current version. The caller must keep the graph
+     * from being modified meanwhile.
+     */
+    public static GraphMetrics compute(DependencyGraph graph) {
+        long startTime = System.currentTimeMillis();
+        GraphNode[] nodes = graph.denseNodes();
+        int nodeCount = nodes.length;
+
+        int[] fanIn = new int[nodeCount];
+        int[] fanOut = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            fanOut[v] = nodes[v].getNeighborCount();
+            // edges into a node are listed as its callers
+            fanIn[v] = nodes[v].getCallerCount();
+        }
+
+        Condensation condensation = Condensation.of(nodes);
+        int[] reach = estimateReach(condensation, nodeCount);
+        float[] centrality = pageRank(nodes, fanOut);
+
+        logger.info("Graph metrics for version {}: {} nodes, {} components, computed in {} ms",
+                graph.getVersion(), nodeCount, condensation.getComponentCount(), System.currentTimeMillis() - startTime);
+        return new GraphMetrics(graph.getVersion(), fanIn, fanOut, condensation, reach, centrality);
+    }
+
+    private static int[] estimateReach(Condensation condensation, int nodeCount) {
+        int count = condensation.getComponentCount();
+        // number of predecessors still to merge each component's sketch
+        int[] pending = new int[count];
+        for (int c = 0; c < count; c++) {
+            for (int e = 0; e < condensation.getSuccessorCount(c); e++) {
+                pending[condensation.getSuccessor(c, e)]++;
+            }
+        }
+
+        byte[][] sketches = new byte[count][];
+        int[] reach = new int[nodeCount];
+        for (int c = 0; c < count; c++) {
+            byte[] registers = new byte[HLL_REGISTERS];
+            for (int m = 0; m < condensation.getSize(c); m++) {
+                add(registers, condensation.getMember(c, m));
+            }
+            for (int e = 0; e < condensation.getSuccessorCount(c); e++) {
+                int to = condensation.getSuccessor(c, e);
+                byte[] target = sketches[to];
+                for (int r = 0; r < HLL_REGISTERS; r++) {
+                    if (target[r] > registers[r]) registers[r] = target[r];
+                }
+                if (--pending[to] == 0) sketches[to] = null;
+            }
+            int estimate = estimate(registers);
+            for (int m = 0; m < condensation.getSize(c); m++) {
+                reach[condensation.getMemberIndex(c, m)] = estimate;
+            }
+            if (pending[c] > 0) sketches[c] = registers;
+        }
+        return reach;
+    }
+
+    private static void add(byte[] registers, int symbol) {
+        long hash = mix(symbol);
+        int register = (int) (hash >>> (Long.SIZE - HLL_PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << HLL_PRECISION) | (1L << (HLL_PRECISION - 1))) + 1);
+        if (rank > registers[register]) registers[register] = rank;
+    }
+
+    private static int estimate(byte[] registers) {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double m = HLL_REGISTERS;
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log(m / zeros); // linear counting for small sets
+        }
+        return Math.max(1, (int) Math.round(estimate));
+    }
+
+    /** splitmix64 finalizer, spreads consecutive symbols over the whole hash range. */
+    private static long mix(long x) {
+        x += 0x9e3779b97f4a7c15L;
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * PageRank along the impact edges by power iteration; rank of nodes without outgoing
+     * edges is spread over all nodes.
+     */
+    private static float[] pageRank(GraphNode[] nodes, int[] fanOut) {
+        int nodeCount = nodes.length;
+        float[] centrality = new float[nodeCount];
+        if (nodeCount == 0) {
+            return centrality;
+        }
+        double[] rank = new double[nodeCount];
+        double[] next = new double[nodeCount];
+        Arrays.fill(rank, 1.0 / nodeCount);
+
+        for (int iteration = 0; iteration < MAX_RANK_ITERATIONS; iteration++) {
+            Arrays.fill(next, 0);
+            double dangling = 0;
+            for (int v = 0; v < nodeCount; v++) {
+                if (fanOut[v] == 0) {
+                    dangling += rank[v];
+                    continue;
+                }
+                double share = rank[v] / fanOut[v];
+                for (int e = 0; e < fanOut[v]; e++) {
+                    int w = Condensation.indexIn(nodes, nodes[v].getNeighbor(e));
+                    if (w >= 0) next[w] += share;
+                }
+            }
+            double base = (1 - DAMPING + DAMPING * dangling) / nodeCount;
+            double delta = 0;
+            for (int v = 0; v < nodeCount; v++) {
+                next[v] = base + DAMPING * next[v];
+                delta += Math.abs(next[v] - rank[v]);
+            }
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            if (delta < RANK_TOLERANCE) break;
+        }
+
+        for (int v = 0; v < nodeCount; v++) {
+            centrality[v] = (float) (rank[v] * nodeCount);
+        }
+        return centrality;
+    }
+}
@@ -3,53 +3,128 @@ package com.impactai.impactai.graph;
 import java.util.*;
 
 public class GraphNode {
-    private String id; // unique: e.g., "com.example.A.method1" or "com.example.A"
-    private String type; // "class", "method"
-    private String name; // readable name
-    private Set<GraphNode> neighbors = new HashSet<>();
+    private final SymbolTable symbols;
+    private final int symbol; // unique id, e.g. "com.example.A.method1" or "com.example.A", as a symbol
+    private final String type; // "class", "method"
+    private EdgeList neighbors = new EdgeList();
+    private EdgeList callers = new EdgeList(); // nodes with an edge to this one
+    private int index = -1; // dense position in the graph holding the node, see DependencyGraph
 
-    // NEW: Enhanced fields for risk calculation
-    private List<String> calledMethods = new ArrayList<>();
-    private List<String> annotations = new ArrayList<>();
+    // NEW: Enhanced fields for risk calculation (symbols of the names)
+    private int[] calledMethods = SymbolTable.EMPTY;
+    private int[] annotations = SymbolTable.EMPTY;
+    private long annotationFlags; // see AnnotationClassifier
 
-    public GraphNode(String id, String type, String name) {
-        this.id = id;
+    public GraphNode(SymbolTable symbols, String id, String type) {
+        this.symbols = symbols;
+        this.symbol = symbols.intern(id);
         this.type = type;
-        this.name = name;
+    }
+
+    /** Copy of {@code original} without edges, see {@link DependencyGraph#copy()}. */
+    GraphNode(GraphNode original) {
+        this.symbols = original.symbols;
+        this.symbol = original.symbol;
+        this.type = original.type;
+        this.index = original.index;
+        this.calledMethods = original.calledMethods; // arrays are replaced, never modified
+        this.annotations = original.annotations;
+        this.annotationFlags = original.annotationFlags;
     }
 
     // Existing getters
-    public String getId() { return id; }
+    public String getId() { return symbols.name(symbol); }
+    public int getSymbol() { return symbol; }
     public String getType() { return type; }
-    public String getName() { return name; }
-    public Set<GraphNode> getNeighbors() { return neighbors; }
-    public void addNeighbor(GraphNode node) { neighbors.add(node); }
+
+    int getIndex() { return index; }
+    void setIndex(int index) { this.index = index; }
+
+    /** Readable name: the last segment of the id (simple class name or method name). */
+    public String getName() {
+        String id = getId();
+        return id.substring(id.lastIndexOf('.') + 1);
+    }
+
+    public List<GraphNode> getNeighbors() {
+        return neighbors.asList();
+    }
+    public int getNeighborCount() { return neighbors.size(); }
+    public GraphNode getNeighbor(int index) { return neighbors.get(index); }
+
+    /** Nodes with an edge to this one, kept in step with their neighbor lists. */
+    public int getCallerCount() { return callers.size(); }
+    public GraphNode getCaller(int index) { return callers.get(index); }
+
+    /** Add an edge to {@code node}; a duplicate is ignored in O(1), see {@link EdgeList}. */
+    public void addNeighbor(GraphNode node) {
+        if (neighbors.add(node)) {
+            node.callers.add(this);
+        }
+    }
+
+    public void removeNeighbor(GraphNode node) {
+        if (neighbors.remove(node)) {
+            node.callers.remove(this);
+        }
+    }
+
+    public void clearNeighbors() {
+        for (int i = 0; i < neighbors.size(); i++) {
+            neighbors.get(i).callers.remove(this);
+        }
+        neighbors.clear();
+    }
+
+    /** Drop every edge into and out of this node. */
+    void detach() {
+        while (callers.size() > 0) {
+            callers.get(callers.size() - 1).removeNeighbor(this);
+        }
+        clearNeighbors();
+    }
+
+    /** Give this copy the edges of {@code original}, mapped to the nodes of the copied graph. */
+    void copyEdges(GraphNode original, DependencyGraph copy) {
+        neighbors = original.neighbors.mappedTo(copy);
+        callers = original.callers.mappedTo(copy);
+    }
 
     // NEW: Enhanced getters/setters
-    public List<String> getCalledMethods() { return calledMethods; }
+    public List<String> getCalledMethods() { return symbols.names(calledMethods); }
+    public int[] getCalledMethodSymbols() { return calledMethods; }
     public void setCalledMethods(List<String> calledMethods) {
-        this.calledMethods = calledMethods != null ? calledMethods : new ArrayList<>();
+        this.calledMethods = symbols.internAll(calledMethods);
     }
     public void addCalledMethod(String method) {
         if (method != null && !method.isEmpty()) {
-            this.calledMethods.add(method);
+            this.calledMethods = append(calledMethods, symbols.intern(method));
         }
     }
 
-    public List<String> getAnnotations() { return annotations; }
+    public List<String> getAnnotations() { return symbols.names(annotations); }
+    public int[] getAnnotationSymbols() { return annotations; }
     public void setAnnotations(List<String> annotations) {
-        this.annotations = annotations != null ? annotations : new ArrayList<>();
+        this.annotations = symbols.internAll(annotations);
     }
+    public long getAnnotationFlags() { return annotationFlags; }
+    public void setAnnotationFlags(long annotationFlags) { this.annotationFlags = annotationFlags; }
     public void addAnnotation(String annotation) {
         if (annotation != null && !annotation.isEmpty()) {
-            this.annotations.add(annotation);
+            this.annotations = append(annotations, symbols.intern(annotation));
         }
     }
 
+    private static int[] append(int[] values, int value) {
+        int[] grown = Arrays.copyOf(values, values.length + 1);
+        grown[values.length] = value;
+        return grown;
+    }
+
     @Override
     public String toString() {
         return String.format("[%s] %s => neighbors: %s, calls: %d, annotations: %d",
-                type, id, neighbors.stream().map(GraphNode::getId).toList(),
-                calledMethods.size(), annotations.size());
+                type, getId(), getNeighbors().stream().map(GraphNode::getId).toList(),
+                calledMethods.length, annotations.length);
     }
 }
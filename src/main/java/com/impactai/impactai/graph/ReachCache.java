@@ -0,0 +1,146 @@
+package com.impactai.impactai.graph;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Transitive reach of nodes, memoized across impact analyses of the same graph.
+ *
+ * Entries are keyed by graph version, start node symbol and depth limit (0 = unlimited) and
+ * hold the reached node symbols as one compressed bitmap per traversal level, level 0 being
+ * the start node's component. The least recently used entries are evicted once the bitmaps
+ * exceed the byte budget. When an incremental update publishes a new version, entries whose
+ * reach contains none of the nodes the update changed stay valid and are carried over; every
+ * other entry is dropped.
+ */
+public class ReachCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReachCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, RoaringBitmap[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public ReachCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Cached reach levels, or null. The bitmaps are shared and must not be modified. */
+    public synchronized RoaringBitmap[] get(long version, int symbol, int depthLimit) {
+        RoaringBitmap[] reach = entries.get(new Key(version, symbol, depthLimit));
+        if (reach != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return reach;
+    }
+
+    /** Whether an entry exists, without counting a hit or miss. */
+    public synchronized boolean contains(long version, int symbol, int depthLimit) {
+        return entries.containsKey(new Key(version, symbol, depthLimit));
+    }
+
+    public synchronized void put(long version, int symbol, int depthLimit, RoaringBitmap[] reach) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        for (RoaringBitmap level : reach) {
+            level.runOptimize();
+        }
+        RoaringBitmap[] previous = entries.put(new Key(version, symbol, depthLimit), reach);
+        if (previous != null) {
+            bytes -= sizeInBytes(previous);
+        }
+        bytes += sizeInBytes(reach);
+
+        Iterator<RoaringBitmap[]> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= sizeInBytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Move the entries of {@code fromVersion} that do not reach any changed node to
+     * {@code toVersion}; drop everything else.
+     * @param changed symbols of the nodes whose edges were replaced, added or removed
+     */
+    public synchronized void carryOver(long fromVersion, long toVersion, RoaringBitmap changed) {
+        int before = entries.size();
+        LinkedHashMap<Key, RoaringBitmap[]> kept = new LinkedHashMap<>(64, 0.75f, true);
+        bytes = 0;
+        for (Map.Entry<Key, RoaringBitmap[]> entry : entries.entrySet()) {
+            Key key = entry.getKey();
+            if (key.version == fromVersion && !intersects(entry.getValue(), changed)) {
+                kept.put(new Key(toVersion, key.symbol, key.depthLimit), entry.getValue());
+                bytes += sizeInBytes(entry.getValue());
+            }
+        }
+        entries.clear();
+        entries.putAll(kept);
+        logger.debug("Reach cache: kept {} of {} entries for version {}", entries.size(), before, toVersion);
+    }
+
+    private static boolean intersects(RoaringBitmap[] reach, RoaringBitmap changed) {
+        for (RoaringBitmap level : reach) {
+            if (RoaringBitmap.intersects(level, changed)) return true;
+        }
+        return false;
+    }
+
+    private static long sizeInBytes(RoaringBitmap[] reach) {
+        long size = 0;
+        for (RoaringBitmap level : reach) {
+            size += level.getSizeInBytes();
+        }
+        return size;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized long getSizeInBytes() { return bytes; }
+
+    public synchronized long getHitCount() { return hits; }
+
+    public synchronized long getMissCount() { return misses; }
+
+    private static final class Key {
+        final long version;
+        final int symbol;
+        final int depthLimit;
+
+        Key(long version, int symbol, int depthLimit) {
+            this.version = version;
+            this.symbol = symbol;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return version == other.version && symbol == other.symbol && depthLimit == other.depthLimit;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, symbol, depthLimit);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.impactai.impactai.graph;
+
+import com.impactai.impactai.util.AtomicBitSet;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Level-synchronous BFS over a {@link Condensation}, returning one bitmap of node symbols per
+ * level (level 0 is the start node's component).
+ *
+ * A level whose frontier has at least {@code parallelThreshold} components is expanded on the
+ * fork/join pool: the frontier is split into slices, successors are claimed in an atomic
+ * visited set and the slices' results are merged. Levels are sets, so the result does not
+ * depend on which slice claimed a component first.
+ *
+ * An instance reuses its visited set and queue between traversals and must only be used by
+ * one thread at a time.
+ */
+public class ReachTraversal {
+
+    /** Budget that stopped a traversal before it reached every component. */
+    public enum Limit { NODES, TIME }
+
+    private static final int SLICE_SIZE = 512;
+
+    private final Condensation condensation;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final AtomicBitSet visited;
+    private final int[] queue; // components in visit order; also the list of bits to reset
+
+    /**
+     * @param parallelThreshold frontier size from which a level is expanded in parallel, 0 = never
+     */
+    public ReachTraversal(Condensation condensation, ForkJoinPool pool, int parallelThreshold) {
+        this.condensation = condensation;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.visited = new AtomicBitSet(condensation.getComponentCount());
+        this.queue = new int[condensation.getComponentCount()];
+    }
+
+    /**
+     * Traverse from a root component. Stops after {@code depthLimit} levels (0 = unlimited;
+     * the result is then complete for that limit), or once more than {@code nodeBudget}
+     * nodes were reached or the {@link System#nanoTime()} deadline passed with levels left.
+     */
+    public Result traverse(int root, int depthLimit, int nodeBudget, long deadline) {
+        List<RoaringBitmap> levels = new ArrayList<>();
+        Limit stoppedBy = null;
+        int nodes = 0;
+        int head = 0;
+        int tail = 0;
+        visited.claim(root);
+        queue[tail++] = root;
+        while (head < tail) {
+            int levelEnd = tail;
+            RoaringBitmap level;
+            if (parallelThreshold > 0 && levelEnd - head >= parallelThreshold) {
+                ExpandTask task = new ExpandTask(head, levelEnd);
+                Frontier next = ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+                level = next.members;
+                System.arraycopy(next.discovered, 0, queue, tail, next.count);
+                tail += next.count;
+            } else {
+                level = new RoaringBitmap();
+                for (int q = head; q < levelEnd; q++) {
+                    int component = queue[q];
+                    for (int m = 0; m < condensation.getSize(component); m++) {
+                        level.add(condensation.getMember(component, m));
+                    }
+                    for (int e = 0; e < condensation.getSuccessorCount(component); e++) {
+                        int successor = condensation.getSuccessor(component, e);
+                        if (visited.claim(successor)) {
+                            queue[tail++] = successor;
+                        }
+                    }
+                }
+            }
+            head = levelEnd;
+            levels.add(level);
+            nodes += level.getCardinality();
+            if (depthLimit > 0 && levels.size() >= depthLimit) {
+                break;
+            }
+            if (head < tail && nodes >= nodeBudget) {
+                stoppedBy = Limit.NODES;
+                break;
+            }
+            if (head < tail && System.nanoTime() > deadline) {
+                stoppedBy = Limit.TIME;
+                break;
+            }
+        }
+        for (int q = 0; q < tail; q++) {
+            visited.clear(queue[q]);
+        }
+        return new Result(levels.toArray(new RoaringBitmap[0]), stoppedBy);
+    }
+
+    public static class Result {
+        private final RoaringBitmap[] levels;
+        private final Limit stoppedBy;
+
+        Result(RoaringBitmap[] levels, Limit stoppedBy) {
+            this.levels = levels;
+            this.stoppedBy = stoppedBy;
+        }
+
+        public RoaringBitmap[] getLevels() { return levels; }
+
+        /** Null when the traversal is complete (up to its depth limit). */
+        public Limit getStoppedBy() { return stoppedBy; }
+    }
+
+    /** Members of a frontier slice and the components it newly discovered. */
+    private static final class Frontier {
+        final RoaringBitmap members = new RoaringBitmap();
+        int[] discovered = new int[16];
+        int count;
+
+        void discover(int component) {
+            if (count == discovered.length) {
+                discovered = Arrays.copyOf(discovered, count * 2);
+            }
+            discovered[count++] = component;
+        }
+
+        Frontier merge(Frontier other) {
+            members.or(other.members);
+            if (count + other.count > discovered.length) {
+                discovered = Arrays.copyOf(discovered, count + other.count);
+            }
+            System.arraycopy(other.discovered, 0, discovered, count, other.count);
+            count += other.count;
+            return this;
+        }
+    }
+
+    private final class ExpandTask extends RecursiveTask<Frontier> {
+        private final int from;
+        private final int to;
+
+        ExpandTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Frontier compute() {
+            if (to - from > SLICE_SIZE) {
+                int mid = (from + to) >>> 1;
+                ExpandTask left = new ExpandTask(from, mid);
+                left.fork();
+                Frontier right = new ExpandTask(mid, to).compute();
+                return left.join().merge(right);
+            }
+            Frontier frontier = new Frontier();
+            for (int q = from; q < to; q++) {
+                int component = queue[q];
+                for (int m = 0; m < condensation.getSize(component); m++) {
+                    frontier.members.add(condensation.getMember(component, m));
+                }
+                for (int e = 0; e < condensation.getSuccessorCount(component); e++) {
+                    int successor = condensation.getSuccessor(component, e);
+                    if (visited.claim(successor)) {
+                        frontier.discover(successor);
+                    }
+                }
+            }
+            return frontier;
+        }
+    }
+}
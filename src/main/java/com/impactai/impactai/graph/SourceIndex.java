@@ -0,0 +1,72 @@
+package com.impactai.impactai.graph;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-graph lookup tables kept up to date with the graph instead of being rebuilt per PR:
+ * <ul>
+ *   <li>source file to the types declared in it, recorded from the parser's real source path
+ *       when a file is built or re-parsed; a deleted file keeps its last entry</li>
+ *   <li>an {@link FqnTrie} over every node id, for prefix search and package listings</li>
+ * </ul>
+ * Paths are normalized with {@link #normalize(String)}. Each graph version has its own copy
+ * (see {@link DependencyGraph#copy()}), which is only written before that version is published.
+ */
+public class SourceIndex {
+
+    private final Map<String, int[]> typesByFile = new HashMap<>();
+    private FqnTrie names = new FqnTrie();
+
+    /** Independent copy for the next graph version; the per-file arrays are shared, as they are only replaced. */
+    synchronized SourceIndex copy() {
+        SourceIndex copy = new SourceIndex();
+        copy.typesByFile.putAll(typesByFile);
+        copy.names = names.copy();
+        return copy;
+    }
+
+    /** Replace the types recorded for {@code sourceFile}. */
+    public synchronized void putFile(String sourceFile, int[] typeSymbols) {
+        typesByFile.put(normalize(sourceFile), typeSymbols);
+    }
+
+    /** Symbols of the types last parsed from {@code sourceFile}, or null if it was never parsed. */
+    public synchronized int[] getTypes(String sourceFile) {
+        return typesByFile.get(normalize(sourceFile));
+    }
+
+    public synchronized int getFileCount() {
+        return typesByFile.size();
+    }
+
+    synchronized void addName(String nodeId, int symbol) {
+        names.put(nodeId, symbol);
+    }
+
+    synchronized void removeName(String nodeId) {
+        names.remove(nodeId);
+    }
+
+    /** Node ids starting with {@code prefix}, in lexicographic order. */
+    public synchronized List<String> withPrefix(String prefix) {
+        return names.withPrefix(prefix);
+    }
+
+    /** Top-level types of {@code packageName} (ids {@code packageName.X} with no further '.'). */
+    public synchronized List<String> inPackage(String packageName) {
+        return names.inPackage(packageName);
+    }
+
+    public synchronized void clear() {
+        typesByFile.clear();
+        names = new FqnTrie();
+    }
+
+    /** Absolute, normalized form of {@code path} with '/' separators. */
+    public static String normalize(String path) {
+        return Path.of(path).toAbsolutePath().normalize().toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,135 @@
+package com.impactai.impactai.graph;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Repo-scoped string interning: every FQN, annotation and call target is stored once and
+ * referred to by a dense int id. Graph nodes keep ids instead of strings, so equality checks
+ * on hot paths are int compares and each name exists in memory exactly once.
+ *
+ * Open-addressing hash table over the ids; writers are serialized, and {@link #name(int)}
+ * can be read without locking because the names array is only ever replaced by a larger copy.
+ */
+public class SymbolTable {
+
+    public static final int NONE = -1;
+    static final int[] EMPTY = new int[0];
+
+    private volatile String[] names = new String[64];
+    private int size;
+    private int[] slots = new int[128]; // id + 1, 0 = empty
+
+    /**
+     * Id of {@code s}, adding it if it's new.
+     */
+    public synchronized int intern(String s) {
+        int mask = slots.length - 1;
+        int i = mix(s.hashCode()) & mask;
+        for (int slot; (slot = slots[i]) != 0; i = (i + 1) & mask) {
+            if (names[slot - 1].equals(s)) {
+                return slot - 1;
+            }
+        }
+        int id = size;
+        if (id == names.length) {
+            String[] grown = new String[id * 2];
+            System.arraycopy(names, 0, grown, 0, id);
+            names = grown;
+        }
+        names[id] = s;
+        size++;
+        slots[i] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Id of {@code s}, or {@link #NONE} if it was never interned.
+     */
+    public synchronized int lookup(String s) {
+        if (s == null) return NONE;
+        int mask = slots.length - 1;
+        for (int i = mix(s.hashCode()) & mask, slot; (slot = slots[i]) != 0; i = (i + 1) & mask) {
+            if (names[slot - 1].equals(s)) {
+                return slot - 1;
+            }
+        }
+        return NONE;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    /** Name of {@code id}, or null if no such id was handed out. */
+    public String nameOrNull(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /** The shared instance equal to {@code s}. */
+    public String canonical(String s) {
+        return s == null ? null : names[intern(s)];
+    }
+
+    public int[] internAll(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[values.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = intern(values.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Read-only list view of the names behind {@code ids}; nothing is copied.
+     */
+    public List<String> names(int[] ids) {
+        return new NameList(this, ids);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = mix(names[id].hashCode()) & mask;
+            while (grown[i] != 0) i = (i + 1) & mask;
+            grown[i] = id + 1;
+        }
+        slots = grown;
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class NameList extends AbstractList<String> implements RandomAccess {
+        private final SymbolTable symbols;
+        private final int[] ids;
+
+        NameList(SymbolTable symbols, int[] ids) {
+            this.symbols = symbols;
+            this.ids = ids;
+        }
+
+        @Override
+        public String get(int index) {
+            return symbols.name(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -7,12 +7,23 @@ import static com.impactai.impactai.model.PRChangeInfo.ChangeType.*;
 public class PRChangeInfo {
     public enum ChangeType { ADDED, MODIFIED, DELETED, RENAMED }
 
+    /** What a patch actually changes, ordered from harmless to relevant. */
+    public enum ChangeKind {
+        WHITESPACE, COMMENT, IMPORT, LOGIC;
+
+        /** No code of any method changed. */
+        public boolean isTrivial() { return this != LOGIC; }
+    }
+
     private String filePath;
     private ChangeType changeType;
 
     // NEW: Enhanced fields for line-level analysis
     private String patch; // unified diff from GitHub
     private List<LineRange> changedLines; // set after patch parsing
+    private List<LineRange> removedLines; // old-file ranges, set after patch parsing
+    private List<LineRange> insertedLines; // old-file insertion points, set after patch parsing
+    private ChangeKind changeKind = ChangeKind.LOGIC; // set after patch classification
 
     // Constructors
     public PRChangeInfo() {}
@@ -41,6 +52,12 @@ public class PRChangeInfo {
     public void setPatch(String patch) { this.patch = patch; }
     public List<LineRange> getChangedLines() { return changedLines; }
     public void setChangedLines(List<LineRange> changedLines) { this.changedLines = changedLines; }
+    public List<LineRange> getRemovedLines() { return removedLines; }
+    public void setRemovedLines(List<LineRange> removedLines) { this.removedLines = removedLines; }
+    public List<LineRange> getInsertedLines() { return insertedLines; }
+    public void setInsertedLines(List<LineRange> insertedLines) { this.insertedLines = insertedLines; }
+    public ChangeKind getChangeKind() { return changeKind; }
+    public void setChangeKind(ChangeKind changeKind) { this.changeKind = changeKind; }
 
     // Utility method to convert GitHub status string to enum
     public static ChangeType parseChangeType(String status) {
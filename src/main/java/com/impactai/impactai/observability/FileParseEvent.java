@@ -0,0 +1,55 @@
+package com.impactai.impactai.observability;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * JFR event for parsing one source file. Call {@link #begin()} before parsing and
+ * {@link #record} after; both are no-ops unless a recording has the event enabled.
+ */
+@Name("com.impactai.FileParse")
+@Label("File Parse")
+@Category({"ImpactAI", "Parsing"})
+@Description("Parse of one source file")
+@StackTrace(false)
+public class FileParseEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Parser")
+    @Description("fast or spoon")
+    private String parser;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Nodes")
+    private int nodes;
+
+    @Label("Methods")
+    private int methods;
+
+    public void record(String path, String parser, List<ParsedDependencyNode> nodes) {
+        if (shouldCommit()) {
+            this.path = path;
+            this.parser = parser;
+            this.bytes = new File(path).length();
+            this.nodes = nodes.size();
+            for (ParsedDependencyNode node : nodes) {
+                this.methods += node.getMethods() != null ? node.getMethods().size() : 0;
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.impactai.impactai.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-demand JDK Flight Recorder recording with the ImpactAI events, so slow parses, graph
+ * passes, traversals and GitHub calls can be tied to the repo, file or PR that caused them:
+ * <ul>
+ *   <li>{@code GET /actuator/jfr}: state of the recording</li>
+ *   <li>{@code POST /actuator/jfr} {@code {"settings": "profile", "maxAgeSeconds": 600}}: start one;
+ *       settings is a JDK configuration name (default or profile), both fields optional</li>
+ *   <li>{@code GET /actuator/jfr/dump}: download what was recorded so far; recording continues</li>
+ *   <li>{@code DELETE /actuator/jfr}: stop and discard it</li>
+ * </ul>
+ * The events are also captured by recordings started with {@code -XX:StartFlightRecording}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            FileParseEvent.class, GraphBuildEvent.class, ImpactTraversalEvent.class, GitHubCallEvent.class);
+
+    private static final long DEFAULT_MAX_AGE_SECONDS = 600;
+    private static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private Recording recording;
+    private Path lastDump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings,
+                                                                       @Nullable Long maxAgeSeconds) {
+        if (recording != null) {
+            return new WebEndpointResponse<>(status(), 409); // already recording
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings " + settings),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        recording = new Recording(configuration);
+        recording.setName("impactai");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : DEFAULT_MAX_AGE_SECONDS));
+        recording.setMaxSize(MAX_SIZE_BYTES);
+        for (Class<? extends Event> event : EVENTS) {
+            recording.enable(event).withThreshold(Duration.ZERO);
+        }
+        recording.start();
+        logger.info("Started JFR recording with {} settings", configuration.getName());
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!action.equals("dump") || recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+        }
+        lastDump = Files.createTempFile("impactai-", ".jfr");
+        lastDump.toFile().deleteOnExit();
+        recording.dump(lastDump);
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            logger.info("Stopped JFR recording");
+        }
+        return status();
+    }
+}
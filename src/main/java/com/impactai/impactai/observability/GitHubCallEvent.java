@@ -0,0 +1,38 @@
+package com.impactai.impactai.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one GitHub API request.
+ */
+@Name("com.impactai.GitHubCall")
+@Label("GitHub Call")
+@Category({"ImpactAI", "GitHub"})
+@Description("GitHub REST API request")
+@StackTrace(false)
+public class GitHubCallEvent extends Event {
+
+    @Label("Endpoint")
+    @Description("pulls.files, contents, statuses or comments")
+    private String endpoint;
+
+    @Label("URL")
+    private String url;
+
+    @Label("Success")
+    private boolean success;
+
+    public void record(String endpoint, String url, boolean success) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.url = url;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.impactai.impactai.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one pass over a repository's dependency graph: finishing a full build,
+ * applying an incremental update, or computing the graph metrics.
+ */
+@Name("com.impactai.GraphBuild")
+@Label("Graph Build Pass")
+@Category({"ImpactAI", "Graph"})
+@Description("Build, update or metrics pass over a dependency graph")
+@StackTrace(false)
+public class GraphBuildEvent extends Event {
+
+    @Label("Repository")
+    private String repo;
+
+    @Label("Pass")
+    @Description("finish, update or metrics")
+    private String pass;
+
+    @Label("Parsed Nodes")
+    @Description("Parse results fed into the pass")
+    private int parsedNodes;
+
+    @Label("Graph Nodes")
+    private int graphNodes;
+
+    public void record(String repo, String pass, int parsedNodes, int graphNodes) {
+        if (shouldCommit()) {
+            this.repo = repo;
+            this.pass = pass;
+            this.parsedNodes = parsedNodes;
+            this.graphNodes = graphNodes;
+            commit();
+        }
+    }
+}
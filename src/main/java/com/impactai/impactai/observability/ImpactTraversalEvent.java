@@ -0,0 +1,48 @@
+package com.impactai.impactai.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one impact analysis: the traversal from all changed nodes of a PR.
+ */
+@Name("com.impactai.ImpactTraversal")
+@Label("Impact Traversal")
+@Category({"ImpactAI", "Graph"})
+@Description("Transitive impact traversal from the changed nodes of a PR")
+@StackTrace(false)
+public class ImpactTraversalEvent extends Event {
+
+    @Label("Sources")
+    @Description("Changed nodes the traversal started from")
+    private int sources;
+
+    @Label("Visited")
+    @Description("Impacted nodes in the report")
+    private int visited;
+
+    @Label("Depth")
+    private int depth;
+
+    @Label("Graph Nodes")
+    private int graphNodes;
+
+    @Label("Truncation")
+    @Description("Budget that cut the traversal short, if any")
+    private String truncation;
+
+    public void record(int sources, int visited, int depth, int graphNodes, String truncation) {
+        if (shouldCommit()) {
+            this.sources = sources;
+            this.visited = visited;
+            this.depth = depth;
+            this.graphNodes = graphNodes;
+            this.truncation = truncation;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.impactai.impactai.observability;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the webhook pipeline, exposed on /actuator/prometheus:
+ * <ul>
+ *   <li>{@code impactai.pipeline.stage{pipeline,stage}}: time per stage of a ping or PR run</li>
+ *   <li>{@code impactai.pipeline.runs{pipeline,outcome}}: whole runs and how they ended</li>
+ *   <li>{@code impactai.parse.file{parser}} and {@code impactai.parse.nodes{parser}}: per file parse</li>
+ *   <li>{@code impactai.graph.build{pass}}: graph build, update and metrics passes</li>
+ *   <li>{@code impactai.impact.visited}, {@code impactai.impact.depth}, {@code impactai.impact.truncated}</li>
+ *   <li>{@code impactai.github.requests{endpoint,outcome}}: GitHub API calls</li>
+ *   <li>{@code impactai.query.requests{query,cache}}: graph query API calls, served from cache or computed</li>
+ *   <li>{@code impactai.graph.nodes{repo}}, {@code impactai.reach.cache.*{repo}}: graph and cache gauges</li>
+ * </ul>
+ * Queue depth and pool size of {@code webhookExecutor} come from Spring Boot's executor metrics
+ * ({@code executor.queued{name="webhookExecutor"}} etc.).
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String PR = "pr";
+    public static final String PING = "ping";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // keeps the suppliers reachable, meters only hold weak references to their state
+    private final Map<String, Supplier<DependencyGraph>> graphs = new ConcurrentHashMap<>();
+
+    /** Start timing a run or a stage. */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** Record the time since {@code sample} as {@code stage} of {@code pipeline}; returns the sample of the next stage. */
+    public Timer.Sample stage(Timer.Sample sample, String pipeline, String stage) {
+        sample.stop(registry.timer("impactai.pipeline.stage", "pipeline", pipeline, "stage", stage));
+        return Timer.start(registry);
+    }
+
+    /** Record a whole run of {@code pipeline} that ended with {@code outcome}. */
+    public void run(Timer.Sample sample, String pipeline, String outcome) {
+        sample.stop(registry.timer("impactai.pipeline.runs", "pipeline", pipeline, "outcome", outcome));
+    }
+
+    public void parse(String parser, long nanos, int nodes) {
+        registry.timer("impactai.parse.file", "parser", parser).record(nanos, TimeUnit.NANOSECONDS);
+        registry.summary("impactai.parse.nodes", "parser", parser).record(nodes);
+    }
+
+    public void graphPass(String pass, long nanos) {
+        registry.timer("impactai.graph.build", "pass", pass).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void impact(int visited, int depth, boolean truncated) {
+        registry.summary("impactai.impact.visited").record(visited);
+        registry.summary("impactai.impact.depth").record(depth);
+        if (truncated) {
+            registry.counter("impactai.impact.truncated").increment();
+        }
+    }
+
+    public void github(String endpoint, long nanos, boolean success) {
+        registry.timer("impactai.github.requests", "endpoint", endpoint, "outcome", success ? "success" : "error")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void query(String query, boolean cached, long nanos) {
+        registry.timer("impactai.query.requests", "query", query, "cache", cached ? "hit" : "miss")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Register the gauges of a repository's graph once; {@code graph} returns its current graph or null. */
+    public void registerGraph(String repoFullName, Supplier<DependencyGraph> graph) {
+        if (graphs.putIfAbsent(repoFullName, graph) != null) {
+            return;
+        }
+        Gauge.builder("impactai.graph.nodes", graph, g -> g.get() != null ? g.get().getNodeCount() : 0)
+                .tag("repo", repoFullName).register(registry);
+        Gauge.builder("impactai.graph.symbols", graph, g -> g.get() != null ? g.get().getSymbols().size() : 0)
+                .tag("repo", repoFullName).register(registry);
+        Gauge.builder("impactai.reach.cache.entries", graph, g -> g.get() != null ? g.get().getReachCache().size() : 0)
+                .tag("repo", repoFullName).register(registry);
+        Gauge.builder("impactai.reach.cache.size", graph, g -> g.get() != null ? g.get().getReachCache().getSizeInBytes() : 0)
+                .tag("repo", repoFullName).baseUnit("bytes").register(registry);
+        FunctionCounter.builder("impactai.reach.cache.requests", graph, g -> g.get() != null ? g.get().getReachCache().getHitCount() : 0)
+                .tags("repo", repoFullName, "result", "hit").register(registry);
+        FunctionCounter.builder("impactai.reach.cache.requests", graph, g -> g.get() != null ? g.get().getReachCache().getMissCount() : 0)
+                .tags("repo", repoFullName, "result", "miss").register(registry);
+    }
+}
@@ -11,6 +11,8 @@ public class ParsedDependencyNode {
     private List<String> injectedDependencies;
     private List<String> calledClasses;
     private List<String> endpoints;
+    private List<String> imports;
+    private String sourceFile; // path the node was parsed from
 
     private List<ParsedMethodNode> methods;
     public List<ParsedMethodNode> getMethods() { return methods; }
@@ -73,6 +75,21 @@ public class ParsedDependencyNode {
         this.endpoints = endpoints;
     }
 
+    public List<String> getImports() {
+        return imports;
+    }
+
+    public void setImports(List<String> imports) {
+        this.imports = imports;
+    }
+
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
 
     // getters/setters...
 }
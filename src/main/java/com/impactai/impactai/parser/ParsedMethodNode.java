@@ -14,6 +14,7 @@ public class ParsedMethodNode {
     private boolean isCommentOnly = false;
     private boolean isCriticalMethod = false;
     private int methodComplexity = 0; // Count of methods called
+    private long fingerprint; // normalized token hash of the method's source, 0 = not computed
 
     // Existing getters/setters...
     public String getMethodName() { return methodName; }
@@ -36,4 +37,6 @@ public class ParsedMethodNode {
     public void setCriticalMethod(boolean b) { this.isCriticalMethod = b; }
     public int getMethodComplexity() { return methodComplexity; }
     public void setMethodComplexity(int c) { this.methodComplexity = c; }
+    public long getFingerprint() { return fingerprint; }
+    public void setFingerprint(long f) { this.fingerprint = f; }
 }
@@ -0,0 +1,12 @@
+package com.impactai.impactai.parser;
+
+import java.util.List;
+
+/**
+ * Receives parse results as soon as a file (or batch of files) is done, so callers
+ * don't have to hold the whole repository's parse output at once.
+ */
+@FunctionalInterface
+public interface ParsedNodeSink {
+    void accept(List<ParsedDependencyNode> nodes);
+}
@@ -0,0 +1,89 @@
+package com.impactai.impactai.parser;
+
+import com.impactai.impactai.graph.SymbolTable;
+import com.impactai.impactai.parser.java.JavaParserSelector;
+import com.impactai.impactai.parser.python.PythonParserImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the {@link LanguageParser} for a file by its extension and tags every parsed
+ * node with the file it came from.
+ */
+@Component
+public class ParserRegistry {
+
+    private final Map<String, LanguageParser> parsersByExtension = new HashMap<>();
+
+    @Autowired
+    public ParserRegistry(JavaParserSelector javaParser, PythonParserImpl pythonParser) {
+        parsersByExtension.put(".java", javaParser);
+        parsersByExtension.put(".py", pythonParser);
+    }
+
+    public boolean isSupported(String filePath) {
+        return parserFor(filePath) != null;
+    }
+
+    public List<ParsedDependencyNode> parseFile(String filePath) {
+        LanguageParser parser = parserFor(filePath);
+        if (parser == null) {
+            return Collections.emptyList();
+        }
+        List<ParsedDependencyNode> nodes = parser.parseFile(filePath);
+        for (ParsedDependencyNode node : nodes) {
+            if (node.getSourceFile() == null) {
+                node.setSourceFile(filePath);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Parse and replace every name in the result by the repo's shared instance, for parse
+     * output that lives next to the graph (e.g. the changed files of a PR).
+     */
+    public List<ParsedDependencyNode> parseFile(String filePath, SymbolTable symbols) {
+        List<ParsedDependencyNode> nodes = parseFile(filePath);
+        for (ParsedDependencyNode node : nodes) {
+            node.setName(symbols.canonical(node.getName()));
+            node.setAnnotations(canonical(node.getAnnotations(), symbols));
+            node.setExtendsImplements(canonical(node.getExtendsImplements(), symbols));
+            node.setInjectedDependencies(canonical(node.getInjectedDependencies(), symbols));
+            node.setImports(canonical(node.getImports(), symbols));
+            if (node.getMethods() != null) {
+                for (ParsedMethodNode method : node.getMethods()) {
+                    method.setClassName(symbols.canonical(method.getClassName()));
+                    method.setCalledMethods(canonical(method.getCalledMethods(), symbols));
+                    method.setAnnotations(canonical(method.getAnnotations(), symbols));
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private static List<String> canonical(List<String> values, SymbolTable symbols) {
+        if (values == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (String value : values) {
+            result.add(symbols.canonical(value));
+        }
+        return result;
+    }
+
+    private LanguageParser parserFor(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        if (dot < 0 || dot < filePath.lastIndexOf('/')) {
+            return null;
+        }
+        return parsersByExtension.get(filePath.substring(dot));
+    }
+}
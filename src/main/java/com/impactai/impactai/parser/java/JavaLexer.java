@@ -0,0 +1,278 @@
+package com.impactai.impactai.parser.java;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming lexer for Java source held as raw bytes.
+ *
+ * No token objects are created: {@link #next()} advances to the next token and the
+ * caller reads its kind, byte offsets and line numbers through the accessors.
+ * Bytes >= 0x80 are treated as identifier characters, which covers UTF-8 identifiers.
+ */
+public final class JavaLexer {
+
+    public static final int EOF = 0;
+    public static final int IDENT = 1;          // identifiers and keywords
+    public static final int NUMBER = 2;
+    public static final int LITERAL = 3;        // string, char and text block literals
+    public static final int PUNCT = 4;          // operators and separators ("::", "->" and "..." are one token)
+    public static final int LINE_COMMENT = 5;
+    public static final int BLOCK_COMMENT = 6;
+
+    private final byte[] src;
+    private final int limit;
+    private final boolean emitComments;
+
+    private int pos;
+    private int line = 1;
+    private boolean insideBlockComment;
+
+    private int kind;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenEndLine;
+
+    public JavaLexer(byte[] src) {
+        this(src, 0, src.length, false);
+    }
+
+    /**
+     * @param emitComments when false, comments are skipped like whitespace
+     */
+    public JavaLexer(byte[] src, int from, int to, boolean emitComments) {
+        this.src = src;
+        this.pos = from;
+        this.limit = Math.min(to, src.length);
+        this.emitComments = emitComments;
+    }
+
+    /**
+     * Treat the input as starting inside a block comment, e.g. a diff hunk that
+     * begins in the middle of a Javadoc. The first token runs up to the closing "*&#47;".
+     */
+    public void startInsideBlockComment() {
+        this.insideBlockComment = true;
+    }
+
+    /**
+     * Advance to the next token.
+     * @return the kind of the new current token
+     */
+    public int next() {
+        for (;;) {
+            if (insideBlockComment) {
+                insideBlockComment = false;
+                start = pos;
+                tokenLine = line;
+                skipBlockCommentBody();
+                if (finish(BLOCK_COMMENT)) return kind;
+                continue;
+            }
+
+            skipWhitespace();
+            start = pos;
+            tokenLine = line;
+
+            if (pos >= limit) {
+                return finishAlways(EOF);
+            }
+
+            int c = src[pos] & 0xff;
+
+            if (c == '/' && pos + 1 < limit) {
+                byte d = src[pos + 1];
+                if (d == '/') {
+                    pos += 2;
+                    while (pos < limit && src[pos] != '\n') pos++;
+                    if (finish(LINE_COMMENT)) return kind;
+                    continue;
+                }
+                if (d == '*') {
+                    pos += 2;
+                    skipBlockCommentBody();
+                    if (finish(BLOCK_COMMENT)) return kind;
+                    continue;
+                }
+            }
+
+            if (isIdentStart(c)) {
+                pos++;
+                while (pos < limit && isIdentPart(src[pos] & 0xff)) pos++;
+                return finishAlways(IDENT);
+            }
+
+            if (isDigit(c) || (c == '.' && pos + 1 < limit && isDigit(src[pos + 1] & 0xff))) {
+                scanNumber();
+                return finishAlways(NUMBER);
+            }
+
+            if (c == '"') {
+                if (pos + 2 < limit && src[pos + 1] == '"' && src[pos + 2] == '"') {
+                    scanTextBlock();
+                } else {
+                    scanQuoted('"');
+                }
+                return finishAlways(LITERAL);
+            }
+
+            if (c == '\'') {
+                scanQuoted('\'');
+                return finishAlways(LITERAL);
+            }
+
+            scanPunct(c);
+            return finishAlways(PUNCT);
+        }
+    }
+
+    // ---- accessors for the current token ----
+
+    public int kind() { return kind; }
+    public int start() { return start; }
+    public int end() { return end; }
+    public int line() { return tokenLine; }
+    public int endLine() { return tokenEndLine; }
+
+    /** Current read position, i.e. the end offset of the current token. */
+    public int position() { return pos; }
+
+    public byte[] source() { return src; }
+
+    public String text() {
+        return new String(src, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /** True when the current token is exactly the given ASCII text. */
+    public boolean is(String literal) {
+        return regionEquals(src, start, end, literal);
+    }
+
+    /** True when the current token is the single punctuation character {@code c}. */
+    public boolean isPunct(char c) {
+        return kind == PUNCT && end - start == 1 && src[start] == c;
+    }
+
+    public static boolean regionEquals(byte[] src, int from, int to, String literal) {
+        int len = to - from;
+        if (len != literal.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (src[from + i] != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // ---- scanning helpers ----
+
+    private boolean finish(int k) {
+        if (!emitComments) return false;
+        finishAlways(k);
+        return true;
+    }
+
+    private int finishAlways(int k) {
+        kind = k;
+        end = pos;
+        tokenEndLine = line;
+        return k;
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit) {
+            byte b = src[pos];
+            if (b == '\n') {
+                line++;
+            } else if (b != ' ' && b != '\t' && b != '\r' && b != '\f') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private void skipBlockCommentBody() {
+        while (pos < limit) {
+            byte b = src[pos];
+            if (b == '*' && pos + 1 < limit && src[pos + 1] == '/') {
+                pos += 2;
+                return;
+            }
+            if (b == '\n') line++;
+            pos++;
+        }
+    }
+
+    private void scanNumber() {
+        boolean hex = src[pos] == '0' && pos + 1 < limit && (src[pos + 1] == 'x' || src[pos + 1] == 'X');
+        while (pos < limit) {
+            int c = src[pos] & 0xff;
+            if (isIdentPart(c) || c == '.') {
+                pos++;
+                boolean exponent = hex ? (c == 'p' || c == 'P') : (c == 'e' || c == 'E');
+                if (exponent && pos < limit && (src[pos] == '+' || src[pos] == '-')) pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void scanQuoted(char quote) {
+        pos++;
+        while (pos < limit) {
+            byte b = src[pos];
+            if (b == '\\' && pos + 1 < limit && src[pos + 1] != '\n') {
+                pos += 2;
+            } else if (b == quote) {
+                pos++;
+                return;
+            } else if (b == '\n') {
+                return; // unterminated literal: stop at end of line
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    private void scanTextBlock() {
+        pos += 3;
+        while (pos < limit) {
+            byte b = src[pos];
+            if (b == '\\' && pos + 1 < limit) {
+                if (src[pos + 1] == '\n') line++;
+                pos += 2;
+            } else if (b == '"' && pos + 2 < limit && src[pos + 1] == '"' && src[pos + 2] == '"') {
+                pos += 3;
+                return;
+            } else {
+                if (b == '\n') line++;
+                pos++;
+            }
+        }
+    }
+
+    private void scanPunct(int c) {
+        if (pos + 1 < limit) {
+            byte d = src[pos + 1];
+            if ((c == ':' && d == ':') || (c == '-' && d == '>')) {
+                pos += 2;
+                return;
+            }
+            if (c == '.' && d == '.' && pos + 2 < limit && src[pos + 2] == '.') {
+                pos += 3;
+                return;
+            }
+        }
+        pos++;
+    }
+
+    private static boolean isIdentStart(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$' || c >= 0x80;
+    }
+
+    private static boolean isIdentPart(int c) {
+        return isIdentStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -5,6 +5,8 @@ import com.impactai.impactai.parser.ParsedMethodNode;
 import com.impactai.impactai.parser.LanguageParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import spoon.Launcher;
 import spoon.reflect.CtModel;
@@ -12,23 +14,36 @@ import spoon.reflect.declaration.*;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.code.CtInvocation;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 @Component
 public class JavaParserImpl implements LanguageParser {
     private static final Logger logger = LoggerFactory.getLogger(JavaParserImpl.class);
 
+    @Autowired
+    private SpoonContextRegistry contextRegistry;
+
+    @Value("${impactai.parser.java.spoon.max-companion-files:32}")
+    private int maxCompanionFiles;
 
     @Override
     public List<ParsedDependencyNode> parseFile(String filePath) {
-        Launcher launcher = new Launcher();
-        launcher.addInputResource(filePath);
+        Launcher launcher = createLauncher(filePath);
         launcher.buildModel();
         CtModel model = launcher.getModel();
         List<ParsedDependencyNode> result = new ArrayList<>();
+        File parsedFile = canonical(new File(filePath));
 
         try {
             for (CtType<?> type : model.getAllTypes()) {
+                // Companion sources are only there for type resolution
+                if (!isDeclaredIn(type, parsedFile)) {
+                    continue;
+                }
                 ParsedDependencyNode node = new ParsedDependencyNode();
                 node.setName(type.getQualifiedName());
                 node.setType(type instanceof CtClass ? "class" :
@@ -41,7 +56,7 @@ public class JavaParserImpl implements LanguageParser {
                         node.getAnnotations().add(annotation.getAnnotationType().getQualifiedName());
                     }
                 } catch (Exception e) {
-                    System.err.println("Warning: Error extracting class annotations for " + type.getQualifiedName() + ": " + e.getMessage());
+                    logger.warn("Error extracting class annotations for {}: {}", type.getQualifiedName(), e.getMessage());
                 }
 
                 // Inheritance
@@ -51,7 +66,7 @@ public class JavaParserImpl implements LanguageParser {
                         try {
                             extImplements.add(i.getQualifiedName());
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting superinterface for " + type.getQualifiedName());
+                            logger.warn("Error extracting superinterface for {}", type.getQualifiedName());
                         }
                     });
                     if (type instanceof CtClass) {
@@ -61,7 +76,7 @@ public class JavaParserImpl implements LanguageParser {
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("Warning: Error extracting inheritance for " + type.getQualifiedName() + ": " + e.getMessage());
+                    logger.warn("Error extracting inheritance for {}: {}", type.getQualifiedName(), e.getMessage());
                 }
                 node.setExtendsImplements(extImplements);
 
@@ -79,15 +94,15 @@ public class JavaParserImpl implements LanguageParser {
                                         injected.add(fieldType);
                                     }
                                 } catch (Exception e) {
-                                    System.err.println("Warning: Error processing field annotation: " + e.getMessage());
+                                    logger.warn("Error processing field annotation: {}", e.getMessage());
                                 }
                             });
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting field annotations: " + e.getMessage());
+                            logger.warn("Error extracting field annotations: {}", e.getMessage());
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("Warning: Error extracting injected dependencies for " + type.getQualifiedName() + ": " + e.getMessage());
+                    logger.warn("Error extracting injected dependencies for {}: {}", type.getQualifiedName(), e.getMessage());
                 }
                 node.setInjectedDependencies(injected);
 
@@ -105,11 +120,11 @@ public class JavaParserImpl implements LanguageParser {
                                 }
                             }
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting endpoint annotation for method: " + e.getMessage());
+                            logger.warn("Error extracting endpoint annotation for method: {}", e.getMessage());
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("Warning: Error extracting endpoints for " + type.getQualifiedName() + ": " + e.getMessage());
+                    logger.warn("Error extracting endpoints for {}: {}", type.getQualifiedName(), e.getMessage());
                 }
                 node.setEndpoints(endpoints);
 
@@ -129,10 +144,10 @@ public class JavaParserImpl implements LanguageParser {
                                 startLine = method.getPosition().getLine();
                                 endLine = method.getPosition().getEndLine();
                             } else {
-                                System.out.println("Warning: No valid position for method " + method.getSimpleName() + " in " + type.getQualifiedName());
+                                logger.warn("No valid position for method {} in {}", method.getSimpleName(), type.getQualifiedName());
                             }
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting line numbers for method " + method.getSimpleName() + ": " + e.getMessage());
+                            logger.warn("Error extracting line numbers for method {}: {}", method.getSimpleName(), e.getMessage());
                         }
                         parsedMethod.setStartLine(startLine);
                         parsedMethod.setEndLine(endLine);
@@ -144,11 +159,11 @@ public class JavaParserImpl implements LanguageParser {
                                 try {
                                     methodAnnotations.add(ann.getAnnotationType().getQualifiedName());
                                 } catch (Exception e) {
-                                    System.err.println("Warning: Error processing method annotation: " + e.getMessage());
+                                    logger.warn("Error processing method annotation: {}", e.getMessage());
                                 }
                             }
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting method annotations for " + method.getSimpleName() + ": " + e.getMessage());
+                            logger.warn("Error extracting method annotations for {}: {}", method.getSimpleName(), e.getMessage());
                         }
                         parsedMethod.setAnnotations(methodAnnotations);
 
@@ -174,18 +189,18 @@ public class JavaParserImpl implements LanguageParser {
                                                 calledMethods.add(calledName);
                                             }
                                         } catch (Exception e) {
-                                            System.err.println("Warning: Error processing method invocation: " + e.getMessage());
+                                            logger.warn("Error processing method invocation: {}", e.getMessage());
                                         }
                                     });
                         } catch (Exception e) {
-                            System.err.println("Warning: Error extracting called methods for " + method.getSimpleName() + ": " + e.getMessage());
+                            logger.warn("Error extracting called methods for {}: {}", method.getSimpleName(), e.getMessage());
                         }
                         parsedMethod.setCalledMethods(calledMethods);
 
                         methods.add(parsedMethod);
                     }
                 } catch (Exception e) {
-                    System.err.println("Warning: Error parsing methods for " + type.getQualifiedName() + ": " + e.getMessage());
+                    logger.warn("Error parsing methods for {}: {}", type.getQualifiedName(), e.getMessage());
                 }
                 node.setMethods(methods);
                 // --------------------------------------------------------
@@ -193,10 +208,52 @@ public class JavaParserImpl implements LanguageParser {
                 result.add(node);
             }
         } catch (Exception e) {
-            System.err.println("Critical error in parseFile for " + filePath + ": " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Critical error in parseFile for {}: {}", filePath, e.getMessage(), e);
         }
 
         return result;
     }
+
+    /**
+     * Launcher on the repo's shared environment, with the sources this file refers to added
+     * so calls into them resolve to their declaring types.
+     */
+    private Launcher createLauncher(String filePath) {
+        if (contextRegistry == null) {
+            Launcher launcher = new Launcher();
+            launcher.addInputResource(filePath);
+            return launcher;
+        }
+        Path path = Path.of(filePath);
+        SpoonParsingContext context = contextRegistry.forFile(path);
+        // the file may be new to the checkout or declare other types than when it was indexed
+        context.refresh(path);
+        Launcher launcher = context.newLauncher();
+        launcher.addInputResource(filePath);
+        try {
+            List<Path> companions = context.companionsOf(path, Files.readAllBytes(path), maxCompanionFiles);
+            for (Path companion : companions) {
+                launcher.addInputResource(companion.toString());
+            }
+            logger.debug("Parsing {} with {} companion sources", filePath, companions.size());
+        } catch (IOException e) {
+            logger.warn("Could not read {}: {}", filePath, e.getMessage());
+        }
+        return launcher;
+    }
+
+    private static boolean isDeclaredIn(CtType<?> type, File file) {
+        if (type.getPosition() == null || type.getPosition().getFile() == null) {
+            return true;
+        }
+        return canonical(type.getPosition().getFile()).equals(file);
+    }
+
+    private static File canonical(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
 }
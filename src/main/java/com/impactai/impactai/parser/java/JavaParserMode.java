@@ -0,0 +1,22 @@
+package com.impactai.impactai.parser.java;
+
+/**
+ * Which Java parser backs {@link JavaParserSelector}.
+ */
+public enum JavaParserMode {
+    /** Full Spoon/JDT model for every file */
+    SPOON,
+    /** Streaming lexer and shallow structure parser only */
+    FAST,
+    /** Fast path, falling back to Spoon for files whose call targets need type resolution */
+    HYBRID;
+
+    public static JavaParserMode from(String value) {
+        if (value == null || value.isBlank()) return SPOON;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return SPOON;
+        }
+    }
+}
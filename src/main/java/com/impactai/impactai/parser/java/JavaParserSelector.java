@@ -0,0 +1,83 @@
+package com.impactai.impactai.parser.java;
+
+import com.impactai.impactai.observability.FileParseEvent;
+import com.impactai.impactai.observability.PipelineMetrics;
+import com.impactai.impactai.parser.LanguageParser;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Java parser entry point used by the services. Delegates to Spoon, the fast-path
+ * parser, or both according to {@code impactai.parser.java.mode}.
+ */
+@Component
+public class JavaParserSelector implements LanguageParser {
+    private static final Logger logger = LoggerFactory.getLogger(JavaParserSelector.class);
+
+    private final JavaParserImpl spoonParser;
+    private final FastJavaParserImpl fastParser;
+
+    @Value("${impactai.parser.java.mode:spoon}")
+    private String mode;
+
+    @Value("${impactai.parser.java.hybrid-max-unresolved-ratio:0.25}")
+    private double maxUnresolvedRatio;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    public JavaParserSelector(JavaParserImpl spoonParser, FastJavaParserImpl fastParser) {
+        this.spoonParser = spoonParser;
+        this.fastParser = fastParser;
+    }
+
+    @Override
+    public List<ParsedDependencyNode> parseFile(String filePath) {
+        switch (getMode()) {
+            case SPOON:
+                return parseWithSpoon(filePath);
+            case FAST:
+                return parseWithFastPath(filePath).getNodes();
+            case HYBRID:
+            default:
+                FastJavaParserImpl.FastParseResult result = parseWithFastPath(filePath);
+                if (result.isComplete() && result.getUnresolvedRatio() <= maxUnresolvedRatio) {
+                    return result.getNodes();
+                }
+                logger.debug("Falling back to Spoon for {} (complete={}, unresolved ratio={})",
+                        filePath, result.isComplete(), result.getUnresolvedRatio());
+                return parseWithSpoon(filePath);
+        }
+    }
+
+    private FastJavaParserImpl.FastParseResult parseWithFastPath(String filePath) {
+        FileParseEvent event = new FileParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        FastJavaParserImpl.FastParseResult result = fastParser.parse(filePath);
+        pipelineMetrics.parse("fast", System.nanoTime() - start, result.getNodes().size());
+        event.record(filePath, "fast", result.getNodes());
+        return result;
+    }
+
+    private List<ParsedDependencyNode> parseWithSpoon(String filePath) {
+        FileParseEvent event = new FileParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<ParsedDependencyNode> nodes = spoonParser.parseFile(filePath);
+        pipelineMetrics.parse("spoon", System.nanoTime() - start, nodes.size());
+        event.record(filePath, "spoon", nodes);
+        return nodes;
+    }
+
+    public JavaParserMode getMode() {
+        return JavaParserMode.from(mode);
+    }
+}
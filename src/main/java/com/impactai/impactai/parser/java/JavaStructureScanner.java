@@ -0,0 +1,963 @@
+package com.impactai.impactai.parser.java;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Shallow structural parser driven by {@link JavaLexer} with one token of lookahead.
+ *
+ * It recognises package/imports, type declarations (including nested ones), fields,
+ * methods and call sites inside method bodies, and resolves call receivers using only
+ * what is visible in the file: imports, field and local declarations, same-package types.
+ * Calls whose receiver needs real type attribution (chained calls, {@code var} locals,
+ * lambda parameters, wildcard imports) are kept as bare method names and counted as
+ * unresolved so callers can decide to fall back to Spoon.
+ */
+final class JavaStructureScanner {
+
+    private static final Set<String> MODIFIERS = Set.of(
+            "public", "protected", "private", "static", "final", "abstract", "synchronized",
+            "native", "transient", "volatile", "strictfp", "default", "sealed");
+
+    // Identifiers followed by '(' that are not method invocations
+    private static final Set<String> NON_CALL_KEYWORDS = Set.of(
+            "if", "for", "while", "switch", "catch", "synchronized", "return", "throw", "assert",
+            "new", "this", "super", "yield", "else", "case", "do", "try", "instanceof");
+
+    // Keywords that may directly precede an expression (so "kw name(" is a call, not a declaration)
+    private static final Set<String> EXPRESSION_KEYWORDS = Set.of(
+            "return", "throw", "case", "yield", "else", "assert", "do", "new", "instanceof",
+            "break", "continue", "package", "import");
+
+    private static final Set<String> PRIMITIVES = Set.of(
+            "boolean", "byte", "char", "short", "int", "long", "float", "double", "void");
+
+    private static final Set<String> JAVA_LANG = Set.of(
+            "Object", "String", "StringBuilder", "StringBuffer", "CharSequence", "Integer", "Long",
+            "Double", "Float", "Short", "Byte", "Boolean", "Character", "Number", "Void", "Math",
+            "StrictMath", "System", "Thread", "ThreadLocal", "Runnable", "Runtime", "Class", "Enum",
+            "Record", "Iterable", "Comparable", "AutoCloseable", "Cloneable", "Throwable", "Error",
+            "Exception", "RuntimeException", "IllegalArgumentException", "IllegalStateException",
+            "NullPointerException", "UnsupportedOperationException", "IndexOutOfBoundsException",
+            "InterruptedException", "Override", "Deprecated", "SuppressWarnings",
+            "FunctionalInterface", "SafeVarargs");
+
+    // Common types of JDK packages that are usually imported with a wildcard
+    private static final Map<String, Set<String>> WELL_KNOWN_PACKAGES = Map.of(
+            "java.util", Set.of("List", "ArrayList", "LinkedList", "Map", "HashMap", "LinkedHashMap",
+                    "TreeMap", "Set", "HashSet", "LinkedHashSet", "TreeSet", "Collection", "Collections",
+                    "Arrays", "Objects", "Optional", "Iterator", "Queue", "Deque", "ArrayDeque",
+                    "Comparator", "UUID", "Random", "Base64", "StringJoiner"),
+            "java.util.stream", Set.of("Stream", "Collectors", "IntStream", "LongStream"),
+            "java.util.function", Set.of("Function", "Supplier", "Consumer", "Predicate", "BiFunction"),
+            "java.util.concurrent", Set.of("ConcurrentHashMap", "ConcurrentMap", "Executor",
+                    "ExecutorService", "Executors", "CompletableFuture", "Future", "TimeUnit"),
+            "java.io", Set.of("File", "IOException", "InputStream", "OutputStream", "Reader", "Writer",
+                    "PrintWriter", "BufferedReader", "UncheckedIOException"),
+            "java.nio.file", Set.of("Files", "Path", "Paths"));
+
+    private static final Set<String> INJECTION_ANNOTATIONS = Set.of("Autowired", "Inject", "Value", "Resource");
+
+    private static final Set<String> MAPPING_ANNOTATIONS = Set.of(
+            "RequestMapping", "GetMapping", "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping");
+
+    private final byte[] src;
+    private final JavaLexer lexer;
+
+    // current token
+    private int kind;
+    private int start;
+    private int end;
+    private int line;
+
+    // one token of lookahead
+    private int laKind;
+    private int laStart;
+    private int laEnd;
+
+    // the two preceding tokens
+    private int p1Kind;
+    private int p1Start;
+    private int p1End;
+    private int p2Kind;
+    private int p2End;
+
+    private String packageName = "";
+    private final Map<String, String> imports = new HashMap<>();
+    private final Map<String, String> staticImports = new HashMap<>();
+    private final Map<String, String> declaredTypes = new HashMap<>();
+    private final List<String> wildcardPackages = new ArrayList<>();
+    private boolean ambiguous;
+
+    final List<ParsedDependencyNode> nodes = new ArrayList<>();
+    int resolvedCalls;
+    int unresolvedCalls;
+
+    JavaStructureScanner(byte[] src) {
+        this.src = src;
+        this.lexer = new JavaLexer(src);
+        lexer.next();
+        laKind = lexer.kind();
+        laStart = lexer.start();
+        laEnd = lexer.end();
+        advance();
+    }
+
+    /** Scan the whole compilation unit. */
+    void scan() {
+        while (kind != JavaLexer.EOF) {
+            if (isIdent("package")) {
+                advance();
+                packageName = readQualifiedName();
+                continue;
+            }
+            if (isPunct(';')) {
+                advance();
+                continue;
+            }
+            if (isIdent("import")) {
+                parseImport();
+                continue;
+            }
+            members(null);
+        }
+        fixForwardReferences();
+    }
+
+    /**
+     * Nested types declared further down the file were guessed as same-package top-level
+     * types while scanning; rewrite those guesses now that every declaration has been seen.
+     */
+    private void fixForwardReferences() {
+        Map<String, String> rewrites = new HashMap<>();
+        String prefix = packageName.isEmpty() ? "" : packageName + ".";
+        for (Map.Entry<String, String> e : declaredTypes.entrySet()) {
+            String guess = prefix + e.getKey();
+            if (!guess.equals(e.getValue())) rewrites.put(guess, e.getValue());
+        }
+        if (rewrites.isEmpty()) {
+            return;
+        }
+        for (ParsedDependencyNode node : nodes) {
+            node.getExtendsImplements().replaceAll(t -> rewrites.getOrDefault(t, t));
+            node.getInjectedDependencies().replaceAll(t -> rewrites.getOrDefault(t, t));
+            for (ParsedMethodNode method : node.getMethods()) {
+                method.getCalledMethods().replaceAll(call -> {
+                    int dot = call.lastIndexOf('.');
+                    if (dot < 0) return call;
+                    String target = rewrites.get(call.substring(0, dot));
+                    return target != null ? target + call.substring(dot) : call;
+                });
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Token plumbing
+    // ---------------------------------------------------------------------
+
+    private void advance() {
+        p2Kind = p1Kind;
+        p2End = p1End;
+        p1Kind = kind;
+        p1Start = start;
+        p1End = end;
+
+        kind = laKind;
+        start = laStart;
+        end = laEnd;
+        line = lexer.line();
+
+        lexer.next();
+        laKind = lexer.kind();
+        laStart = lexer.start();
+        laEnd = lexer.end();
+    }
+
+    private boolean isIdent(String s) {
+        return kind == JavaLexer.IDENT && JavaLexer.regionEquals(src, start, end, s);
+    }
+
+    private boolean isPunct(char c) {
+        return kind == JavaLexer.PUNCT && end - start == 1 && src[start] == c;
+    }
+
+    private boolean laIsPunct(char c) {
+        return laKind == JavaLexer.PUNCT && laEnd - laStart == 1 && src[laStart] == c;
+    }
+
+    private boolean p1IsPunct(char c) {
+        return p1Kind == JavaLexer.PUNCT && p1End - p1Start == 1 && src[p1Start] == c;
+    }
+
+    private String text() {
+        return new String(src, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private String text(int from, int to) {
+        return new String(src, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /** Read {@code a.b.c} starting at the current identifier; stops before the first non-name token. */
+    private String readQualifiedName() {
+        StringBuilder sb = new StringBuilder();
+        while (kind == JavaLexer.IDENT) {
+            sb.append(text());
+            advance();
+            if (isPunct('.') && laKind == JavaLexer.IDENT) {
+                sb.append('.');
+                advance();
+            } else {
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private void skipBalanced(char open, char close) {
+        int depth = 0;
+        while (kind != JavaLexer.EOF) {
+            if (isPunct(open)) depth++;
+            else if (isPunct(close)) depth--;
+            advance();
+            if (depth <= 0) return;
+        }
+    }
+
+    private void skipAngles() {
+        int depth = 0;
+        while (kind != JavaLexer.EOF) {
+            if (isPunct('<')) depth++;
+            else if (isPunct('>')) depth--;
+            else if (isPunct(';') || isPunct('{') || isPunct('(') || isPunct('=')) return;
+            advance();
+            if (depth <= 0) return;
+        }
+    }
+
+    /** Skip a field initializer; stops (without consuming) at ',' or ';' on the declaration level. */
+    private void skipInitializer() {
+        int depth = 0;
+        int angles = 0;
+        while (kind != JavaLexer.EOF) {
+            if (kind == JavaLexer.PUNCT && end - start == 1) {
+                char c = (char) src[start];
+                if (c == '(' || c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ')' || c == ']' || c == '}') {
+                    if (depth == 0) return;
+                    depth--;
+                } else if (c == '<' && p1Kind == JavaLexer.IDENT && Character.isUpperCase(src[p1Start])) {
+                    angles++;
+                } else if (c == '>' && angles > 0) {
+                    angles--;
+                } else if ((c == ',' || c == ';') && depth == 0 && angles == 0) {
+                    return;
+                }
+            }
+            advance();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Declarations
+    // ---------------------------------------------------------------------
+
+    private void parseImport() {
+        advance();
+        boolean isStatic = false;
+        if (isIdent("static")) {
+            isStatic = true;
+            advance();
+        }
+        StringBuilder name = new StringBuilder();
+        boolean wildcard = false;
+        while (kind != JavaLexer.EOF && !isPunct(';')) {
+            if (kind == JavaLexer.IDENT) {
+                name.append(text());
+            } else if (isPunct('.')) {
+                if (laIsPunct('*')) {
+                    wildcard = true;
+                    advance();
+                } else {
+                    name.append('.');
+                }
+            }
+            advance();
+        }
+        advance();
+
+        String qualified = name.toString();
+        int lastDot = qualified.lastIndexOf('.');
+        if (wildcard) {
+            if (!isStatic) wildcardPackages.add(qualified);
+        } else if (lastDot > 0) {
+            String simple = qualified.substring(lastDot + 1);
+            if (isStatic) {
+                staticImports.put(simple, qualified.substring(0, lastDot));
+            } else {
+                imports.put(simple, qualified);
+            }
+        }
+    }
+
+    /**
+     * Member (or top-level) declarations until the closing brace of {@code owner}
+     * is consumed. With a null owner this returns at EOF or at a stray closing brace.
+     */
+    private void members(TypeFrame owner) {
+        List<String> annotations = new ArrayList<>();
+        int declLine = -1;
+
+        if (owner != null && owner.isEnum && enumConstants()) {
+            return;
+        }
+
+        while (kind != JavaLexer.EOF) {
+            if (isPunct('}')) {
+                advance();
+                return;
+            }
+            if (isPunct(';')) {
+                advance();
+                annotations = new ArrayList<>();
+                declLine = -1;
+                continue;
+            }
+            if (isPunct('@')) {
+                if (declLine < 0) declLine = line;
+                if (laKind == JavaLexer.IDENT && JavaLexer.regionEquals(src, laStart, laEnd, "interface")) {
+                    advance();
+                    typeDeclaration(owner, annotations, declLine);
+                    annotations = new ArrayList<>();
+                    declLine = -1;
+                } else {
+                    annotations.add(annotation());
+                }
+                continue;
+            }
+            if (isPunct('{')) {
+                skipBalanced('{', '}');
+                annotations = new ArrayList<>();
+                declLine = -1;
+                continue;
+            }
+            if (isPunct('<')) {
+                skipAngles();
+                continue;
+            }
+            if (kind == JavaLexer.IDENT) {
+                if (declLine < 0) declLine = line;
+                if (isIdent("class") || isIdent("interface") || isIdent("enum")
+                        || (isIdent("record") && laKind == JavaLexer.IDENT)) {
+                    typeDeclaration(owner, annotations, declLine);
+                    annotations = new ArrayList<>();
+                    declLine = -1;
+                    continue;
+                }
+                if (MODIFIERS.contains(text())) {
+                    advance();
+                    continue;
+                }
+                if (isIdent("non") && laIsPunct('-')) { // non-sealed
+                    advance();
+                    advance();
+                    continue;
+                }
+                if (owner == null) {
+                    if (isIdent("import")) return;
+                    advance();
+                    continue;
+                }
+                member(owner, annotations, declLine);
+                annotations = new ArrayList<>();
+                declLine = -1;
+                continue;
+            }
+            advance();
+        }
+    }
+
+    /** Skip enum constants. Returns true if the enum body ended. */
+    private boolean enumConstants() {
+        while (kind != JavaLexer.EOF) {
+            if (isPunct(';')) {
+                advance();
+                return false;
+            }
+            if (isPunct('}')) {
+                advance();
+                return true;
+            }
+            if (isPunct('(')) {
+                skipBalanced('(', ')');
+            } else if (isPunct('{')) {
+                skipBalanced('{', '}');
+            } else if (isPunct('@')) {
+                annotation();
+            } else {
+                advance();
+            }
+        }
+        return true;
+    }
+
+    /** Current token is '@'. Returns the resolved annotation type name. */
+    private String annotation() {
+        advance();
+        String name = readQualifiedName();
+        if (isPunct('(')) {
+            skipBalanced('(', ')');
+        }
+        String resolved = resolveType(name);
+        return resolved != null ? resolved : name;
+    }
+
+    /** Current token is the type keyword (class, interface, enum, record; interface after '@'). */
+    private void typeDeclaration(TypeFrame owner, List<String> annotations, int declLine) {
+        String keyword = text();
+        boolean annotationType = p1IsPunct('@');
+        advance();
+        if (kind != JavaLexer.IDENT) {
+            return;
+        }
+        String simple = text();
+        advance();
+
+        String fqn = owner == null
+                ? (packageName.isEmpty() ? simple : packageName + "." + simple)
+                : owner.fqn + "$" + simple;
+        declaredTypes.putIfAbsent(simple, fqn);
+
+        ParsedDependencyNode node = new ParsedDependencyNode();
+        node.setName(fqn);
+        if (annotationType) {
+            node.setType("unknown");
+        } else if (keyword.equals("interface")) {
+            node.setType("interface");
+        } else {
+            node.setType("class"); // classes, enums and records
+        }
+        node.setAnnotations(new ArrayList<>(annotations));
+        nodes.add(node);
+
+        List<String> extImplements = new ArrayList<>();
+        String superClass = null;
+        int mode = 0; // 1 = extends, 2 = implements, 3 = permits
+        while (kind != JavaLexer.EOF && !isPunct('{')) {
+            if (isPunct(';')) {
+                break;
+            }
+            if (isPunct('<')) {
+                skipAngles();
+            } else if (isPunct('(')) {
+                skipBalanced('(', ')'); // record components
+            } else if (isPunct('@')) {
+                annotation();
+            } else if (isIdent("extends")) {
+                mode = 1;
+                advance();
+            } else if (isIdent("implements")) {
+                mode = 2;
+                advance();
+            } else if (isIdent("permits")) {
+                mode = 3;
+                advance();
+            } else if (kind == JavaLexer.IDENT && (mode == 1 || mode == 2)) {
+                String name = readQualifiedName();
+                String resolved = resolveType(name);
+                if (resolved == null) resolved = name;
+                if (mode == 1 && keyword.equals("class")) {
+                    superClass = resolved;
+                } else {
+                    extImplements.add(resolved);
+                }
+            } else {
+                advance();
+            }
+        }
+        if (superClass != null && !superClass.equals("java.lang.Object")) {
+            extImplements.add(superClass);
+        }
+        node.setExtendsImplements(extImplements);
+
+        TypeFrame frame = new TypeFrame(owner, fqn, simple, keyword.equals("enum"), superClass);
+        node.setInjectedDependencies(frame.injected);
+        node.setEndpoints(frame.endpoints);
+        node.setMethods(frame.methods);
+
+        if (isPunct('{')) {
+            advance();
+            members(frame);
+        }
+        countSelfCalls(frame);
+    }
+
+    /**
+     * Settle the calls attributed to a subclass itself once all its methods are known: a name the
+     * type does not declare is most likely inherited, so the call counts as unresolved and lets the
+     * hybrid parser fall back to Spoon, which attributes it to the declaring superclass.
+     */
+    private void countSelfCalls(TypeFrame frame) {
+        if (frame.selfCalls.isEmpty()) {
+            return;
+        }
+        Set<String> declared = new HashSet<>();
+        for (ParsedMethodNode method : frame.methods) {
+            declared.add(method.getMethodName());
+        }
+        for (String name : frame.selfCalls) {
+            if (declared.contains(name)) {
+                resolvedCalls++;
+            } else {
+                unresolvedCalls++;
+            }
+        }
+    }
+
+    /** A field, method or constructor. Current token is the first identifier after modifiers. */
+    private void member(TypeFrame owner, List<String> annotations, int declLine) {
+        String typeName = null;
+        String lastIdent = null;
+        int words = 0;
+        boolean recorded = false;
+
+        while (kind != JavaLexer.EOF) {
+            if (kind == JavaLexer.IDENT) {
+                String t = text();
+                if (p1IsPunct('.') && words == 1) {
+                    typeName = typeName + "." + t;
+                    lastIdent = t;
+                } else {
+                    words++;
+                    if (words == 1) typeName = t;
+                    lastIdent = t;
+                }
+                advance();
+            } else if (isPunct('<')) {
+                skipAngles();
+            } else if (isPunct('@')) {
+                annotation(); // type-use annotation
+            } else if (isPunct('(')) {
+                if (words >= 2) {
+                    method(owner, lastIdent, annotations, declLine);
+                } else {
+                    skipConstructorOrJunk();
+                }
+                return;
+            } else if (isPunct('=') || isPunct(',') || isPunct(';')) {
+                if (!recorded && words >= 2) {
+                    field(owner, typeName, lastIdent, annotations);
+                    recorded = true;
+                }
+                if (isPunct('=')) {
+                    advance();
+                    skipInitializer();
+                } else if (isPunct(',')) {
+                    advance();
+                    words = 1; // next identifier is another declarator of the same type
+                    recorded = false;
+                } else {
+                    advance();
+                    return;
+                }
+            } else if (isPunct('{')) {
+                skipBalanced('{', '}'); // compact record constructor
+                return;
+            } else if (isPunct('}')) {
+                return;
+            } else {
+                advance();
+            }
+        }
+    }
+
+    private void skipConstructorOrJunk() {
+        skipBalanced('(', ')');
+        while (kind != JavaLexer.EOF && !isPunct('{') && !isPunct(';') && !isPunct('}')) {
+            advance();
+        }
+        if (isPunct('{')) {
+            skipBalanced('{', '}');
+        } else if (isPunct(';')) {
+            advance();
+        }
+    }
+
+    private void field(TypeFrame owner, String typeName, String name, List<String> annotations) {
+        owner.fieldTypes.put(name, typeName);
+        for (String ann : annotations) {
+            if (INJECTION_ANNOTATIONS.contains(simpleName(ann))) {
+                String resolved = resolveType(typeName);
+                owner.injected.add(resolved != null ? resolved : typeName);
+                break;
+            }
+        }
+    }
+
+    /** Current token is the '(' opening the parameter list. */
+    private void method(TypeFrame owner, String name, List<String> annotations, int declLine) {
+        ParsedMethodNode method = new ParsedMethodNode();
+        method.setMethodName(name);
+        method.setClassName(owner.fqn);
+
+        Map<String, String> locals = new HashMap<>();
+        parameters(locals);
+
+        while (kind != JavaLexer.EOF && !isPunct('{') && !isPunct(';') && !isPunct('}')) {
+            if (isIdent("default")) {
+                // annotation member default value
+                while (kind != JavaLexer.EOF && !isPunct(';')) advance();
+            } else if (isPunct('@')) {
+                annotation();
+            } else {
+                advance();
+            }
+        }
+
+        List<String> calls = new ArrayList<>();
+        int endLine = line;
+        if (isPunct('{')) {
+            endLine = body(owner, locals, calls);
+        } else if (isPunct(';')) {
+            advance();
+        }
+
+        method.setStartLine(declLine);
+        method.setEndLine(endLine);
+        method.setAnnotations(new ArrayList<>(annotations));
+        method.setCalledMethods(calls);
+        owner.methods.add(method);
+
+        for (String ann : annotations) {
+            if (MAPPING_ANNOTATIONS.contains(simpleName(ann))) {
+                owner.endpoints.add(name);
+            }
+        }
+    }
+
+    /** Current token is '('; records parameter name -> type into {@code locals} and consumes ')'. */
+    private void parameters(Map<String, String> locals) {
+        advance();
+        int depth = 1;
+        int angles = 0;
+        boolean inAnnotation = false;
+        String type = null;
+        String last = null;
+
+        while (kind != JavaLexer.EOF) {
+            if (isPunct('(')) {
+                depth++;
+            } else if (isPunct(')')) {
+                depth--;
+                if (depth == 0) {
+                    if (type != null && last != null) locals.put(last, type);
+                    advance();
+                    return;
+                }
+            } else if (depth == 1) {
+                if (isPunct('<')) {
+                    angles++;
+                } else if (isPunct('>')) {
+                    angles--;
+                } else if (angles == 0) {
+                    if (isPunct('@')) {
+                        inAnnotation = true;
+                    } else if (kind == JavaLexer.IDENT) {
+                        if (inAnnotation) {
+                            inAnnotation = laIsPunct('.');
+                        } else if (!isIdent("final")) {
+                            if (type == null) {
+                                type = text();
+                            } else if (p1IsPunct('.') && last == null) {
+                                type = type + "." + text();
+                            } else {
+                                last = text();
+                            }
+                        }
+                    } else if (isPunct(',')) {
+                        if (type != null && last != null) locals.put(last, type);
+                        type = null;
+                        last = null;
+                    }
+                }
+            }
+            advance();
+        }
+    }
+
+    /**
+     * Current token is the '{' opening a method body. Collects invocations and local
+     * declarations; returns the line of the closing brace.
+     */
+    private int body(TypeFrame owner, Map<String, String> locals, List<String> calls) {
+        advance();
+        int depth = 1;
+        boolean afterNew = false;
+        ArrayDeque<Boolean> newArguments = new ArrayDeque<>();
+        boolean closedNewArguments = false;
+        List<Integer> anonymousDepths = new ArrayList<>();
+        int chainStart = -1;
+        int typeChainStart = -1;
+        List<String> angleOwners = new ArrayList<>();
+        String lastGenericType = null;
+
+        while (kind != JavaLexer.EOF) {
+            if (kind == JavaLexer.PUNCT) {
+                if (end - start == 1) {
+                    char c = (char) src[start];
+                    if (c == '{') {
+                        depth++;
+                        if (closedNewArguments && p1IsPunct(')')) {
+                            anonymousDepths.add(depth); // new Type(...) { anonymous class body
+                        }
+                        afterNew = false;
+                    } else if (c == '}') {
+                        if (!anonymousDepths.isEmpty() && anonymousDepths.get(anonymousDepths.size() - 1) == depth) {
+                            anonymousDepths.remove(anonymousDepths.size() - 1);
+                        }
+                        depth--;
+                        if (depth == 0) {
+                            int closingLine = line;
+                            advance();
+                            return closingLine;
+                        }
+                    } else if (c == ')') {
+                        closedNewArguments = !newArguments.isEmpty() && newArguments.pop();
+                    } else if (c == '(' || c == '[' || c == ';') {
+                        if (c == '(') newArguments.push(afterNew);
+                        afterNew = false;
+                        if (c == ';') angleOwners.clear();
+                    } else if (c == '<') {
+                        angleOwners.add(p1Kind == JavaLexer.IDENT ? text(p1Start, p1End) : null);
+                    } else if (c == '>' && !angleOwners.isEmpty()) {
+                        lastGenericType = angleOwners.remove(angleOwners.size() - 1);
+                    }
+                }
+                advance();
+                continue;
+            }
+
+            if (kind == JavaLexer.IDENT) {
+                boolean dotBefore = p1IsPunct('.');
+                if (!dotBefore) {
+                    typeChainStart = chainStart;
+                    chainStart = start;
+                } else if (p2Kind != JavaLexer.IDENT) {
+                    chainStart = -1; // rooted in an expression, e.g. foo().bar
+                }
+
+                if (isIdent("new")) {
+                    afterNew = true;
+                    advance();
+                    continue;
+                }
+
+                if (laIsPunct('(')) {
+                    if (!afterNew && isCall(dotBefore)) {
+                        calls.add(resolveCall(owner, locals, text(), dotBefore, chainStart,
+                                !anonymousDepths.isEmpty()));
+                    }
+                } else if (!dotBefore && (laIsPunct('=') || laIsPunct(';') || laIsPunct(':')
+                        || laIsPunct(',') || laIsPunct(')'))) {
+                    if (p1Kind == JavaLexer.IDENT) {
+                        String p1 = text(p1Start, p1End);
+                        if (!EXPRESSION_KEYWORDS.contains(p1) && !PRIMITIVES.contains(p1)) {
+                            locals.put(text(), typeChainStart >= 0 ? compact(typeChainStart, p1End) : p1);
+                        }
+                    } else if (p1IsPunct('>') && lastGenericType != null) {
+                        locals.put(text(), lastGenericType);
+                    }
+                }
+            }
+            advance();
+        }
+        return line;
+    }
+
+    private boolean isCall(boolean dotBefore) {
+        if (dotBefore) {
+            return true;
+        }
+        if (NON_CALL_KEYWORDS.contains(text())) {
+            return false;
+        }
+        // "Type name(" or "int[] name(" declares a method (anonymous or local class)
+        if (p1Kind == JavaLexer.IDENT && !EXPRESSION_KEYWORDS.contains(text(p1Start, p1End))) {
+            return false;
+        }
+        return !p1IsPunct(']');
+    }
+
+    // ---------------------------------------------------------------------
+    // Resolution
+    // ---------------------------------------------------------------------
+
+    /**
+     * Declaring type plus method name of a call, or the bare name when the receiver needs type
+     * attribution. Inside an anonymous class body {@code this} and {@code super} denote the
+     * anonymous class, whose members the scanner does not model, so such calls stay unresolved;
+     * unqualified calls there are still attributed to the enclosing type. Calls on the type itself
+     * are only counted once the type is scanned when it has a superclass, see {@link #countSelfCalls}.
+     */
+    private String resolveCall(TypeFrame owner, Map<String, String> locals, String name,
+                               boolean dotBefore, int chainStart, boolean inAnonymousClass) {
+        if (!dotBefore) {
+            String staticOwner = staticImports.get(name);
+            if (staticOwner == null && owner.hasSuperClass()) {
+                owner.selfCalls.add(name);
+            } else {
+                resolvedCalls++;
+            }
+            return (staticOwner != null ? staticOwner : owner.fqn) + "." + name;
+        }
+        if (chainStart < 0 || p2Kind != JavaLexer.IDENT) {
+            unresolvedCalls++;
+            return name;
+        }
+
+        String receiver = compact(chainStart, p2End);
+        if (inAnonymousClass && (receiver.equals("this") || receiver.equals("super")
+                || receiver.startsWith("this."))) {
+            unresolvedCalls++;
+            return name;
+        }
+        ambiguous = false;
+        String declaring = resolveReceiver(owner, locals, receiver);
+        if (declaring == null || ambiguous) {
+            unresolvedCalls++;
+            return name;
+        }
+        if (receiver.equals("this") && owner.hasSuperClass()) {
+            owner.selfCalls.add(name);
+        } else {
+            resolvedCalls++;
+        }
+        return declaring + "." + name;
+    }
+
+    private String resolveReceiver(TypeFrame owner, Map<String, String> locals, String receiver) {
+        if (receiver.equals("this")) {
+            return owner.fqn;
+        }
+        if (receiver.equals("super")) {
+            return owner.superClass;
+        }
+        if (receiver.startsWith("this.")) {
+            String field = receiver.substring(5);
+            return field.indexOf('.') >= 0 ? null : resolveType(owner.fieldType(field));
+        }
+
+        int dot = receiver.indexOf('.');
+        if (dot < 0) {
+            String local = locals.get(receiver);
+            if (local != null) {
+                return local.equals("var") ? null : resolveType(local);
+            }
+            String fieldType = owner.fieldType(receiver);
+            if (fieldType != null) {
+                return resolveType(fieldType);
+            }
+            return Character.isUpperCase(receiver.charAt(0)) ? resolveType(receiver) : null;
+        }
+
+        String first = receiver.substring(0, dot);
+        if (locals.containsKey(first) || owner.fieldType(first) != null) {
+            return null; // field access chain, needs attribution
+        }
+        if (Character.isUpperCase(first.charAt(0))) {
+            // Outer.Inner is a nested type; System.out is a static field and needs attribution
+            for (String segment : receiver.substring(dot + 1).split("\\.")) {
+                if (!Character.isUpperCase(segment.charAt(0))) return null;
+            }
+            return resolveType(receiver);
+        }
+        String lastSegment = receiver.substring(receiver.lastIndexOf('.') + 1);
+        return Character.isUpperCase(lastSegment.charAt(0)) ? receiver : null;
+    }
+
+    /** Resolve a (possibly qualified) type name as written in source to a Spoon-style qualified name. */
+    String resolveType(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        if (PRIMITIVES.contains(name)) {
+            return name;
+        }
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            String first = name.substring(0, dot);
+            if (Character.isUpperCase(first.charAt(0))) {
+                return resolveSimple(first) + "$" + name.substring(dot + 1).replace('.', '$');
+            }
+            return name;
+        }
+        return resolveSimple(name);
+    }
+
+    private String resolveSimple(String simple) {
+        String imported = imports.get(simple);
+        if (imported != null) return imported;
+        String declared = declaredTypes.get(simple);
+        if (declared != null) return declared;
+        if (JAVA_LANG.contains(simple)) return "java.lang." + simple;
+        for (String pkg : wildcardPackages) {
+            Set<String> known = WELL_KNOWN_PACKAGES.get(pkg);
+            if (known != null && known.contains(simple)) return pkg + "." + simple;
+        }
+        if (!wildcardPackages.isEmpty()) ambiguous = true;
+        return packageName.isEmpty() ? simple : packageName + "." + simple;
+    }
+
+    /** Source text of a receiver chain with whitespace removed ("this\n  .repo" -> "this.repo"). */
+    private String compact(int from, int to) {
+        StringBuilder sb = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            byte b = src[i];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') sb.append((char) (b & 0xff));
+        }
+        return sb.toString();
+    }
+
+    private static String simpleName(String qualified) {
+        return qualified.substring(qualified.lastIndexOf('.') + 1);
+    }
+
+    /** Per-type scope while its body is being scanned. */
+    private static final class TypeFrame {
+        final TypeFrame outer;
+        final String fqn;
+        final String simpleName;
+        final boolean isEnum;
+        final String superClass;
+        final Map<String, String> fieldTypes = new HashMap<>();
+        final List<ParsedMethodNode> methods = new ArrayList<>();
+        final List<String> injected = new ArrayList<>();
+        final List<String> endpoints = new ArrayList<>();
+        /** Unqualified and {@code this.} call names awaiting {@link #countSelfCalls}. */
+        final List<String> selfCalls = new ArrayList<>();
+
+        TypeFrame(TypeFrame outer, String fqn, String simpleName, boolean isEnum, String superClass) {
+            this.outer = outer;
+            this.fqn = fqn;
+            this.simpleName = simpleName;
+            this.isEnum = isEnum;
+            this.superClass = superClass;
+        }
+
+        boolean hasSuperClass() {
+            return superClass != null && !superClass.equals("java.lang.Object");
+        }
+
+        String fieldType(String name) {
+            for (TypeFrame f = this; f != null; f = f.outer) {
+                String type = f.fieldTypes.get(name);
+                if (type != null) return type;
+            }
+            return null;
+        }
+    }
+}
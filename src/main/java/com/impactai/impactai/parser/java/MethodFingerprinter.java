@@ -0,0 +1,187 @@
+package com.impactai.impactai.parser.java;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normalized token fingerprint of a method's source span.
+ *
+ * Comments and layout are ignored, and names the method declares itself (parameters, locals,
+ * lambda and pattern variables) are replaced by their order of declaration. So reformatting a
+ * method or renaming one of its locals keeps the fingerprint, while any other token change
+ * alters it. A fingerprint of 0 means none was computed. Parsers do not compute it; only the
+ * semantic diff does, for the two versions of a file it compares.
+ */
+public final class MethodFingerprinter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private MethodFingerprinter() {
+    }
+
+    /**
+     * Set the fingerprint of every method with a valid line span, from the file they were parsed from.
+     */
+    public static void fingerprintAll(byte[] src, List<ParsedDependencyNode> nodes) {
+        int[] lineStarts = lineStarts(src);
+        for (ParsedDependencyNode node : nodes) {
+            if (node.getMethods() == null) continue;
+            for (ParsedMethodNode method : node.getMethods()) {
+                method.setFingerprint(fingerprint(src, lineStarts, method.getStartLine(), method.getEndLine()));
+            }
+        }
+    }
+
+    /** Byte offset of the start of every line; index 0 is line 1. */
+    public static int[] lineStarts(byte[] src) {
+        int count = 1;
+        for (byte b : src) {
+            if (b == '\n') count++;
+        }
+        int[] starts = new int[count];
+        int line = 1;
+        for (int i = 0; i < src.length; i++) {
+            if (src[i] == '\n') starts[line++] = i + 1;
+        }
+        return starts;
+    }
+
+    /**
+     * Fingerprint of the tokens on lines {@code startLine..endLine} (1-based, inclusive), or 0
+     * when the span is not inside the file.
+     */
+    public static long fingerprint(byte[] src, int[] lineStarts, int startLine, int endLine) {
+        if (startLine < 1 || endLine < startLine || endLine > lineStarts.length) {
+            return 0;
+        }
+        int from = lineStarts[startLine - 1];
+        int to = endLine < lineStarts.length ? lineStarts[endLine] : src.length;
+
+        List<Local> locals = collectLocals(src, from, to);
+
+        long hash = FNV_OFFSET;
+        JavaLexer lexer = new JavaLexer(src, from, to, false);
+        boolean afterDot = false;
+        for (int kind = lexer.next(); kind != JavaLexer.EOF; kind = lexer.next()) {
+            hash = (hash ^ kind) * FNV_PRIME;
+            int local = kind == JavaLexer.IDENT && !afterDot ? indexOf(locals, src, lexer.start(), lexer.end()) : -1;
+            if (local >= 0) {
+                hash = (hash ^ (0x100 + local)) * FNV_PRIME; // outside the byte range
+            } else {
+                for (int i = lexer.start(); i < lexer.end(); i++) {
+                    hash = (hash ^ (src[i] & 0xff)) * FNV_PRIME;
+                }
+            }
+            afterDot = lexer.isPunct('.');
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Names declared in the span, in order: an identifier preceded by a type (identifier or
+     * ']', or '>' in the header or before an initializer or for-each colon) and followed by '=', ';', ',',
+     * ':' or ')'; or a single lambda parameter before "->" outside a case label. Anything this
+     * misses simply keeps its name in the fingerprint.
+     */
+    private static List<Local> collectLocals(byte[] src, int from, int to) {
+        List<Local> locals = new ArrayList<>();
+        JavaLexer lexer = new JavaLexer(src, from, to, false);
+
+        int prevKind = JavaLexer.EOF, prevStart = 0, prevEnd = 0;
+        int kind = lexer.next(), start = lexer.start(), end = lexer.end();
+        boolean inCaseLabel = false;
+        boolean inHeader = true;
+        while (kind != JavaLexer.EOF) {
+            int nextKind = lexer.next();
+            if (isPunct(src, kind, start, end, '{')) {
+                inHeader = false;
+            } else if (kind == JavaLexer.IDENT && JavaLexer.regionEquals(src, start, end, "case")) {
+                inCaseLabel = true;
+            } else if (kind == JavaLexer.PUNCT && (JavaLexer.regionEquals(src, start, end, "->")
+                    || isPunct(src, kind, start, end, ':'))) {
+                inCaseLabel = false;
+            } else if (kind == JavaLexer.IDENT && !isKeyword(src, start, end)) {
+                boolean declaration = false;
+                if (nextKind == JavaLexer.PUNCT) {
+                    if ((prevKind == JavaLexer.IDENT && !isKeyword(src, prevStart, prevEnd))
+                            || isPunct(src, prevKind, prevStart, prevEnd, ']')) {
+                        declaration = isDeclarationEnd(lexer);
+                    } else if (isPunct(src, prevKind, prevStart, prevEnd, '>')) {
+                        // "a > b)" is a comparison in a body, a generic parameter in the header
+                        declaration = lexer.isPunct('=') || lexer.isPunct(':')
+                                || (inHeader && (lexer.isPunct(',') || lexer.isPunct(')')));
+                    }
+                }
+                boolean lambdaParam = !inCaseLabel && nextKind == JavaLexer.PUNCT && lexer.is("->");
+                if ((declaration || lambdaParam) && indexOf(locals, src, start, end) < 0) {
+                    locals.add(new Local(start, end));
+                }
+            }
+            prevKind = kind;
+            prevStart = start;
+            prevEnd = end;
+            kind = nextKind;
+            start = lexer.start();
+            end = lexer.end();
+        }
+        return locals;
+    }
+
+    private static boolean isDeclarationEnd(JavaLexer lexer) {
+        return lexer.isPunct('=') || lexer.isPunct(';') || lexer.isPunct(',')
+                || lexer.isPunct(':') || lexer.isPunct(')');
+    }
+
+    /** Keywords that can sit right before an expression or a type list, so the next identifier is no declaration. */
+    private static boolean isKeyword(byte[] src, int start, int end) {
+        return JavaLexer.regionEquals(src, start, end, "return")
+                || JavaLexer.regionEquals(src, start, end, "throw")
+                || JavaLexer.regionEquals(src, start, end, "new")
+                || JavaLexer.regionEquals(src, start, end, "case")
+                || JavaLexer.regionEquals(src, start, end, "else")
+                || JavaLexer.regionEquals(src, start, end, "yield")
+                || JavaLexer.regionEquals(src, start, end, "assert")
+                || JavaLexer.regionEquals(src, start, end, "default")
+                || JavaLexer.regionEquals(src, start, end, "this")
+                || JavaLexer.regionEquals(src, start, end, "super")
+                || JavaLexer.regionEquals(src, start, end, "throws")
+                || JavaLexer.regionEquals(src, start, end, "extends")
+                || JavaLexer.regionEquals(src, start, end, "implements")
+                || JavaLexer.regionEquals(src, start, end, "permits");
+    }
+
+    private static boolean isPunct(byte[] src, int kind, int start, int end, char c) {
+        return kind == JavaLexer.PUNCT && end - start == 1 && src[start] == c;
+    }
+
+    private static int indexOf(List<Local> locals, byte[] src, int start, int end) {
+        for (int i = 0; i < locals.size(); i++) {
+            Local local = locals.get(i);
+            if (local.end - local.start == end - start && sameBytes(src, local.start, start, end - start)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean sameBytes(byte[] src, int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (src[a + i] != src[b + i]) return false;
+        }
+        return true;
+    }
+
+    private static final class Local {
+        final int start;
+        final int end;
+
+        Local(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
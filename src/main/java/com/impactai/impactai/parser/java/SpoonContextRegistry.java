@@ -0,0 +1,60 @@
+package com.impactai.impactai.parser.java;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link SpoonParsingContext} per repository root so incremental parses reuse
+ * the source index and Spoon environment built for the baseline.
+ */
+@Component
+public class SpoonContextRegistry {
+
+    private static final String[] ROOT_MARKERS = {"pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle"};
+
+    private final Map<Path, SpoonParsingContext> contexts = new ConcurrentHashMap<>();
+    private final Map<Path, Path> rootsByDirectory = new ConcurrentHashMap<>();
+
+    @Value("${impactai.parser.java.spoon.default-compliance:17}")
+    private int defaultComplianceLevel = 17;
+
+    /**
+     * Context of the repository containing {@code file}: the nearest ancestor with a {@code .git}
+     * directory, else the outermost ancestor with a build file, else the file's directory.
+     */
+    public SpoonParsingContext forFile(Path file) {
+        Path directory = file.toAbsolutePath().normalize().getParent();
+        Path root = rootsByDirectory.computeIfAbsent(directory, SpoonContextRegistry::findRepoRoot);
+        return contexts.computeIfAbsent(root, r -> new SpoonParsingContext(r, defaultComplianceLevel));
+    }
+
+    /**
+     * Drop the cached context of a repository, e.g. before a full re-scan of a fresh checkout.
+     */
+    public void invalidate(String repoRoot) {
+        Path root = Path.of(repoRoot).toAbsolutePath().normalize();
+        contexts.remove(root);
+        rootsByDirectory.values().removeIf(root::equals);
+    }
+
+    private static Path findRepoRoot(Path directory) {
+        Path buildRoot = null;
+        for (Path dir = directory; dir != null; dir = dir.getParent()) {
+            if (Files.isDirectory(dir.resolve(".git"))) {
+                return dir;
+            }
+            for (String marker : ROOT_MARKERS) {
+                if (Files.isRegularFile(dir.resolve(marker))) {
+                    buildRoot = dir;
+                    break;
+                }
+            }
+        }
+        return buildRoot != null ? buildRoot : directory;
+    }
+}
@@ -0,0 +1,295 @@
+package com.impactai.impactai.parser.java;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spoon.Launcher;
+import spoon.compiler.Environment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Spoon settings and source index for one repository, built once and reused by every parse.
+ *
+ * Parsing a single file in noclasspath mode leaves same-package types and the return types of
+ * calls into other files unresolved. Instead of pointing JDT at whole source directories, each
+ * parse adds the "companion" sources the file actually mentions (imports and same-package
+ * types whose simple name occurs in it), found through the qualified-name index built here.
+ *
+ * The index is built by one walk over the checkout and then kept current per file: a parsed
+ * file is re-indexed through {@link #refresh(Path)}, and a type missing from the index is
+ * looked up where its package puts it under the known source roots, so sources a later pull
+ * brought in are found without another walk. Index maps are concurrent, since PRs of one
+ * repository are parsed on several threads.
+ */
+public class SpoonParsingContext {
+    private static final Logger logger = LoggerFactory.getLogger(SpoonParsingContext.class);
+
+    /** Highest compliance level the bundled JDT accepts. */
+    static final int MAX_COMPLIANCE = 23;
+
+    private static final Pattern POM_VERSION = Pattern.compile(
+            "<(?:maven\\.compiler\\.release|maven\\.compiler\\.source|release|source|java\\.version)>\\s*(?:1\\.)?(\\d+)\\s*<");
+    private static final Pattern GRADLE_VERSION = Pattern.compile(
+            "(?:JavaLanguageVersion\\.of\\(\\s*|sourceCompatibility\\s*=\\s*['\"]?(?:JavaVersion\\.VERSION_)?(?:1[._])?|release(?:\\.set\\(|\\s*=)\\s*)(\\d+)");
+
+    private final Path repoRoot;
+    private final int complianceLevel;
+    private final Set<Path> sourceRoots = ConcurrentHashMap.newKeySet();
+    private final Map<String, Path> sourcesByQualifiedName = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> typesByPackage = new ConcurrentHashMap<>();
+
+    SpoonParsingContext(Path repoRoot, int defaultComplianceLevel) {
+        this.repoRoot = repoRoot;
+        this.complianceLevel = Math.min(readComplianceLevel(repoRoot, defaultComplianceLevel), MAX_COMPLIANCE);
+        indexSources();
+
+        logger.info("Spoon context for {}: {} source roots, {} types, compliance {}",
+                repoRoot, sourceRoots.size(), sourcesByQualifiedName.size(), complianceLevel);
+    }
+
+    /**
+     * A launcher with this repo's settings. Each launcher has its own environment and factory:
+     * the Launcher constructor resets the environment it is given to Spoon's defaults, so the
+     * settings are applied afterwards, and parses on different threads share no mutable state.
+     */
+    public Launcher newLauncher() {
+        Launcher launcher = new Launcher();
+        configure(launcher.getEnvironment());
+        return launcher;
+    }
+
+    private void configure(Environment environment) {
+        environment.setNoClasspath(true);
+        environment.setCommentEnabled(false);
+        environment.setAutoImports(false);
+        environment.setIgnoreDuplicateDeclarations(true);
+        environment.setComplianceLevel(complianceLevel);
+        // Resolve against the repo's sources only, never against the analyzer's own classpath
+        environment.setSourceClasspath(new String[0]);
+    }
+
+    /**
+     * Bring the index up to date for {@code file}: record it if it exists, otherwise forget the
+     * types it declared.
+     */
+    public void refresh(Path file) {
+        Path path = file.toAbsolutePath().normalize();
+        if (Files.isRegularFile(path)) {
+            indexFile(path);
+        } else {
+            sourcesByQualifiedName.entrySet().removeIf(entry -> {
+                if (!entry.getValue().equals(path)) return false;
+                String qualifiedName = entry.getKey();
+                int dot = qualifiedName.lastIndexOf('.');
+                Set<String> members = typesByPackage.get(dot > 0 ? qualifiedName.substring(0, dot) : "");
+                if (members != null) members.remove(qualifiedName.substring(dot + 1));
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Sources of the types {@code file} refers to, at most {@code limit} of them: its imports and
+     * the same-package types it mentions, then the explicit imports of those, so that return types
+     * of calls into them resolve too.
+     */
+    public List<Path> companionsOf(Path file, byte[] source, int limit) {
+        Set<Path> result = new LinkedHashSet<>();
+        Set<String> identifiers = new HashSet<>();
+        List<String> imports = new ArrayList<>();
+        String packageName = readHeader(source, imports, identifiers);
+
+        Path self = file.toAbsolutePath().normalize();
+        for (String imported : imports) {
+            if (imported.endsWith(".*")) {
+                addPackageMembers(imported.substring(0, imported.length() - 2), identifiers, self, result, limit);
+            } else {
+                addImport(imported, self, result, limit);
+            }
+        }
+        addPackageMembers(packageName, identifiers, self, result, limit);
+        addUnindexedPackageMembers(packageName, identifiers, self, result, limit);
+
+        for (Path companion : new ArrayList<>(result)) {
+            if (result.size() >= limit) break;
+            try {
+                List<String> companionImports = new ArrayList<>();
+                readHeader(Files.readAllBytes(companion), companionImports, null);
+                for (String imported : companionImports) {
+                    if (!imported.endsWith(".*")) addImport(imported, self, result, limit);
+                }
+            } catch (IOException e) {
+                logger.debug("Could not read companion {}: {}", companion, e.getMessage());
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Reads the package and imports; collects the remaining identifiers when {@code identifiers}
+     * is given, otherwise stops at the first token after the imports.
+     */
+    private static String readHeader(byte[] source, List<String> imports, Set<String> identifiers) {
+        String packageName = "";
+        JavaLexer lexer = new JavaLexer(source);
+        StringBuilder qualified = new StringBuilder();
+        int statement = 0; // 1 = package, 2 = import
+        while (lexer.next() != JavaLexer.EOF) {
+            if (lexer.kind() == JavaLexer.IDENT) {
+                if (statement == 0 && lexer.is("package")) {
+                    statement = 1;
+                } else if (statement == 0 && lexer.is("import")) {
+                    statement = 2;
+                } else if (statement != 0) {
+                    if (!lexer.is("static")) qualified.append(lexer.text());
+                } else if (identifiers != null) {
+                    identifiers.add(lexer.text());
+                } else {
+                    break;
+                }
+            } else if (statement != 0) {
+                if (lexer.isPunct('.')) {
+                    qualified.append('.');
+                } else if (lexer.isPunct('*')) {
+                    qualified.append('*');
+                } else if (lexer.isPunct(';')) {
+                    if (statement == 1) packageName = qualified.toString();
+                    else imports.add(qualified.toString());
+                    qualified.setLength(0);
+                    statement = 0;
+                }
+            } else if (identifiers == null && !lexer.isPunct(';')) {
+                break; // annotation or other token after the header
+            }
+        }
+        return packageName;
+    }
+
+    private void addImport(String imported, Path self, Set<Path> result, int limit) {
+        if (result.size() >= limit) return;
+        // static imports name a member; try the import itself and its enclosing type
+        Path path = lookup(imported);
+        if (path == null && imported.lastIndexOf('.') > 0) {
+            path = lookup(imported.substring(0, imported.lastIndexOf('.')));
+        }
+        if (path != null && !path.equals(self)) {
+            result.add(path);
+        }
+    }
+
+    /** Source of {@code qualifiedName}, indexing it first if it sits where its package puts it. */
+    private Path lookup(String qualifiedName) {
+        Path path = sourcesByQualifiedName.get(qualifiedName);
+        if (path != null) {
+            return path;
+        }
+        String relative = qualifiedName.replace('.', '/') + ".java";
+        for (Path root : sourceRoots) {
+            Path candidate = root.resolve(relative);
+            if (Files.isRegularFile(candidate)) {
+                indexFile(candidate);
+                return sourcesByQualifiedName.get(qualifiedName);
+            }
+        }
+        return null;
+    }
+
+    private void addPackageMembers(String packageName, Set<String> identifiers, Path self,
+                                   Set<Path> result, int limit) {
+        for (String simpleName : typesByPackage.getOrDefault(packageName, Collections.emptySet())) {
+            if (result.size() >= limit) return;
+            if (identifiers.contains(simpleName)) {
+                Path path = sourcesByQualifiedName.get(packageName.isEmpty() ? simpleName : packageName + "." + simpleName);
+                if (path != null && !path.equals(self)) result.add(path);
+            }
+        }
+    }
+
+    /** Same-package types the file mentions that were added to the checkout after the walk. */
+    private void addUnindexedPackageMembers(String packageName, Set<String> identifiers, Path self,
+                                            Set<Path> result, int limit) {
+        Set<String> members = typesByPackage.getOrDefault(packageName, Collections.emptySet());
+        for (String identifier : identifiers) {
+            if (result.size() >= limit) return;
+            if (!Character.isUpperCase(identifier.charAt(0)) || members.contains(identifier)) continue;
+            Path sibling = self.resolveSibling(identifier + ".java");
+            if (Files.isRegularFile(sibling)) {
+                indexFile(sibling);
+                Path path = sourcesByQualifiedName.get(packageName.isEmpty() ? identifier : packageName + "." + identifier);
+                if (path != null && !path.equals(self)) result.add(path);
+            }
+        }
+    }
+
+    public Path getRepoRoot() { return repoRoot; }
+    public int getComplianceLevel() { return complianceLevel; }
+    public Set<Path> getSourceRoots() { return sourceRoots; }
+
+    // ---------------------------------------------------------------------
+
+    /** One walk over the repo: read each file's package header to derive its root and type name. */
+    private void indexSources() {
+        try (Stream<Path> paths = Files.walk(repoRoot)) {
+            paths.filter(p -> p.toString().endsWith(".java"))
+                    .filter(p -> !p.toString().contains(java.io.File.separator + ".git" + java.io.File.separator))
+                    .filter(Files::isRegularFile)
+                    .forEach(this::indexFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not index sources under {}: {}", repoRoot, e.getMessage());
+        }
+    }
+
+    private void indexFile(Path file) {
+        String packageName;
+        try {
+            packageName = readHeader(Files.readAllBytes(file), new ArrayList<>(), null);
+        } catch (IOException e) {
+            return;
+        }
+        String fileName = file.getFileName().toString();
+        String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+        if (simpleName.equals("package-info") || simpleName.equals("module-info")) {
+            return;
+        }
+        Path path = file.toAbsolutePath().normalize();
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        // first one wins when the same type exists in several modules
+        Path indexed = sourcesByQualifiedName.putIfAbsent(qualifiedName, path);
+        if (indexed == null || indexed.equals(path)) {
+            typesByPackage.computeIfAbsent(packageName, k -> ConcurrentHashMap.newKeySet()).add(simpleName);
+        }
+
+        Path root = path.getParent();
+        int depth = packageName.isEmpty() ? 0 : packageName.split("\\.").length;
+        for (int i = 0; i < depth && root != null; i++) {
+            root = root.getParent();
+        }
+        if (root != null) {
+            sourceRoots.add(root);
+        }
+    }
+
+    static int readComplianceLevel(Path repoRoot, int defaultLevel) {
+        for (String buildFile : new String[]{"pom.xml", "build.gradle", "build.gradle.kts"}) {
+            Path path = repoRoot.resolve(buildFile);
+            if (!Files.isRegularFile(path)) continue;
+            try {
+                String content = Files.readString(path);
+                Matcher m = (buildFile.equals("pom.xml") ? POM_VERSION : GRADLE_VERSION).matcher(content);
+                if (m.find()) {
+                    return Integer.parseInt(m.group(1));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not read Java version from {}: {}", path, e.getMessage());
+            }
+        }
+        return defaultLevel;
+    }
+}
@@ -1,4 +1,67 @@
 package com.impactai.impactai.parser.python;
 
-public class PythonParserImpl {
+import com.impactai.impactai.parser.LanguageParser;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Python parser: {@link PythonTokenizer} feeding {@link PythonStructureScanner} in a single pass.
+ *
+ * Node names are dotted module paths ({@code pkg.mod.Class}); the module name is derived by
+ * walking up the directories that contain an {@code __init__.py}. Module-level functions
+ * hang off a node of type "module" so they take part in the graph like methods.
+ */
+@Component
+public class PythonParserImpl implements LanguageParser {
+    private static final Logger logger = LoggerFactory.getLogger(PythonParserImpl.class);
+
+    @Override
+    public List<ParsedDependencyNode> parseFile(String filePath) {
+        Path path = Path.of(filePath);
+        try {
+            String fileName = path.getFileName().toString();
+            boolean packageInit = fileName.equals("__init__.py");
+            return parseSource(Files.readAllBytes(path), moduleName(path), packageInit);
+        } catch (IOException e) {
+            logger.warn("Could not read {}: {}", filePath, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    public List<ParsedDependencyNode> parseSource(byte[] source, String moduleName, boolean packageInit) {
+        PythonStructureScanner scanner = new PythonStructureScanner(source, moduleName, packageInit);
+        try {
+            scanner.scan();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to parse Python module {}: {}", moduleName, e.getMessage());
+            return Collections.emptyList();
+        }
+        return scanner.nodes;
+    }
+
+    /**
+     * {@code src/app/orders/service.py} with {@code app/__init__.py} and {@code app/orders/__init__.py}
+     * becomes {@code app.orders.service}; a package's {@code __init__.py} is named after the package.
+     */
+    static String moduleName(Path file) {
+        String fileName = file.getFileName().toString();
+        String name = fileName.endsWith(".py") ? fileName.substring(0, fileName.length() - 3) : fileName;
+        StringBuilder module = new StringBuilder(name.equals("__init__") ? "" : name);
+
+        Path dir = file.toAbsolutePath().getParent();
+        while (dir != null && dir.getFileName() != null && Files.exists(dir.resolve("__init__.py"))) {
+            if (module.length() > 0) module.insert(0, '.');
+            module.insert(0, dir.getFileName().toString());
+            dir = dir.getParent();
+        }
+        return module.length() > 0 ? module.toString() : name;
+    }
 }
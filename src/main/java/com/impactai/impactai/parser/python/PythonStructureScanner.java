@@ -0,0 +1,518 @@
+package com.impactai.impactai.parser.python;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+
+import java.util.*;
+
+/**
+ * Indentation-based structure parser on top of {@link PythonTokenizer}.
+ *
+ * Produces one "module" node holding the module-level functions and one "class" node per
+ * (possibly nested) class. Functions nested inside functions are folded into the enclosing
+ * function: their calls count for it, and they get no node of their own. Call targets are
+ * resolved from imports, {@code self}/{@code cls} and names defined in the module. Calling a
+ * class targets its {@code __init__}; for imported names, a capitalized name is taken to be a
+ * class (PEP 8).
+ */
+final class PythonStructureScanner {
+
+    private static final Set<String> NON_CALL_KEYWORDS = Set.of(
+            "if", "elif", "while", "for", "return", "not", "and", "or", "in", "is", "assert",
+            "del", "yield", "await", "lambda", "with", "except", "raise", "print", "exec", "from",
+            "import", "as", "else", "class", "def", "global", "nonlocal", "pass", "case", "match");
+
+    private final PythonTokenizer tokens;
+    private final String moduleName;
+    private final String packageName;
+
+    private final ParsedDependencyNode moduleNode = new ParsedDependencyNode();
+    private final List<ParsedMethodNode> moduleFunctions = new ArrayList<>();
+    private final List<String> moduleImports = new ArrayList<>();
+    private final Map<String, String> aliases = new HashMap<>();       // bound name -> qualified target
+    private final Map<String, String> moduleClasses = new HashMap<>(); // simple name -> qualified name
+    private final Set<String> moduleFunctionNames = new HashSet<>();
+    private final List<PendingCall> bareCalls = new ArrayList<>();
+
+    final List<ParsedDependencyNode> nodes = new ArrayList<>();
+
+    // current token and the two before it
+    private int kind;
+    private int line;
+    private int endLine;
+    private String p1Text;
+    private int p1Kind;
+    private int p2Kind;
+
+    private int depth;                                   // current indentation level
+    private final Deque<Scope> scopes = new ArrayDeque<>();
+    private int lastTokenEndLine;
+
+    PythonStructureScanner(byte[] source, String moduleName, boolean isPackageInit) {
+        this.tokens = new PythonTokenizer(source);
+        this.moduleName = moduleName;
+        int dot = moduleName.lastIndexOf('.');
+        this.packageName = isPackageInit ? moduleName : (dot > 0 ? moduleName.substring(0, dot) : "");
+
+        moduleNode.setName(moduleName);
+        moduleNode.setType("module");
+        moduleNode.setAnnotations(new ArrayList<>());
+        moduleNode.setExtendsImplements(new ArrayList<>());
+        moduleNode.setInjectedDependencies(new ArrayList<>());
+        moduleNode.setEndpoints(new ArrayList<>());
+        moduleNode.setMethods(moduleFunctions);
+        moduleNode.setImports(moduleImports);
+        nodes.add(moduleNode);
+
+        scopes.push(new Scope(Scope.MODULE, 0, moduleName, null, null));
+        advance();
+    }
+
+    void scan() {
+        List<String> decorators = new ArrayList<>();
+        int decoratorLine = -1;
+
+        while (kind != PythonTokenizer.EOF) {
+            switch (kind) {
+                case PythonTokenizer.NEWLINE:
+                    advance();
+                    continue;
+                case PythonTokenizer.INDENT:
+                    depth++;
+                    advance();
+                    continue;
+                case PythonTokenizer.DEDENT:
+                    depth--;
+                    closeScopes();
+                    advance();
+                    continue;
+                default:
+                    break;
+            }
+
+            if (isOp('@')) {
+                if (decoratorLine < 0) decoratorLine = line;
+                advance();
+                decorators.add(resolveDotted(readDotted()));
+                skipToNewline(null);
+                continue;
+            }
+
+            if (isName("async")) {
+                advance();
+            }
+            if (isName("def")) {
+                function(decorators, decoratorLine);
+            } else if (isName("class")) {
+                classDef(decorators, decoratorLine);
+            } else if (isName("import") || isName("from")) {
+                importStatement();
+            } else {
+                skipToNewline(currentFunction());
+            }
+            decorators = new ArrayList<>();
+            decoratorLine = -1;
+        }
+        depth = -1;
+        closeScopes();
+        resolveBareCalls();
+    }
+
+    // ---------------------------------------------------------------------
+    // Token plumbing
+    // ---------------------------------------------------------------------
+
+    private void advance() {
+        if (kind == PythonTokenizer.NAME || kind == PythonTokenizer.OP || kind == PythonTokenizer.STRING
+                || kind == PythonTokenizer.NUMBER) {
+            lastTokenEndLine = endLine;
+        }
+        p2Kind = p1Kind;
+        p1Kind = kind;
+        p1Text = kind == PythonTokenizer.NAME || kind == PythonTokenizer.OP ? tokens.text() : null;
+        tokens.next();
+        kind = tokens.kind();
+        line = tokens.line();
+        endLine = tokens.endLine();
+    }
+
+    private boolean isName(String s) {
+        return kind == PythonTokenizer.NAME && tokens.is(s);
+    }
+
+    private boolean isOp(char c) {
+        return tokens.isOp(c);
+    }
+
+    private boolean atStatementEnd() {
+        return kind == PythonTokenizer.NEWLINE || kind == PythonTokenizer.EOF;
+    }
+
+    /** Reads {@code a.b.c}; stops before the first token that is not part of the name. */
+    private String readDotted() {
+        StringBuilder sb = new StringBuilder();
+        while (kind == PythonTokenizer.NAME) {
+            sb.append(tokens.text());
+            advance();
+            if (isOp('.')) {
+                sb.append('.');
+                advance();
+            } else {
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------------
+    // Statements
+    // ---------------------------------------------------------------------
+
+    private void function(List<String> decorators, int decoratorLine) {
+        int defLine = line;
+        advance();
+        if (kind != PythonTokenizer.NAME) {
+            skipToNewline(null);
+            return;
+        }
+        String name = tokens.text();
+        advance();
+
+        Scope owner = scopes.peek();
+        boolean topLevelFunction = owner.kind != Scope.FUNCTION;
+        ParsedMethodNode method = null;
+        if (topLevelFunction) {
+            method = new ParsedMethodNode();
+            method.setMethodName(name);
+            method.setClassName(owner.qualifiedName);
+            method.setStartLine(decoratorLine > 0 ? decoratorLine : defLine);
+            method.setAnnotations(new ArrayList<>(decorators));
+            method.setCalledMethods(new ArrayList<>());
+            if (owner.kind == Scope.MODULE) {
+                moduleFunctions.add(method);
+                moduleFunctionNames.add(name);
+            } else {
+                owner.node.getMethods().add(method);
+            }
+        }
+
+        Scope enclosing = currentFunction();
+        // parameters, return annotation and ':' — defaults may contain calls
+        skipToBodyColon(enclosing);
+        if (isOp(':')) {
+            advance();
+        }
+
+        if (atStatementEnd()) {
+            scopes.push(new Scope(Scope.FUNCTION, depth + 1, owner.qualifiedName, method != null ? method : enclosing.method,
+                    owner.kind == Scope.CLASS ? owner : owner.enclosingClass));
+            if (method != null) method.setEndLine(defLine);
+        } else {
+            // one-line body: "def f(self): return self.g()"
+            Scope inline = new Scope(Scope.FUNCTION, depth + 1, owner.qualifiedName,
+                    method != null ? method : enclosing.method, owner.kind == Scope.CLASS ? owner : owner.enclosingClass);
+            skipToNewline(inline);
+            if (method != null) method.setEndLine(lastTokenEndLine);
+        }
+    }
+
+    private void classDef(List<String> decorators, int decoratorLine) {
+        int classLine = line;
+        advance();
+        if (kind != PythonTokenizer.NAME) {
+            skipToNewline(null);
+            return;
+        }
+        String name = tokens.text();
+        advance();
+
+        Scope owner = scopes.peek();
+        if (owner.kind == Scope.FUNCTION) {
+            // local class: its methods are folded into the enclosing function
+            skipToNewline(owner);
+            scopes.push(new Scope(Scope.FUNCTION, depth + 1, owner.qualifiedName, owner.method, owner.enclosingClass));
+            return;
+        }
+
+        String qualified = owner.qualifiedName + "." + name;
+        if (owner.kind == Scope.MODULE) {
+            moduleClasses.put(name, qualified);
+        }
+
+        ParsedDependencyNode node = new ParsedDependencyNode();
+        node.setName(qualified);
+        node.setType("class");
+        node.setAnnotations(new ArrayList<>(decorators));
+        node.setInjectedDependencies(new ArrayList<>());
+        node.setEndpoints(new ArrayList<>());
+        node.setMethods(new ArrayList<>());
+        List<String> bases = new ArrayList<>();
+        node.setExtendsImplements(bases);
+        nodes.add(node);
+
+        if (isOp('(')) {
+            advance();
+            int parens = 1;
+            while (!atStatementEnd() && parens > 0) {
+                if (isOp('(')) {
+                    parens++;
+                    advance();
+                } else if (isOp(')')) {
+                    parens--;
+                    advance();
+                } else if (parens == 1 && kind == PythonTokenizer.NAME) {
+                    String base = readDotted();
+                    if (isOp('=')) {
+                        // metaclass=..., keyword argument
+                        advance();
+                    } else if (!base.equals("object")) {
+                        bases.add(resolveDotted(base));
+                    }
+                } else {
+                    advance();
+                }
+            }
+        }
+        skipToNewline(null);
+
+        Scope scope = new Scope(Scope.CLASS, depth + 1, qualified, null, null);
+        scope.node = node;
+        scope.startLine = decoratorLine > 0 ? decoratorLine : classLine;
+        scopes.push(scope);
+    }
+
+    private void importStatement() {
+        if (isName("import")) {
+            advance();
+            while (!atStatementEnd()) {
+                if (kind == PythonTokenizer.NAME) {
+                    String target = readDotted();
+                    moduleImports.add(target);
+                    if (isName("as")) {
+                        advance();
+                        if (kind == PythonTokenizer.NAME) {
+                            aliases.put(tokens.text(), target);
+                            advance();
+                        }
+                    } else {
+                        String first = target.contains(".") ? target.substring(0, target.indexOf('.')) : target;
+                        aliases.put(first, first);
+                    }
+                } else {
+                    advance();
+                }
+            }
+            return;
+        }
+
+        // from [.]*module import names
+        advance();
+        int dots = 0;
+        while (isOp('.')) {
+            dots++;
+            advance();
+        }
+        String from = kind == PythonTokenizer.NAME && !isName("import") ? readDotted() : "";
+        String base = relativeBase(dots, from);
+        if (isName("import")) {
+            advance();
+        }
+        while (!atStatementEnd()) {
+            if (kind == PythonTokenizer.NAME) {
+                String name = tokens.text();
+                advance();
+                String target = base.isEmpty() ? name : base + "." + name;
+                moduleImports.add(target);
+                String bound = name;
+                if (isName("as")) {
+                    advance();
+                    if (kind == PythonTokenizer.NAME) {
+                        bound = tokens.text();
+                        advance();
+                    }
+                }
+                aliases.put(bound, target);
+            } else {
+                advance(); // '(', ')', ',' and '*'
+            }
+        }
+    }
+
+    private String relativeBase(int dots, String from) {
+        if (dots == 0) {
+            return from;
+        }
+        String base = packageName;
+        for (int i = 1; i < dots && !base.isEmpty(); i++) {
+            int dot = base.lastIndexOf('.');
+            base = dot > 0 ? base.substring(0, dot) : "";
+        }
+        if (from.isEmpty()) return base;
+        return base.isEmpty() ? from : base + "." + from;
+    }
+
+    // ---------------------------------------------------------------------
+    // Expressions and calls
+    // ---------------------------------------------------------------------
+
+    /** Skip past the ':' that opens a def body, collecting calls in default values. */
+    private void skipToBodyColon(Scope function) {
+        int parens = 0;
+        while (!atStatementEnd()) {
+            if (isOp('(') || isOp('[') || isOp('{')) parens++;
+            else if (isOp(')') || isOp(']') || isOp('}')) parens--;
+            else if (parens == 0 && isOp(':')) return;
+            step(function);
+        }
+    }
+
+    /** Consume the rest of the logical line, recording calls for {@code function} if given. */
+    private void skipToNewline(Scope function) {
+        while (!atStatementEnd()) {
+            step(function);
+        }
+    }
+
+    private final StringBuilder chain = new StringBuilder();
+    private boolean chainValid;
+
+    /** Advance one token; if it completes a call and we're inside a function, record it. */
+    private void step(Scope function) {
+        if (function == null || function.method == null) {
+            advance();
+            return;
+        }
+        if (kind == PythonTokenizer.NAME) {
+            String name = tokens.text();
+            boolean dotBefore = p1Kind == PythonTokenizer.OP && ".".equals(p1Text);
+            if (!dotBefore) {
+                chain.setLength(0);
+                chainValid = true;
+            } else if (p2Kind != PythonTokenizer.NAME) {
+                chainValid = false; // rooted in an expression: foo().bar
+            }
+            String receiver = dotBefore && chainValid ? chain.toString() : null;
+            boolean afterDef = p1Kind == PythonTokenizer.NAME && ("def".equals(p1Text) || "class".equals(p1Text));
+
+            advance();
+            if (isOp('(') && !afterDef && (dotBefore || !NON_CALL_KEYWORDS.contains(name))) {
+                recordCall(function, name, dotBefore, receiver);
+            }
+            if (chain.length() > 0) chain.append('.');
+            chain.append(name);
+            return;
+        }
+        advance();
+    }
+
+    private void recordCall(Scope function, String name, boolean dotBefore, String receiver) {
+        List<String> calls = function.method.getCalledMethods();
+        if (!dotBefore) {
+            bareCalls.add(new PendingCall(calls, calls.size(), name));
+            calls.add(name);
+            return;
+        }
+        if (receiver == null || receiver.isEmpty()) {
+            calls.add(name);
+            return;
+        }
+        String first = receiver.contains(".") ? receiver.substring(0, receiver.indexOf('.')) : receiver;
+        String rest = receiver.substring(first.length());
+        if ((first.equals("self") || first.equals("cls")) && rest.isEmpty() && function.enclosingClass != null) {
+            calls.add(function.enclosingClass.qualifiedName + "." + name);
+        } else if (aliases.containsKey(first)) {
+            calls.add(constructorTarget(aliases.get(first) + rest + "." + name, name));
+        } else if (moduleClasses.containsKey(first)) {
+            calls.add(constructorTarget(moduleClasses.get(first) + rest + "." + name, name));
+        } else {
+            calls.add(name);
+        }
+    }
+
+    /** Bare calls may refer to functions and classes defined later in the module. */
+    private void resolveBareCalls() {
+        for (PendingCall call : bareCalls) {
+            String resolved;
+            if (aliases.containsKey(call.name)) {
+                resolved = constructorTarget(aliases.get(call.name), call.name);
+            } else if (moduleClasses.containsKey(call.name)) {
+                resolved = moduleClasses.get(call.name) + ".__init__";
+            } else if (moduleFunctionNames.contains(call.name)) {
+                resolved = moduleName + "." + call.name;
+            } else {
+                continue; // builtin or unknown
+            }
+            call.calls.set(call.index, resolved);
+        }
+    }
+
+    /** {@code target.__init__} when {@code calledName} names a class by convention, else {@code target}. */
+    private static String constructorTarget(String target, String calledName) {
+        return Character.isUpperCase(calledName.charAt(0)) ? target + ".__init__" : target;
+    }
+
+    private String resolveDotted(String dotted) {
+        if (dotted.isEmpty()) return dotted;
+        String first = dotted.contains(".") ? dotted.substring(0, dotted.indexOf('.')) : dotted;
+        String target = aliases.get(first);
+        if (target != null) return target + dotted.substring(first.length());
+        String cls = moduleClasses.get(first);
+        if (cls != null) return cls + dotted.substring(first.length());
+        return dotted;
+    }
+
+    // ---------------------------------------------------------------------
+    // Scopes
+    // ---------------------------------------------------------------------
+
+    private Scope currentFunction() {
+        Scope top = scopes.peek();
+        return top != null && top.kind == Scope.FUNCTION ? top : null;
+    }
+
+    /** Pop every scope whose body is deeper than the current indentation level. */
+    private void closeScopes() {
+        while (scopes.size() > 1 && scopes.peek().bodyDepth > depth) {
+            Scope closed = scopes.pop();
+            if (closed.kind == Scope.FUNCTION && closed.method != null) {
+                Scope parent = scopes.peek();
+                boolean ownsMethod = parent.kind != Scope.FUNCTION || parent.method != closed.method;
+                if (ownsMethod) closed.method.setEndLine(lastTokenEndLine);
+            }
+        }
+    }
+
+    private static final class Scope {
+        static final int MODULE = 0;
+        static final int CLASS = 1;
+        static final int FUNCTION = 2;
+
+        final int kind;
+        final int bodyDepth;
+        final String qualifiedName;       // module or class name owning the functions
+        final ParsedMethodNode method;    // function whose calls are being collected
+        final Scope enclosingClass;       // for self./cls. resolution
+        ParsedDependencyNode node;        // class node
+        int startLine;
+
+        Scope(int kind, int bodyDepth, String qualifiedName, ParsedMethodNode method, Scope enclosingClass) {
+            this.kind = kind;
+            this.bodyDepth = bodyDepth;
+            this.qualifiedName = qualifiedName;
+            this.method = method;
+            this.enclosingClass = enclosingClass;
+        }
+    }
+
+    private static final class PendingCall {
+        final List<String> calls;
+        final int index;
+        final String name;
+
+        PendingCall(List<String> calls, int index, String name) {
+            this.calls = calls;
+            this.index = index;
+            this.name = name;
+        }
+    }
+}
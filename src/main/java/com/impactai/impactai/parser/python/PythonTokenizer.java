@@ -0,0 +1,297 @@
+package com.impactai.impactai.parser.python;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental Python tokenizer over raw bytes.
+ *
+ * Emits NEWLINE / INDENT / DEDENT like CPython's tokenizer: blank and comment-only
+ * lines are ignored, newlines inside brackets and after a backslash continuation are
+ * joined, and indentation is tracked with a stack. Comments are skipped. Like
+ * {@code JavaLexer}, tokens are read through accessors instead of being allocated.
+ */
+public final class PythonTokenizer {
+
+    public static final int EOF = 0;
+    public static final int NAME = 1;
+    public static final int NUMBER = 2;
+    public static final int STRING = 3;
+    public static final int OP = 4;         // operators and delimiters ("->" is one token)
+    public static final int NEWLINE = 5;
+    public static final int INDENT = 6;
+    public static final int DEDENT = 7;
+
+    private final byte[] src;
+    private final int limit;
+
+    private int pos;
+    private int line = 1;
+    private boolean atLineStart = true;
+    private int bracketDepth;
+
+    private int[] indents = new int[16];
+    private int indentTop;                  // indents[0] == 0 is the module level
+    private int pendingDedents;
+    private boolean lastWasNewline = true;
+
+    private int kind;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenEndLine;
+
+    public PythonTokenizer(byte[] src) {
+        this.src = src;
+        this.limit = src.length;
+    }
+
+    /**
+     * Advance to the next token.
+     * @return the kind of the new current token
+     */
+    public int next() {
+        if (pendingDedents > 0) {
+            pendingDedents--;
+            return emitEmpty(DEDENT);
+        }
+
+        if (atLineStart && bracketDepth == 0) {
+            int indentKind = readIndentation();
+            if (indentKind != -1) return indentKind;
+        }
+
+        for (;;) {
+            while (pos < limit && (src[pos] == ' ' || src[pos] == '\t' || src[pos] == '\f' || src[pos] == '\r')) {
+                pos++;
+            }
+            if (pos >= limit) {
+                return endOfInput();
+            }
+
+            int c = src[pos] & 0xff;
+
+            if (c == '#') {
+                while (pos < limit && src[pos] != '\n') pos++;
+                continue;
+            }
+            if (c == '\\' && pos + 1 < limit && (src[pos + 1] == '\n' || src[pos + 1] == '\r')) {
+                pos++;
+                if (src[pos] == '\r') pos++;
+                if (pos < limit && src[pos] == '\n') pos++;
+                line++;
+                continue;
+            }
+            if (c == '\n') {
+                start = pos;
+                tokenLine = line;
+                pos++;
+                line++;
+                if (bracketDepth > 0) {
+                    continue; // implicit line joining
+                }
+                atLineStart = true;
+                if (lastWasNewline) {
+                    return next();
+                }
+                return finish(NEWLINE);
+            }
+
+            start = pos;
+            tokenLine = line;
+
+            if (isNameStart(c)) {
+                pos++;
+                while (pos < limit && isNamePart(src[pos] & 0xff)) pos++;
+                if (pos < limit && (src[pos] == '"' || src[pos] == '\'') && isStringPrefix(start, pos)) {
+                    scanString();
+                    return finish(STRING);
+                }
+                return finish(NAME);
+            }
+            if (isDigit(c) || (c == '.' && pos + 1 < limit && isDigit(src[pos + 1] & 0xff))) {
+                while (pos < limit && (isNamePart(src[pos] & 0xff) || src[pos] == '.')) pos++;
+                return finish(NUMBER);
+            }
+            if (c == '"' || c == '\'') {
+                scanString();
+                return finish(STRING);
+            }
+
+            if (c == '(' || c == '[' || c == '{') {
+                bracketDepth++;
+            } else if ((c == ')' || c == ']' || c == '}') && bracketDepth > 0) {
+                bracketDepth--;
+            }
+            if (c == '-' && pos + 1 < limit && src[pos + 1] == '>') {
+                pos += 2;
+            } else {
+                pos++;
+            }
+            return finish(OP);
+        }
+    }
+
+    // ---- accessors for the current token ----
+
+    public int kind() { return kind; }
+    public int start() { return start; }
+    public int end() { return end; }
+    public int line() { return tokenLine; }
+    public int endLine() { return tokenEndLine; }
+
+    public String text() {
+        return new String(src, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    public boolean is(String literal) {
+        int len = end - start;
+        if (len != literal.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (src[start + i] != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    public boolean isOp(char c) {
+        return kind == OP && end - start == 1 && src[start] == c;
+    }
+
+    // ---- helpers ----
+
+    /** Measures the indentation of the next logical line; returns INDENT/DEDENT or -1. */
+    private int readIndentation() {
+        for (;;) {
+            int col = 0;
+            int p = pos;
+            while (p < limit) {
+                byte b = src[p];
+                if (b == ' ') col++;
+                else if (b == '\t') col = (col / 8 + 1) * 8;
+                else if (b == '\f') col = 0;
+                else break;
+                p++;
+            }
+            if (p >= limit) {
+                pos = p;
+                return -1; // EOF is handled by the caller
+            }
+            byte b = src[p];
+            if (b == '\n' || b == '\r' || b == '#') {
+                // blank or comment-only line: does not affect indentation
+                while (p < limit && src[p] != '\n') p++;
+                if (p < limit) {
+                    p++;
+                    line++;
+                }
+                pos = p;
+                continue;
+            }
+
+            pos = p;
+            atLineStart = false;
+            int current = indents[indentTop];
+            if (col > current) {
+                if (indentTop + 1 == indents.length) {
+                    int[] grown = new int[indents.length * 2];
+                    System.arraycopy(indents, 0, grown, 0, indents.length);
+                    indents = grown;
+                }
+                indents[++indentTop] = col;
+                start = pos;
+                tokenLine = line;
+                return finish(INDENT);
+            }
+            if (col < current) {
+                int dedents = 0;
+                while (indentTop > 0 && indents[indentTop] > col) {
+                    indentTop--;
+                    dedents++;
+                }
+                pendingDedents = dedents - 1;
+                start = pos;
+                tokenLine = line;
+                return finish(DEDENT);
+            }
+            return -1;
+        }
+    }
+
+    private int endOfInput() {
+        start = pos;
+        tokenLine = line;
+        if (!lastWasNewline) {
+            return finish(NEWLINE);
+        }
+        if (indentTop > 0) {
+            indentTop--;
+            return finish(DEDENT);
+        }
+        return finish(EOF);
+    }
+
+    private int emitEmpty(int k) {
+        start = pos;
+        tokenLine = line;
+        return finish(k);
+    }
+
+    private int finish(int k) {
+        kind = k;
+        end = k == NEWLINE ? start + 1 : pos;
+        tokenEndLine = line;
+        lastWasNewline = k == NEWLINE || k == INDENT || k == DEDENT;
+        if (k == NEWLINE) tokenEndLine = tokenLine;
+        return k;
+    }
+
+    private void scanString() {
+        byte quote = src[pos];
+        boolean triple = pos + 2 < limit && src[pos + 1] == quote && src[pos + 2] == quote;
+        pos += triple ? 3 : 1;
+        while (pos < limit) {
+            byte b = src[pos];
+            if (b == '\\' && pos + 1 < limit) {
+                if (src[pos + 1] == '\n') line++;
+                pos += 2;
+            } else if (b == quote) {
+                if (!triple) {
+                    pos++;
+                    return;
+                }
+                if (pos + 2 < limit && src[pos + 1] == quote && src[pos + 2] == quote) {
+                    pos += 3;
+                    return;
+                }
+                pos++;
+            } else if (b == '\n') {
+                if (!triple) return; // unterminated single-line string
+                line++;
+                pos++;
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    private boolean isStringPrefix(int from, int to) {
+        int len = to - from;
+        if (len > 2) return false;
+        for (int i = from; i < to; i++) {
+            int c = src[i] | 0x20; // lower-case ASCII
+            if (c != 'r' && c != 'b' && c != 'f' && c != 'u') return false;
+        }
+        return true;
+    }
+
+    private static boolean isNameStart(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c >= 0x80;
+    }
+
+    private static boolean isNamePart(int c) {
+        return isNameStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,68 @@
+package com.impactai.impactai.risk;
+
+import com.impactai.impactai.graph.AnnotationClassifier;
+import com.impactai.impactai.service.ImpactAnalysisService.ImpactReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scores impact reports with the rule set compiled from {@code impactai.risk.rules} and
+ * {@code impactai.risk.levels}, followed by any {@link RiskRule} beans.
+ *
+ * Reports are scored in batches over column arrays; a new rule set can be swapped in at
+ * runtime with {@link #reload(String, String)} and existing reports re-scored with
+ * {@link #scoreAll(List)}.
+ */
+@Component
+public class RiskEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskEngine.class);
+
+    private final AnnotationClassifier annotationClassifier;
+    private final List<RiskRule> pluginRules;
+    private volatile RiskRuleSet ruleSet;
+
+    @Autowired
+    public RiskEngine(AnnotationClassifier annotationClassifier,
+                      ObjectProvider<RiskRule> pluginRules,
+                      @Value("${impactai.risk.rules:}") String rules,
+                      @Value("${impactai.risk.levels:}") String levels) {
+        this.annotationClassifier = annotationClassifier;
+        this.pluginRules = pluginRules.orderedStream().toList();
+        reload(rules, levels);
+    }
+
+    /**
+     * Compile and switch to a new rule set; blank arguments fall back to the defaults.
+     * @throws IllegalArgumentException if the rules do not compile, in which case the current set stays
+     */
+    public void reload(String rules, String levels) {
+        RiskRuleSet compiled = RiskRuleSet.compile(
+                rules == null || rules.isBlank() ? RiskRuleSet.DEFAULT_RULES : rules,
+                levels == null || levels.isBlank() ? RiskRuleSet.DEFAULT_LEVELS : levels,
+                annotationClassifier);
+        ruleSet = compiled.withRules(pluginRules);
+        logger.info("Risk rule set loaded: {} rules ({} from plugins)", ruleSet.getRuleCount(), pluginRules.size());
+    }
+
+    public String score(ImpactReport report) {
+        return scoreAll(List.of(report)).get(0);
+    }
+
+    public List<String> scoreAll(List<ImpactReport> reports) {
+        if (reports.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String[] levels = ruleSet.evaluate(RiskFeatures.of(reports));
+        logger.debug("Scored {} reports", reports.size());
+        return Arrays.asList(levels);
+    }
+}
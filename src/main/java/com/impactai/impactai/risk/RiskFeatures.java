@@ -0,0 +1,91 @@
+package com.impactai.impactai.risk;
+
+import com.impactai.impactai.service.ImpactAnalysisService.ImpactReport;
+
+import java.util.List;
+
+/**
+ * Column-oriented features of a batch of impact reports: one array per feature, one row
+ * per report, so rules run as tight loops over primitive arrays.
+ */
+public class RiskFeatures {
+
+    public enum Feature {
+        DEPTH("depth"),
+        CHANGED("changed"),
+        AFFECTED("affected"),
+        AVG_COMPLEXITY("avgComplexity"),
+        MAX_FAN_IN("maxFanIn"),
+        MAX_FAN_OUT("maxFanOut"),
+        CHURN("churn"),
+        MAX_REACH("maxReach"),
+        MAX_CENTRALITY("maxCentrality"),
+        IN_CYCLE("inCycle"),
+        COMMENT_ONLY("commentOnly"),
+        CRITICAL_METHOD("criticalMethod");
+
+        private final String configName;
+
+        Feature(String configName) {
+            this.configName = configName;
+        }
+
+        public String getConfigName() { return configName; }
+
+        public static Feature byConfigName(String name) {
+            for (Feature feature : values()) {
+                if (feature.configName.equals(name)) {
+                    return feature;
+                }
+            }
+            throw new IllegalArgumentException("Unknown risk feature: " + name);
+        }
+    }
+
+    private final int size;
+    private final double[][] columns;
+    private final long[] annotationFlags;
+
+    public RiskFeatures(int size) {
+        this.size = size;
+        this.columns = new double[Feature.values().length][size];
+        this.annotationFlags = new long[size];
+    }
+
+    public static RiskFeatures of(List<ImpactReport> reports) {
+        RiskFeatures features = new RiskFeatures(reports.size());
+        for (int row = 0; row < reports.size(); row++) {
+            ImpactReport report = reports.get(row);
+            int changed = report.getChangedNodes().size();
+            int totalComplexity = 0;
+            for (String changedId : report.getChangedNodes()) {
+                totalComplexity += report.getNodeComplexity().getOrDefault(changedId, 0);
+            }
+            features.set(Feature.DEPTH, row, report.getImpactDepth());
+            features.set(Feature.CHANGED, row, changed);
+            features.set(Feature.AFFECTED, row, report.getAllImpactedNodes().size() - changed);
+            features.set(Feature.AVG_COMPLEXITY, row, changed > 0 ? totalComplexity / changed : 0);
+            features.set(Feature.MAX_FAN_IN, row, report.getMaxFanIn());
+            features.set(Feature.MAX_FAN_OUT, row, report.getMaxFanOut());
+            features.set(Feature.CHURN, row, report.getChurn());
+            features.set(Feature.MAX_REACH, row, report.getMaxReach());
+            features.set(Feature.MAX_CENTRALITY, row, report.getMaxCentrality());
+            features.set(Feature.IN_CYCLE, row, report.isInCycle() ? 1 : 0);
+            features.set(Feature.COMMENT_ONLY, row, report.hasCommentOnlyChanges() ? 1 : 0);
+            features.set(Feature.CRITICAL_METHOD, row, report.hasCriticalMethodChanges() ? 1 : 0);
+            features.annotationFlags[row] = report.getChangedAnnotationFlags();
+        }
+        return features;
+    }
+
+    public int size() { return size; }
+
+    public double[] column(Feature feature) { return columns[feature.ordinal()]; }
+
+    /** Annotation flags of the changed nodes per report, see {@link com.impactai.impactai.graph.AnnotationClassifier}. */
+    public long[] annotationFlags() { return annotationFlags; }
+
+    public void set(Feature feature, int row, double value) {
+        columns[feature.ordinal()][row] = value;
+    }
+}
@@ -0,0 +1,18 @@
+package com.impactai.impactai.risk;
+
+/**
+ * One step of risk scoring, applied to a whole batch of reports at once.
+ *
+ * Rules compiled from configuration implement this, and any Spring bean implementing it is
+ * appended to the configured rule set. Every report starts with a score of 1.0 (MEDIUM
+ * baseline) and no level.
+ */
+public interface RiskRule {
+
+    /**
+     * @param features feature columns of the batch, one row per report
+     * @param scores   running score per report; multiplicative rules scale it
+     * @param levels   forced level per report; an override only sets rows that are still null
+     */
+    void apply(RiskFeatures features, double[] scores, String[] levels);
+}
@@ -0,0 +1,263 @@
+package com.impactai.impactai.risk;
+
+import com.impactai.impactai.graph.AnnotationClassifier;
+import com.impactai.impactai.risk.RiskFeatures.Feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ordered risk rules plus the score thresholds of the risk levels, compiled from a small
+ * rule language. Rules are separated by ';':
+ * <pre>
+ *   override LEVEL when COND [and COND]...   force a level (first matching override wins)
+ *   step FEATURE BOUND:FACTOR ... *:FACTOR   multiply by the factor of the first bound &gt;= value
+ *   flag ANNOTATION|critical FACTOR          multiply when a changed node carries the annotation
+ * </pre>
+ * A COND is {@code FEATURE [OP NUMBER]} with OP one of {@code >= > <= < ==} (a bare feature
+ * means non-zero), or {@code annotation NAME|critical}. Levels are written as
+ * {@code LEVEL:MAX_SCORE, ..., LEVEL:*}.
+ */
+public class RiskRuleSet {
+
+    public static final String DEFAULT_RULES =
+            "override LOW when commentOnly;"
+            + "override CRITICAL when criticalMethod and depth >= 3;"
+            + "step depth 1:1.0 2:1.5 *:2.5;"
+            + "step affected 2:1.0 5:1.5 10:2.0 *:2.5;"
+            + "step avgComplexity 5:1.0 15:1.5 *:2.0;"
+            + "flag critical 3.0";
+
+    public static final String DEFAULT_LEVELS = "LOW:1.0, MEDIUM:2.0, HIGH:3.5, CRITICAL:*";
+
+    private final List<RiskRule> rules;
+    private final String[] levelNames;
+    private final double[] levelMaxScores;
+
+    RiskRuleSet(List<RiskRule> rules, String[] levelNames, double[] levelMaxScores) {
+        this.rules = rules;
+        this.levelNames = levelNames;
+        this.levelMaxScores = levelMaxScores;
+    }
+
+    /**
+     * @throws IllegalArgumentException on a rule or level that does not parse
+     */
+    public static RiskRuleSet compile(String rules, String levels, AnnotationClassifier classifier) {
+        List<RiskRule> compiled = new ArrayList<>();
+        for (String rule : rules.split(";")) {
+            String[] words = rule.trim().split("\\s+");
+            if (words.length == 1 && words[0].isEmpty()) {
+                continue;
+            }
+            switch (words[0]) {
+                case "override" -> compiled.add(compileOverride(words, classifier));
+                case "step" -> compiled.add(compileStep(words));
+                case "flag" -> compiled.add(compileFlag(words, classifier));
+                default -> throw new IllegalArgumentException("Unknown risk rule: " + rule.trim());
+            }
+        }
+
+        String[] entries = levels.split(",");
+        String[] names = new String[entries.length];
+        double[] maxScores = new double[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad risk level: " + entries[i].trim());
+            }
+            names[i] = parts[0].trim();
+            maxScores[i] = bound(parts[1].trim());
+        }
+        return new RiskRuleSet(compiled, names, maxScores);
+    }
+
+    /** Copy with additional rules applied after the configured ones. */
+    public RiskRuleSet withRules(List<RiskRule> extraRules) {
+        List<RiskRule> all = new ArrayList<>(rules);
+        all.addAll(extraRules);
+        return new RiskRuleSet(all, levelNames, levelMaxScores);
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    /** Risk level of every report of the batch. */
+    public String[] evaluate(RiskFeatures features) {
+        double[] scores = new double[features.size()];
+        Arrays.fill(scores, 1.0);
+        String[] levels = new String[features.size()];
+        for (RiskRule rule : rules) {
+            rule.apply(features, scores, levels);
+        }
+        for (int row = 0; row < levels.length; row++) {
+            if (levels[row] == null) {
+                levels[row] = levelOf(scores[row]);
+            }
+        }
+        return levels;
+    }
+
+    private String levelOf(double score) {
+        for (int i = 0; i < levelMaxScores.length; i++) {
+            if (score <= levelMaxScores[i]) {
+                return levelNames[i];
+            }
+        }
+        return levelNames[levelNames.length - 1];
+    }
+
+    // ---- compilation ----
+
+    private static RiskRule compileOverride(String[] words, AnnotationClassifier classifier) {
+        if (words.length < 4 || !words[2].equals("when")) {
+            throw new IllegalArgumentException("Expected 'override LEVEL when ...': " + String.join(" ", words));
+        }
+        String level = words[1];
+        List<Condition> conditions = new ArrayList<>();
+        int i = 3;
+        while (i < words.length) {
+            if (words[i].equals("and")) {
+                i++;
+                continue;
+            }
+            if (words[i].equals("annotation")) {
+                conditions.add(new AnnotationCondition(annotationMask(word(words, i + 1), classifier)));
+                i += 2;
+            } else if (i + 2 < words.length && isOperator(words[i + 1])) {
+                conditions.add(new FeatureCondition(Feature.byConfigName(words[i]), words[i + 1],
+                        Double.parseDouble(words[i + 2])));
+                i += 3;
+            } else {
+                conditions.add(new FeatureCondition(Feature.byConfigName(words[i]), "!=", 0));
+                i++;
+            }
+        }
+        Condition[] all = conditions.toArray(new Condition[0]);
+        return (features, scores, levels) -> {
+            for (int row = 0; row < levels.length; row++) {
+                if (levels[row] == null && matches(all, features, row)) {
+                    levels[row] = level;
+                }
+            }
+        };
+    }
+
+    private static RiskRule compileStep(String[] words) {
+        if (words.length < 3) {
+            throw new IllegalArgumentException("Expected 'step FEATURE BOUND:FACTOR ...': " + String.join(" ", words));
+        }
+        Feature feature = Feature.byConfigName(words[1]);
+        double[] bounds = new double[words.length - 2];
+        double[] factors = new double[words.length - 2];
+        for (int i = 2; i < words.length; i++) {
+            String[] parts = words[i].split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad step '" + words[i] + "' for " + words[1]);
+            }
+            bounds[i - 2] = bound(parts[0]);
+            factors[i - 2] = Double.parseDouble(parts[1]);
+        }
+        return (features, scores, levels) -> {
+            double[] values = features.column(feature);
+            for (int row = 0; row < scores.length; row++) {
+                double value = values[row];
+                int step = 0;
+                while (step < bounds.length - 1 && value > bounds[step]) step++;
+                scores[row] *= factors[step];
+            }
+        };
+    }
+
+    private static RiskRule compileFlag(String[] words, AnnotationClassifier classifier) {
+        if (words.length != 3) {
+            throw new IllegalArgumentException("Expected 'flag ANNOTATION FACTOR': " + String.join(" ", words));
+        }
+        long mask = annotationMask(words[1], classifier);
+        double factor = Double.parseDouble(words[2]);
+        return (features, scores, levels) -> {
+            long[] flags = features.annotationFlags();
+            for (int row = 0; row < scores.length; row++) {
+                if ((flags[row] & mask) != 0) {
+                    scores[row] *= factor;
+                }
+            }
+        };
+    }
+
+    private static long annotationMask(String name, AnnotationClassifier classifier) {
+        long mask = name.equals("critical") ? -1L : classifier.classify(name);
+        if (mask == 0) {
+            throw new IllegalArgumentException("Annotation " + name + " is not in the critical annotation list");
+        }
+        return mask;
+    }
+
+    private static double bound(String text) {
+        return text.equals("*") ? Double.POSITIVE_INFINITY : Double.parseDouble(text);
+    }
+
+    private static String word(String[] words, int i) {
+        if (i >= words.length) {
+            throw new IllegalArgumentException("Unexpected end of rule: " + String.join(" ", words));
+        }
+        return words[i];
+    }
+
+    private static boolean isOperator(String word) {
+        return word.equals(">=") || word.equals(">") || word.equals("<=") || word.equals("<") || word.equals("==");
+    }
+
+    private static boolean matches(Condition[] conditions, RiskFeatures features, int row) {
+        for (Condition condition : conditions) {
+            if (!condition.test(features, row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface Condition {
+        boolean test(RiskFeatures features, int row);
+    }
+
+    private static final class FeatureCondition implements Condition {
+        private final Feature feature;
+        private final String operator;
+        private final double operand;
+
+        FeatureCondition(Feature feature, String operator, double operand) {
+            this.feature = feature;
+            this.operator = operator;
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(RiskFeatures features, int row) {
+            double value = features.column(feature)[row];
+            return switch (operator) {
+                case ">=" -> value >= operand;
+                case ">" -> value > operand;
+                case "<=" -> value <= operand;
+                case "<" -> value < operand;
+                case "==" -> value == operand;
+                default -> value != operand;
+            };
+        }
+    }
+
+    private static final class AnnotationCondition implements Condition {
+        private final long mask;
+
+        AnnotationCondition(long mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean test(RiskFeatures features, int row) {
+            return (features.annotationFlags()[row] & mask) != 0;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.graph.SymbolTable;
 import com.impactai.impactai.parser.ParsedDependencyNode;
-import com.impactai.impactai.parser.java.JavaParserImpl;
+import com.impactai.impactai.parser.ParserRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -11,25 +14,32 @@ import java.util.List;
 @Service
 public class DependencyParserService {
 
-    private final JavaParserImpl javaParserImpl;
+    private static final Logger logger = LoggerFactory.getLogger(DependencyParserService.class);
+
+    private final ParserRegistry parserRegistry;
 
     @Autowired
-    public DependencyParserService(JavaParserImpl javaParserImpl) {
-        this.javaParserImpl = javaParserImpl;
+    public DependencyParserService(ParserRegistry parserRegistry) {
+        this.parserRegistry = parserRegistry;
     }
 
-    public List<ParsedDependencyNode> parseChangedFiles(List<String> changedFiles) {
+    /**
+     * Parse the given files, sharing names with the repo's symbol table.
+     */
+    public List<ParsedDependencyNode> parseChangedFiles(List<String> changedFiles, SymbolTable symbols) {
         List<ParsedDependencyNode> allNodes = new ArrayList<>();
+        int skipped = 0;
         for (String filePath : changedFiles) {
-            if (filePath.endsWith(".java")) {
-                System.out.println("== Parsing " + filePath);
-                List<ParsedDependencyNode> nodes = javaParserImpl.parseFile(filePath);
-                nodes.forEach(System.out::println);
+            if (parserRegistry.isSupported(filePath)) {
+                List<ParsedDependencyNode> nodes = parserRegistry.parseFile(filePath, symbols);
+                logger.debug("Parsed {}: {} nodes", filePath, nodes.size());
                 allNodes.addAll(nodes);
             } else {
-                System.out.println("Skipping non-java file: " + filePath);
+                skipped++;
             }
         }
+        logger.info("Parsed {} changed files into {} nodes, skipped {} unsupported",
+                changedFiles.size() - skipped, allNodes.size(), skipped);
         return allNodes;
     }
 }
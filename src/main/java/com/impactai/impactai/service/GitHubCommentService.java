@@ -1,5 +1,8 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.observability.GitHubCallEvent;
+import com.impactai.impactai.observability.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -11,8 +14,14 @@ public class GitHubCommentService {
     @Value("${github.token}")
     private String githubToken;
 
+    @Value("${github.api-url:https://api.github.com}")
+    private String githubApiUrl;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     public void postComment(String owner, String repo, int prNumber, String markdownBody) {
-        String url = String.format("https://api.github.com/repos/%s/%s/issues/%d/comments", owner, repo, prNumber);
+        String url = String.format(githubApiUrl + "/repos/%s/%s/issues/%d/comments", owner, repo, prNumber);
 
         RestTemplate restTemplate = new RestTemplate();
 
@@ -24,6 +33,16 @@ public class GitHubCommentService {
         String bodyJson = String.format("{\"body\": \"%s\"}", markdownBody.replace("\"", "\\\"").replace("\n", "\\n"));
 
         HttpEntity<String> req = new HttpEntity<>(bodyJson, headers);
-        restTemplate.postForEntity(url, req, String.class);
+        GitHubCallEvent event = new GitHubCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            restTemplate.postForEntity(url, req, String.class);
+            success = true;
+        } finally {
+            pipelineMetrics.github("comments", System.nanoTime() - start, success);
+            event.record("comments", url, success);
+        }
     }
 }
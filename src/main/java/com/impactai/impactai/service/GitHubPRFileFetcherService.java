@@ -1,8 +1,11 @@
 package com.impactai.impactai.service;
 
 import com.impactai.impactai.model.PRChangeInfo;
+import com.impactai.impactai.observability.GitHubCallEvent;
+import com.impactai.impactai.observability.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -10,6 +13,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class GitHubPRFileFetcherService {
@@ -19,6 +23,12 @@ public class GitHubPRFileFetcherService {
     @Value("${github.token}")
     private String githubToken;
 
+    @Value("${github.api-url:https://api.github.com}")
+    private String githubApiUrl;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     /**
      * Fetch changed files for a PR with PATCH data for line-level detection
      *
@@ -38,7 +48,7 @@ public class GitHubPRFileFetcherService {
             return changedFiles;
         }
 
-        String url = String.format("https://api.github.com/repos/%s/%s/pulls/%d/files", owner, repo, prNumber);
+        String url = String.format(githubApiUrl + "/repos/%s/%s/pulls/%d/files", owner, repo, prNumber);
         logger.debug("Fetching PR files from GitHub API: {}", url);
 
         try {
@@ -51,7 +61,8 @@ public class GitHubPRFileFetcherService {
 
             HttpEntity<String> request = new HttpEntity<>(headers);
 
-            ResponseEntity<Map[]> response = restTemplate.exchange(url, HttpMethod.GET, request, Map[].class);
+            ResponseEntity<Map[]> response = timed("pulls.files", url,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, request, Map[].class));
 
             if (!response.getStatusCode().is2xxSuccessful()) {
                 logger.warn("GitHub API returned status: {}", response.getStatusCode());
@@ -135,8 +146,7 @@ public class GitHubPRFileFetcherService {
 
             // Log patch extraction
             if (patch != null && !patch.isEmpty()) {
-                int lines = patch.split("\n").length;
-                logger.debug("File {} has patch with {} lines", filePath, lines);
+                logger.debug("File {} has patch with {} chars", filePath, patch.length());
             } else {
                 logger.warn("File {} has no patch data (status: {}). Will use fallback logic.", filePath, statusStr);
             }
@@ -163,7 +173,7 @@ public class GitHubPRFileFetcherService {
             return null;
         }
 
-        String url = String.format("https://api.github.com/repos/%s/%s/contents/%s?ref=%s",
+        String url = String.format(githubApiUrl + "/repos/%s/%s/contents/%s?ref=%s",
                 owner, repo, filePath, sha);
         logger.debug("Fetching file content from: {}", url);
 
@@ -176,7 +186,8 @@ public class GitHubPRFileFetcherService {
             headers.setContentType(MediaType.APPLICATION_JSON);
 
             HttpEntity<String> request = new HttpEntity<>(headers);
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
+            ResponseEntity<Map> response = timed("contents", url,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, request, Map.class));
 
             if (!response.getStatusCode().is2xxSuccessful()) {
                 logger.warn("GitHub API returned status: {} for file: {}", response.getStatusCode(), filePath);
@@ -195,8 +206,9 @@ public class GitHubPRFileFetcherService {
                 return null;
             }
 
-            // Decode base64
-            String decodedContent = new String(java.util.Base64.getDecoder().decode(content));
+            // Decode base64 (GitHub wraps it in lines of 60 chars)
+            String decodedContent = new String(java.util.Base64.getMimeDecoder().decode(content),
+                    java.nio.charset.StandardCharsets.UTF_8);
             logger.debug("Successfully fetched content for file: {} ({} bytes)", filePath, decodedContent.length());
             return decodedContent;
 
@@ -211,4 +223,22 @@ public class GitHubPRFileFetcherService {
             return null;
         }
     }
+
+    /**
+     * Run a GitHub API call and record its duration and outcome
+     */
+    private <T> ResponseEntity<T> timed(String endpoint, String url, Supplier<ResponseEntity<T>> call) {
+        GitHubCallEvent event = new GitHubCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ResponseEntity<T> response = call.get();
+            success = response.getStatusCode().is2xxSuccessful();
+            return response;
+        } finally {
+            pipelineMetrics.github(endpoint, System.nanoTime() - start, success);
+            event.record(endpoint, url, success);
+        }
+    }
 }
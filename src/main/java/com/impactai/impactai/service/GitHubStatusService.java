@@ -1,7 +1,10 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.observability.GitHubCallEvent;
+import com.impactai.impactai.observability.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -18,9 +21,18 @@ public class GitHubStatusService {
     @Value("${github.token}")
     private String githubToken;
 
+    @Value("${github.api-url:https://api.github.com}")
+    private String githubApiUrl;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     public void setStatus(String owner, String repo, String sha, String state, String description, String context) {
+        String url = String.format(githubApiUrl + "/repos/%s/%s/statuses/%s", owner, repo, sha);
+        GitHubCallEvent event = new GitHubCallEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            String url = String.format("https://api.github.com/repos/%s/%s/statuses/%s", owner, repo, sha);
 
             Map<String, Object> payload = new HashMap<>();
             payload.put("state", state);                  // "success" or "failure"
@@ -36,8 +48,12 @@ public class GitHubStatusService {
             RestTemplate restTemplate = new RestTemplate();
 
             ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+            pipelineMetrics.github("statuses", System.nanoTime() - start, true);
+            event.record("statuses", url, true);
             logger.info("GitHub Status set: {} ({}): {}", sha, state, description);
         } catch (Exception e) {
+            pipelineMetrics.github("statuses", System.nanoTime() - start, false);
+            event.record("statuses", url, false);
             logger.error("Failed to post status to GitHub: {}", e.getMessage());
         }
     }
@@ -1,139 +1,134 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.graph.AnnotationClassifier;
 import com.impactai.impactai.graph.DependencyGraph;
-import com.impactai.impactai.graph.GraphNode;
+import com.impactai.impactai.graph.GraphBuildSession;
+import com.impactai.impactai.graph.ReachCache;
+import com.impactai.impactai.graph.SymbolTable;
+import com.impactai.impactai.observability.GraphBuildEvent;
+import com.impactai.impactai.observability.PipelineMetrics;
 import com.impactai.impactai.parser.ParsedDependencyNode;
-import com.impactai.impactai.parser.ParsedMethodNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GraphBuilderService {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphBuilderService.class);
 
-    private DependencyGraph graph = new DependencyGraph();
+    private final Map<String, DependencyGraph> graphs = new ConcurrentHashMap<>();
+    private final Map<String, Object> writeLocks = new ConcurrentHashMap<>();
 
-    public void build(List<ParsedDependencyNode> parsedNodes) {
+    @Autowired
+    private AnnotationClassifier annotationClassifier;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${impactai.graph.reach-cache.max-bytes:33554432}")
+    private long reachCacheMaxBytes;
+
+    /**
+     * Start a fresh build for a repo. Push parse results into the session as they are
+     * produced, then call {@link #publish(String, GraphBuildSession)}.
+     */
+    public GraphBuildSession startBuild(String repoFullName) {
+        logger.info("Starting graph build for {}", repoFullName);
+        return GraphBuildSession.build(newGraph());
+    }
+
+    /**
+     * Finish a session started with {@link #startBuild(String)} and make its graph the repo's graph.
+     */
+    public DependencyGraph publish(String repoFullName, GraphBuildSession session) {
+        GraphBuildEvent finishEvent = new GraphBuildEvent();
+        finishEvent.begin();
+        long start = System.nanoTime();
+        DependencyGraph built = session.finish();
+        long finished = System.nanoTime();
+        finishEvent.record(repoFullName, "finish", session.getParsedNodeCount(), built.getNodeCount());
+        GraphBuildEvent metricsEvent = new GraphBuildEvent();
+        metricsEvent.begin();
+        built.getMetrics(); // condense the new version before it is queried
+        metricsEvent.record(repoFullName, "metrics", 0, built.getNodeCount());
+        pipelineMetrics.graphPass("finish", finished - start);
+        pipelineMetrics.graphPass("metrics", System.nanoTime() - finished);
+        synchronized (writeLock(repoFullName)) {
+            graphs.put(repoFullName, built);
+        }
+        pipelineMetrics.registerGraph(repoFullName, () -> graphs.get(repoFullName));
+        return built;
+    }
+
+    /**
+     * Build the repo's graph from an already collected list of parsed nodes.
+     */
+    public DependencyGraph build(String repoFullName, List<ParsedDependencyNode> parsedNodes) {
         logger.info("Building dependency graph from {} parsed nodes", parsedNodes.size());
+        GraphBuildSession session = startBuild(repoFullName);
+        session.accept(parsedNodes);
+        return publish(repoFullName, session);
+    }
 
-        try {
-            // Clear existing graph
-            graph = new DependencyGraph();
-
-            // Pass 1: Create all nodes
-            logger.debug("Pass 1: Creating nodes...");
-            for (ParsedDependencyNode parsedNode : parsedNodes) {
-                try {
-                    String nodeId = parsedNode.getName();
-                    GraphNode classNode = new GraphNode(nodeId, "class",
-                            nodeId.substring(nodeId.lastIndexOf(".") + 1));
-
-                    // Add annotations to class node
-                    if (parsedNode.getAnnotations() != null) {
-                        classNode.setAnnotations(parsedNode.getAnnotations());
-                    }
-
-                    graph.addNode(classNode);
-                    logger.debug("Added class node: {}", nodeId);
-
-                    // Pass 1b: Create method nodes
-                    if (parsedNode.getMethods() != null) {
-                        for (ParsedMethodNode method : parsedNode.getMethods()) {
-                            try {
-                                String methodId = nodeId + "." + method.getMethodName();
-                                GraphNode methodNode = new GraphNode(methodId, "method", method.getMethodName());
-
-                                // Add called methods to method node
-                                if (method.getCalledMethods() != null) {
-                                    methodNode.setCalledMethods(method.getCalledMethods());
-                                }
-
-                                // Add annotations to method node
-                                if (method.getAnnotations() != null) {
-                                    methodNode.setAnnotations(method.getAnnotations());
-                                }
-
-                                graph.addNode(methodNode);
-                                logger.debug("Added method node: {}", methodId);
-                            } catch (Exception e) {
-                                logger.error("Error creating method node for {}.{}: {}",
-                                        nodeId, method.getMethodName(), e.getMessage());
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("Error creating node for {}: {}", parsedNode.getName(), e.getMessage());
-                }
-            }
-
-            // Pass 2: Create edges (method calls)
-            logger.debug("Pass 2: Creating edges...");
-            for (ParsedDependencyNode parsedNode : parsedNodes) {
-                String nodeId = parsedNode.getName();
-
-                if (parsedNode.getMethods() != null) {
-                    for (ParsedMethodNode method : parsedNode.getMethods()) {
-                        try {
-                            String methodId = nodeId + "." + method.getMethodName();
-                            GraphNode methodNode = graph.getNodeMap().get(methodId);
-
-                            if (methodNode != null && method.getCalledMethods() != null) {
-                                for (String calledMethod : method.getCalledMethods()) {
-                                    try {
-                                        GraphNode calledNode = graph.getNodeMap().get(calledMethod);
-                                        if (calledNode != null) {
-                                            methodNode.addNeighbor(calledNode);
-                                            logger.debug("Edge: {} → {}", methodId, calledMethod);
-                                        }
-                                    } catch (Exception e) {
-                                        logger.debug("Could not find called method node: {}", calledMethod);
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            logger.error("Error creating edges for method {}.{}: {}",
-                                    nodeId, method.getMethodName(), e.getMessage());
-                        }
-                    }
-                }
-
-                // Pass 3: Create edges for injected dependencies
-                logger.debug("Pass 3: Creating dependency injection edges...");
-                if (parsedNode.getInjectedDependencies() != null) {
-                    GraphNode classNode = graph.getNodeMap().get(nodeId);
-                    if (classNode != null) {
-                        for (String injected : parsedNode.getInjectedDependencies()) {
-                            try {
-                                // Find any node that matches this type
-                                for (GraphNode node : graph.getNodeMap().values()) {
-                                    if (node.getName().equals(injected) ||
-                                            node.getId().contains(injected.substring(injected.lastIndexOf(".") + 1))) {
-                                        classNode.addNeighbor(node);
-                                        logger.debug("Injection edge: {} → {}", nodeId, injected);
-                                        break;
-                                    }
-                                }
-                            } catch (Exception e) {
-                                logger.debug("Could not find injected dependency: {}", injected);
-                            }
-                        }
-                    }
-                }
-            }
-
-            logger.info("✓ Graph built successfully with {} nodes", graph.getNodeMap().size());
-            graph.printGraph();
-
-        } catch (Exception e) {
-            logger.error("Error building graph: {}", e.getMessage(), e);
+    /**
+     * Apply re-parsed files to the repo's existing graph instead of rebuilding it, so the
+     * baseline built from the full scan stays in place. The update goes to a copy that then
+     * replaces the published graph: updates of one repo are serialized, and readers keep the
+     * version they already got, which is never modified.
+     * @return the new version, to be used by the rest of the PR's processing
+     */
+    public DependencyGraph update(String repoFullName, List<ParsedDependencyNode> parsedNodes) {
+        synchronized (writeLock(repoFullName)) {
+            logger.info("Updating dependency graph of {} with {} parsed nodes", repoFullName, parsedNodes.size());
+            GraphBuildEvent updateEvent = new GraphBuildEvent();
+            updateEvent.begin();
+            long start = System.nanoTime();
+            DependencyGraph graph = graphs.computeIfAbsent(repoFullName, k -> newGraph()).copy();
+            GraphBuildSession session = GraphBuildSession.update(graph);
+            session.accept(parsedNodes);
+            session.finish();
+            long finished = System.nanoTime();
+            updateEvent.record(repoFullName, "update", parsedNodes.size(), graph.getNodeCount());
+            GraphBuildEvent metricsEvent = new GraphBuildEvent();
+            metricsEvent.begin();
+            graph.getMetrics();
+            metricsEvent.record(repoFullName, "metrics", 0, graph.getNodeCount());
+            pipelineMetrics.graphPass("update", finished - start);
+            pipelineMetrics.graphPass("metrics", System.nanoTime() - finished);
+            graphs.put(repoFullName, graph);
+            pipelineMetrics.registerGraph(repoFullName, () -> graphs.get(repoFullName));
+            return graph;
         }
     }
 
-    public DependencyGraph getGraph() {
+    private Object writeLock(String repoFullName) {
+        return writeLocks.computeIfAbsent(repoFullName, k -> new Object());
+    }
+
+    /**
+     * The repo's symbol table, shared by its graph, the PR parse output and the impact analysis.
+     */
+    public SymbolTable getSymbols(String repoFullName) {
+        return graphs.computeIfAbsent(repoFullName, k -> newGraph()).getSymbols();
+    }
+
+    private DependencyGraph newGraph() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.setAnnotationClassifier(annotationClassifier);
+        graph.setReachCache(new ReachCache(reachCacheMaxBytes));
         return graph;
     }
+
+    /** The repo's current graph version, safe to read without locking; empty if there is none. */
+    public DependencyGraph getGraph(String repoFullName) {
+        DependencyGraph graph = graphs.get(repoFullName);
+        return graph != null ? graph : newGraph();
+    }
 }
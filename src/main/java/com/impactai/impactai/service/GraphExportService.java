@@ -0,0 +1,61 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a repository's graph in the configured formats to
+ * {@code {impactai.graph.export.dir}/{owner}_{repo}.{json|ndjson|bin}}.
+ */
+@Service
+public class GraphExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphExportService.class);
+
+    @Value("${impactai.graph.export.dir:graph-exports}")
+    private String exportDir;
+
+    @Value("${impactai.graph.export.formats:json}")
+    private List<String> formats;
+
+    /**
+     * Export a published graph version in every configured format; failures are logged, not thrown.
+     * @return number of files written
+     */
+    public int export(String repoFullName, DependencyGraph graph) {
+        int written = 0;
+        for (String name : formats) {
+            if (name.isBlank()) {
+                continue;
+            }
+            Path file = null;
+            try {
+                GraphExporter.Format format = GraphExporter.Format.valueOf(name.trim().toUpperCase(Locale.ROOT));
+                file = getExportPath(repoFullName, format);
+                long start = System.nanoTime();
+                GraphExporter.export(graph, format, file);
+                logger.info("Exported graph of {} to {} in {} ms", repoFullName, file,
+                        (System.nanoTime() - start) / 1_000_000);
+                written++;
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown graph export format '{}', expected json, ndjson or binary", name);
+            } catch (IOException e) {
+                logger.error("Could not export graph of {} to {}: {}", repoFullName, file, e.getMessage(), e);
+            }
+        }
+        return written;
+    }
+
+    public Path getExportPath(String repoFullName, GraphExporter.Format format) {
+        return Path.of(exportDir, repoFullName.replace('/', '_') + "." + format.getExtension());
+    }
+}
@@ -0,0 +1,215 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphNode;
+import com.impactai.impactai.observability.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Read-only queries over a repository's dependency graph: callers and callees of a node, the
+ * impact set of a list of nodes, the shortest path between two nodes, node search by id
+ * prefix and the types of a package.
+ *
+ * A query runs without locking on the graph version published when it started; published
+ * versions are never modified (see {@link DependencyGraph}). Its full result is cached per
+ * repository under the query and the graph version, so callers page through a result without
+ * it being recomputed. Caching a result of a newer version drops the repository's older
+ * entries; a result computed on a version that was replaced meanwhile is not cached.
+ */
+@Service
+public class GraphQueryService {
+
+    @Autowired
+    private GraphBuilderService graphBuilderService;
+
+    @Autowired
+    private ImpactAnalysisService impactAnalysisService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${impactai.query.cache-entries:1000}")
+    private int cacheEntries;
+
+    private final Map<String, QueryCache> caches = new ConcurrentHashMap<>();
+
+    /** Nodes with an edge to {@code nodeId}. */
+    public Result callers(String repoFullName, String nodeId) {
+        return query(repoFullName, "callers", nodeId, graph -> {
+            GraphNode target = requireNode(graph, nodeId);
+            List<String> callers = new ArrayList<>(target.getCallerCount());
+            for (int i = 0; i < target.getCallerCount(); i++) {
+                callers.add(target.getCaller(i).getId());
+            }
+            Collections.sort(callers);
+            return new Result(callers, null);
+        });
+    }
+
+    /** Nodes {@code nodeId} has an edge to. */
+    public Result callees(String repoFullName, String nodeId) {
+        return query(repoFullName, "callees", nodeId, graph -> {
+            List<String> callees = graph.getNeighborIds(requireNode(graph, nodeId).getId());
+            Collections.sort(callees);
+            return new Result(callees, null);
+        });
+    }
+
+    /** Impact set of {@code nodeIds} as ranked by {@link ImpactAnalysisService#analyzeImpact}. */
+    public Result impact(String repoFullName, List<String> nodeIds) {
+        return query(repoFullName, "impact", String.join(",", nodeIds), graph -> {
+            ImpactAnalysisService.ImpactReport report = impactAnalysisService.analyzeImpact(graph, nodeIds);
+            return new Result(report.getAllImpactedNodes(), report.getTruncationReason());
+        });
+    }
+
+    /** Shortest path along the graph's edges from {@code fromId} to {@code toId}; empty if there is none. */
+    public Result path(String repoFullName, String fromId, String toId) {
+        return query(repoFullName, "path", fromId + "->" + toId, graph -> {
+            GraphNode from = requireNode(graph, fromId);
+            GraphNode to = requireNode(graph, toId);
+            // parents of the visited nodes only, so a short path costs no more than its search
+            Map<GraphNode, GraphNode> parent = new IdentityHashMap<>();
+            parent.put(from, from);
+            ArrayDeque<GraphNode> queue = new ArrayDeque<>();
+            queue.add(from);
+            while (!queue.isEmpty() && !parent.containsKey(to)) {
+                GraphNode node = queue.poll();
+                for (int i = 0; i < node.getNeighborCount(); i++) {
+                    GraphNode next = node.getNeighbor(i);
+                    if (parent.putIfAbsent(next, node) == null) {
+                        queue.add(next);
+                    }
+                }
+            }
+            LinkedList<String> path = new LinkedList<>();
+            if (parent.containsKey(to)) {
+                for (GraphNode node = to; ; node = parent.get(node)) {
+                    path.addFirst(node.getId());
+                    if (node == from) break;
+                }
+            }
+            return new Result(new ArrayList<>(path), null);
+        });
+    }
+
+    /** Node ids starting with {@code prefix}, in lexicographic order. */
+    public Result search(String repoFullName, String prefix) {
+        return query(repoFullName, "search", prefix,
+                graph -> new Result(graph.getSourceIndex().withPrefix(prefix), null));
+    }
+
+    /** Top-level types of {@code packageName}, in lexicographic order. */
+    public Result packageTypes(String repoFullName, String packageName) {
+        return query(repoFullName, "package", packageName,
+                graph -> new Result(graph.getSourceIndex().inPackage(packageName), null));
+    }
+
+    private Result query(String repoFullName, String query, String argument,
+                         Function<DependencyGraph, Result> compute) {
+        long start = System.nanoTime();
+        DependencyGraph graph = graphBuilderService.getGraph(repoFullName);
+        if (graph.getNodeCount() == 0) {
+            throw new NoSuchElementException("No graph for " + repoFullName);
+        }
+        QueryCache cache = cache(repoFullName);
+        String key = query + ":" + argument;
+        long version = graph.getVersion();
+        Result result = cache.get(graph, version, key);
+        boolean cached = result != null;
+        if (!cached) {
+            result = compute.apply(graph);
+            result.version = version;
+            if (graphBuilderService.getGraph(repoFullName) == graph) {
+                cache.put(graph, version, key, result);
+            }
+        }
+        pipelineMetrics.query(query, cached, System.nanoTime() - start);
+        return result;
+    }
+
+    private QueryCache cache(String repoFullName) {
+        return caches.computeIfAbsent(repoFullName, k -> new QueryCache(cacheEntries));
+    }
+
+    private static GraphNode requireNode(DependencyGraph graph, String nodeId) {
+        GraphNode node = graph.getNode(nodeId);
+        if (node == null) {
+            throw new NoSuchElementException("Unknown node " + nodeId);
+        }
+        return node;
+    }
+
+    /**
+     * Full result of a query over one graph version; shared by every page request, so read-only.
+     */
+    public static class Result {
+        private final List<String> nodes;
+        private final String truncationReason;
+        private long version;
+
+        Result(List<String> nodes, String truncationReason) {
+            this.nodes = Collections.unmodifiableList(nodes);
+            this.truncationReason = truncationReason;
+        }
+
+        public List<String> getNodes() { return nodes; }
+        /** Why an impact traversal stopped early, or null. */
+        public String getTruncationReason() { return truncationReason; }
+        public long getVersion() { return version; }
+
+        /** Nodes of page {@code page} (0-based) of {@code size} nodes each. */
+        public List<String> page(int page, int size) {
+            int from = (int) Math.min((long) page * size, nodes.size());
+            return nodes.subList(from, (int) Math.min((long) from + size, nodes.size()));
+        }
+    }
+
+    /**
+     * LRU of one repository's query results, valid for a single graph instance and version.
+     * Only a put moves the cache to another graph version, so a lookup on an old snapshot
+     * never drops the entries of a newer one.
+     */
+    private static class QueryCache {
+        private final int maxEntries;
+        private final LinkedHashMap<String, Result> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private WeakReference<DependencyGraph> graph = new WeakReference<>(null);
+        private long version = -1;
+
+        QueryCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        synchronized Result get(DependencyGraph current, long currentVersion, String key) {
+            return graph.get() == current && version == currentVersion ? entries.get(key) : null;
+        }
+
+        synchronized void put(DependencyGraph current, long currentVersion, String key, Result result) {
+            validate(current, currentVersion);
+            if (maxEntries <= 0) {
+                return;
+            }
+            entries.put(key, result);
+            if (entries.size() > maxEntries) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        private void validate(DependencyGraph current, long currentVersion) {
+            if (graph.get() != current || version != currentVersion) {
+                entries.clear();
+                graph = new WeakReference<>(current);
+                version = currentVersion;
+            }
+        }
+    }
+}
@@ -1,25 +1,64 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.graph.Condensation;
 import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphMetrics;
 import com.impactai.impactai.graph.GraphNode;
-import com.impactai.impactai.util.ChangeAnalyzer;
+import com.impactai.impactai.graph.ReachCache;
+import com.impactai.impactai.graph.ReachTraversal;
+import com.impactai.impactai.observability.ImpactTraversalEvent;
+import com.impactai.impactai.risk.RiskEngine;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 @Service
 public class ImpactAnalysisService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImpactAnalysisService.class);
 
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Value("${impactai.impact.max-depth:0}")
+    private int maxDepthLimit;
+
+    @Value("${impactai.impact.max-nodes:10000}")
+    private int maxNodes;
+
+    @Value("${impactai.impact.time-budget-ms:5000}")
+    private long timeBudgetMs;
+
+    @Value("${impactai.impact.parallel-frontier:4096}")
+    private int parallelFrontier;
+
+    @Value("${impactai.impact.parallel-sources:64}")
+    private int parallelSources;
+
     /**
      * Traverse the graph and return all impacted nodes
      * Collects complexity and annotation data for risk calculation
+     * Impact depth is the number of traversal levels collected from a changed node (the changed
+     * node's own component being the first), so cycles count once
+     * The traversal stops at the configured depth, node count and time budget; the report then
+     * holds the nodes closest to the change (most central first within a level) and is marked truncated
      */
     public ImpactReport analyzeImpact(DependencyGraph graph, List<String> changedNodeIds) {
-        Set<String> allImpacted = new HashSet<>();
+        ImpactTraversalEvent event = new ImpactTraversalEvent();
+        event.begin();
+        long deadline = timeBudgetMs > 0 ? System.nanoTime() + timeBudgetMs * 1_000_000 : Long.MAX_VALUE;
+        int nodeBudget = maxNodes > 0 ? maxNodes : Integer.MAX_VALUE;
+        // shallowest traversal level of every impacted node, changed nodes at 0
+        Map<String, Integer> depthByNode = new HashMap<>();
         int maxDepth = 0;
+        String truncation = null;
 
         Map<String, List<String>> impactedByNode = new HashMap<>();
         Map<String, Integer> nodeComplexity = new HashMap<>();
@@ -27,65 +66,83 @@ public class ImpactAnalysisService {
 
         logger.debug("Starting impact analysis for {} changed nodes", changedNodeIds.size());
 
+        // Traversal runs over the components of the condensation and is memoized per start node
+        GraphMetrics metrics = graph.getMetrics();
+        Condensation condensation = metrics.getCondensation();
+        ReachCache reachCache = graph.getReachCache();
+        ReachTraversal traversal = new ReachTraversal(condensation, ForkJoinPool.commonPool(), parallelFrontier);
+        Map<Integer, ReachTraversal.Result> prefetched = prefetch(graph, metrics, changedNodeIds, nodeBudget, deadline);
+        long changedAnnotationFlags = 0L;
+        int maxFanIn = 0;
+        int maxFanOut = 0;
+        int maxReach = 0;
+        double maxCentrality = 0;
+        boolean inCycle = false;
+
         for (String changedId : changedNodeIds) {
             List<String> nodeImpact = new ArrayList<>();
-            Queue<String> queue = new LinkedList<>();
-            Set<String> visited = new HashSet<>();
-
-            queue.add(changedId);
-            visited.add(changedId);
-            int localDepth = 0;
-
-            while (!queue.isEmpty()) {
-                int levelSize = queue.size();
-                localDepth++;
-
-                for (int i = 0; i < levelSize; i++) {
-                    String current = queue.poll();
-                    nodeImpact.add(current);
-
-                    // Collect node data
-                    try {
-                        GraphNode graphNode = graph.getNodeMap().get(current);
-                        if (graphNode != null) {
-                            // Store complexity
-                            int complexity = graphNode.getCalledMethods() != null ?
-                                    graphNode.getCalledMethods().size() : 0;
-                            nodeComplexity.put(current, complexity);
-
-                            // Store annotations
-                            List<String> annotations = graphNode.getAnnotations() != null ?
-                                    new ArrayList<>(graphNode.getAnnotations()) : new ArrayList<>();
-                            nodeAnnotations.put(current, annotations);
-
-                            logger.debug("Node {}: complexity={}, annotations={}",
-                                    current, complexity, annotations.size());
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error collecting data for node {}: {}", current, e.getMessage());
+            GraphNode start = graph.getNode(changedId);
+            int localDepth = 1;
+
+            if (start == null) {
+                // unknown to the graph: impacts only itself
+                nodeImpact.add(changedId);
+                depthByNode.put(changedId, 0);
+            } else {
+                changedAnnotationFlags |= start.getAnnotationFlags();
+                int symbol = start.getSymbol();
+                maxFanIn = Math.max(maxFanIn, metrics.getFanIn(start));
+                maxFanOut = Math.max(maxFanOut, metrics.getFanOut(start));
+                maxReach = Math.max(maxReach, metrics.getReach(start));
+                maxCentrality = Math.max(maxCentrality, metrics.getCentrality(start));
+                inCycle |= metrics.isInCycle(start);
+                int root = condensation.getComponent(start);
+
+                collectNode(start, nodeImpact, nodeComplexity, nodeAnnotations);
+                depthByNode.put(changedId, 0);
+
+                RoaringBitmap[] levels = reachCache.get(metrics.getVersion(), symbol, maxDepthLimit);
+                if (levels == null) {
+                    ReachTraversal.Result result = prefetched.get(symbol);
+                    if (result == null && System.nanoTime() < deadline) {
+                        result = traversal.traverse(root, maxDepthLimit, nodeBudget, deadline);
                     }
-
-                    // Traverse neighbors
-                    for (String neighbor : graph.getNeighborIds(current)) {
-                        if (!visited.contains(neighbor)) {
-                            visited.add(neighbor);
-                            queue.add(neighbor);
-                        }
+                    if (result == null) {
+                        truncation = truncation != null ? truncation : describe(ReachTraversal.Limit.TIME);
+                        levels = new RoaringBitmap[0];
+                    } else if (result.getStoppedBy() == null) {
+                        levels = result.getLevels();
+                        reachCache.put(metrics.getVersion(), symbol, maxDepthLimit, levels);
+                    } else {
+                        levels = result.getLevels();
+                        truncation = truncation != null ? truncation : describe(result.getStoppedBy());
                     }
                 }
+
+                if (maxDepthLimit > 0 && levels.length == maxDepthLimit && reachesPast(graph, levels)) {
+                    truncation = truncation != null ? truncation : "depth limit " + maxDepthLimit;
+                }
+
+                Collected collected = collectLevels(graph, metrics, symbol, levels, nodeBudget, deadline,
+                        depthByNode, nodeImpact, nodeComplexity, nodeAnnotations);
+                localDepth = Math.max(1, collected.levels);
+                truncation = truncation != null ? truncation : collected.stoppedBy;
             }
 
             maxDepth = Math.max(maxDepth, localDepth);
             impactedByNode.put(changedId, nodeImpact);
-            allImpacted.addAll(nodeImpact);
         }
 
+        List<String> ranked = rank(graph, metrics, depthByNode);
+        if (truncation != null) {
+            logger.warn("Impact analysis truncated after {} nodes ({})", ranked.size(), truncation);
+        }
         logger.info("Impact analysis complete: {} total impacted nodes, max depth {}",
-                allImpacted.size(), maxDepth);
+                ranked.size(), maxDepth);
 
-        return new ImpactReport(
+        ImpactReport report = new ImpactReport(
                 changedNodeIds,
-                new ArrayList<>(allImpacted),
+                ranked,
                 maxDepth,
                 impactedByNode,
                 nodeComplexity,
@@ -93,99 +150,164 @@ public class ImpactAnalysisService {
                 false,
                 false
         );
+        report.setChangedAnnotationFlags(changedAnnotationFlags);
+        report.setMaxFanIn(maxFanIn);
+        report.setMaxFanOut(maxFanOut);
+        report.setMaxReach(maxReach);
+        report.setMaxCentrality(maxCentrality);
+        report.setInCycle(inCycle);
+        report.setTruncationReason(truncation);
+        event.record(changedNodeIds.size(), ranked.size(), maxDepth, graph.getNodeCount(), truncation);
+        return report;
     }
 
     /**
-     * Sophisticated risk calculation with multiple factors
+     * For large change sets, traverse from every uncached changed node up front, in parallel
+     * slices of the change set with one traversal state per slice. Results are keyed by
+     * symbol, so the report is assembled in change order as usual. Both paths traverse with
+     * the whole node budget and only {@link #collectLevels} truncates, so the report does not
+     * depend on which path ran.
      */
-    public String calculateRisk(ImpactReport report) {
-        logger.info("========== RISK CALCULATION START ==========");
-
-        // Override 1: Comment-only changes
-        if (report.hasCommentOnlyChanges()) {
-            logger.info("✓ Comment-only change detected → Forcing LOW risk");
-            return "LOW";
+    private Map<Integer, ReachTraversal.Result> prefetch(DependencyGraph graph, GraphMetrics metrics,
+                                                         List<String> changedNodeIds, int nodeBudget, long deadline) {
+        if (parallelSources <= 0 || changedNodeIds.size() < parallelSources) {
+            return Map.of();
+        }
+        ReachCache reachCache = graph.getReachCache();
+        Set<GraphNode> distinct = new LinkedHashSet<>();
+        for (String changedId : changedNodeIds) {
+            GraphNode node = graph.getNode(changedId);
+            if (node != null && !reachCache.contains(metrics.getVersion(), node.getSymbol(), maxDepthLimit)) {
+                distinct.add(node);
+            }
+        }
+        if (distinct.size() < parallelSources) {
+            return Map.of();
         }
+        GraphNode[] starts = distinct.toArray(new GraphNode[0]);
+        int slices = Math.min(starts.length, ForkJoinPool.getCommonPoolParallelism() + 1);
+        Condensation condensation = metrics.getCondensation();
+        Map<Integer, ReachTraversal.Result> results = new ConcurrentHashMap<>();
+        IntStream.range(0, slices).parallel().forEach(slice -> {
+            ReachTraversal traversal = new ReachTraversal(condensation, ForkJoinPool.commonPool(), parallelFrontier);
+            for (int i = slice; i < starts.length && System.nanoTime() < deadline; i += slices) {
+                int root = condensation.getComponent(starts[i]);
+                results.put(starts[i].getSymbol(), traversal.traverse(root, maxDepthLimit, nodeBudget, deadline));
+            }
+        });
+        logger.debug("Prefetched reach of {} changed nodes in {} parallel slices", results.size(), slices);
+        return results;
+    }
+
+    private String describe(ReachTraversal.Limit limit) {
+        return limit == ReachTraversal.Limit.NODES ? "node budget " + maxNodes : "time budget " + timeBudgetMs + " ms";
+    }
 
-        // Override 2: Critical method with high impact
-        if (report.hasCriticalMethodChanges() && report.getImpactDepth() >= 3) {
-            logger.info("✓ Critical method with depth >= 3 → Forcing CRITICAL risk");
-            return "CRITICAL";
+    /** Whether a node of the last level has an edge to a node outside all levels. */
+    private static boolean reachesPast(DependencyGraph graph, RoaringBitmap[] levels) {
+        RoaringBitmap reached = RoaringBitmap.or(levels);
+        for (int member : levels[levels.length - 1]) {
+            GraphNode node = graph.getNode(member);
+            if (node == null) continue;
+            for (GraphNode neighbor : node.getNeighbors()) {
+                if (!reached.contains(neighbor.getSymbol())) return true;
+            }
         }
+        return false;
+    }
+
+    /** Outcome of {@link #collectLevels}. */
+    private static final class Collected {
+        final int levels; // levels that contributed nodes, the start node's level included
+        final String stoppedBy; // why collection stopped early, or null
 
-        // Calculate base risk
-        double baseRisk = 1.0; // MEDIUM baseline
-        logger.debug("Base risk: {}", baseRisk);
-
-        // Apply multipliers
-        double depthMultiplier = ChangeAnalyzer.getDepthMultiplier(report.getImpactDepth());
-        logger.debug("Depth multiplier (depth={}): {}", report.getImpactDepth(), depthMultiplier);
-
-        int affectedCount = report.getAllImpactedNodes().size() - report.getChangedNodes().size();
-        double affectedMultiplier = ChangeAnalyzer.getAffectedMultiplier(affectedCount);
-        logger.debug("Affected multiplier (affected={}): {}", affectedCount, affectedMultiplier);
-
-        int totalComplexity = 0;
-        int changedCount = 0;
-        for (String changedId : report.getChangedNodes()) {
-            Integer complexity = report.getNodeComplexity().getOrDefault(changedId, 0);
-            totalComplexity += complexity;
-            changedCount++;
-            logger.debug("Changed node {}: complexity={}", changedId, complexity);
+        Collected(int levels, String stoppedBy) {
+            this.levels = levels;
+            this.stoppedBy = stoppedBy;
         }
-        double avgComplexity = changedCount > 0 ? (double) totalComplexity / changedCount : 0;
-        double complexityMultiplier = ChangeAnalyzer.getComplexityMultiplier((int) avgComplexity);
-        logger.debug("Complexity multiplier (avg={}): {}", avgComplexity, complexityMultiplier);
-
-        // Critical annotation multiplier
-        double criticalMultiplier = 1.0;
-        boolean foundCritical = false;
-        for (String changedId : report.getChangedNodes()) {
-            List<String> annotations = report.getNodeAnnotations().getOrDefault(changedId, new ArrayList<>());
-            for (String annotation : annotations) {
-                if (isCriticalAnnotation(annotation)) {
-                    criticalMultiplier = 3.0;
-                    foundCritical = true;
-                    logger.info("✓ Critical annotation found in {}: {}", changedId, annotation);
-                    break;
+    }
+
+    /**
+     * Add the nodes of the reach levels to the report, level by level. A level that does not
+     * fit the node budget contributes its most central nodes only.
+     */
+    private Collected collectLevels(DependencyGraph graph, GraphMetrics metrics, int startSymbol,
+                                 RoaringBitmap[] levels, int nodeBudget, long deadline,
+                                 Map<String, Integer> depthByNode, List<String> nodeImpact,
+                                 Map<String, Integer> nodeComplexity, Map<String, List<String>> nodeAnnotations) {
+        int collected = 1; // the start node itself
+        for (int l = 0; l < levels.length; l++) {
+            if (System.nanoTime() > deadline) {
+                return new Collected(collected, "time budget " + timeBudgetMs + " ms");
+            }
+            int[] members = levels[l].toArray();
+            boolean fits = depthByNode.size() + members.length <= nodeBudget;
+            if (!fits) {
+                members = byCentrality(graph, metrics, members);
+            }
+            for (int member : members) {
+                if (member == startSymbol) continue;
+                GraphNode node = graph.getNode(member);
+                if (node == null) continue; // metrics and graph are of one version; defensive only
+                String nodeId = node.getId();
+                Integer depth = depthByNode.get(nodeId);
+                if (depth == null && depthByNode.size() >= nodeBudget) {
+                    return new Collected(collected, "node budget " + maxNodes);
+                }
+                collectNode(node, nodeImpact, nodeComplexity, nodeAnnotations);
+                collected = Math.max(collected, l + 1);
+                if (depth == null || depth > l + 1) {
+                    depthByNode.put(nodeId, l + 1);
                 }
             }
-            if (foundCritical) break;
         }
-        logger.debug("Critical multiplier: {}", criticalMultiplier);
-
-        // Calculate final score
-        double finalScore = baseRisk * depthMultiplier * affectedMultiplier *
-                complexityMultiplier * criticalMultiplier;
-
-        logger.info("Final score: {} × {} × {} × {} × {} = {}",
-                baseRisk, depthMultiplier, affectedMultiplier, complexityMultiplier,
-                criticalMultiplier, finalScore);
+        return new Collected(collected, null);
+    }
 
-        String risk = mapScoreToRisk(finalScore);
-        logger.info("========== RISK LEVEL: {} ==========", risk);
+    private static int[] byCentrality(DependencyGraph graph, GraphMetrics metrics, int[] symbols) {
+        return Arrays.stream(symbols).boxed()
+                .sorted(Comparator.comparingDouble((Integer s) -> -centrality(graph, metrics, s)).thenComparingInt(s -> s))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
 
-        return risk;
+    private static float centrality(DependencyGraph graph, GraphMetrics metrics, int symbol) {
+        GraphNode node = graph.getNode(symbol);
+        return node != null ? metrics.getCentrality(node) : 0f;
     }
 
-    private String mapScoreToRisk(double score) {
-        if (score <= 1.0) return "LOW";
-        if (score <= 2.0) return "MEDIUM";
-        if (score <= 3.5) return "HIGH";
-        return "CRITICAL";
+    /** Changed nodes, then impacted nodes by depth, then by centrality (most central first), then by id. */
+    private static List<String> rank(DependencyGraph graph, GraphMetrics metrics, Map<String, Integer> depthByNode) {
+        Map<String, Float> centrality = new HashMap<>();
+        for (String id : depthByNode.keySet()) {
+            GraphNode node = graph.getNode(id);
+            centrality.put(id, node != null ? metrics.getCentrality(node) : 0f);
+        }
+        List<String> ranked = new ArrayList<>(depthByNode.keySet());
+        ranked.sort(Comparator.comparingInt((String id) -> depthByNode.get(id))
+                .thenComparing(id -> -centrality.get(id))
+                .thenComparing(Comparator.naturalOrder()));
+        return ranked;
     }
 
-    private boolean isCriticalAnnotation(String annotation) {
-        String[] criticalAnnotations = {
-                "Transactional", "CacheEvict", "Cacheable", "CachePut", "Scheduled",
-                "Async", "EventListener", "PreAuthorize", "Secured", "RolesAllowed",
-                "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping"
-        };
+    private void collectNode(GraphNode node, List<String> nodeImpact,
+                             Map<String, Integer> nodeComplexity, Map<String, List<String>> nodeAnnotations) {
+        String nodeId = node.getId();
+        nodeImpact.add(nodeId);
 
-        for (String critical : criticalAnnotations) {
-            if (annotation.contains(critical)) return true;
-        }
-        return false;
+        // Collect node data
+        int complexity = node.getCalledMethodSymbols().length;
+        nodeComplexity.put(nodeId, complexity);
+        nodeAnnotations.put(nodeId, node.getAnnotations());
+    }
+
+    /**
+     * Risk level of a report, see {@link RiskEngine} for the rules.
+     */
+    public String calculateRisk(ImpactReport report) {
+        String risk = riskEngine.score(report);
+        logger.debug("Risk level: {}", risk);
+        return risk;
     }
 
     /**
@@ -200,6 +322,14 @@ public class ImpactAnalysisService {
         private final Map<String, List<String>> nodeAnnotations;
         private boolean hasCommentOnlyChanges;
         private boolean hasCriticalMethodChanges;
+        private long changedAnnotationFlags; // annotation flags of the changed nodes, OR-ed
+        private int maxFanIn; // highest number of edges into a changed node
+        private int maxFanOut; // highest number of edges out of a changed node
+        private int churn; // added + removed lines of the PR
+        private int maxReach; // highest estimated transitive reach of a changed node
+        private double maxCentrality; // highest centrality of a changed node, 1.0 = average
+        private boolean inCycle; // a changed node is part of a dependency cycle
+        private String truncationReason; // budget that cut the traversal short, or null
 
         public ImpactReport(List<String> changedNodes, List<String> allImpactedNodes, int impactDepth,
                             Map<String, List<String>> impactedByNode, Map<String, Integer> nodeComplexity,
@@ -225,5 +355,22 @@ public class ImpactAnalysisService {
         public boolean hasCriticalMethodChanges() { return hasCriticalMethodChanges; }
         public void setHasCommentOnlyChanges(boolean b) { this.hasCommentOnlyChanges = b; }
         public void setHasCriticalMethodChanges(boolean b) { this.hasCriticalMethodChanges = b; }
+        public long getChangedAnnotationFlags() { return changedAnnotationFlags; }
+        public void setChangedAnnotationFlags(long flags) { this.changedAnnotationFlags = flags; }
+        public int getMaxFanIn() { return maxFanIn; }
+        public void setMaxFanIn(int maxFanIn) { this.maxFanIn = maxFanIn; }
+        public int getMaxFanOut() { return maxFanOut; }
+        public void setMaxFanOut(int maxFanOut) { this.maxFanOut = maxFanOut; }
+        public int getChurn() { return churn; }
+        public void setChurn(int churn) { this.churn = churn; }
+        public int getMaxReach() { return maxReach; }
+        public void setMaxReach(int maxReach) { this.maxReach = maxReach; }
+        public double getMaxCentrality() { return maxCentrality; }
+        public void setMaxCentrality(double maxCentrality) { this.maxCentrality = maxCentrality; }
+        public boolean isInCycle() { return inCycle; }
+        public void setInCycle(boolean inCycle) { this.inCycle = inCycle; }
+        public boolean isTruncated() { return truncationReason != null; }
+        public String getTruncationReason() { return truncationReason; }
+        public void setTruncationReason(String truncationReason) { this.truncationReason = truncationReason; }
     }
 }
@@ -1,25 +1,56 @@
 package com.impactai.impactai.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ImpactReportFormatter {
 
+    // nodes listed per section; the report is ranked, so these are the closest, most central ones
+    @Value("${impactai.impact.report-nodes:200}")
+    private int reportNodes;
+
     public String formatComment(ImpactAnalysisService.ImpactReport report, String riskScore) {
         StringBuilder sb = new StringBuilder();
         sb.append("## 🔍 PR Impact Analysis\n\n");
         sb.append("### Changed Nodes\n");
-        for (String changed : report.getChangedNodes()) {
+        List<String> changedNodes = report.getChangedNodes();
+        int listed = 0;
+        for (String changed : changedNodes) {
+            if (listed == limit()) break;
             sb.append("- `").append(changed).append("`\n");
+            listed++;
+        }
+        if (listed < changedNodes.size()) {
+            sb.append("- _… ").append(changedNodes.size() - listed).append(" more_\n");
         }
+
         sb.append("\n### Impacted Nodes (direct + downstream)\n");
+        Set<String> changed = new HashSet<>(changedNodes);
+        listed = 0;
+        int omitted = 0;
         for (String impacted : report.getAllImpactedNodes()) {
-            if (!report.getChangedNodes().contains(impacted)) {
+            if (changed.contains(impacted)) continue;
+            if (listed < limit()) {
                 sb.append("- `").append(impacted).append("`\n");
+                listed++;
+            } else {
+                omitted++;
             }
         }
+        if (omitted > 0) {
+            sb.append("- _… ").append(omitted).append(" more");
+            if (report.isTruncated()) {
+                sb.append(" (").append(report.getTruncationReason()).append(")");
+            }
+            sb.append("_\n");
+        } else if (report.isTruncated()) {
+            sb.append("- _… truncated after ").append(listed)
+                    .append(" impacted nodes (").append(report.getTruncationReason()).append(")_\n");
+        }
         sb.append("\n### Impact Depth: ").append(report.getImpactDepth()).append("\n");
         sb.append("### Risk: **").append(riskScore).append("**\n");
 
@@ -27,4 +58,8 @@ public class ImpactReportFormatter {
 
         return sb.toString();
     }
+
+    private int limit() {
+        return reportNodes > 0 ? reportNodes : Integer.MAX_VALUE;
+    }
 }
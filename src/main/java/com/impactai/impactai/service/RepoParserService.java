@@ -1,36 +1,70 @@
 package com.impactai.impactai.service;
 
-import com.impactai.impactai.parser.ParsedDependencyNode;
-import com.impactai.impactai.parser.java.JavaParserImpl;
+import com.impactai.impactai.parser.ParsedNodeSink;
+import com.impactai.impactai.parser.ParserRegistry;
+import com.impactai.impactai.parser.java.SpoonContextRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Stream;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
 
 @Service
 public class RepoParserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RepoParserService.class);
+
+    /** VCS metadata and installed dependencies (virtualenvs), not the repository's own sources. */
+    private static final Set<String> SKIPPED_DIRECTORIES =
+            Set.of(".git", "venv", ".venv", "site-packages", "__pycache__");
+
+    @Autowired
+    private ParserRegistry parserRegistry;
+
     @Autowired
-    private JavaParserImpl javaParserImpl;
-
-    public List<ParsedDependencyNode> parseFullRepo(String repoLocalPath) {
-        List<ParsedDependencyNode> allNodes = new ArrayList<>();
-        try (Stream<Path> paths = Files.walk(Path.of(repoLocalPath))) {
-            paths.filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".java"))
-                    .forEach(path -> {
-                        System.out.println("Full scan parsing: " + path);
-                        List<ParsedDependencyNode> nodes = javaParserImpl.parseFile(path.toString());
-                        allNodes.addAll(nodes);
-                    });
+    private SpoonContextRegistry spoonContextRegistry;
+
+    /**
+     * Parse every supported file and hand each file's nodes to {@code sink} as soon as it is
+     * parsed, so nothing but the sink's own state has to outlive a single file.
+     * @return number of files parsed
+     */
+    public int parseFullRepo(String repoLocalPath, ParsedNodeSink sink) {
+        int[] files = {0};
+        long start = System.nanoTime();
+        // Fresh checkout: re-index sources and re-read the build file
+        spoonContextRegistry.invalidate(repoLocalPath);
+        try {
+            Files.walkFileTree(Path.of(repoLocalPath), new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path name = dir.getFileName();
+                    return name != null && SKIPPED_DIRECTORIES.contains(name.toString())
+                            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && parserRegistry.isSupported(path.toString())) {
+                        logger.trace("Full scan parsing: {}", path);
+                        sink.accept(parserRegistry.parseFile(path.toString()));
+                        files[0]++;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Full scan of {} failed after {} files: {}", repoLocalPath, files[0], e.getMessage(), e);
         }
-        return allNodes;
+        logger.info("Full scan parsed {} files of {} in {} ms",
+                files[0], repoLocalPath, (System.nanoTime() - start) / 1_000_000);
+        return files[0];
     }
 }
@@ -0,0 +1,117 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.model.PRChangeInfo;
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import com.impactai.impactai.parser.java.FastJavaParserImpl;
+import com.impactai.impactai.parser.java.MethodFingerprinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Drops changed methods whose normalized token fingerprint is the same in base and head,
+ * i.e. methods that were only reformatted, re-commented or had a local renamed.
+ *
+ * Base is the file in the local checkout, head is fetched at the PR's head commit; both are
+ * parsed with the fast Java parser so their method spans are computed the same way, then
+ * fingerprinted. Only the files compared here are fingerprinted, not every parsed file.
+ */
+@Service
+public class SemanticDiffService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticDiffService.class);
+
+    @Autowired
+    private GitHubPRFileFetcherService prFileFetcher;
+
+    @Autowired
+    private FastJavaParserImpl fastJavaParser;
+
+    @Value("${impactai.semantic-diff.enabled:true}")
+    private boolean enabled;
+
+    @Value("${impactai.semantic-diff.max-files:50}")
+    private int maxFiles;
+
+    public List<String> dropUnchangedMethods(String owner, String repoName, String headSha, String repoLocalPath,
+                                             List<PRChangeInfo> changedFiles, List<String> changedNodeIds) {
+        if (!enabled || changedNodeIds.isEmpty()) {
+            return changedNodeIds;
+        }
+
+        Map<String, List<Long>> baseFingerprints = new HashMap<>();
+        Map<String, List<Long>> headFingerprints = new HashMap<>();
+        int compared = 0;
+        for (PRChangeInfo changeInfo : changedFiles) {
+            String filePath = changeInfo.getFilePath();
+            if (!filePath.endsWith(".java")
+                    || changeInfo.getChangeType() != PRChangeInfo.ChangeType.MODIFIED
+                    || changeInfo.getChangeKind().isTrivial()) {
+                continue;
+            }
+            if (compared == maxFiles) {
+                logger.debug("Semantic diff limited to {} files", maxFiles);
+                break;
+            }
+
+            byte[] base;
+            try {
+                base = Files.readAllBytes(Path.of(repoLocalPath, filePath));
+            } catch (IOException e) {
+                logger.debug("No base version of {}: {}", filePath, e.getMessage());
+                continue;
+            }
+            String head = prFileFetcher.fetchFileContent(owner, repoName, filePath, headSha);
+            if (head == null) {
+                continue;
+            }
+
+            FastJavaParserImpl.FastParseResult baseResult = fastJavaParser.parseSource(base);
+            byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+            FastJavaParserImpl.FastParseResult headResult = fastJavaParser.parseSource(headBytes);
+            if (!baseResult.isComplete() || !headResult.isComplete()) {
+                continue;
+            }
+            MethodFingerprinter.fingerprintAll(base, baseResult.getNodes());
+            MethodFingerprinter.fingerprintAll(headBytes, headResult.getNodes());
+            collectFingerprints(baseResult.getNodes(), baseFingerprints);
+            collectFingerprints(headResult.getNodes(), headFingerprints);
+            compared++;
+        }
+
+        List<String> result = new ArrayList<>(changedNodeIds.size());
+        for (String nodeId : changedNodeIds) {
+            List<Long> before = baseFingerprints.get(nodeId);
+            if (before != null && !before.contains(0L) && before.equals(headFingerprints.get(nodeId))) {
+                logger.debug("Method {} has the same fingerprint in base and head, dropping it", nodeId);
+            } else {
+                result.add(nodeId);
+            }
+        }
+        logger.info("Semantic diff over {} files dropped {} of {} changed methods",
+                compared, changedNodeIds.size() - result.size(), changedNodeIds.size());
+        return result;
+    }
+
+    /** Fingerprints per node id; overloads share an id, so all of theirs are kept, sorted. */
+    private static void collectFingerprints(List<ParsedDependencyNode> nodes, Map<String, List<Long>> target) {
+        for (ParsedDependencyNode node : nodes) {
+            if (node.getMethods() == null) continue;
+            for (ParsedMethodNode method : node.getMethods()) {
+                String nodeId = method.getClassName() + "." + method.getMethodName();
+                List<Long> fingerprints = target.computeIfAbsent(nodeId, k -> new ArrayList<>());
+                fingerprints.add(method.getFingerprint());
+                Collections.sort(fingerprints);
+            }
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.impactai.impactai.service;
 
+import com.impactai.impactai.graph.AnnotationClassifier;
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphBuildSession;
 import com.impactai.impactai.model.LineRange;
 import com.impactai.impactai.model.PRChangeInfo;
+import com.impactai.impactai.observability.PipelineMetrics;
 import com.impactai.impactai.parser.ParsedDependencyNode;
-import com.impactai.impactai.util.ChangeAnalyzer;
+import com.impactai.impactai.parser.ParserRegistry;
+import com.impactai.impactai.util.ChangeClassifier;
+import com.impactai.impactai.util.DiffScanner;
 import com.impactai.impactai.util.GraphUtils;
-import com.impactai.impactai.util.PatchParser;
+import com.impactai.impactai.util.LoggerUtil;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +21,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.impactai.impactai.util.GraphUtils.extractChangedNodeIdsFromPR;
 
@@ -22,6 +32,7 @@ import static com.impactai.impactai.util.GraphUtils.extractChangedNodeIdsFromPR;
 public class WebhookProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(WebhookProcessingService.class);
+    private static final int NODE_LOG_SAMPLE = 20;
 
     @Autowired
     private GitHubPRFileFetcherService prFileFetcher;
@@ -32,6 +43,9 @@ public class WebhookProcessingService {
     @Autowired
     private GraphBuilderService graphBuilderService;
 
+    @Autowired
+    private GraphExportService graphExportService;
+
     @Autowired
     private RepoMetadataService repoMetadataService;
 
@@ -50,6 +64,18 @@ public class WebhookProcessingService {
     @Autowired
     private GitHubStatusService gitHubStatusService;
 
+    @Autowired
+    private ParserRegistry parserRegistry;
+
+    @Autowired
+    private SemanticDiffService semanticDiffService;
+
+    @Autowired
+    private AnnotationClassifier annotationClassifier;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
 
     /**
      * Process ping event asynchronously - builds baseline
@@ -57,34 +83,41 @@ public class WebhookProcessingService {
     @Async("webhookExecutor")
     public void processPingAsync(String owner, String repoName, String repoFullName,
                                  String defaultBranch, String repoLocalPath) {
+        Timer.Sample run = pipelineMetrics.start();
         try {
             logger.info("[ASYNC] Starting baseline setup for: {}", repoFullName);
 
             // Check if already parsed
             if (repoMetadataService.isRepoFullyParsed(repoFullName)) {
                 logger.info("[ASYNC] Repo already has baseline, skipping.");
+                pipelineMetrics.run(run, PipelineMetrics.PING, "skipped");
                 return;
             }
 
-            // Parse entire repo to build baseline graph
+            // Parse entire repo, streaming each file into the baseline graph
             logger.debug("[ASYNC] Parsing full repository from: {}", repoLocalPath);
-            List<ParsedDependencyNode> allParsedNodes = repoParserService.parseFullRepo(repoLocalPath);
-
-            // Build and store baseline graph
-            graphBuilderService.build(allParsedNodes);
+            Timer.Sample stage = pipelineMetrics.start();
+            GraphBuildSession session = graphBuilderService.startBuild(repoFullName);
+            repoParserService.parseFullRepo(repoLocalPath, session);
+            stage = pipelineMetrics.stage(stage, PipelineMetrics.PING, "parse");
+            DependencyGraph graph = graphBuilderService.publish(repoFullName, session);
+            pipelineMetrics.stage(stage, PipelineMetrics.PING, "graph-build");
 
             // Mark as ready
             repoMetadataService.markRepoAsFullyParsed(repoFullName, "ping-" + System.currentTimeMillis());
 
-            logger.info("[ASYNC] ✓ Baseline complete! Parsed {} nodes for {}", allParsedNodes.size(), repoFullName);
-
-            // Print an easy-to-read summary to the console
-            graphBuilderService.getGraph().printGraphSummary();
-            // Export the graph as JSON for analysis/visualization
-            graphBuilderService.getGraph().exportJson("impact-graph.json");
+            logger.info("[ASYNC] ✓ Baseline complete! Parsed {} nodes for {}", session.getParsedNodeCount(), repoFullName);
 
+            // One-line summary of the graph, plus a sample of nodes at DEBUG
+            graph.printGraphSummary();
+            // Export the graph for analysis/visualization (formats per impactai.graph.export)
+            stage = pipelineMetrics.start();
+            graphExportService.export(repoFullName, graph);
+            pipelineMetrics.stage(stage, PipelineMetrics.PING, "export");
+            pipelineMetrics.run(run, PipelineMetrics.PING, "baseline");
 
         } catch (Exception e) {
+            pipelineMetrics.run(run, PipelineMetrics.PING, "error");
             logger.error("[ASYNC] Error during ping baseline setup for {}: {}", repoFullName, e.getMessage(), e);
         }
     }
@@ -97,6 +130,7 @@ public class WebhookProcessingService {
     public void processPRAsync(String owner, String repoName, String repoFullName,
                                String defaultBranch, int prNumber, String headSha,
                                String action, String repoLocalPath) {
+        Timer.Sample run = pipelineMetrics.start();
         try {
             logger.info("[ASYNC] Starting PR processing for: {} PR#{}", repoFullName, prNumber);
 
@@ -111,22 +145,25 @@ public class WebhookProcessingService {
             );
 
             List<ParsedDependencyNode> allParsedNodes;
+            Timer.Sample stage = pipelineMetrics.start();
 
             // Check if baseline exists
             if (!repoMetadataService.isRepoFullyParsed(repoFullName)) {
                 logger.info("[ASYNC] === NO BASELINE FOUND: PERFORMING FULL SCAN ===");
 
-                // Parse entire repo to build baseline
-                allParsedNodes = repoParserService.parseFullRepo(repoLocalPath);
-                logger.info("[ASYNC] Full scan complete. Parsed {} nodes.", allParsedNodes.size());
-
-                // Build baseline graph
-                graphBuilderService.build(allParsedNodes);
+                // Parse entire repo, streaming each file into the baseline graph
+                GraphBuildSession session = graphBuilderService.startBuild(repoFullName);
+                repoParserService.parseFullRepo(repoLocalPath, session);
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "parse");
+                graphBuilderService.publish(repoFullName, session);
+                pipelineMetrics.stage(stage, PipelineMetrics.PR, "graph-build");
+                logger.info("[ASYNC] Full scan complete. Parsed {} nodes.", session.getParsedNodeCount());
 
                 // Mark repo as scanned
                 repoMetadataService.markRepoAsFullyParsed(repoFullName, headSha);
 
                 logger.info("[ASYNC] ✓ Baseline initialized for {}", repoFullName);
+                pipelineMetrics.run(run, PipelineMetrics.PR, "baseline");
                 return;  // Skip impact analysis for baseline creation
 
             } else {
@@ -135,9 +172,11 @@ public class WebhookProcessingService {
                 // Fetch changed files for this PR (includes patch data)
                 logger.debug("[ASYNC] Fetching changed files for PR#{}", prNumber);
                 List<PRChangeInfo> changedFiles = prFileFetcher.fetchChangedFiles(owner, repoName, prNumber);
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "fetch");
 
                 if (changedFiles == null || changedFiles.isEmpty()) {
                     logger.warn("[ASYNC] No changed files found for PR#{}", prNumber);
+                    pipelineMetrics.run(run, PipelineMetrics.PR, "no-files");
                     return;
                 }
 
@@ -149,12 +188,16 @@ public class WebhookProcessingService {
                     try {
                         String patch = changeInfo.getPatch();
                         if (patch != null && !patch.isEmpty()) {
-                            // Extract line ranges from unified diff
-                            List<LineRange> changedLines = PatchParser.extractChangedLineRanges(patch);
-                            changeInfo.setChangedLines(changedLines);
-
-                            logger.debug("[ASYNC] File {}: extracted {} line ranges",
-                                    changeInfo.getFilePath(), changedLines.size());
+                            // One pass over the unified diff: ranges on both sides, then classify its hunks
+                            DiffScanner.Result diff = DiffScanner.scan(patch);
+                            changeInfo.setChangedLines(diff.getAddedRanges());
+                            changeInfo.setRemovedLines(diff.getRemovedRanges());
+                            changeInfo.setInsertedLines(diff.getInsertedRanges());
+                            changeInfo.setChangeKind(ChangeClassifier.classify(changeInfo.getFilePath(), patch, diff));
+
+                            logger.debug("[ASYNC] File {}: extracted {} line ranges ({} removed), change kind {}",
+                                    changeInfo.getFilePath(), diff.getAddedRanges().size(),
+                                    diff.getRemovedRanges().size(), changeInfo.getChangeKind());
                         } else {
                             logger.warn("[ASYNC] No patch data for file: {} (changeType: {})",
                                     changeInfo.getFilePath(), changeInfo.getChangeType());
@@ -165,181 +208,200 @@ public class WebhookProcessingService {
                     }
                 }
 
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "patch-parse");
+
+                // ===== STEP 1A: Short-circuit trivial PRs =====
+                // Only whitespace, comments or imports changed: no method changed, so skip
+                // parsing, the graph update and the impact analysis altogether.
+                boolean allTrivial = true;
+                for (PRChangeInfo changeInfo : changedFiles) {
+                    if (!changeInfo.getChangeKind().isTrivial()) {
+                        allTrivial = false;
+                        logger.debug("[ASYNC] File has logic changes: {}", changeInfo.getFilePath());
+                        break;
+                    }
+                }
+                if (allTrivial) {
+                    logger.info("[ASYNC] ✓ All changes are comment, formatting or import only, skipping analysis");
+                    reportResult(owner, repoName, repoFullName, prNumber, headSha, action, noOpReport());
+                    pipelineMetrics.run(run, PipelineMetrics.PR, "trivial");
+                    return;
+                }
+
                 // ===== STEP 2: Parse changed files =====
                 logger.debug("[ASYNC] Parsing changed files...");
                 List<String> absolutePaths = new ArrayList<>();
                 for (PRChangeInfo info : changedFiles) {
-                    if (info.getFilePath().endsWith(".java")) {
+                    if (parserRegistry.isSupported(info.getFilePath())) {
                         String absolutePath = repoLocalPath + File.separator + info.getFilePath();
                         absolutePaths.add(absolutePath);
                         logger.debug("[ASYNC] Mapped: {} -> {}", info.getFilePath(), absolutePath);
                     }
                 }
 
-                allParsedNodes = dependencyParserService.parseChangedFiles(absolutePaths);
+                allParsedNodes = dependencyParserService.parseChangedFiles(absolutePaths,
+                        graphBuilderService.getSymbols(repoFullName));
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "parse");
                 logger.info("[ASYNC] Incremental parse complete. Parsed {} nodes.", allParsedNodes.size());
 
-                // ===== STEP 3: Build/update in-memory dependency graph =====
-                logger.debug("[ASYNC] Building/updating dependency graph...");
-                graphBuilderService.build(allParsedNodes);
+                // ===== STEP 3: Update in-memory dependency graph =====
+                logger.debug("[ASYNC] Updating dependency graph...");
+                DependencyGraph graph = graphBuilderService.update(repoFullName, allParsedNodes);
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "graph-update");
 
                 // ===== STEP 4: Extract changed node IDs (with LINE-LEVEL PRECISION) =====
                 logger.debug("[ASYNC] Extracting changed node IDs with line-level detection...");
-                List<String> changedNodeIds = extractChangedNodeIdsFromPR(changedFiles, allParsedNodes);
+                List<String> changedNodeIds = extractChangedNodeIdsFromPR(changedFiles, allParsedNodes,
+                        graph, repoLocalPath);
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "changed-nodes");
 
                 if (changedNodeIds.isEmpty()) {
                     logger.warn("[ASYNC] No changed nodes detected for PR#{}", prNumber);
+                    pipelineMetrics.run(run, PipelineMetrics.PR, "no-changed-nodes");
+                    return;
+                }
+
+                // ===== STEP 4A: Drop methods that only changed in layout or local names =====
+                changedNodeIds = semanticDiffService.dropUnchangedMethods(owner, repoName, headSha,
+                        repoLocalPath, changedFiles, changedNodeIds);
+                stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "semantic-diff");
+                if (changedNodeIds.isEmpty()) {
+                    logger.info("[ASYNC] ✓ No changed method differs semantically, skipping analysis");
+                    reportResult(owner, repoName, repoFullName, prNumber, headSha, action, noOpReport());
+                    pipelineMetrics.run(run, PipelineMetrics.PR, "unchanged");
                     return;
                 }
 
                 logger.info("[ASYNC] Identified {} changed nodes", changedNodeIds.size());
+                LoggerUtil.Sampled changedLog = LoggerUtil.sampled(logger, NODE_LOG_SAMPLE);
                 for (String nodeId : changedNodeIds) {
-                    logger.debug("[ASYNC]   - {}", nodeId);
+                    changedLog.debug("[ASYNC]   - {}", nodeId);
                 }
+                changedLog.summary("changed nodes");
 
                 // ===== STEP 5: Run impact analysis =====
                 logger.debug("[ASYNC] Running impact analysis...");
                 ImpactAnalysisService.ImpactReport impactReport = impactAnalysisService.analyzeImpact(
-                        graphBuilderService.getGraph(), changedNodeIds);
-
-                // ===== STEP 5A: Analyze patches for comment-only changes =====
-                logger.debug("[ASYNC] Analyzing patches for comment-only changes...");
-                boolean isCommentOnlyOverall = true;
-                for (PRChangeInfo changeInfo : changedFiles) {
-                    try {
-                        String patch = changeInfo.getPatch();
-                        if (patch != null && !ChangeAnalyzer.isCommentOnly(patch)) {
-                            isCommentOnlyOverall = false;
-                            logger.debug("[ASYNC] File has logic changes: {}", changeInfo.getFilePath());
-                            break;
-                        }
-                    } catch (Exception e) {
-                        logger.debug("[ASYNC] Error analyzing patch: {}", e.getMessage());
-                    }
-                }
-
-                if (isCommentOnlyOverall) {
-                    logger.info("[ASYNC] ✓ All changes are comment-only");
-                    impactReport.setHasCommentOnlyChanges(true);
-                }
+                        graph, changedNodeIds);
+                impactReport.setChurn(churnOf(changedFiles));
+                pipelineMetrics.stage(stage, PipelineMetrics.PR, "impact");
+                pipelineMetrics.impact(impactReport.getAllImpactedNodes().size(), impactReport.getImpactDepth(),
+                        impactReport.isTruncated());
 
                 // ===== STEP 5B: Check for critical methods in changed nodes =====
                 logger.debug("[ASYNC] Checking for critical methods in changed nodes...");
-                boolean hasCriticalMethods = false;
-                for (String changedNodeId : changedNodeIds) {
-                    try {
-                        List<String> annotations = impactReport.getNodeAnnotations()
-                                .getOrDefault(changedNodeId, new ArrayList<>());
-                        for (String annotation : annotations) {
-                            if (isCriticalAnnotation(annotation)) {
-                                hasCriticalMethods = true;
-                                logger.info("[ASYNC] ✓ Critical annotation found in {}: {}",
-                                        changedNodeId, annotation);
-                                break;
-                            }
-                        }
-                        if (hasCriticalMethods) break;
-                    } catch (Exception e) {
-                        logger.debug("[ASYNC] Error checking annotations: {}", e.getMessage());
-                    }
-                }
-
-                if (hasCriticalMethods) {
+                long changedFlags = impactReport.getChangedAnnotationFlags();
+                if (annotationClassifier.isCritical(changedFlags)) {
+                    logger.info("[ASYNC] ✓ Critical annotations on changed nodes: {}",
+                            annotationClassifier.describe(changedFlags));
                     impactReport.setHasCriticalMethodChanges(true);
                 }
 
-                // ===== STEP 5C: Calculate risk with enhanced logic =====
-                logger.debug("[ASYNC] Calculating risk score...");
-                String risk = impactAnalysisService.calculateRisk(impactReport);
-
-                // ===== STEP 6: Format comment =====
-                logger.debug("[ASYNC] Formatting impact report comment...");
-                String comment = impactReportFormatter.formatComment(impactReport, risk);
-
-                // --------- SET STATUS TO SUCCESS/FAILURE ----------
-                String state = (risk.equalsIgnoreCase("HIGH") || risk.equalsIgnoreCase("CRITICAL"))
-                        ? "failure"
-                        : "success";
-                String statusDescription = "Impact-AI Risk: " + risk.toUpperCase() +
-                        (state.equals("failure") ? " – Do NOT merge!" : " – Safe to merge.");
-                gitHubStatusService.setStatus(
-                        owner,
-                        repoName,
-                        headSha,
-                        state,
-                        statusDescription,
-                        "Impact-AI Risk"
-                );
-
-                // ===== STEP 7: Print summary to console/logs =====
-                logger.info("\n[ASYNC] ========= IMPACT ANALYSIS RESULT =========");
-                logger.info("[ASYNC] PR #{} for {}", prNumber, repoFullName);
-                logger.info("[ASYNC] Changed Nodes:");
-                for (String changed : impactReport.getChangedNodes()) {
-                    logger.info("[ASYNC]   [Changed] {}", changed);
-                }
-                logger.info("[ASYNC] Impacted Nodes (transitive):");
-                int impactedCount = 0;
-                for (String impacted : impactReport.getAllImpactedNodes()) {
-                    if (!impactReport.getChangedNodes().contains(impacted)) {
-                        logger.info("[ASYNC]   [Impacted] {}", impacted);
-                        impactedCount++;
-                    }
-                }
-                if (impactedCount == 0) {
-                    logger.info("[ASYNC]   (none)");
-                }
-                logger.info("[ASYNC] Impact Depth: {}", impactReport.getImpactDepth());
-                logger.info("[ASYNC] Comment-only Changes: {}", impactReport.hasCommentOnlyChanges());
-                logger.info("[ASYNC] Critical Methods: {}", impactReport.hasCriticalMethodChanges());
-                logger.info("[ASYNC] Risk Score: {}", risk);
-                logger.info("[ASYNC] ==========================================\n");
-
-                // ===== STEP 8: Post comment to GitHub PR =====
-                if (action != null && List.of("opened", "reopened", "synchronize").contains(action)) {
-                    try {
-                        logger.debug("[ASYNC] Posting impact analysis comment to PR#{}", prNumber);
-                        gitHubCommentService.postComment(owner, repoName, prNumber, comment);
-                        logger.info("[ASYNC] ✓ Posted impact analysis comment to PR#{}", prNumber);
-                    } catch (Exception e) {
-                        logger.error("[ASYNC] Failed to post comment to PR#{}: {}", prNumber, e.getMessage());
-                    }
-                } else {
-                    logger.debug("[ASYNC] Skipping comment post (action: {}, PR action not in post list)", action);
-                }
+                reportResult(owner, repoName, repoFullName, prNumber, headSha, action, impactReport);
+                pipelineMetrics.run(run, PipelineMetrics.PR, "analyzed");
             }
 
         } catch (Exception e) {
+            pipelineMetrics.run(run, PipelineMetrics.PR, "error");
             logger.error("[ASYNC] Error processing PR webhook for {}: {}", repoFullName, e.getMessage(), e);
         }
     }
 
     /**
-     * Check if annotation indicates a critical method
+     * Added plus removed lines over all files with patch data.
+     */
+    private int churnOf(List<PRChangeInfo> changedFiles) {
+        int churn = 0;
+        for (PRChangeInfo changeInfo : changedFiles) {
+            churn += lineCount(changeInfo.getChangedLines()) + lineCount(changeInfo.getRemovedLines());
+        }
+        return churn;
+    }
+
+    private static int lineCount(List<LineRange> ranges) {
+        int count = 0;
+        if (ranges != null) {
+            for (LineRange range : ranges) {
+                count += range.getEndLine() - range.getStartLine() + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Report for a PR that changes no method: nothing impacted, scored like a comment-only change.
      */
-    private boolean isCriticalAnnotation(String annotation) {
-        String[] criticalAnnotations = {
-                "Transactional",
-                "CacheEvict",
-                "Cacheable",
-                "CachePut",
-                "Scheduled",
-                "Async",
-                "EventListener",
-                "PreAuthorize",
-                "Secured",
-                "RolesAllowed",
-                "PostMapping",
-                "PutMapping",
-                "DeleteMapping",
-                "PatchMapping"
-        };
-
-        for (String critical : criticalAnnotations) {
-            if (annotation.contains(critical)) {
-                return true;
+    private ImpactAnalysisService.ImpactReport noOpReport() {
+        return new ImpactAnalysisService.ImpactReport(new ArrayList<>(), new ArrayList<>(), 0,
+                new HashMap<>(), new HashMap<>(), new HashMap<>(), true, false);
+    }
+
+    /**
+     * Score the report, set the commit status, log the summary and post the PR comment.
+     */
+    private void reportResult(String owner, String repoName, String repoFullName, int prNumber,
+                              String headSha, String action, ImpactAnalysisService.ImpactReport impactReport) {
+        // ===== STEP 5C: Calculate risk with enhanced logic =====
+        logger.debug("[ASYNC] Calculating risk score...");
+        Timer.Sample stage = pipelineMetrics.start();
+        String risk = impactAnalysisService.calculateRisk(impactReport);
+        stage = pipelineMetrics.stage(stage, PipelineMetrics.PR, "risk");
+
+        // ===== STEP 6: Format comment =====
+        logger.debug("[ASYNC] Formatting impact report comment...");
+        String comment = impactReportFormatter.formatComment(impactReport, risk);
+
+        // --------- SET STATUS TO SUCCESS/FAILURE ----------
+        String state = (risk.equalsIgnoreCase("HIGH") || risk.equalsIgnoreCase("CRITICAL"))
+                ? "failure"
+                : "success";
+        String statusDescription = "Impact-AI Risk: " + risk.toUpperCase() +
+                (state.equals("failure") ? " – Do NOT merge!" : " – Safe to merge.");
+        gitHubStatusService.setStatus(
+                owner,
+                repoName,
+                headSha,
+                state,
+                statusDescription,
+                "Impact-AI Risk"
+        );
+
+        // ===== STEP 7: Log a one-line summary, the nodes themselves only as a DEBUG sample =====
+        Set<String> changedNodes = new HashSet<>(impactReport.getChangedNodes());
+        int impactedCount = 0;
+        for (String impacted : impactReport.getAllImpactedNodes()) {
+            if (!changedNodes.contains(impacted)) {
+                impactedCount++;
+            }
+        }
+        logger.info("[ASYNC] Impact of PR #{} for {}: {} changed, {} impacted, depth {}, comment-only {}, critical {}, risk {}",
+                prNumber, repoFullName, changedNodes.size(), impactedCount, impactReport.getImpactDepth(),
+                impactReport.hasCommentOnlyChanges(), impactReport.hasCriticalMethodChanges(), risk);
+        if (logger.isDebugEnabled()) {
+            LoggerUtil.Sampled nodeLog = LoggerUtil.sampled(logger, NODE_LOG_SAMPLE);
+            for (String changed : impactReport.getChangedNodes()) {
+                nodeLog.debug("[ASYNC]   [Changed] {}", changed);
+            }
+            for (String impacted : impactReport.getAllImpactedNodes()) {
+                if (!changedNodes.contains(impacted)) {
+                    nodeLog.debug("[ASYNC]   [Impacted] {}", impacted);
+                }
+            }
+            nodeLog.summary("nodes");
+        }
+
+        // ===== STEP 8: Post comment to GitHub PR =====
+        if (action != null && List.of("opened", "reopened", "synchronize").contains(action)) {
+            try {
+                logger.debug("[ASYNC] Posting impact analysis comment to PR#{}", prNumber);
+                gitHubCommentService.postComment(owner, repoName, prNumber, comment);
+                logger.info("[ASYNC] ✓ Posted impact analysis comment to PR#{}", prNumber);
+            } catch (Exception e) {
+                logger.error("[ASYNC] Failed to post comment to PR#{}: {}", prNumber, e.getMessage());
             }
+        } else {
+            logger.debug("[ASYNC] Skipping comment post (action: {}, PR action not in post list)", action);
         }
-        return false;
+        pipelineMetrics.stage(stage, PipelineMetrics.PR, "report");
     }
 }
@@ -0,0 +1,44 @@
+package com.impactai.impactai.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size bit set whose bits can be claimed concurrently: {@link #claim(int)} sets a bit
+ * and tells exactly one of the racing threads that it was the one to set it.
+ */
+public final class AtomicBitSet {
+
+    private final AtomicLongArray words;
+
+    public AtomicBitSet(int size) {
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public boolean get(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Set the bit.
+     * @return true if it was clear before, i.e. this call claimed it
+     */
+    public boolean claim(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        for (;;) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /** Clear the bit; not safe against concurrent claims of the same word. */
+    public void clear(int index) {
+        int word = index >>> 6;
+        words.set(word, words.get(word) & ~(1L << index));
+    }
+}
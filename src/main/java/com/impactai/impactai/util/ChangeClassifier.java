@@ -0,0 +1,225 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.PRChangeInfo.ChangeKind;
+import com.impactai.impactai.parser.java.JavaLexer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Classifies what a patch changes: whitespace/formatting, comments, imports or logic.
+ *
+ * For Java files every hunk is split back into its old and new side (context lines on both)
+ * and both sides are lexed: identical code tokens mean only layout or comments changed,
+ * identical code tokens once import declarations are dropped mean an import-only change.
+ * A patch gets the most relevant kind of its hunks. An import change is only harmless when
+ * imports were removed or reordered: a patch whose new side imports anything its old side
+ * did not (an added import or a changed target) can make a name resolve to another type, so
+ * it counts as {@link ChangeKind#LOGIC}. Other source files only get the
+ * line-based check (blank and comment lines); unknown files are always {@link ChangeKind#LOGIC}.
+ */
+public final class ChangeClassifier {
+
+    private ChangeClassifier() {
+    }
+
+    public static ChangeKind classify(String filePath, String patch) {
+        return classify(filePath, patch, DiffScanner.scan(patch));
+    }
+
+    /**
+     * @param diff result of {@link DiffScanner#scan(CharSequence)} over the same patch
+     */
+    public static ChangeKind classify(String filePath, String patch, DiffScanner.Result diff) {
+        if (patch == null || patch.isEmpty() || diff.getHunks().isEmpty()) {
+            return ChangeKind.LOGIC;
+        }
+        if (filePath.endsWith(".java")) {
+            ChangeKind result = ChangeKind.WHITESPACE;
+            // compared over the whole patch, so an import moved to another hunk is a reorder
+            Set<String> oldImports = new HashSet<>();
+            Set<String> newImports = new HashSet<>();
+            for (DiffScanner.Hunk hunk : diff.getHunks()) {
+                byte[][] sides = sides(patch, hunk.getBodyStart(), hunk.getBodyEnd());
+                ChangeKind kind = classifyJavaHunk(sides[0], sides[1]);
+                if (kind == ChangeKind.IMPORT) {
+                    collectImports(sides[0], oldImports);
+                    collectImports(sides[1], newImports);
+                }
+                if (kind.compareTo(result) > 0) {
+                    result = kind;
+                    if (result == ChangeKind.LOGIC) break;
+                }
+            }
+            if (result == ChangeKind.IMPORT && !oldImports.containsAll(newImports)) {
+                return ChangeKind.LOGIC;
+            }
+            return result;
+        }
+        if (filePath.endsWith(".py")) {
+            return classifyByLines(patch, diff, "#");
+        }
+        return ChangeKind.LOGIC;
+    }
+
+    /** Old and new side of a hunk body, context lines on both. */
+    private static byte[][] sides(String patch, int bodyStart, int bodyEnd) {
+        StringBuilder oldSide = new StringBuilder();
+        StringBuilder newSide = new StringBuilder();
+        int pos = bodyStart;
+        while (pos < bodyEnd) {
+            int lineEnd = patch.indexOf('\n', pos);
+            if (lineEnd < 0 || lineEnd > bodyEnd) lineEnd = bodyEnd;
+            char marker = pos < lineEnd ? patch.charAt(pos) : ' ';
+            int contentStart = Math.min(pos + 1, lineEnd);
+            if (marker != '+' && marker != '\\') oldSide.append(patch, contentStart, lineEnd).append('\n');
+            if (marker != '-' && marker != '\\') newSide.append(patch, contentStart, lineEnd).append('\n');
+            pos = lineEnd + 1;
+        }
+
+        return new byte[][]{
+                oldSide.toString().getBytes(StandardCharsets.UTF_8),
+                newSide.toString().getBytes(StandardCharsets.UTF_8)};
+    }
+
+    private static ChangeKind classifyJavaHunk(byte[] oldBytes, byte[] newBytes) {
+        if (sameTokens(oldBytes, newBytes, false, false)) {
+            return sameTokens(oldBytes, newBytes, true, false) ? ChangeKind.WHITESPACE : ChangeKind.COMMENT;
+        }
+        return sameTokens(oldBytes, newBytes, false, true) ? ChangeKind.IMPORT : ChangeKind.LOGIC;
+    }
+
+    /**
+     * Compare the token streams of both sides.
+     * @param comments compare the comment tokens instead of the code tokens
+     * @param skipImports leave import declarations out of the code tokens
+     */
+    private static boolean sameTokens(byte[] a, byte[] b, boolean comments, boolean skipImports) {
+        JavaLexer left = lexer(a);
+        JavaLexer right = lexer(b);
+        for (;;) {
+            int leftKind = advance(left, comments, skipImports);
+            int rightKind = advance(right, comments, skipImports);
+            if (leftKind != rightKind) return false;
+            if (leftKind == JavaLexer.EOF) return true;
+            if (!sameText(a, left, b, right, comments)) return false;
+        }
+    }
+
+    private static JavaLexer lexer(byte[] src) {
+        JavaLexer lexer = new JavaLexer(src, 0, src.length, true);
+        if (startsInsideBlockComment(src)) {
+            lexer.startInsideBlockComment();
+        }
+        return lexer;
+    }
+
+    private static int advance(JavaLexer lexer, boolean comments, boolean skipImports) {
+        for (;;) {
+            int kind = lexer.next();
+            if (kind == JavaLexer.EOF) return kind;
+            boolean isComment = kind == JavaLexer.LINE_COMMENT || kind == JavaLexer.BLOCK_COMMENT;
+            if (comments) {
+                if (isComment) return kind;
+                continue;
+            }
+            if (isComment) continue;
+            if (skipImports && kind == JavaLexer.IDENT && lexer.is("import")) {
+                // "import" is reserved, so it only ever starts an import declaration
+                int next;
+                do {
+                    next = lexer.next();
+                } while (next != JavaLexer.EOF && !lexer.isPunct(';'));
+                if (next == JavaLexer.EOF) return next;
+                continue;
+            }
+            return kind;
+        }
+    }
+
+    /** Adds the imported names of a hunk side, e.g. "java.util.List" or "static a.B.c". */
+    private static void collectImports(byte[] src, Set<String> into) {
+        JavaLexer lexer = lexer(src);
+        StringBuilder name = null;
+        for (int kind; (kind = lexer.next()) != JavaLexer.EOF; ) {
+            if (kind == JavaLexer.LINE_COMMENT || kind == JavaLexer.BLOCK_COMMENT) continue;
+            if (name == null) {
+                if (kind == JavaLexer.IDENT && lexer.is("import")) name = new StringBuilder();
+            } else if (lexer.isPunct(';')) {
+                into.add(name.toString());
+                name = null;
+            } else if (lexer.is("static")) {
+                name.append("static ");
+            } else {
+                name.append(lexer.text());
+            }
+        }
+    }
+
+    /**
+     * Code tokens must match exactly; comments are compared with their inner whitespace
+     * collapsed, so re-wrapping a Javadoc still counts as formatting.
+     */
+    private static boolean sameText(byte[] a, JavaLexer left, byte[] b, JavaLexer right, boolean comments) {
+        if (!comments) {
+            int length = left.end() - left.start();
+            if (length != right.end() - right.start()) return false;
+            for (int i = 0; i < length; i++) {
+                if (a[left.start() + i] != b[right.start() + i]) return false;
+            }
+            return true;
+        }
+        int i = left.start(), j = right.start();
+        int iEnd = left.end(), jEnd = right.end();
+        for (;;) {
+            while (i < iEnd && isCommentFiller(a[i])) i++;
+            while (j < jEnd && isCommentFiller(b[j])) j++;
+            if (i == iEnd || j == jEnd) return i == iEnd && j == jEnd;
+            if (a[i++] != b[j++]) return false;
+        }
+    }
+
+    private static boolean isCommentFiller(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '*';
+    }
+
+    /**
+     * A hunk side starts inside a block comment when a "*&#47;" shows up before any "/*",
+     * e.g. a hunk that begins in the middle of a Javadoc.
+     */
+    private static boolean startsInsideBlockComment(byte[] src) {
+        for (int i = 0; i + 1 < src.length; i++) {
+            if (src[i] == '*' && src[i + 1] == '/') return true;
+            if (src[i] == '/' && (src[i + 1] == '*' || src[i + 1] == '/')) return false;
+            if (src[i] == '"' || src[i] == '\'') return false;
+        }
+        return false;
+    }
+
+    /**
+     * Line-based check for languages without a lexer here: changed lines that are all blank
+     * are formatting, blank or comment lines are a comment change.
+     */
+    private static ChangeKind classifyByLines(String patch, DiffScanner.Result diff, String commentPrefix) {
+        int changed = diff.getAddedLines() + diff.getRemovedLines();
+        int blank = 0;
+        int comment = 0;
+        for (DiffScanner.Hunk hunk : diff.getHunks()) {
+            int pos = hunk.getBodyStart();
+            while (pos < hunk.getBodyEnd()) {
+                int lineEnd = patch.indexOf('\n', pos);
+                if (lineEnd < 0 || lineEnd > hunk.getBodyEnd()) lineEnd = hunk.getBodyEnd();
+                char marker = pos < lineEnd ? patch.charAt(pos) : ' ';
+                if (marker == '+' || marker == '-') {
+                    String content = patch.substring(pos + 1, lineEnd).trim();
+                    if (content.isEmpty()) blank++;
+                    else if (content.startsWith(commentPrefix)) comment++;
+                }
+                pos = lineEnd + 1;
+            }
+        }
+        if (changed == 0 || blank + comment < changed) return ChangeKind.LOGIC;
+        return comment == 0 ? ChangeKind.WHITESPACE : ChangeKind.COMMENT;
+    }
+}
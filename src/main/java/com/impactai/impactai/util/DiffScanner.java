@@ -0,0 +1,227 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.LineRange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass scanner for unified diff patches as returned by the GitHub API.
+ *
+ * Walks the patch once without splitting it into lines or using regexes, and collects the
+ * hunks, the changed line ranges on both sides, the old-file positions of pure insertions and
+ * per-line classification counts.
+ * Hunk headers may omit counts ({@code @@ -1 +1 @@}), in which case they default to 1.
+ */
+public final class DiffScanner {
+
+    private DiffScanner() {
+    }
+
+    public static Result scan(CharSequence patch) {
+        Result result = new Result();
+        if (patch == null || patch.length() == 0) {
+            return result;
+        }
+
+        int length = patch.length();
+        Hunk hunk = null;
+        int oldLine = 0;
+        int newLine = 0;
+        int addedStart = -1, addedEnd = -1;
+        int removedStart = -1, removedEnd = -1;
+        // changed block (lines between context lines): where its added lines go in the old file
+        int insertAt = -1;
+        boolean blockRemoves = false;
+
+        int pos = 0;
+        while (pos < length) {
+            int lineEnd = pos;
+            while (lineEnd < length && patch.charAt(lineEnd) != '\n') lineEnd++;
+            int contentEnd = lineEnd > pos && patch.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            char c = pos < contentEnd ? patch.charAt(pos) : ' ';
+
+            if (c == '@' && startsWith(patch, pos, contentEnd, "@@")) {
+                Hunk next = parseHeader(patch, pos, contentEnd);
+                if (next != null) {
+                    if (hunk != null) hunk.bodyEnd = pos;
+                    if (addedStart != -1) result.addedRanges.add(new LineRange(addedStart, addedEnd));
+                    if (removedStart != -1) result.removedRanges.add(new LineRange(removedStart, removedEnd));
+                    if (insertAt != -1 && !blockRemoves) result.insertedRanges.add(new LineRange(insertAt, insertAt));
+                    addedStart = addedEnd = removedStart = removedEnd = insertAt = -1;
+                    blockRemoves = false;
+
+                    hunk = next;
+                    hunk.bodyStart = lineEnd < length ? lineEnd + 1 : lineEnd;
+                    result.hunks.add(hunk);
+                    oldLine = hunk.oldStart;
+                    newLine = hunk.newStart;
+                }
+            } else if (hunk != null) {
+                if (c == '+') {
+                    if (addedStart == -1) addedStart = newLine;
+                    if (insertAt == -1) insertAt = oldLine;
+                    addedEnd = newLine;
+                    newLine++;
+                    result.addedLines++;
+                    if (isCommentOrBlank(patch, pos + 1, contentEnd)) result.addedCommentLines++;
+                } else if (c == '-') {
+                    if (removedStart == -1) removedStart = oldLine;
+                    blockRemoves = true;
+                    removedEnd = oldLine;
+                    oldLine++;
+                    result.removedLines++;
+                    if (isCommentOrBlank(patch, pos + 1, contentEnd)) result.removedCommentLines++;
+                } else if (c == '\\') {
+                    // "\ No newline at end of file" belongs to the previous line
+                } else {
+                    // Context line, separates ranges on both sides
+                    if (addedStart != -1) {
+                        result.addedRanges.add(new LineRange(addedStart, addedEnd));
+                        addedStart = addedEnd = -1;
+                    }
+                    if (removedStart != -1) {
+                        result.removedRanges.add(new LineRange(removedStart, removedEnd));
+                        removedStart = removedEnd = -1;
+                    }
+                    if (insertAt != -1 && !blockRemoves) {
+                        result.insertedRanges.add(new LineRange(insertAt, insertAt));
+                    }
+                    insertAt = -1;
+                    blockRemoves = false;
+                    oldLine++;
+                    newLine++;
+                }
+            }
+            pos = lineEnd + 1;
+        }
+
+        if (hunk != null) hunk.bodyEnd = length;
+        if (addedStart != -1) result.addedRanges.add(new LineRange(addedStart, addedEnd));
+        if (removedStart != -1) result.removedRanges.add(new LineRange(removedStart, removedEnd));
+        if (insertAt != -1 && !blockRemoves) result.insertedRanges.add(new LineRange(insertAt, insertAt));
+        return result;
+    }
+
+    /** Parses {@code @@ -a[,b] +c[,d] @@}; returns null for anything else. */
+    private static Hunk parseHeader(CharSequence s, int from, int to) {
+        int[] cursor = {from + 2};
+        if (!skipSpaces(s, cursor, to) || s.charAt(cursor[0]) != '-') return null;
+        cursor[0]++;
+        int oldStart = readInt(s, cursor, to);
+        int oldCount = 1;
+        if (oldStart < 0) return null;
+        if (cursor[0] < to && s.charAt(cursor[0]) == ',') {
+            cursor[0]++;
+            oldCount = readInt(s, cursor, to);
+            if (oldCount < 0) return null;
+        }
+        if (!skipSpaces(s, cursor, to) || s.charAt(cursor[0]) != '+') return null;
+        cursor[0]++;
+        int newStart = readInt(s, cursor, to);
+        int newCount = 1;
+        if (newStart < 0) return null;
+        if (cursor[0] < to && s.charAt(cursor[0]) == ',') {
+            cursor[0]++;
+            newCount = readInt(s, cursor, to);
+            if (newCount < 0) return null;
+        }
+        if (!skipSpaces(s, cursor, to) || !startsWith(s, cursor[0], to, "@@")) return null;
+        return new Hunk(oldStart, oldCount, newStart, newCount);
+    }
+
+    private static boolean skipSpaces(CharSequence s, int[] cursor, int to) {
+        while (cursor[0] < to && s.charAt(cursor[0]) == ' ') cursor[0]++;
+        return cursor[0] < to;
+    }
+
+    private static int readInt(CharSequence s, int[] cursor, int to) {
+        int start = cursor[0];
+        int value = 0;
+        while (cursor[0] < to) {
+            char c = s.charAt(cursor[0]);
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+            cursor[0]++;
+        }
+        return cursor[0] == start ? -1 : value;
+    }
+
+    private static boolean startsWith(CharSequence s, int from, int to, String prefix) {
+        if (to - from < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (s.charAt(from + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Line content is blank or starts with "//" or "*" (Javadoc/block comment continuation). */
+    private static boolean isCommentOrBlank(CharSequence s, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(s.charAt(i))) i++;
+        if (i == to) return true;
+        char c = s.charAt(i);
+        return c == '*' || (c == '/' && i + 1 < to && s.charAt(i + 1) == '/');
+    }
+
+    /**
+     * One hunk: its header counts and the offsets of its body lines within the patch.
+     */
+    public static class Hunk {
+        private final int oldStart;
+        private final int oldCount;
+        private final int newStart;
+        private final int newCount;
+        private int bodyStart;
+        private int bodyEnd;
+
+        Hunk(int oldStart, int oldCount, int newStart, int newCount) {
+            this.oldStart = oldStart;
+            this.oldCount = oldCount;
+            this.newStart = newStart;
+            this.newCount = newCount;
+        }
+
+        public int getOldStart() { return oldStart; }
+        public int getOldCount() { return oldCount; }
+        public int getNewStart() { return newStart; }
+        public int getNewCount() { return newCount; }
+        public int getBodyStart() { return bodyStart; }
+        public int getBodyEnd() { return bodyEnd; }
+    }
+
+    /**
+     * Everything extracted from one patch.
+     */
+    public static class Result {
+        private final List<Hunk> hunks = new ArrayList<>();
+        private final List<LineRange> addedRanges = new ArrayList<>();
+        private final List<LineRange> removedRanges = new ArrayList<>();
+        private final List<LineRange> insertedRanges = new ArrayList<>();
+        private int addedLines;
+        private int removedLines;
+        private int addedCommentLines;
+        private int removedCommentLines;
+
+        public List<Hunk> getHunks() { return hunks; }
+        /** Added/modified line ranges in the new file. */
+        public List<LineRange> getAddedRanges() { return addedRanges; }
+        /** Removed line ranges in the old file. */
+        public List<LineRange> getRemovedRanges() { return removedRanges; }
+        /**
+         * Old-file line before which lines were added without removing any, one single-line
+         * range per insertion. Added lines that replace removed ones are covered by
+         * {@link #getRemovedRanges()}, so together both locate every change in the old file.
+         */
+        public List<LineRange> getInsertedRanges() { return insertedRanges; }
+        public int getAddedLines() { return addedLines; }
+        public int getRemovedLines() { return removedLines; }
+        public int getAddedCommentLines() { return addedCommentLines; }
+        public int getRemovedCommentLines() { return removedCommentLines; }
+
+        /** True when there are added lines and all of them are comments or blank. */
+        public boolean isCommentOnly() {
+            return addedLines > 0 && addedCommentLines == addedLines;
+        }
+    }
+}
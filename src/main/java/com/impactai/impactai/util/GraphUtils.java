@@ -1,5 +1,7 @@
 package com.impactai.impactai.util;
 
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.SourceIndex;
 import com.impactai.impactai.model.LineRange;
 import com.impactai.impactai.model.PRChangeInfo;
 import com.impactai.impactai.parser.ParsedDependencyNode;
@@ -14,10 +16,22 @@ public class GraphUtils {
     private static final Logger logger = LoggerFactory.getLogger(GraphUtils.class);
 
     /**
-     * Extract changed node IDs from PR with LINE-LEVEL precision
+     * Extract changed node IDs from PR with LINE-LEVEL precision, matching files to parsed
+     * nodes by their source path or, failing that, by paths guessed from the class name
      */
     public static List<String> extractChangedNodeIdsFromPR(List<PRChangeInfo> changedFiles,
                                                            List<ParsedDependencyNode> parsedNodes) {
+        return extractChangedNodeIdsFromPR(changedFiles, parsedNodes, null, null);
+    }
+
+    /**
+     * Extract changed node IDs from PR with LINE-LEVEL precision. Files are resolved through the
+     * graph's {@link SourceIndex} under {@code repoLocalPath}, so any source layout works, and a
+     * deleted file contributes the classes it declared in the baseline.
+     */
+    public static List<String> extractChangedNodeIdsFromPR(List<PRChangeInfo> changedFiles,
+                                                           List<ParsedDependencyNode> parsedNodes,
+                                                           DependencyGraph graph, String repoLocalPath) {
         Set<String> changedNodeIds = new HashSet<>();
 
         if (changedFiles == null || changedFiles.isEmpty()) {
@@ -25,54 +39,105 @@ public class GraphUtils {
             return new ArrayList<>(changedNodeIds);
         }
 
-        if (parsedNodes == null || parsedNodes.isEmpty()) {
+        SourceIndex sourceIndex = graph != null && repoLocalPath != null ? graph.getSourceIndex() : null;
+        if (sourceIndex == null && (parsedNodes == null || parsedNodes.isEmpty())) {
             logger.warn("No parsed nodes provided");
             return new ArrayList<>(changedNodeIds);
         }
 
-        // Create a lookup map: filePath -> ParsedDependencyNode
-        Map<String, ParsedDependencyNode> nodesByFile = buildFilePathMap(parsedNodes);
+        // Lookup: parsed nodes by name for the index, else filePath -> nodes declared in that file
+        Map<String, ParsedDependencyNode> nodesByName = new HashMap<>();
+        Map<String, List<ParsedDependencyNode>> nodesByFile = null;
+        if (sourceIndex != null) {
+            if (parsedNodes != null) {
+                for (ParsedDependencyNode node : parsedNodes) {
+                    nodesByName.put(node.getName(), node);
+                }
+            }
+        } else {
+            nodesByFile = buildFilePathMap(parsedNodes);
+        }
 
         for (PRChangeInfo changeInfo : changedFiles) {
             String filePath = changeInfo.getFilePath();
             PRChangeInfo.ChangeType changeType = changeInfo.getChangeType();
-            List<LineRange> changedLines = changeInfo.getChangedLines();
 
             logger.debug("Processing changed file: {} (changeType: {})", filePath, changeType);
 
-            // Find matching node for this file
-            ParsedDependencyNode node = nodesByFile.get(filePath);
-
-            if (node == null) {
-                logger.warn("No parsed node found for file: {}. This file may not be Java or wasn't parsed.", filePath);
-                continue;
+            // Find matching nodes for this file
+            List<ParsedDependencyNode> nodes;
+            if (sourceIndex != null) {
+                int[] types = sourceIndex.getTypes(repoLocalPath + "/" + filePath);
+                nodes = new ArrayList<>();
+                for (int type : types != null ? types : new int[0]) {
+                    ParsedDependencyNode node = nodesByName.get(graph.getSymbols().name(type));
+                    if (node != null) {
+                        nodes.add(node);
+                    }
+                }
+                if (nodes.isEmpty() && types != null && changeType == PRChangeInfo.ChangeType.DELETED) {
+                    // not parsed at head: the classes the baseline recorded for the file
+                    for (int type : types) {
+                        changedNodeIds.add(graph.getSymbols().name(type));
+                    }
+                    logger.debug("Deleted file {} declared {} classes", filePath, types.length);
+                    continue;
+                }
+            } else {
+                nodes = findNodesForFile(nodesByFile, filePath);
             }
 
-            // Get methods in this file
-            List<ParsedMethodNode> methodsInFile = node.getMethods();
-
-            if (methodsInFile == null || methodsInFile.isEmpty()) {
-                logger.debug("No methods found in file: {}", filePath);
+            if (nodes.isEmpty()) {
+                logger.warn("No parsed node found for file: {}. This file may be unsupported or wasn't parsed.", filePath);
                 continue;
             }
 
             // ===== LINE-LEVEL DETECTION =====
-            if (changedLines != null && !changedLines.isEmpty()) {
-                logger.debug("Using line-level detection for file: {} with {} changed ranges",
-                        filePath, changedLines.size());
+            // Methods are parsed from the base checkout, so changes are located by old-file lines:
+            // removed ranges (modified lines included) and the insertion points of added lines
+            List<LineRange> insertedLines = changeInfo.getInsertedLines();
+            List<LineRange> removedLines = changeInfo.getRemovedLines();
+            boolean hasLineInfo = (insertedLines != null && !insertedLines.isEmpty())
+                    || (removedLines != null && !removedLines.isEmpty());
+            if (hasLineInfo) {
+                // One interval index over every method declared in the file, nested types included
+                List<ParsedMethodNode> methodsInFile = new ArrayList<>();
+                for (ParsedDependencyNode node : nodes) {
+                    if (node.getMethods() != null) {
+                        methodsInFile.addAll(node.getMethods());
+                    }
+                }
+                if (methodsInFile.isEmpty()) {
+                    logger.debug("No methods found in {}", filePath);
+                    continue;
+                }
+
+                logger.debug("Using line-level detection for {} with {} insertions and {} deletions",
+                        filePath, insertedLines != null ? insertedLines.size() : 0,
+                        removedLines != null ? removedLines.size() : 0);
 
                 // Find methods that actually overlap with changed lines
                 List<ParsedMethodNode> modifiedMethods =
-                        MethodModificationDetector.findModifiedMethods(methodsInFile, changedLines);
+                        MethodModificationDetector.findModifiedMethods(methodsInFile, insertedLines, removedLines);
 
                 // Add only modified methods as changed nodes
                 List<String> modifiedNodeIds =
                         MethodModificationDetector.buildModifiedNodeIds(modifiedMethods);
 
                 changedNodeIds.addAll(modifiedNodeIds);
-                logger.info("File {} contributed {} changed method nodes", filePath, modifiedNodeIds.size());
+                logger.debug("File {} contributed {} changed method nodes", filePath, modifiedNodeIds.size());
+                continue;
+            }
+
+            for (ParsedDependencyNode node : nodes) {
+                // Get methods declared by this node
+                List<ParsedMethodNode> methodsInFile = node.getMethods();
+
+                if (methodsInFile == null || methodsInFile.isEmpty()) {
+                    logger.debug("No methods found in {} ({})", node.getName(), filePath);
+                    continue;
+                }
 
-            } else {
                 // ===== FALLBACK: No patch data available =====
                 logger.warn("No changed lines available for file: {}. Adding based on changeType.", filePath);
 
@@ -104,14 +169,22 @@ public class GraphUtils {
     }
 
     /**
-     * Build a map of file paths to nodes for quick lookup
-     * Tries multiple path formats to match
+     * Build a map of file paths to nodes for quick lookup.
+     * Nodes that know their source file are keyed by it; for the others the
+     * path is guessed from the class name in a few common layouts.
      */
-    private static Map<String, ParsedDependencyNode> buildFilePathMap(List<ParsedDependencyNode> parsedNodes) {
-        Map<String, ParsedDependencyNode> map = new HashMap<>();
+    private static Map<String, List<ParsedDependencyNode>> buildFilePathMap(List<ParsedDependencyNode> parsedNodes) {
+        Map<String, List<ParsedDependencyNode>> map = new HashMap<>();
 
         for (ParsedDependencyNode node : parsedNodes) {
             try {
+                if (node.getSourceFile() != null) {
+                    String sourceFile = node.getSourceFile().replace('\\', '/');
+                    map.computeIfAbsent(sourceFile, k -> new ArrayList<>()).add(node);
+                    logger.trace("Registered node {} with source file {}", node.getName(), sourceFile);
+                    continue;
+                }
+
                 // Convert fully qualified class name to file path
                 // e.g., com.example.MyClass -> src/main/java/com/example/MyClass.java
                 String className = node.getName();
@@ -119,11 +192,11 @@ public class GraphUtils {
                 String filePath2 = "src/main/java/" + filePath1;
                 String filePath3 = "src/test/java/" + filePath1;
 
-                map.put(filePath1, node);
-                map.put(filePath2, node);
-                map.put(filePath3, node);
+                map.computeIfAbsent(filePath1, k -> new ArrayList<>()).add(node);
+                map.computeIfAbsent(filePath2, k -> new ArrayList<>()).add(node);
+                map.computeIfAbsent(filePath3, k -> new ArrayList<>()).add(node);
 
-                logger.debug("Registered node {} with paths: {}, {}, {}", className, filePath1, filePath2, filePath3);
+                logger.trace("Registered node {} with paths: {}, {}, {}", className, filePath1, filePath2, filePath3);
             } catch (Exception e) {
                 logger.error("Error building file path map for node", e);
             }
@@ -131,4 +204,23 @@ public class GraphUtils {
 
         return map;
     }
+
+    /**
+     * Look up the nodes of a repo-relative path; source files are usually absolute
+     * (clone directory + relative path), so fall back to a suffix match.
+     */
+    private static List<ParsedDependencyNode> findNodesForFile(Map<String, List<ParsedDependencyNode>> nodesByFile,
+                                                               String filePath) {
+        List<ParsedDependencyNode> nodes = nodesByFile.get(filePath);
+        if (nodes != null) {
+            return nodes;
+        }
+        String suffix = "/" + filePath;
+        for (Map.Entry<String, List<ParsedDependencyNode>> entry : nodesByFile.entrySet()) {
+            if (entry.getKey().endsWith(suffix)) {
+                return entry.getValue();
+            }
+        }
+        return Collections.emptyList();
+    }
 }
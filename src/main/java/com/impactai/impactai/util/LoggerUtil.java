@@ -44,4 +44,40 @@ public class LoggerUtil {
     public static void warn(Class<?> clazz, String message) {
         getLogger(clazz).warn(message);
     }
+
+    /**
+     * Debug output of a per-node or per-edge loop capped at {@code limit} lines per run
+     */
+    public static Sampled sampled(Logger logger, int limit) {
+        return new Sampled(logger, limit);
+    }
+
+    /**
+     * Logs the first {@code limit} debug messages and counts the rest; {@link #summary(String)}
+     * reports how many were dropped. Not thread-safe, create one per run.
+     */
+    public static class Sampled {
+        private final Logger logger;
+        private final int limit;
+        private final boolean enabled;
+        private int count;
+
+        private Sampled(Logger logger, int limit) {
+            this.logger = logger;
+            this.limit = limit;
+            this.enabled = logger.isDebugEnabled();
+        }
+
+        public void debug(String format, Object... args) {
+            if (enabled && count++ < limit) {
+                logger.debug(format, args);
+            }
+        }
+
+        public void summary(String what) {
+            if (enabled && count > limit) {
+                logger.debug("... {} more {} not logged", count - limit, what);
+            }
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.LineRange;
+import com.impactai.impactai.parser.ParsedMethodNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interval index over the line spans of the methods of one file, nested and anonymous
+ * class methods included.
+ *
+ * Methods are sorted by start line and the sorted array doubles as an implicit balanced
+ * tree (node {@code i} sits at the level given by its trailing one bits) where every node
+ * keeps the max end line of its subtree. A query descends only into subtrees that can still
+ * overlap, so looking up R ranges costs O(R log M + hits) after an O(M log M) build.
+ */
+public class MethodIntervalIndex {
+
+    private static final int LINEAR_SCAN_LEVEL = 3;
+
+    private final ParsedMethodNode[] methods;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+    private final int maxLevel;
+
+    public MethodIntervalIndex(Collection<ParsedMethodNode> methods) {
+        List<ParsedMethodNode> valid = new ArrayList<>(methods.size());
+        for (ParsedMethodNode method : methods) {
+            if (method.getStartLine() >= 0 && method.getEndLine() >= method.getStartLine()) {
+                valid.add(method);
+            }
+        }
+        valid.sort((a, b) -> Integer.compare(a.getStartLine(), b.getStartLine()));
+
+        int n = valid.size();
+        this.methods = valid.toArray(new ParsedMethodNode[0]);
+        this.starts = new int[n];
+        this.ends = new int[n];
+        this.maxEnds = new int[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = this.methods[i].getStartLine();
+            ends[i] = this.methods[i].getEndLine();
+        }
+        this.maxLevel = buildMaxEnds();
+    }
+
+    public int size() {
+        return methods.length;
+    }
+
+    /**
+     * Methods whose span overlaps any of the ranges, in source order, each reported once.
+     */
+    public List<ParsedMethodNode> findOverlapping(List<LineRange> ranges) {
+        return findOverlapping(ranges, null);
+    }
+
+    /**
+     * Methods whose span overlaps any range of either list, each reported once; either list
+     * may be null. Both must be numbered like the file the method spans come from.
+     */
+    public List<ParsedMethodNode> findOverlapping(List<LineRange> ranges, List<LineRange> moreRanges) {
+        boolean[] hit = new boolean[methods.length];
+        query(ranges, hit);
+        query(moreRanges, hit);
+        return collect(hit);
+    }
+
+    private void query(List<LineRange> ranges, boolean[] hit) {
+        if (ranges == null) {
+            return;
+        }
+        for (LineRange range : ranges) {
+            query(range.getStartLine(), range.getEndLine(), hit);
+        }
+    }
+
+    /**
+     * Fill {@link #maxEnds} bottom-up and return the level of the root.
+     */
+    private int buildMaxEnds() {
+        int n = starts.length;
+        if (n == 0) {
+            return -1;
+        }
+        int lastIndex = 0;
+        int last = 0;
+        for (int i = 0; i < n; i += 2) {
+            lastIndex = i;
+            last = maxEnds[i] = ends[i];
+        }
+        int k = 1;
+        for (; (1 << k) <= n; k++) {
+            int half = 1 << (k - 1);
+            int step = half << 2;
+            for (int i = (half << 1) - 1; i < n; i += step) {
+                int leftMax = maxEnds[i - half];
+                int rightMax = i + half < n ? maxEnds[i + half] : last;
+                maxEnds[i] = Math.max(ends[i], Math.max(leftMax, rightMax));
+            }
+            // Max of the incomplete right-most subtree, used where a right child is missing
+            lastIndex = ((lastIndex >> k) & 1) != 0 ? lastIndex - half : lastIndex + half;
+            if (lastIndex < n && maxEnds[lastIndex] > last) {
+                last = maxEnds[lastIndex];
+            }
+        }
+        return k - 1;
+    }
+
+    private void query(int from, int to, boolean[] hit) {
+        int n = starts.length;
+        if (n == 0 || from < 0 || to < 0) {
+            return;
+        }
+        // Explicit stack of (node, level, left subtree done)
+        int[] nodes = new int[64];
+        int[] levels = new int[64];
+        boolean[] leftDone = new boolean[64];
+        int top = 0;
+        nodes[top] = (1 << maxLevel) - 1;
+        levels[top] = maxLevel;
+        leftDone[top++] = false;
+
+        while (top > 0) {
+            top--;
+            int x = nodes[top];
+            int k = levels[top];
+            if (k <= LINEAR_SCAN_LEVEL) {
+                int i0 = x >> k << k;
+                int i1 = Math.min(n, i0 + (1 << (k + 1)) - 1);
+                for (int i = i0; i < i1 && starts[i] <= to; i++) {
+                    mark(i, from, hit);
+                }
+            } else if (!leftDone[top]) {
+                int left = x - (1 << (k - 1));
+                nodes[top] = x;
+                levels[top] = k;
+                leftDone[top++] = true;
+                if (left >= n || maxEnds[left] >= from) {
+                    nodes[top] = left;
+                    levels[top] = k - 1;
+                    leftDone[top++] = false;
+                }
+            } else if (x < n && starts[x] <= to) {
+                mark(x, from, hit);
+                nodes[top] = x + (1 << (k - 1));
+                levels[top] = k - 1;
+                leftDone[top++] = false;
+            }
+        }
+    }
+
+    /** Called for methods starting at or before the end of the range. */
+    private void mark(int i, int from, boolean[] hit) {
+        if (ends[i] >= from) {
+            hit[i] = true;
+        }
+    }
+
+    private List<ParsedMethodNode> collect(boolean[] hit) {
+        List<ParsedMethodNode> result = new ArrayList<>();
+        for (int i = 0; i < hit.length; i++) {
+            if (hit[i]) {
+                result.add(methods[i]);
+            }
+        }
+        return result;
+    }
+}
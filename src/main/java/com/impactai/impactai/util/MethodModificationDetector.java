@@ -23,23 +23,12 @@ public class MethodModificationDetector {
      * @return true if there's any overlap
      */
     public static boolean overlaps(int changedStart, int changedEnd, int methodStart, int methodEnd) {
-        // Handle invalid line numbers
+        // Invalid line numbers never overlap
         if (changedStart < 0 || changedEnd < 0 || methodStart < 0 || methodEnd < 0) {
-            logger.debug("Skipping overlap check due to invalid line numbers: changed[{},{}], method[{},{}]",
-                    changedStart, changedEnd, methodStart, methodEnd);
             return false;
         }
-
-        // Check if ranges overlap:
         // Overlap exists if: changedStart <= methodEnd AND changedEnd >= methodStart
-        boolean isOverlap = changedStart <= methodEnd && changedEnd >= methodStart;
-
-        if (isOverlap) {
-            logger.debug("Overlap detected: changed[{},{}] overlaps with method[{},{}]",
-                    changedStart, changedEnd, methodStart, methodEnd);
-        }
-
-        return isOverlap;
+        return changedStart <= methodEnd && changedEnd >= methodStart;
     }
 
     /**
@@ -50,38 +39,36 @@ public class MethodModificationDetector {
      */
     public static List<ParsedMethodNode> findModifiedMethods(List<ParsedMethodNode> methods,
                                                              List<LineRange> changedLines) {
-        List<ParsedMethodNode> modifiedMethods = new ArrayList<>();
+        return findModifiedMethods(methods, changedLines, null);
+    }
 
+    /**
+     * Find all methods touched by added/modified lines or by removed lines
+     * @param methods List of all methods in file (nested and anonymous class methods included)
+     * @param changedLines Changed line ranges, numbered like the file the methods were parsed from;
+     *                     for methods of the old file see {@link DiffScanner.Result#getInsertedRanges()}
+     * @param removedLines Removed line ranges in the old file, see {@link DiffScanner.Result#getRemovedRanges()}
+     * @return List of methods that have changes, in source order
+     */
+    public static List<ParsedMethodNode> findModifiedMethods(List<ParsedMethodNode> methods,
+                                                             List<LineRange> changedLines,
+                                                             List<LineRange> removedLines) {
         if (methods == null || methods.isEmpty()) {
             logger.warn("No methods provided for modification detection");
-            return modifiedMethods;
+            return new ArrayList<>();
         }
 
-        if (changedLines == null || changedLines.isEmpty()) {
+        boolean hasChanged = changedLines != null && !changedLines.isEmpty();
+        boolean hasDeletions = removedLines != null && !removedLines.isEmpty();
+        if (!hasChanged && !hasDeletions) {
             logger.warn("No changed lines provided, returning empty modified methods list");
-            return modifiedMethods;
+            return new ArrayList<>();
         }
 
-        for (ParsedMethodNode method : methods) {
-            boolean isModified = false;
-
-            // Check each changed line range against this method
-            for (LineRange changed : changedLines) {
-                if (overlaps(changed.getStartLine(), changed.getEndLine(),
-                        method.getStartLine(), method.getEndLine())) {
-                    isModified = true;
-                    logger.debug("Method {} was modified (lines {}-{})",
-                            method.getMethodName(), method.getStartLine(), method.getEndLine());
-                    break;
-                }
-            }
-
-            if (isModified) {
-                modifiedMethods.add(method);
-            }
-        }
+        List<ParsedMethodNode> modifiedMethods =
+                new MethodIntervalIndex(methods).findOverlapping(changedLines, removedLines);
 
-        logger.info("Found {} modified methods out of {} total methods",
+        logger.debug("Found {} modified methods out of {} total methods",
                 modifiedMethods.size(), methods.size());
 
         return modifiedMethods;
@@ -102,13 +89,13 @@ public class MethodModificationDetector {
             try {
                 String nodeId = method.getClassName() + "." + method.getMethodName();
                 nodeIds.add(nodeId);
-                logger.debug("Added modified node: {}", nodeId);
+                logger.trace("Added modified node: {}", nodeId);
             } catch (Exception e) {
                 logger.error("Error building node ID for method {}", method.getMethodName(), e);
             }
         }
 
-        logger.info("Built {} modified node IDs", nodeIds.size());
+        logger.debug("Built {} modified node IDs", nodeIds.size());
         return nodeIds;
     }
 }
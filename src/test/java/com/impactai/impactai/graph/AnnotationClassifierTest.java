@@ -0,0 +1,52 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnotationClassifierTest {
+
+    @Test
+    void simpleNamesMatchAnyPackageAndQualifiedNamesOnlyTheirOwn() {
+        AnnotationClassifier classifier = new AnnotationClassifier(
+                List.of("Transactional", "com.acme.Audited"), List.of());
+
+        long transactional = classifier.classify("Transactional");
+        assertNotEquals(0L, transactional);
+        assertEquals(transactional, classifier.classify("org.springframework.transaction.annotation.Transactional"));
+        assertEquals(transactional, classifier.classify("jakarta.transaction.Transactional"));
+
+        long audited = classifier.classify("com.acme.Audited");
+        assertNotEquals(0L, audited);
+        assertEquals(0L, classifier.classify("Audited"));
+        assertEquals(0L, classifier.classify("org.other.Audited"));
+
+        assertEquals(0L, classifier.classify("Override"));
+        assertEquals(0L, classifier.classify((String) null));
+        assertEquals(transactional | audited,
+                classifier.classify(List.of("Override", "com.acme.Audited", "Transactional")));
+        assertEquals(List.of("Transactional", "com.acme.Audited"), classifier.describe(transactional | audited));
+        assertTrue(classifier.isCritical("javax.transaction.Transactional"));
+        assertFalse(classifier.isCritical("Deprecated"));
+    }
+
+    @Test
+    void additionalNamesExtendTheDefaultsAndExtraNamesBeyondSixtyFourAreIgnored() {
+        AnnotationClassifier classifier = new AnnotationClassifier(List.of(), List.of("Retryable", " Scheduled "));
+        assertTrue(classifier.isCritical("PostMapping"));
+        assertTrue(classifier.isCritical("org.springframework.retry.annotation.Retryable"));
+        assertEquals(List.of("Scheduled"), classifier.describe(classifier.classify("Scheduled")));
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            names.add("A" + i);
+        }
+        AnnotationClassifier full = new AnnotationClassifier(names);
+        assertTrue(full.isCritical("A63"));
+        assertFalse(full.isCritical("A64"));
+        assertEquals(64, full.describe(-1L).size());
+    }
+}
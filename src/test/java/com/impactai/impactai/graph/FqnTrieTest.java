@@ -0,0 +1,94 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FqnTrieTest {
+
+    @Test
+    void answersLikeASortedMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(5);
+        FqnTrie trie = new FqnTrie();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            String name = name(random);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(name) != null, trie.remove(name), "remove " + name);
+            } else {
+                trie.put(name, step);
+                expected.put(name, step);
+            }
+            if (step % 100 == 0) {
+                assertSameContent(expected, trie, random);
+            }
+        }
+        assertSameContent(expected, trie, random);
+    }
+
+    @Test
+    void packageQueriesListOnlyTopLevelTypes() {
+        FqnTrie trie = new FqnTrie();
+        for (String name : List.of("app.Orders", "app.Orders.Line", "app.OrdersTest", "app.billing.Invoice",
+                "application.Main", "Main")) {
+            trie.put(name, 1);
+        }
+
+        assertEquals(List.of("app.Orders", "app.OrdersTest"), trie.inPackage("app"));
+        assertEquals(List.of("app.billing.Invoice"), trie.inPackage("app.billing"));
+        assertEquals(List.of("Main"), trie.inPackage(""));
+        assertEquals(List.of(), trie.inPackage("app.bill"));
+        assertEquals(List.of("app.Orders", "app.Orders.Line", "app.OrdersTest"), trie.withPrefix("app.O"));
+        assertEquals(List.of(), trie.withPrefix("apx"));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        FqnTrie trie = new FqnTrie();
+        trie.put("app.Orders", 1);
+        trie.put("app.Orders.Line", 2);
+        trie.put("app.Stock", 3);
+
+        FqnTrie copy = trie.copy();
+        copy.remove("app.Orders");
+        copy.put("app.Order", 4);
+        trie.put("app.Stock", 5);
+
+        assertEquals(List.of("app.Orders", "app.Orders.Line", "app.Stock"), trie.withPrefix("app."));
+        assertEquals(List.of("app.Order", "app.Orders.Line", "app.Stock"), copy.withPrefix("app."));
+        assertEquals(5, trie.get("app.Stock"));
+        assertEquals(3, copy.get("app.Stock"));
+        assertEquals(SymbolTable.NONE, copy.get("app.Orders"));
+        assertEquals(3, trie.size());
+        assertEquals(3, copy.size());
+    }
+
+    private static void assertSameContent(TreeMap<String, Integer> expected, FqnTrie trie, Random random) {
+        assertEquals(expected.size(), trie.size());
+        assertEquals(new ArrayList<>(expected.keySet()), trie.withPrefix(""));
+        for (int i = 0; i < 20; i++) {
+            String probe = name(random);
+            assertEquals(expected.getOrDefault(probe, SymbolTable.NONE), trie.get(probe), "get " + probe);
+            String prefix = probe.substring(0, random.nextInt(probe.length() + 1));
+            assertEquals(expected.keySet().stream().filter(n -> n.startsWith(prefix)).toList(),
+                    trie.withPrefix(prefix), "prefix " + prefix);
+            String pkg = prefix.endsWith(".") ? prefix.substring(0, prefix.length() - 1) : prefix;
+            String inPkg = pkg.isEmpty() ? "" : pkg + ".";
+            assertEquals(expected.keySet().stream()
+                            .filter(n -> n.startsWith(inPkg) && n.indexOf('.', inPkg.length()) < 0).toList(),
+                    trie.inPackage(pkg), "package " + pkg);
+        }
+    }
+
+    /** Short names over a small alphabet, so names share prefixes and edges split and merge often. */
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            name.append("ab.c".charAt(random.nextInt(4)));
+        }
+        return name.toString();
+    }
+}
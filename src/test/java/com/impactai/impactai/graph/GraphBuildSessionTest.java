@@ -0,0 +1,96 @@
+package com.impactai.impactai.graph;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBuildSessionTest {
+
+    @Test
+    void updateOfACopyLeavesThePublishedVersionUntouched() {
+        DependencyGraph base = new DependencyGraph();
+        GraphBuildSession build = GraphBuildSession.build(base);
+        build.accept(List.of(
+                type("app.Orders", method("place", "app.Billing.charge", "app.Orders.validate"),
+                        method("validate")),
+                type("app.Billing", method("charge", "app.Billing.audit"), method("audit"))));
+        build.finish();
+        assertEquals(List.of("app.Billing.charge", "app.Orders.validate"), sorted(base.getNeighborIds("app.Orders.place")));
+        assertEquals(List.of("app.Orders.place"), callerIds(base, "app.Billing.charge"));
+
+        // Billing drops audit and gains refund, which Orders.place already called by name
+        base.getNode("app.Orders.place").addCalledMethod("app.Billing.refund");
+        DependencyGraph next = base.copy();
+        GraphBuildSession update = GraphBuildSession.update(next);
+        update.accept(List.of(type("app.Billing", method("charge"), method("refund"))));
+        update.finish();
+
+        assertEquals(base.getVersion() + 1, next.getVersion());
+        assertNull(next.getNode("app.Billing.audit"));
+        assertEquals(List.of("app.Orders.place"), callerIds(next, "app.Billing.charge"));
+        assertEquals(List.of("app.Orders.place"), callerIds(next, "app.Billing.refund"));
+        assertEquals(List.of("app.Billing.charge", "app.Billing.refund", "app.Orders.validate"),
+                sorted(next.getNeighborIds("app.Orders.place")));
+
+        // the published version still has its own nodes and edges
+        assertNotNull(base.getNode("app.Billing.audit"));
+        assertNull(base.getNode("app.Billing.refund"));
+        assertEquals(List.of("app.Billing.charge"), callerIds(base, "app.Billing.audit"));
+        assertEquals(List.of("app.Billing.audit"), base.getNeighborIds("app.Billing.charge"));
+        assertNotSame(base.getNode("app.Orders.place"), next.getNode("app.Orders.place"));
+        assertEquals(List.of(), base.getSourceIndex().withPrefix("app.Billing.r"));
+        assertEquals(List.of("app.Billing.refund"), next.getSourceIndex().withPrefix("app.Billing.r"));
+    }
+
+    @Test
+    void removingANodeDropsTheEdgesIntoIt() {
+        DependencyGraph graph = new DependencyGraph();
+        GraphBuildSession build = GraphBuildSession.build(graph);
+        build.accept(List.of(type("app.A", method("a", "app.C.c")), type("app.B", method("b", "app.C.c")),
+                type("app.C", method("c"))));
+        build.finish();
+        assertEquals(List.of("app.A.a", "app.B.b"), callerIds(graph, "app.C.c"));
+
+        graph.removeNode("app.C.c");
+        assertEquals(List.of(), graph.getNeighborIds("app.A.a"));
+        assertEquals(List.of(), graph.getNeighborIds("app.B.b"));
+        assertEquals(0, graph.getNode("app.C").getNeighborCount());
+    }
+
+    static ParsedDependencyNode type(String name, ParsedMethodNode... methods) {
+        ParsedDependencyNode node = new ParsedDependencyNode();
+        node.setName(name);
+        node.setType("class");
+        node.setAnnotations(new ArrayList<>());
+        node.setInjectedDependencies(new ArrayList<>());
+        node.setSourceFile("/repo/src/" + name.replace('.', '/') + ".java");
+        node.setMethods(List.of(methods));
+        return node;
+    }
+
+    static ParsedMethodNode method(String name, String... calls) {
+        ParsedMethodNode method = new ParsedMethodNode();
+        method.setMethodName(name);
+        method.setCalledMethods(List.of(calls));
+        method.setAnnotations(new ArrayList<>());
+        return method;
+    }
+
+    private static List<String> callerIds(DependencyGraph graph, String nodeId) {
+        GraphNode node = graph.getNode(nodeId);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < node.getCallerCount(); i++) {
+            ids.add(node.getCaller(i).getId());
+        }
+        return sorted(ids);
+    }
+
+    private static List<String> sorted(List<String> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
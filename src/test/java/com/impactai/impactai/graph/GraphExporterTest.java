@@ -0,0 +1,140 @@
+package com.impactai.impactai.graph;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.impactai.impactai.graph.GraphMetricsTest.graph;
+import static com.impactai.impactai.graph.GraphMetricsTest.node;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphExporterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void jsonAndNdjsonHoldEveryNodeAndEdge() throws IOException {
+        DependencyGraph graph = sample();
+
+        JsonNode document = MAPPER.readTree(export(graph, GraphExporter.Format.JSON).toFile());
+        assertEquals(nodes(graph), nodesOf(document.get("nodes")));
+        assertEquals(edges(graph), edgesOf(document.get("edges")));
+        JsonNode orders = find(document.get("nodes"), "app.Orders.place");
+        assertEquals("place", orders.get("label").asText());
+        assertEquals(2, orders.get("calls").asInt());
+        assertEquals("Transactional", orders.get("annotations").get(0).asText());
+
+        List<JsonNode> nodeLines = new ArrayList<>();
+        List<JsonNode> edgeLines = new ArrayList<>();
+        for (String line : Files.readAllLines(export(graph, GraphExporter.Format.NDJSON))) {
+            JsonNode record = MAPPER.readTree(line);
+            (record.get("kind").asText().equals("node") ? nodeLines : edgeLines).add(record);
+        }
+        assertEquals(nodes(graph), nodesOf(nodeLines));
+        assertEquals(edges(graph), edgesOf(edgeLines));
+    }
+
+    @Test
+    void binaryHoldsEveryNodeAndEdgeBySymbol() throws IOException {
+        DependencyGraph graph = sample();
+        byte[] bytes = Files.readAllBytes(export(graph, GraphExporter.Format.BINARY));
+
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        assertEquals(GraphExporter.BINARY_MAGIC, data.readInt());
+        assertEquals(GraphExporter.BINARY_VERSION, data.readInt());
+        Map<Integer, String> idBySymbol = new HashMap<>();
+        Set<String> nodes = new HashSet<>();
+        int nodeCount = data.readInt();
+        for (int i = 0; i < nodeCount; i++) {
+            int symbol = data.readInt();
+            String type = data.readUTF();
+            String id = data.readUTF();
+            idBySymbol.put(symbol, id);
+            nodes.add(id + ":" + type);
+        }
+        Set<String> edges = new HashSet<>();
+        long edgeCount = data.readLong();
+        for (long e = 0; e < edgeCount; e++) {
+            edges.add(idBySymbol.get(data.readInt()) + "->" + idBySymbol.get(data.readInt()));
+        }
+        assertEquals(-1, data.read(), "nothing after the edges");
+        assertEquals(nodes(graph), nodes);
+        assertEquals(edges(graph), edges);
+    }
+
+    @Test
+    void exportReplacesTheFileWithoutLeavingATemporaryCopy() throws IOException {
+        Path file = dir.resolve("nested/graph.json");
+        GraphExporter.export(graph("a->b"), GraphExporter.Format.JSON, file);
+        GraphExporter.export(graph("c->d"), GraphExporter.Format.JSON, file);
+
+        assertEquals(Set.of("c:method", "d:method"), nodesOf(MAPPER.readTree(file.toFile()).get("nodes")));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    private static DependencyGraph sample() {
+        DependencyGraph graph = graph("app.Orders.place->app.Billing.charge", "app.Orders.place->app.Stock.reserve",
+                "app.Billing.charge->app.Orders.place", "app.Stock.reserve->app.Stock.count");
+        GraphNode place = node(graph, "app.Orders.place");
+        place.setCalledMethods(List.of("app.Billing.charge", "app.Stock.reserve"));
+        place.setAnnotations(List.of("Transactional"));
+        graph.addNode(new GraphNode(graph.getSymbols(), "app.Orders", "class"));
+        return graph;
+    }
+
+    private Path export(DependencyGraph graph, GraphExporter.Format format) throws IOException {
+        Path file = dir.resolve("graph." + format.getExtension());
+        GraphExporter.export(graph, format, file);
+        return file;
+    }
+
+    private static Set<String> nodes(DependencyGraph graph) {
+        Set<String> nodes = new HashSet<>();
+        for (GraphNode node : graph.getNodeMap().values()) {
+            nodes.add(node.getId() + ":" + node.getType());
+        }
+        return nodes;
+    }
+
+    private static Set<String> edges(DependencyGraph graph) {
+        Set<String> edges = new HashSet<>();
+        for (GraphNode node : graph.getNodeMap().values()) {
+            for (GraphNode neighbor : node.getNeighbors()) {
+                edges.add(node.getId() + "->" + neighbor.getId());
+            }
+        }
+        return edges;
+    }
+
+    private static Set<String> nodesOf(Iterable<JsonNode> records) {
+        Set<String> nodes = new HashSet<>();
+        records.forEach(record -> assertTrue(nodes.add(record.get("id").asText() + ":" + record.get("type").asText())));
+        return nodes;
+    }
+
+    private static Set<String> edgesOf(Iterable<JsonNode> records) {
+        Set<String> edges = new HashSet<>();
+        records.forEach(record -> assertTrue(edges.add(record.get("source").asText() + "->" + record.get("target").asText())));
+        return edges;
+    }
+
+    private static JsonNode find(JsonNode nodes, String id) {
+        for (JsonNode node : nodes) {
+            if (node.get("id").asText().equals(id)) return node;
+        }
+        return fail("no node " + id);
+    }
+}
@@ -0,0 +1,131 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphMetricsTest {
+
+    @Test
+    void fanInFanOutAndCycles() {
+        DependencyGraph graph = graph("a->b", "a->c", "b->c", "c->b", "d->c", "c->e");
+        GraphMetrics metrics = graph.getMetrics();
+
+        assertEquals(2, metrics.getFanOut(node(graph, "a")));
+        assertEquals(3, metrics.getFanIn(node(graph, "c")));
+        assertEquals(0, metrics.getFanIn(node(graph, "a")));
+        assertTrue(metrics.isInCycle(node(graph, "b")));
+        assertTrue(metrics.isInCycle(node(graph, "c")));
+        assertFalse(metrics.isInCycle(node(graph, "a")));
+        assertFalse(metrics.isInCycle(node(graph, "e")));
+        assertEquals(graph.getVersion(), metrics.getVersion());
+        assertSame(metrics, graph.getMetrics());
+    }
+
+    @Test
+    void centralityAveragesOneAndFavoursWidelyUsedNodes() {
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            edges.add("caller" + i + "->util");
+            edges.add("caller" + i + "->leaf" + i);
+        }
+        DependencyGraph graph = graph(edges.toArray(new String[0]));
+        GraphMetrics metrics = graph.getMetrics();
+
+        double sum = 0;
+        for (GraphNode node : graph.getNodeMap().values()) {
+            sum += metrics.getCentrality(node);
+        }
+        assertEquals(graph.getNodeCount(), sum, 1e-3);
+        assertTrue(metrics.getCentrality(node(graph, "util")) > metrics.getCentrality(node(graph, "leaf3")));
+        assertTrue(metrics.getCentrality(node(graph, "leaf3")) > metrics.getCentrality(node(graph, "caller3")));
+    }
+
+    @Test
+    void estimatedReachIsCloseToTheExactReach() {
+        // random DAG with a few back edges, so some components have several members
+        Random random = new Random(11);
+        int n = 3_000;
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int e = 0; e < 2; e++) {
+                int target = i + 1 + random.nextInt(40);
+                if (target < n) edges.add("n" + i + "->n" + target);
+            }
+            if (i % 200 == 50) edges.add("n" + (i + 3) + "->n" + i);
+        }
+        DependencyGraph graph = graph(edges.toArray(new String[0]));
+        GraphMetrics metrics = graph.getMetrics();
+
+        for (int i = 0; i < n; i += 97) {
+            GraphNode node = node(graph, "n" + i);
+            int exact = exactReach(node);
+            int estimate = metrics.getReach(node);
+            assertTrue(Math.abs(estimate - exact) <= Math.max(3, exact * 0.25),
+                    "n" + i + ": estimate " + estimate + ", exact " + exact);
+        }
+    }
+
+    @Test
+    void condensationOrdersComponentsBeforeTheirPredecessors() {
+        DependencyGraph graph = graph("a->b", "b->c", "c->a", "c->d", "d->e", "x->e", "e->e");
+        Condensation condensation = graph.getMetrics().getCondensation();
+
+        int abc = condensation.getComponent(node(graph, "a"));
+        assertEquals(abc, condensation.getComponent(node(graph, "b")));
+        assertEquals(abc, condensation.getComponent(node(graph, "c")));
+        assertEquals(3, condensation.getSize(abc));
+        assertEquals(4, condensation.getComponentCount()); // {a,b,c}, d, e, x
+
+        for (int c = 0; c < condensation.getComponentCount(); c++) {
+            for (int s = 0; s < condensation.getSuccessorCount(c); s++) {
+                assertTrue(condensation.getSuccessor(c, s) < c, "successors complete first");
+                assertNotEquals(c, condensation.getSuccessor(c, s), "no self loops");
+            }
+        }
+        assertEquals(3, condensation.getHeight(abc));
+        assertEquals(1, condensation.getHeight(condensation.getComponent(node(graph, "e"))));
+        assertEquals(2, condensation.getHeight(condensation.getComponent(node(graph, "x"))));
+
+        Set<String> members = new TreeSet<>();
+        for (int m = 0; m < condensation.getSize(abc); m++) {
+            members.add(graph.getSymbols().name(condensation.getMember(abc, m)));
+        }
+        assertEquals(Set.of("a", "b", "c"), members);
+        assertEquals(-1, condensation.getComponent(new GraphNode(graph.getSymbols(), "a", "method")));
+    }
+
+    /** Graph of "from->to" edges between method nodes. */
+    static DependencyGraph graph(String... edges) {
+        DependencyGraph graph = new DependencyGraph();
+        for (String edge : edges) {
+            String[] ends = edge.split("->");
+            for (String id : ends) {
+                if (graph.getNode(id) == null) {
+                    graph.addNode(new GraphNode(graph.getSymbols(), id, "method"));
+                }
+            }
+            graph.addEdge(ends[0], ends[1]);
+        }
+        graph.incrementVersion();
+        return graph;
+    }
+
+    static GraphNode node(DependencyGraph graph, String id) {
+        return Objects.requireNonNull(graph.getNode(id), id);
+    }
+
+    private static int exactReach(GraphNode start) {
+        Set<GraphNode> seen = new HashSet<>(List.of(start));
+        ArrayDeque<GraphNode> queue = new ArrayDeque<>(seen);
+        while (!queue.isEmpty()) {
+            GraphNode node = queue.poll();
+            for (GraphNode next : node.getNeighbors()) {
+                if (seen.add(next)) queue.add(next);
+            }
+        }
+        return seen.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphNodeTest {
+
+    @Test
+    void hubEdgesStayDeduplicatedAndInStepWithCallers() {
+        SymbolTable symbols = new SymbolTable();
+        GraphNode hub = new GraphNode(symbols, "app.Hub.call", "method");
+        List<GraphNode> targets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            targets.add(new GraphNode(symbols, "app.T" + i + ".run", "method"));
+        }
+
+        // random adds (with duplicates) and removals across the hashing threshold, against a set
+        Random random = new Random(42);
+        Set<GraphNode> expected = new HashSet<>();
+        for (int step = 0; step < 5_000; step++) {
+            GraphNode target = targets.get(random.nextInt(targets.size()));
+            if (random.nextInt(3) == 0) {
+                hub.removeNeighbor(target);
+                expected.remove(target);
+            } else {
+                hub.addNeighbor(target);
+                expected.add(target);
+            }
+            assertEquals(expected.size(), hub.getNeighborCount());
+        }
+        assertEquals(expected, new HashSet<>(hub.getNeighbors()));
+        for (GraphNode target : targets) {
+            assertEquals(expected.contains(target) ? 1 : 0, target.getCallerCount(), target.getId());
+        }
+
+        hub.clearNeighbors();
+        assertEquals(0, hub.getNeighborCount());
+        for (GraphNode target : targets) {
+            assertEquals(0, target.getCallerCount());
+        }
+    }
+
+    @Test
+    void metricsAreIndexedByNodeNotBySymbol() {
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < 1_000; i++) {
+            graph.getSymbols().intern("app.External.call" + i); // call targets without a node
+        }
+        for (String id : List.of("app.A.a", "app.B.b", "app.C.c", "app.D.d")) {
+            graph.addNode(new GraphNode(graph.getSymbols(), id, "method"));
+        }
+        graph.addEdge("app.A.a", "app.C.c");
+        graph.addEdge("app.B.b", "app.C.c");
+        graph.addEdge("app.C.c", "app.D.d");
+        graph.removeNode("app.A.a"); // the last node moves into its dense index
+
+        GraphNode[] nodes = graph.denseNodes();
+        assertEquals(3, nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals(i, nodes[i].getIndex());
+        }
+
+        GraphMetrics metrics = graph.getMetrics();
+        assertEquals(1, metrics.getFanIn(graph.getNode("app.C.c")));
+        assertEquals(1, metrics.getFanOut(graph.getNode("app.C.c")));
+        assertEquals(3, metrics.getReach(graph.getNode("app.B.b")));
+        assertEquals(0, metrics.getFanIn(new GraphNode(graph.getSymbols(), "app.A.a", "method")));
+        assertEquals(graph.getNode("app.D.d"), graph.getNode(graph.getSymbols().lookup("app.D.d")));
+        assertNull(graph.getNode(graph.getSymbols().lookup("app.External.call7")));
+        assertNull(graph.getNode(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,59 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachCacheTest {
+
+    @Test
+    void carryOverKeepsOnlyEntriesThatReachNoChangedNode() {
+        ReachCache cache = new ReachCache(ReachCache.DEFAULT_MAX_BYTES);
+        cache.put(1, 10, 0, levels(new int[]{10}, new int[]{11, 12}));
+        cache.put(1, 20, 0, levels(new int[]{20}, new int[]{21}));
+        cache.put(1, 20, 2, levels(new int[]{20}, new int[]{13}));
+        cache.put(0, 30, 0, levels(new int[]{30}));
+
+        cache.carryOver(1, 2, RoaringBitmap.bitmapOf(12, 13));
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(2, 20, 0));
+        assertNull(cache.get(2, 10, 0));
+        assertNull(cache.get(2, 20, 2));
+        assertFalse(cache.contains(1, 20, 0), "moved to the new version");
+        assertFalse(cache.contains(2, 30, 0), "other versions are dropped");
+        assertEquals(RoaringBitmap.bitmapOf(21).getSizeInBytes() + RoaringBitmap.bitmapOf(20).getSizeInBytes(),
+                cache.getSizeInBytes());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntriesOverTheByteBudget() {
+        long entryBytes = RoaringBitmap.bitmapOf(1).getSizeInBytes();
+        ReachCache cache = new ReachCache(entryBytes * 2);
+        cache.put(1, 1, 0, levels(new int[]{1}));
+        cache.put(1, 2, 0, levels(new int[]{2}));
+        assertNotNull(cache.get(1, 1, 0));
+        cache.put(1, 3, 0, levels(new int[]{3}));
+
+        assertTrue(cache.contains(1, 1, 0));
+        assertFalse(cache.contains(1, 2, 0));
+        assertTrue(cache.contains(1, 3, 0));
+        assertEquals(entryBytes * 2, cache.getSizeInBytes());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+
+        ReachCache disabled = new ReachCache(0);
+        disabled.put(1, 1, 0, levels(new int[]{1}));
+        assertNull(disabled.get(1, 1, 0));
+        assertEquals(1, disabled.getMissCount());
+    }
+
+    private static RoaringBitmap[] levels(int[]... symbols) {
+        RoaringBitmap[] levels = new RoaringBitmap[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            levels[i] = RoaringBitmap.bitmapOf(symbols[i]);
+        }
+        return levels;
+    }
+}
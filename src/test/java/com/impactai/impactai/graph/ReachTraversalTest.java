@@ -0,0 +1,94 @@
+package com.impactai.impactai.graph;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.impactai.impactai.graph.GraphMetricsTest.graph;
+import static com.impactai.impactai.graph.GraphMetricsTest.node;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachTraversalTest {
+
+    @Test
+    void levelsFollowShortestPathsOverComponents() {
+        DependencyGraph graph = graph("a->b", "b->a", "a->c", "b->d", "c->d", "d->e");
+        Condensation condensation = graph.getMetrics().getCondensation();
+        ReachTraversal traversal = new ReachTraversal(condensation, ForkJoinPool.commonPool(), 0);
+
+        ReachTraversal.Result result = traverse(traversal, graph, "a", 0, Integer.MAX_VALUE);
+        assertNull(result.getStoppedBy());
+        assertEquals(List.of(Set.of("a", "b"), Set.of("c", "d"), Set.of("e")), names(graph, result));
+
+        ReachTraversal.Result limited = traverse(traversal, graph, "a", 2, Integer.MAX_VALUE);
+        assertNull(limited.getStoppedBy(), "complete for its depth limit");
+        assertEquals(2, limited.getLevels().length);
+
+        // the instance is reused, so nothing of the previous traversal may leak into this one
+        assertEquals(List.of(Set.of("d"), Set.of("e")), names(graph, traverse(traversal, graph, "d", 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void stopsAtTheNodeBudgetAndTheDeadline() {
+        DependencyGraph graph = graph("a->b", "b->c", "c->d");
+        ReachTraversal traversal = new ReachTraversal(graph.getMetrics().getCondensation(), ForkJoinPool.commonPool(), 0);
+
+        ReachTraversal.Result budget = traverse(traversal, graph, "a", 0, 2);
+        assertEquals(ReachTraversal.Limit.NODES, budget.getStoppedBy());
+        assertEquals(2, budget.getLevels().length);
+
+        int root = graph.getMetrics().getCondensation().getComponent(node(graph, "a"));
+        ReachTraversal.Result late = traversal.traverse(root, 0, Integer.MAX_VALUE, System.nanoTime() - 1);
+        assertEquals(ReachTraversal.Limit.TIME, late.getStoppedBy());
+        assertEquals(1, late.getLevels().length);
+
+        // the last level is no reason to report a budget
+        assertNull(traverse(traversal, graph, "a", 0, 4).getStoppedBy());
+    }
+
+    @Test
+    void parallelExpansionFindsTheSameLevels() {
+        Random random = new Random(3);
+        int n = 5_000;
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < n * 3; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            edges.add("n" + from + "->n" + to);
+        }
+        DependencyGraph graph = graph(edges.toArray(new String[0]));
+        Condensation condensation = graph.getMetrics().getCondensation();
+        ReachTraversal sequential = new ReachTraversal(condensation, ForkJoinPool.commonPool(), 0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReachTraversal parallel = new ReachTraversal(condensation, pool, 1);
+            for (int i = 0; i < n; i += 499) {
+                String start = "n" + i;
+                if (graph.getNode(start) == null) continue;
+                assertArrayEquals(
+                        traverse(sequential, graph, start, 0, Integer.MAX_VALUE).getLevels(),
+                        traverse(parallel, graph, start, 0, Integer.MAX_VALUE).getLevels(), start);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ReachTraversal.Result traverse(ReachTraversal traversal, DependencyGraph graph, String start,
+                                                  int depthLimit, int nodeBudget) {
+        int root = graph.getMetrics().getCondensation().getComponent(node(graph, start));
+        return traversal.traverse(root, depthLimit, nodeBudget, Long.MAX_VALUE);
+    }
+
+    private static List<Set<String>> names(DependencyGraph graph, ReachTraversal.Result result) {
+        List<Set<String>> levels = new ArrayList<>();
+        for (RoaringBitmap level : result.getLevels()) {
+            Set<String> names = new HashSet<>();
+            level.forEach((int symbol) -> names.add(graph.getSymbols().name(symbol)));
+            levels.add(names);
+        }
+        return levels;
+    }
+}
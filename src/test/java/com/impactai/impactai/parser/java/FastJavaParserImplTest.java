@@ -0,0 +1,116 @@
+package com.impactai.impactai.parser.java;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastJavaParserImplTest {
+
+    private static final String SOURCE = String.join("\n",
+            "package com.example.orders;",                                          // 1
+            "",                                                                     // 2
+            "import com.example.billing.BillingClient;",                            // 3
+            "import org.springframework.beans.factory.annotation.Autowired;",       // 4
+            "import org.springframework.transaction.annotation.Transactional;",     // 5
+            "import org.springframework.web.bind.annotation.PostMapping;",          // 6
+            "",                                                                     // 7
+            "/** Orders. */",                                                       // 8
+            "public class OrderService extends BaseService implements Auditable {", // 9
+            "    @Autowired",                                                       // 10
+            "    private BillingClient billing;",                                   // 11
+            "    private final Map<String, List<Order>> cache = new HashMap<String, List<Order>>();", // 12
+            "",                                                                     // 13
+            "    public OrderService() { init(); }",                                // 14
+            "",                                                                     // 15
+            "    @Transactional",                                                   // 16
+            "    @PostMapping(\"/orders\")",                                        // 17
+            "    public Order place(OrderRequest request) {",                       // 18
+            "        // validate(request) is a comment, not a call",                 // 19
+            "        String s = \"audit(\";",                                        // 20
+            "        validate(request);",                                           // 21
+            "        billing.charge(request.amount());",                            // 22
+            "        Runnable r = new Runnable() {",                                // 23
+            "            public void run() { this.toString(); }",                   // 24
+            "        };",                                                           // 25
+            "        return repository().save(request);",                          // 26
+            "    }",                                                                // 27
+            "",                                                                     // 28
+            "    void validate(OrderRequest request) {",                            // 29
+            "        Helpers.check(request);",                                      // 30
+            "    }",                                                                // 31
+            "",                                                                     // 32
+            "    static class Audit {",                                             // 33
+            "        void log() { }",                                               // 34
+            "    }",                                                                // 35
+            "}");                                                                   // 36
+
+    @Test
+    void extractsTypesMethodsAndCalls() {
+        FastJavaParserImpl.FastParseResult result =
+                new FastJavaParserImpl().parseSource(SOURCE.getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(result.isComplete());
+        List<ParsedDependencyNode> nodes = result.getNodes();
+        assertEquals(2, nodes.size());
+
+        ParsedDependencyNode service = nodes.get(0);
+        assertEquals("com.example.orders.OrderService", service.getName());
+        assertEquals("class", service.getType());
+        assertEquals(List.of("com.example.orders.Auditable", "com.example.orders.BaseService"),
+                service.getExtendsImplements());
+        assertEquals(List.of("com.example.billing.BillingClient"), service.getInjectedDependencies());
+        assertEquals(List.of("place"), service.getEndpoints());
+
+        // constructors are skipped, like JavaParserImpl
+        assertEquals(2, service.getMethods().size());
+
+        ParsedMethodNode place = service.getMethods().get(0);
+        assertEquals("place", place.getMethodName());
+        assertEquals(16, place.getStartLine());
+        assertEquals(27, place.getEndLine());
+        assertEquals(List.of("org.springframework.transaction.annotation.Transactional",
+                "org.springframework.web.bind.annotation.PostMapping"), place.getAnnotations());
+        assertEquals(List.of(
+                "com.example.orders.OrderService.validate",
+                "com.example.billing.BillingClient.charge",
+                "com.example.orders.OrderRequest.amount",
+                "toString", // this is the anonymous Runnable, not OrderService
+                "com.example.orders.OrderService.repository",
+                "save"), place.getCalledMethods());
+
+        ParsedMethodNode validate = service.getMethods().get(1);
+        assertEquals(29, validate.getStartLine());
+        assertEquals(31, validate.getEndLine());
+        assertEquals(List.of("com.example.orders.Helpers.check"), validate.getCalledMethods());
+
+        assertEquals("com.example.orders.OrderService$Audit", nodes.get(1).getName());
+        assertEquals("log", nodes.get(1).getMethods().get(0).getMethodName());
+    }
+
+    @Test
+    void callsToUndeclaredMethodsOfASubclassCountAsUnresolved() {
+        String source = String.join("\n",
+                "package com.example;",
+                "class Sub extends Base {",
+                "    void run() { helper(); this.other(); own(); this.own(); }",
+                "    void own() { }",
+                "}",
+                "class Plain {",
+                "    void run() { helper(); }",
+                "}");
+        FastJavaParserImpl.FastParseResult result =
+                new FastJavaParserImpl().parseSource(source.getBytes(StandardCharsets.UTF_8));
+
+        // helper and other may be declared in Base; own and Plain's helper are the type's own
+        assertEquals(List.of("com.example.Sub.helper", "com.example.Sub.other",
+                "com.example.Sub.own", "com.example.Sub.own"),
+                result.getNodes().get(0).getMethods().get(0).getCalledMethods());
+        assertEquals(2, result.getUnresolvedCalls());
+        assertEquals(3, result.getResolvedCalls());
+    }
+}
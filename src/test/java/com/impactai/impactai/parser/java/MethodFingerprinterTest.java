@@ -0,0 +1,70 @@
+package com.impactai.impactai.parser.java;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodFingerprinterTest {
+
+    private static final String METHOD = String.join("\n",
+            "    int total(List<Item> items, int discount) {",
+            "        int sum = 0;",
+            "        for (Item item : items) {",
+            "            sum += item.price();",
+            "        }",
+            "        items.forEach(i -> audit(i));",
+            "        return sum > discount ? sum - discount : 0;",
+            "    }");
+
+    @Test
+    void layoutCommentsAndLocalNamesDoNotChangeTheFingerprint() {
+        long original = fingerprint(METHOD);
+
+        assertEquals(original, fingerprint(String.join("\n",
+                "    /** Sum of the prices. */",
+                "    int total(List<Item> items,",
+                "              int discount) {",
+                "        int sum = 0; // running total",
+                "        for (Item item : items) { sum += item.price(); }",
+                "        items.forEach(i ->",
+                "                audit(i));",
+                "        return sum > discount",
+                "                ? sum - discount : 0;",
+                "    }")));
+        assertEquals(original, fingerprint(METHOD
+                .replace("items", "lines").replace("discount", "rebate")
+                .replace("sum", "acc").replace("Item item", "Item line").replace("item.", "line.")
+                .replace("i -> audit(i)", "x -> audit(x)")));
+    }
+
+    @Test
+    void otherTokenChangesDoChangeTheFingerprint() {
+        long original = fingerprint(METHOD);
+
+        assertNotEquals(original, fingerprint(METHOD.replace("item.price()", "item.cost()")));
+        assertNotEquals(original, fingerprint(METHOD.replace("audit(i)", "log(i)")));
+        assertNotEquals(original, fingerprint(METHOD.replace("int sum = 0", "int sum = 1")));
+        assertNotEquals(original, fingerprint(METHOD.replace("sum - discount", "discount - sum")));
+        assertNotEquals(original, fingerprint(METHOD.replace("sum > discount", "sum >= discount")));
+    }
+
+    @Test
+    void spansOutsideTheFileHaveNoFingerprint() {
+        byte[] src = METHOD.getBytes(StandardCharsets.UTF_8);
+        int[] lineStarts = MethodFingerprinter.lineStarts(src);
+
+        assertEquals(8, lineStarts.length);
+        assertEquals(0, MethodFingerprinter.fingerprint(src, lineStarts, 0, 3));
+        assertEquals(0, MethodFingerprinter.fingerprint(src, lineStarts, 5, 4));
+        assertEquals(0, MethodFingerprinter.fingerprint(src, lineStarts, 1, 9));
+        assertNotEquals(0, MethodFingerprinter.fingerprint(src, lineStarts, 8, 8));
+    }
+
+    private static long fingerprint(String method) {
+        byte[] src = method.getBytes(StandardCharsets.UTF_8);
+        int[] lineStarts = MethodFingerprinter.lineStarts(src);
+        return MethodFingerprinter.fingerprint(src, lineStarts, 1, lineStarts.length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.impactai.impactai.parser.java;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spoon.Launcher;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonParsingContextTest {
+
+    @TempDir
+    Path repo;
+
+    @Test
+    void launchersUseTheRepoComplianceLevelWithCommentsOff() throws IOException {
+        Files.writeString(repo.resolve("pom.xml"),
+                "<project><properties><maven.compiler.release>21</maven.compiler.release></properties></project>");
+        Path file = write("src/main/java/com/example/Shapes.java", String.join("\n",
+                "package com.example;",
+                "// a comment the model must not contain",
+                "public class Shapes {",
+                "    String describe(Object o) {",
+                "        return switch (o) {",
+                "            case Integer i when i > 0 -> \"positive\";",
+                "            default -> \"other\";",
+                "        };",
+                "    }",
+                "}"));
+
+        SpoonParsingContext context = new SpoonParsingContext(repo, 17);
+        assertEquals(21, context.getComplianceLevel());
+
+        Launcher launcher = context.newLauncher();
+        launcher.addInputResource(file.toString());
+        launcher.buildModel();
+
+        assertEquals(21, launcher.getEnvironment().getComplianceLevel());
+        assertFalse(launcher.getEnvironment().isCommentsEnabled());
+        assertTrue(launcher.getEnvironment().getNoClasspath());
+        assertTrue(launcher.getModel().getElements(new TypeFilter<>(CtComment.class)).isEmpty());
+        assertEquals("com.example.Shapes", launcher.getModel().getAllTypes().iterator().next().getQualifiedName());
+
+        // every launcher gets its own environment, so parses on other threads cannot change it
+        assertNotSame(launcher.getEnvironment(), context.newLauncher().getEnvironment());
+    }
+
+    @Test
+    void companionsIncludeSourcesAddedAfterTheIndexWasBuilt() throws IOException {
+        Path service = write("src/main/java/com/example/orders/OrderService.java", String.join("\n",
+                "package com.example.orders;",
+                "import com.example.billing.BillingClient;",
+                "public class OrderService { BillingClient billing; OrderRepository repository; }"));
+        SpoonParsingContext context = new SpoonParsingContext(repo, 17);
+        assertTrue(context.companionsOf(service, Files.readAllBytes(service), 32).isEmpty());
+
+        // e.g. brought in by a pull after the context was created
+        Path billing = write("src/main/java/com/example/billing/BillingClient.java",
+                "package com.example.billing;\npublic class BillingClient { }");
+        Path repository = write("src/main/java/com/example/orders/OrderRepository.java",
+                "package com.example.orders;\npublic class OrderRepository { }");
+
+        List<Path> companions = context.companionsOf(service, Files.readAllBytes(service), 32);
+        assertEquals(2, companions.size());
+        assertTrue(companions.contains(billing.toAbsolutePath().normalize()));
+        assertTrue(companions.contains(repository.toAbsolutePath().normalize()));
+
+        Files.delete(billing);
+        context.refresh(billing);
+        assertEquals(List.of(repository.toAbsolutePath().normalize()),
+                context.companionsOf(service, Files.readAllBytes(service), 32));
+    }
+
+    private Path write(String relative, String content) throws IOException {
+        Path file = repo.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+}
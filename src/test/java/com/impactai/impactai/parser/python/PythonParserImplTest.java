@@ -0,0 +1,123 @@
+package com.impactai.impactai.parser.python;
+
+import com.impactai.impactai.parser.ParsedDependencyNode;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PythonParserImplTest {
+
+    private static final String SOURCE = String.join("\n",
+            "import logging",                                                   // 1
+            "from .billing import BillingClient as Billing",                    // 2
+            "from app.models import (Order,",                                   // 3
+            "                        OrderRequest)",                            // 4
+            "",                                                                 // 5
+            "log = logging.getLogger(__name__)",                                // 6
+            "",                                                                 // 7
+            "",                                                                 // 8
+            "class OrderService(BaseService):",                                 // 9
+            "    \"\"\"Places orders.",                                         // 10
+            "",                                                                 // 11
+            "    def not_a_method(self): pass",                                 // 12
+            "    \"\"\"",                                                       // 13
+            "",                                                                 // 14
+            "    @staticmethod",                                                // 15
+            "    def create():",                                                // 16
+            "        return OrderService()",                                    // 17
+            "",                                                                 // 18
+            "    async def place(self, request: OrderRequest) -> Order:",       // 19
+            "        # self.audit(request) is a comment",                       // 20
+            "        self.validate(request)",                                   // 21
+            "        Billing().charge(request.amount,",                         // 22
+            "                         currency=\"EUR(\")",                      // 23
+            "        def inner():",                                             // 24
+            "            helper()",                                             // 25
+            "        return Order(request)",                                    // 26
+            "",                                                                 // 27
+            "    def validate(self, request): log.info(len(request))",          // 28
+            "",                                                                 // 29
+            "",                                                                 // 30
+            "def helper():",                                                    // 31
+            "    logging.debug('x')",                                           // 32
+            "");
+
+    @Test
+    void extractsModulesClassesFunctionsAndCalls() {
+        List<ParsedDependencyNode> nodes = new PythonParserImpl()
+                .parseSource(SOURCE.getBytes(StandardCharsets.UTF_8), "app.orders.service", false);
+
+        assertEquals(2, nodes.size());
+
+        ParsedDependencyNode module = nodes.get(0);
+        assertEquals("app.orders.service", module.getName());
+        assertEquals("module", module.getType());
+        assertEquals(List.of("logging", "app.orders.billing.BillingClient", "app.models.Order",
+                "app.models.OrderRequest"), module.getImports());
+        assertEquals(1, module.getMethods().size());
+        ParsedMethodNode helper = module.getMethods().get(0);
+        assertEquals("helper", helper.getMethodName());
+        assertEquals(31, helper.getStartLine());
+        assertEquals(32, helper.getEndLine());
+        assertEquals(List.of("logging.debug"), helper.getCalledMethods());
+
+        ParsedDependencyNode service = nodes.get(1);
+        assertEquals("app.orders.service.OrderService", service.getName());
+        assertEquals("class", service.getType());
+        assertEquals(List.of("BaseService"), service.getExtendsImplements());
+        assertEquals(3, service.getMethods().size());
+
+        ParsedMethodNode create = service.getMethods().get(0);
+        assertEquals("create", create.getMethodName());
+        assertEquals(List.of("staticmethod"), create.getAnnotations());
+        assertEquals(15, create.getStartLine());
+        assertEquals(17, create.getEndLine());
+        assertEquals(List.of("app.orders.service.OrderService.__init__"), create.getCalledMethods());
+
+        ParsedMethodNode place = service.getMethods().get(1);
+        assertEquals("place", place.getMethodName());
+        assertEquals(19, place.getStartLine());
+        assertEquals(26, place.getEndLine());
+        assertEquals(List.of(
+                "app.orders.service.OrderService.validate",
+                "app.orders.billing.BillingClient.__init__",
+                "charge",
+                "app.orders.service.helper",
+                "app.models.Order.__init__"), place.getCalledMethods());
+
+        ParsedMethodNode validate = service.getMethods().get(2);
+        assertEquals(28, validate.getStartLine());
+        assertEquals(28, validate.getEndLine());
+        assertEquals(List.of("info", "len"), validate.getCalledMethods());
+    }
+
+    @Test
+    void callingAClassTargetsItsInitWhereverItIsDefined() {
+        String source = String.join("\n",
+                "from app import models",
+                "from app.util import slugify, Money",
+                "",
+                "class Local:",
+                "    pass",
+                "",
+                "def make():",
+                "    Local()",
+                "    Money(1)",
+                "    models.Order()",
+                "    slugify('x')",
+                "");
+        List<ParsedDependencyNode> nodes = new PythonParserImpl()
+                .parseSource(source.getBytes(StandardCharsets.UTF_8), "app.shop", false);
+
+        ParsedMethodNode make = nodes.get(0).getMethods().get(0);
+        assertEquals(List.of(
+                "app.shop.Local.__init__",
+                "app.util.Money.__init__",
+                "app.models.Order.__init__",
+                "app.util.slugify"), make.getCalledMethods());
+    }
+}
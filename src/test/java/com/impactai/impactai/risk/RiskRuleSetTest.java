@@ -0,0 +1,107 @@
+package com.impactai.impactai.risk;
+
+import com.impactai.impactai.graph.AnnotationClassifier;
+import com.impactai.impactai.risk.RiskFeatures.Feature;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskRuleSetTest {
+
+    private final AnnotationClassifier classifier = AnnotationClassifier.defaults();
+    private final long transactional = classifier.classify("Transactional");
+
+    @Test
+    void defaultRulesScoreLikeTheFormerMultipliers() {
+        RiskRuleSet rules = RiskRuleSet.compile(RiskRuleSet.DEFAULT_RULES, RiskRuleSet.DEFAULT_LEVELS, classifier);
+
+        // every combination of the inputs the former calculateRisk looked at, as one batch
+        int rows = 6 * 14 * 22 * 2 * 2 * 2;
+        RiskFeatures features = new RiskFeatures(rows);
+        String[] expected = new String[rows];
+        int row = 0;
+        for (int depth = 0; depth < 6; depth++) {
+            for (int affected = 0; affected < 14; affected++) {
+                for (int complexity = 0; complexity < 22; complexity++) {
+                    for (int critical = 0; critical < 2; critical++) {
+                        for (int commentOnly = 0; commentOnly < 2; commentOnly++) {
+                            for (int criticalMethod = 0; criticalMethod < 2; criticalMethod++) {
+                                features.set(Feature.DEPTH, row, depth);
+                                features.set(Feature.AFFECTED, row, affected);
+                                features.set(Feature.AVG_COMPLEXITY, row, complexity);
+                                features.set(Feature.COMMENT_ONLY, row, commentOnly);
+                                features.set(Feature.CRITICAL_METHOD, row, criticalMethod);
+                                features.annotationFlags()[row] = critical == 1 ? transactional : 0L;
+                                expected[row] = formerRisk(depth, affected, complexity, critical == 1,
+                                        commentOnly == 1, criticalMethod == 1);
+                                row++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertArrayEquals(expected, rules.evaluate(features));
+    }
+
+    @Test
+    void firstMatchingOverrideWinsAndLaterRulesOnlyScale() {
+        RiskRuleSet rules = RiskRuleSet.compile(
+                "override HIGH when inCycle and maxFanIn > 10;"
+                        + "override LOW when inCycle;"
+                        + "step churn 100:1.0 *:4.0;"
+                        + "flag Transactional 0.5",
+                "LOW:1.0, HIGH:*", classifier);
+        RiskFeatures features = new RiskFeatures(4);
+        features.set(Feature.IN_CYCLE, 0, 1);
+        features.set(Feature.MAX_FAN_IN, 0, 11);
+        features.set(Feature.IN_CYCLE, 1, 1);
+        features.set(Feature.CHURN, 2, 500);
+        features.set(Feature.CHURN, 3, 500);
+        features.annotationFlags()[3] = transactional;
+
+        assertArrayEquals(new String[]{"HIGH", "LOW", "HIGH", "HIGH"}, rules.evaluate(features));
+        assertEquals(4, rules.getRuleCount());
+    }
+
+    @Test
+    void pluginRulesRunAfterTheConfiguredOnes() {
+        RiskRuleSet rules = RiskRuleSet.compile("override LOW when commentOnly", RiskRuleSet.DEFAULT_LEVELS, classifier)
+                .withRules(List.of((features, scores, levels) -> {
+                    for (int row = 0; row < scores.length; row++) scores[row] = 10;
+                }));
+        RiskFeatures features = new RiskFeatures(2);
+        features.set(Feature.COMMENT_ONLY, 0, 1);
+
+        assertArrayEquals(new String[]{"LOW", "CRITICAL"}, rules.evaluate(features));
+    }
+
+    @Test
+    void malformedRulesAreRejected() {
+        for (String rule : List.of("boost depth 2", "step depth", "step depth 1-1.0", "override HIGH if depth",
+                "flag Unknown 2.0", "step unknownFeature 1:1.0", "override HIGH when annotation")) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> RiskRuleSet.compile(rule, RiskRuleSet.DEFAULT_LEVELS, classifier), rule);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> RiskRuleSet.compile(RiskRuleSet.DEFAULT_RULES, "LOW 1.0", classifier));
+    }
+
+    /** calculateRisk as it was before the rules were configurable. */
+    private static String formerRisk(int depth, int affected, int avgComplexity, boolean criticalAnnotation,
+                                     boolean commentOnly, boolean criticalMethod) {
+        if (commentOnly) return "LOW";
+        if (criticalMethod && depth >= 3) return "CRITICAL";
+        double depthMultiplier = depth <= 1 ? 1.0 : depth == 2 ? 1.5 : 2.5;
+        double affectedMultiplier = affected <= 2 ? 1.0 : affected <= 5 ? 1.5 : affected <= 10 ? 2.0 : 2.5;
+        double complexityMultiplier = avgComplexity <= 5 ? 1.0 : avgComplexity <= 15 ? 1.5 : 2.0;
+        double score = depthMultiplier * affectedMultiplier * complexityMultiplier * (criticalAnnotation ? 3.0 : 1.0);
+        if (score <= 1.0) return "LOW";
+        if (score <= 2.0) return "MEDIUM";
+        if (score <= 3.5) return "HIGH";
+        return "CRITICAL";
+    }
+}
@@ -0,0 +1,102 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphNode;
+import com.impactai.impactai.observability.PipelineMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.impactai.impactai.service.ImpactAnalysisServiceTest.graph;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GraphQueryServiceTest {
+
+    private static final String REPO = "acme/shop";
+
+    private GraphBuilderService builder;
+    private PipelineMetrics metrics;
+    private GraphQueryService service;
+    private DependencyGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        builder = mock(GraphBuilderService.class);
+        metrics = mock(PipelineMetrics.class);
+        service = new GraphQueryService();
+        ReflectionTestUtils.setField(service, "graphBuilderService", builder);
+        ReflectionTestUtils.setField(service, "impactAnalysisService", ImpactAnalysisServiceTest.service(0, 0));
+        ReflectionTestUtils.setField(service, "pipelineMetrics", metrics);
+        ReflectionTestUtils.setField(service, "cacheEntries", 10);
+        graph = graph("a->b", "b->c", "c->d", "a->x", "x->d", "e->b", "f->b");
+        publish(graph);
+    }
+
+    @Test
+    void answersFromTheGraphsEdges() {
+        assertEquals(List.of("a", "e", "f"), service.callers(REPO, "b").getNodes());
+        assertEquals(List.of("b", "x"), service.callees(REPO, "a").getNodes());
+        assertEquals(List.of("a", "x", "d"), service.path(REPO, "a", "d").getNodes());
+        assertEquals(List.of("c"), service.path(REPO, "c", "c").getNodes());
+        assertEquals(List.of(), service.path(REPO, "d", "a").getNodes());
+        assertEquals(List.of("b", "c", "d"), service.impact(REPO, List.of("b")).getNodes());
+        assertThrows(NoSuchElementException.class, () -> service.callers(REPO, "missing"));
+    }
+
+    @Test
+    void pagesSliceTheFullResult() {
+        GraphQueryService.Result callers = service.callers(REPO, "b");
+
+        assertEquals(List.of("a", "e"), callers.page(0, 2));
+        assertEquals(List.of("f"), callers.page(1, 2));
+        assertEquals(List.of(), callers.page(2, 2));
+        assertEquals(List.of(), callers.page(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(graph.getVersion(), callers.getVersion());
+    }
+
+    @Test
+    void resultsAreCachedPerGraphVersion() {
+        GraphQueryService.Result first = service.callers(REPO, "b");
+        assertSame(first, service.callers(REPO, "b"));
+        verify(metrics).query(eq("callers"), eq(false), anyLong());
+        verify(metrics).query(eq("callers"), eq(true), anyLong());
+
+        DependencyGraph next = graph.copy();
+        next.addNode(new GraphNode(next.getSymbols(), "g", "method"));
+        next.addEdge("g", "b");
+        next.incrementVersion();
+        publish(next);
+
+        GraphQueryService.Result updated = service.callers(REPO, "b");
+        assertEquals(List.of("a", "e", "f", "g"), updated.getNodes());
+        assertEquals(next.getVersion(), updated.getVersion());
+        assertSame(updated, service.callers(REPO, "b"));
+    }
+
+    @Test
+    void resultsOfAReplacedVersionAreNotCached() {
+        DependencyGraph next = graph.copy();
+        next.incrementVersion();
+        // the query starts on the old version, which is replaced before it is cached
+        when(builder.getGraph(REPO)).thenReturn(graph, next);
+
+        GraphQueryService.Result stale = service.callers(REPO, "b");
+        assertEquals(graph.getVersion(), stale.getVersion());
+
+        publish(next);
+        GraphQueryService.Result current = service.callers(REPO, "b");
+        assertEquals(next.getVersion(), current.getVersion());
+        assertSame(current, service.callers(REPO, "b"));
+        verify(metrics, times(2)).query(eq("callers"), eq(false), anyLong());
+    }
+
+    private void publish(DependencyGraph published) {
+        when(builder.getGraph(REPO)).thenReturn(published);
+    }
+}
@@ -0,0 +1,113 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.graph.DependencyGraph;
+import com.impactai.impactai.graph.GraphNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpactAnalysisServiceTest {
+
+    @Test
+    void depthIsTheNumberOfLevelsCollected() {
+        // a reaches d in two hops via c; the longest path a-b-c-d has four nodes
+        DependencyGraph graph = graph("a->b", "b->c", "a->c", "c->d");
+
+        ImpactAnalysisService.ImpactReport report = service(0, 0).analyzeImpact(graph, List.of("a"));
+        assertEquals(3, report.getImpactDepth());
+        assertEquals(List.of("a", "c", "b", "d"), report.getAllImpactedNodes()); // c is more central than b
+        assertFalse(report.isTruncated());
+
+        // a cycle counts once
+        assertEquals(1, service(0, 0).analyzeImpact(graph("x->y", "y->x"), List.of("x")).getImpactDepth());
+        assertEquals(1, service(0, 0).analyzeImpact(graph, List.of("unknown")).getImpactDepth());
+    }
+
+    @Test
+    void depthLimitOnlyTruncatesWhenNodesAreLeftOut() {
+        DependencyGraph graph = graph("a->b", "b->c", "a->c", "c->d");
+
+        ImpactAnalysisService.ImpactReport exact = service(3, 0).analyzeImpact(graph, List.of("a"));
+        assertEquals(3, exact.getImpactDepth());
+        assertFalse(exact.isTruncated());
+
+        ImpactAnalysisService.ImpactReport cut = service(2, 0).analyzeImpact(graph, List.of("a"));
+        assertEquals(2, cut.getImpactDepth());
+        assertEquals(List.of("a", "c", "b"), cut.getAllImpactedNodes());
+        assertEquals("depth limit 2", cut.getTruncationReason());
+    }
+
+    @Test
+    void nodeBudgetKeepsTheMostCentralNodesOfALevel() {
+        // b is called by every caller, so it ranks first among a's callees
+        List<String> edges = new ArrayList<>(List.of("a->b", "a->c", "a->d", "b->e"));
+        for (int i = 0; i < 5; i++) edges.add("caller" + i + "->b");
+        DependencyGraph graph = graph(edges.toArray(new String[0]));
+
+        ImpactAnalysisService service = service(0, 0);
+        ReflectionTestUtils.setField(service, "maxNodes", 2);
+        ImpactAnalysisService.ImpactReport report = service.analyzeImpact(graph, List.of("a"));
+
+        assertEquals(List.of("a", "b"), report.getAllImpactedNodes());
+        assertEquals("node budget 2", report.getTruncationReason());
+        assertEquals(2, report.getImpactDepth());
+    }
+
+    @Test
+    void prefetchedAndSequentialTraversalsGiveTheSameReport() {
+        List<String> edges = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            changed.add("m" + i);
+            edges.add("m" + i + "->m" + (i + 1));
+            edges.add("m" + i + "->util" + (i % 7));
+            edges.add("util" + (i % 7) + "->core");
+        }
+        for (int maxNodes : new int[]{10_000, 30, 45}) {
+            ImpactAnalysisService sequential = service(0, 0);
+            ImpactAnalysisService prefetching = service(0, 2);
+            ReflectionTestUtils.setField(sequential, "maxNodes", maxNodes);
+            ReflectionTestUtils.setField(prefetching, "maxNodes", maxNodes);
+
+            // separate graphs, so neither run is served from the other's reach cache
+            ImpactAnalysisService.ImpactReport expected =
+                    sequential.analyzeImpact(graph(edges.toArray(new String[0])), changed);
+            ImpactAnalysisService.ImpactReport actual =
+                    prefetching.analyzeImpact(graph(edges.toArray(new String[0])), changed);
+            assertEquals(expected.getAllImpactedNodes(), actual.getAllImpactedNodes(), "budget " + maxNodes);
+            assertEquals(expected.getImpactedByNode(), actual.getImpactedByNode(), "budget " + maxNodes);
+            assertEquals(expected.getImpactDepth(), actual.getImpactDepth(), "budget " + maxNodes);
+            assertEquals(expected.getTruncationReason(), actual.getTruncationReason(), "budget " + maxNodes);
+        }
+    }
+
+    static ImpactAnalysisService service(int maxDepth, int parallelSources) {
+        ImpactAnalysisService service = new ImpactAnalysisService();
+        ReflectionTestUtils.setField(service, "maxDepthLimit", maxDepth);
+        ReflectionTestUtils.setField(service, "maxNodes", 10_000);
+        ReflectionTestUtils.setField(service, "timeBudgetMs", 0L);
+        ReflectionTestUtils.setField(service, "parallelFrontier", 0);
+        ReflectionTestUtils.setField(service, "parallelSources", parallelSources);
+        return service;
+    }
+
+    /** Graph of "from->to" edges between method nodes. */
+    static DependencyGraph graph(String... edges) {
+        DependencyGraph graph = new DependencyGraph();
+        for (String edge : edges) {
+            String[] ends = edge.split("->");
+            for (String id : ends) {
+                if (graph.getNode(id) == null) {
+                    graph.addNode(new GraphNode(graph.getSymbols(), id, "method"));
+                }
+            }
+            graph.addEdge(ends[0], ends[1]);
+        }
+        graph.incrementVersion();
+        return graph;
+    }
+}
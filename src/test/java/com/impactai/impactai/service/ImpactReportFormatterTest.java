@@ -0,0 +1,61 @@
+package com.impactai.impactai.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpactReportFormatterTest {
+
+    @Test
+    void listsTheTopRankedNodesAndCountsTheRest() {
+        List<String> ranked = new ArrayList<>(List.of("a", "b"));
+        for (int i = 0; i < 10_000; i++) ranked.add("app.Impacted" + i + ".run");
+        ImpactAnalysisService.ImpactReport report = report(List.of("a", "b"), ranked, "node budget 10000");
+
+        String comment = formatter(3).formatComment(report, "HIGH");
+
+        assertTrue(comment.contains("- `app.Impacted2.run`\n- _… 9997 more (node budget 10000)_\n"), comment);
+        assertFalse(comment.contains("app.Impacted3.run"));
+        assertTrue(comment.length() < 1_000);
+    }
+
+    @Test
+    void truncationMarkerCountsTheListedImpactedNodes() {
+        ImpactAnalysisService.ImpactReport report =
+                report(List.of("a"), List.of("a", "b", "c"), "time budget 5000 ms");
+
+        String comment = formatter(200).formatComment(report, "LOW");
+
+        assertTrue(comment.contains("- `c`\n- _… truncated after 2 impacted nodes (time budget 5000 ms)_\n"), comment);
+        assertFalse(formatter(0).formatComment(report(List.of("a"), List.of("a", "b"), null), "LOW").contains("…"));
+    }
+
+    @Test
+    void longChangeListsAreCappedToo() {
+        List<String> changed = List.of("a", "b", "c", "d");
+
+        String comment = formatter(2).formatComment(report(changed, changed, null), "LOW");
+
+        assertTrue(comment.contains("- `b`\n- _… 2 more_\n"), comment);
+        assertFalse(comment.contains("`c`"));
+    }
+
+    private static ImpactReportFormatter formatter(int reportNodes) {
+        ImpactReportFormatter formatter = new ImpactReportFormatter();
+        ReflectionTestUtils.setField(formatter, "reportNodes", reportNodes);
+        return formatter;
+    }
+
+    private static ImpactAnalysisService.ImpactReport report(List<String> changed, List<String> ranked,
+                                                             String truncationReason) {
+        ImpactAnalysisService.ImpactReport report =
+                new ImpactAnalysisService.ImpactReport(changed, ranked, 2, Map.of(), Map.of(), Map.of(), false, false);
+        report.setTruncationReason(truncationReason);
+        return report;
+    }
+}
@@ -0,0 +1,84 @@
+package com.impactai.impactai.service;
+
+import com.impactai.impactai.model.PRChangeInfo;
+import com.impactai.impactai.parser.java.FastJavaParserImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SemanticDiffServiceTest {
+
+    private static final String BASE = String.join("\n",
+            "package app;",
+            "",
+            "class Orders {",
+            "    int place(Order order) {",
+            "        int total = order.total();",
+            "        return charge(total);",
+            "    }",
+            "",
+            "    void cancel(Order order) {",
+            "        refund(order);",
+            "    }",
+            "}");
+
+    @TempDir
+    Path repo;
+
+    private GitHubPRFileFetcherService fetcher;
+    private SemanticDiffService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(repo.resolve("src/app"));
+        Files.writeString(repo.resolve("src/app/Orders.java"), BASE);
+
+        fetcher = mock(GitHubPRFileFetcherService.class);
+        service = new SemanticDiffService();
+        ReflectionTestUtils.setField(service, "prFileFetcher", fetcher);
+        ReflectionTestUtils.setField(service, "fastJavaParser", new FastJavaParserImpl());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxFiles", 50);
+    }
+
+    @Test
+    void dropsMethodsThatOnlyChangedInLayoutOrLocalNames() {
+        String head = BASE
+                .replace("int total = order.total();\n        return charge(total);",
+                        "// charge the whole order\n        int amount = order.total(); return charge(amount);")
+                .replace("refund(order);", "refund(order, true);");
+        when(fetcher.fetchFileContent("acme", "shop", "src/app/Orders.java", "head")).thenReturn(head);
+
+        List<String> kept = service.dropUnchangedMethods("acme", "shop", "head", repo.toString(),
+                List.of(modified("src/app/Orders.java")),
+                List.of("app.Orders.place", "app.Orders.cancel", "app.Billing.charge"));
+
+        assertEquals(List.of("app.Orders.cancel", "app.Billing.charge"), kept);
+    }
+
+    @Test
+    void onlyComparesModifiedJavaFilesWithLogicChanges() {
+        PRChangeInfo trivial = modified("src/app/Orders.java");
+        trivial.setChangeKind(PRChangeInfo.ChangeKind.COMMENT);
+        PRChangeInfo added = new PRChangeInfo("src/app/Orders.java", PRChangeInfo.ChangeType.ADDED);
+        PRChangeInfo python = modified("app/orders.py");
+
+        List<String> changed = List.of("app.Orders.place");
+        assertEquals(changed, service.dropUnchangedMethods("acme", "shop", "head", repo.toString(),
+                List.of(trivial, added, python), changed));
+        verify(fetcher, never()).fetchFileContent(any(), any(), any(), any());
+    }
+
+    private static PRChangeInfo modified(String path) {
+        return new PRChangeInfo(path, PRChangeInfo.ChangeType.MODIFIED);
+    }
+}
@@ -0,0 +1,93 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.PRChangeInfo.ChangeKind;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeClassifierTest {
+
+    @Test
+    void reindentedCodeIsWhitespace() {
+        String patch = "@@ -5,3 +5,3 @@\n"
+                + " void place() {\n"
+                + "-  charge(order);\n"
+                + "+        charge( order );\n"
+                + " }\n";
+        assertEquals(ChangeKind.WHITESPACE, ChangeClassifier.classify("src/Orders.java", patch));
+    }
+
+    @Test
+    void rewrappedJavadocIsAComment() {
+        String patch = "@@ -1,4 +1,5 @@\n"
+                + " /**\n"
+                + "- * Places the order and charges it.\n"
+                + "+ * Places the order\n"
+                + "+ * and charges the customer.\n"
+                + "  */\n"
+                + " void place() {\n";
+        assertEquals(ChangeKind.COMMENT, ChangeClassifier.classify("src/Orders.java", patch));
+    }
+
+    @Test
+    void commentMarkersInsideStringsAreCode() {
+        String patch = "@@ -1,1 +1,1 @@\n"
+                + "-String url = \"http://a\";\n"
+                + "+String url = \"http://b\";\n";
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("src/Orders.java", patch));
+    }
+
+    @Test
+    void removedAndReorderedImportsAreTrivial() {
+        String patch = "@@ -1,4 +1,3 @@\n"
+                + "-import java.util.List;\n"
+                + "-import java.util.Map;\n"
+                + "+import java.util.Map;\n"
+                + " import java.util.Set;\n"
+                + "-import static java.util.Objects.requireNonNull;\n";
+        ChangeKind kind = ChangeClassifier.classify("src/Orders.java", patch);
+        assertEquals(ChangeKind.IMPORT, kind);
+        assertTrue(kind.isTrivial());
+    }
+
+    @Test
+    void importMovedToAnotherHunkIsAReorder() {
+        String patch = "@@ -1,2 +1,1 @@\n"
+                + "-import app.billing.Invoice;\n"
+                + " import app.orders.Order;\n"
+                + "@@ -8,1 +7,2 @@\n"
+                + " import java.util.List;\n"
+                + "+import app.billing.Invoice;\n";
+        assertEquals(ChangeKind.IMPORT, ChangeClassifier.classify("src/Orders.java", patch));
+    }
+
+    @Test
+    void addedOrRetargetedImportIsLogic() {
+        String added = "@@ -1,1 +1,2 @@\n"
+                + " import java.util.List;\n"
+                + "+import app.billing.Invoice;\n";
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("src/Orders.java", added));
+
+        // same simple name, other type: every use of Date now means something else
+        String retargeted = "@@ -1,1 +1,1 @@\n"
+                + "-import java.util.Date;\n"
+                + "+import java.sql.Date;\n";
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("src/Orders.java", retargeted));
+
+        String wildcard = "@@ -1,1 +1,1 @@\n"
+                + "-import app.billing.Invoice;\n"
+                + "+import app.billing.*;\n";
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("src/Orders.java", wildcard));
+    }
+
+    @Test
+    void pythonCommentLinesAreCommentsAndUnknownFilesAreLogic() {
+        String patch = "@@ -1,2 +1,2 @@\n"
+                + "-# old note\n"
+                + "+# new note\n"
+                + " x = 1\n";
+        assertEquals(ChangeKind.COMMENT, ChangeClassifier.classify("app/orders.py", patch));
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("README.md", patch));
+        assertEquals(ChangeKind.LOGIC, ChangeClassifier.classify("src/Orders.java", ""));
+    }
+}
@@ -0,0 +1,106 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.LineRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiffScannerTest {
+
+    @Test
+    void hunkHeaderWithoutCountsDefaultsToOneLine() {
+        DiffScanner.Result diff = DiffScanner.scan("@@ -1 +1 @@\n-int a = 1;\n+int a = 2;\n");
+
+        assertEquals(1, diff.getHunks().size());
+        DiffScanner.Hunk hunk = diff.getHunks().get(0);
+        assertEquals(1, hunk.getOldStart());
+        assertEquals(1, hunk.getOldCount());
+        assertEquals(1, hunk.getNewStart());
+        assertEquals(1, hunk.getNewCount());
+        assertEquals("[[1, 1]]", diff.getAddedRanges().toString());
+        assertEquals("[[1, 1]]", diff.getRemovedRanges().toString());
+    }
+
+    @Test
+    void pureDeletionHunkHasOnlyOldSideRanges() {
+        String patch = "@@ -10,5 +10,2 @@ class Orders {\n"
+                + "     void place() {\n"
+                + "-        audit();\n"
+                + "-        // log it\n"
+                + "-        notify();\n"
+                + "     }\n";
+        DiffScanner.Result diff = DiffScanner.scan(patch);
+
+        assertEquals(List.of(), diff.getAddedRanges());
+        assertEquals("[[11, 13]]", diff.getRemovedRanges().toString());
+        assertEquals(0, diff.getAddedLines());
+        assertEquals(3, diff.getRemovedLines());
+        assertEquals(1, diff.getRemovedCommentLines());
+        assertFalse(diff.isCommentOnly());
+    }
+
+    @Test
+    void noNewlineMarkerIsNotALine() {
+        String patch = "@@ -3,2 +3,2 @@\n"
+                + " }\n"
+                + "-}\n"
+                + "\\ No newline at end of file\n"
+                + "+}\n"
+                + "\\ No newline at end of file";
+        DiffScanner.Result diff = DiffScanner.scan(patch);
+
+        assertEquals("[[4, 4]]", diff.getAddedRanges().toString());
+        assertEquals("[[4, 4]]", diff.getRemovedRanges().toString());
+        assertEquals(1, diff.getAddedLines());
+        assertEquals(1, diff.getRemovedLines());
+    }
+
+    @Test
+    void rangesAreSplitByContextAndHunks() {
+        String patch = "@@ -1,4 +1,5 @@\r\n"
+                + " a\r\n"
+                + "+b\r\n"
+                + "+c\r\n"
+                + " d\r\n"
+                + "-e\r\n"
+                + "+E\r\n"
+                + " f\r\n"
+                + "@@ -40,2 +41,3 @@\n"
+                + " x\n"
+                + "+  // y\n"
+                + " z\n";
+        DiffScanner.Result diff = DiffScanner.scan(patch);
+
+        assertEquals(2, diff.getHunks().size());
+        assertEquals(List.of("[2, 3]", "[5, 5]", "[42, 42]"),
+                diff.getAddedRanges().stream().map(LineRange::toString).toList());
+        assertEquals("[[3, 3]]", diff.getRemovedRanges().toString());
+        // b, c go before old line 2 and y before old line 41; E replaces e, a removed line
+        assertEquals(List.of("[2, 2]", "[41, 41]"),
+                diff.getInsertedRanges().stream().map(LineRange::toString).toList());
+        assertEquals(4, diff.getAddedLines());
+        assertEquals(1, diff.getAddedCommentLines());
+        assertEquals(patch.indexOf(" x"), diff.getHunks().get(1).getBodyStart());
+        assertEquals(patch.length(), diff.getHunks().get(1).getBodyEnd());
+    }
+
+    @Test
+    void insertionEndingAHunkIsClosedByTheNextHunkOrTheEndOfThePatch() {
+        DiffScanner.Result diff = DiffScanner.scan("@@ -3,1 +3,2 @@\n x\n+y\n@@ -20,1 +21,1 @@\n-a\n+b\n");
+
+        assertEquals("[[4, 4]]", diff.getInsertedRanges().toString());
+        assertEquals("[[20, 20]]", diff.getRemovedRanges().toString());
+        assertEquals("[[4, 4]]", DiffScanner.scan("@@ -3,1 +3,2 @@\n x\n+y").getInsertedRanges().toString());
+    }
+
+    @Test
+    void linesBeforeTheFirstHunkAndMalformedHeadersAreIgnored() {
+        DiffScanner.Result diff = DiffScanner.scan("+not in a hunk\n@@ -x +1 @@\n+still not\n");
+
+        assertEquals(List.of(), diff.getHunks());
+        assertEquals(0, diff.getAddedLines());
+        assertEquals(0, DiffScanner.scan(null).getAddedLines());
+    }
+}
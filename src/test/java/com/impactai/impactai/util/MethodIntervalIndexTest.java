@@ -0,0 +1,103 @@
+package com.impactai.impactai.util;
+
+import com.impactai.impactai.model.LineRange;
+import com.impactai.impactai.parser.ParsedMethodNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodIntervalIndexTest {
+
+    @Test
+    void findsTheSameMethodsAsABruteForceOverlapCheck() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            // nested spans (inner and anonymous classes), invalid spans and single lines included
+            List<ParsedMethodNode> methods = new ArrayList<>();
+            int count = random.nextInt(80);
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(400) - 5;
+                int end = start + (random.nextInt(4) == 0 ? -1 : random.nextInt(60));
+                methods.add(method("m" + i, start, end));
+            }
+            List<LineRange> changed = ranges(random, random.nextInt(6));
+            List<LineRange> removed = ranges(random, random.nextInt(3));
+
+            List<ParsedMethodNode> expected = new ArrayList<>();
+            for (ParsedMethodNode method : methods) {
+                if (overlapsAny(method, changed) || overlapsAny(method, removed)) {
+                    expected.add(method);
+                }
+            }
+            expected.sort(Comparator.comparingInt(ParsedMethodNode::getStartLine));
+
+            List<ParsedMethodNode> found = new MethodIntervalIndex(methods).findOverlapping(changed, removed);
+            assertEquals(names(expected), names(found), "round " + round);
+        }
+    }
+
+    @Test
+    void removedLinesAreMatchedInTheFileTheSpansComeFrom() {
+        // base file: place() spans 10-14 and loses lines 11-13, nothing else changes
+        List<ParsedMethodNode> baseMethods = List.of(method("place", 10, 14), method("cancel", 16, 20));
+        DiffScanner.Result diff = DiffScanner.scan("@@ -10,5 +10,2 @@\n a\n-b\n-c\n-d\n e\n");
+
+        List<ParsedMethodNode> modified = MethodModificationDetector.findModifiedMethods(
+                baseMethods, diff.getAddedRanges(), diff.getRemovedRanges());
+        assertEquals(List.of("place"), names(modified));
+    }
+
+    @Test
+    void linesInsertedAboveAMethodDoNotShiftLaterChanges() {
+        // base file: place() 10-14, cancel() 16-20. The first hunk adds three lines to place(),
+        // the second adds one to cancel() at base line 18, which is line 21 in the new file
+        List<ParsedMethodNode> baseMethods = List.of(method("place", 10, 14), method("cancel", 16, 20));
+        DiffScanner.Result diff = DiffScanner.scan("@@ -11,1 +11,4 @@\n a\n+b\n+c\n+d\n"
+                + "@@ -17,2 +20,3 @@\n x\n+y\n w\n");
+
+        List<ParsedMethodNode> modified = MethodModificationDetector.findModifiedMethods(
+                baseMethods, diff.getInsertedRanges(), diff.getRemovedRanges());
+        assertEquals(List.of("place", "cancel"), names(modified));
+
+        // numbered like the new file, the second addition lies past cancel()
+        assertEquals(List.of("place"), names(MethodModificationDetector.findModifiedMethods(
+                baseMethods, diff.getAddedRanges(), diff.getRemovedRanges())));
+    }
+
+    private static boolean overlapsAny(ParsedMethodNode method, List<LineRange> ranges) {
+        for (LineRange range : ranges) {
+            if (method.getEndLine() >= method.getStartLine() && MethodModificationDetector.overlaps(
+                    range.getStartLine(), range.getEndLine(), method.getStartLine(), method.getEndLine())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<LineRange> ranges(Random random, int count) {
+        List<LineRange> ranges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(450);
+            ranges.add(new LineRange(start, start + random.nextInt(10)));
+        }
+        return ranges;
+    }
+
+    private static ParsedMethodNode method(String name, int start, int end) {
+        ParsedMethodNode method = new ParsedMethodNode();
+        method.setMethodName(name);
+        method.setClassName("app.Orders");
+        method.setStartLine(start);
+        method.setEndLine(end);
+        return method;
+    }
+
+    private static List<String> names(List<ParsedMethodNode> methods) {
+        return methods.stream().map(ParsedMethodNode::getMethodName).toList();
+    }
+}